@@ -0,0 +1,76 @@
+package src.jmh.java.processSale.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+
+import src.main.java.processSale.model.RegisterCashCompartment;
+
+/**
+ * Creates the test data shared by the benchmarks.
+ */
+final class BenchmarkData {
+    static final String MISSING_ITEM_ID = "does-not-exist";
+
+    /**
+     * Prevents instantiation, since this class only holds helper methods.
+     */
+    private BenchmarkData() {
+    }
+
+    /**
+     * Writes an inventory file with the specified number of items. The items get
+     * the IDs {@code 0} to {@code catalogSize - 1}.
+     *
+     * @param catalogSize The number of items to write.
+     * @return The inventory file, deleted when the JVM exits.
+     * @throws IOException if the file cannot be written.
+     */
+    static File createInventoryFile(int catalogSize) throws IOException {
+        File inventoryFile = Files.createTempFile("inventory", ".txt").toFile();
+        inventoryFile.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(inventoryFile)) {
+            for (int id = 0; id < catalogSize; id++) {
+                writer.printf("Item%d %d Benchmark_item. %d.%02d 0.25%n", id, id, 10 + id % 90, id % 100);
+            }
+        }
+        return inventoryFile;
+    }
+
+    /**
+     * Creates a cash register with an observer that ignores all updates.
+     *
+     * @return The cash register.
+     */
+    static RegisterCashCompartment createCashRegister() {
+        RegisterCashCompartment cashRegister = new RegisterCashCompartment();
+        cashRegister.addObserver(sumOfPayments -> {
+        });
+        return cashRegister;
+    }
+
+    /**
+     * Replaces {@code System.out} with a stream that discards everything, so
+     * console output does not dominate the measurements.
+     *
+     * @return The original {@code System.out}, to be restored afterwards.
+     */
+    static PrintStream silenceConsole() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        return original;
+    }
+
+    /**
+     * Creates a price with two decimals.
+     *
+     * @param cents The price in cents.
+     * @return The price.
+     */
+    static BigDecimal price(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
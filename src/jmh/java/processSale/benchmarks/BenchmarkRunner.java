@@ -0,0 +1,30 @@
+package src.jmh.java.processSale.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with allocation profiling enabled. Accepts the same
+ * command-line options as the JMH runner, for example a benchmark name regex
+ * or {@code -rf json} to save the results.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks selected on the command line, or all of them.
+     *
+     * @param args JMH command-line options.
+     * @throws RunnerException             if a benchmark fails.
+     * @throws CommandLineOptionException  if the options cannot be parsed.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,53 @@
+package src.jmh.java.processSale.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import src.main.java.processSale.model.RegisterCashCompartment;
+
+/**
+ * Measures adding payments to a cash register shared by several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CashRegisterBenchmark {
+    private RegisterCashCompartment cashRegister;
+    private BigDecimal payment;
+
+    /**
+     * Creates the shared cash register.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        cashRegister = BenchmarkData.createCashRegister();
+        payment = BenchmarkData.price(12_345);
+    }
+
+    /**
+     * Adds a payment from a single thread.
+     *
+     * @return The total cash in the register.
+     */
+    @Benchmark
+    @Threads(1)
+    public BigDecimal addToCashCompartmentUncontended() {
+        return cashRegister.addToCashCompartment(payment);
+    }
+
+    /**
+     * Adds a payment from four threads at once.
+     *
+     * @return The total cash in the register.
+     */
+    @Benchmark
+    @Threads(4)
+    public BigDecimal addToCashCompartmentContended() {
+        return cashRegister.addToCashCompartment(payment);
+    }
+}
@@ -0,0 +1,73 @@
+package src.jmh.java.processSale.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import src.main.java.processSale.integration.Inventory;
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.ItemDTO;
+
+/**
+ * Measures item lookups in the inventory, for items that exist and items that
+ * do not, with a small and a large catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+    @Param({ "6", "100000" })
+    private int catalogSize;
+
+    private Inventory inventory;
+    private String[] itemIDs;
+    private int next;
+
+    /**
+     * Loads an inventory of the benchmarked size.
+     *
+     * @throws IOException if the inventory file cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        PrintStream console = BenchmarkData.silenceConsole();
+        inventory = new Inventory(BenchmarkData.createInventoryFile(catalogSize));
+        System.setOut(console);
+        itemIDs = new String[1024];
+        for (int i = 0; i < itemIDs.length; i++) {
+            itemIDs[i] = Integer.toString((int) ((i * 2654435761L) % catalogSize));
+        }
+    }
+
+    /**
+     * Looks up an item that exists.
+     *
+     * @return The found item.
+     * @throws ItemNotFoundException never, since the item exists.
+     */
+    @Benchmark
+    public ItemDTO getItemHit() throws ItemNotFoundException {
+        next = (next + 1) & (itemIDs.length - 1);
+        return inventory.getItem(itemIDs[next]);
+    }
+
+    /**
+     * Looks up an item that does not exist.
+     *
+     * @return The exception thrown for the missing item.
+     */
+    @Benchmark
+    public ItemNotFoundException getItemMiss() {
+        try {
+            inventory.getItem(BenchmarkData.MISSING_ITEM_ID);
+            return null;
+        } catch (ItemNotFoundException e) {
+            return e;
+        }
+    }
+}
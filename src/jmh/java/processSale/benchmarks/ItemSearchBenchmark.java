@@ -0,0 +1,75 @@
+package src.jmh.java.processSale.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import src.main.java.processSale.integration.Inventory;
+import src.main.java.processSale.integration.ItemSearchIndex;
+import src.main.java.processSale.model.dto.ItemDTO;
+
+/**
+ * Measures searches for items by identifier prefix and by part of the name,
+ * with a small and a large catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final int LIMIT = 10;
+
+    @Param({ "6", "100000" })
+    private int catalogSize;
+
+    private ItemSearchIndex index;
+    private String[] prefixes;
+    private String[] nameParts;
+    private int next;
+
+    /**
+     * Builds a search index over an inventory of the benchmarked size.
+     *
+     * @throws IOException if the inventory file cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        PrintStream console = BenchmarkData.silenceConsole();
+        index = new Inventory(BenchmarkData.createInventoryFile(catalogSize)).createSearchIndex();
+        System.setOut(console);
+        prefixes = new String[1024];
+        nameParts = new String[prefixes.length];
+        for (int i = 0; i < prefixes.length; i++) {
+            String id = Integer.toString((int) ((i * 2654435761L) % catalogSize));
+            prefixes[i] = id.substring(0, (id.length() + 1) / 2);
+            nameParts[i] = "m" + id;
+        }
+    }
+
+    /**
+     * Searches for the items whose identifier starts with a prefix.
+     *
+     * @return The matching items.
+     */
+    @Benchmark
+    public List<ItemDTO> searchByID() {
+        next = (next + 1) & (prefixes.length - 1);
+        return index.searchByID(prefixes[next], LIMIT);
+    }
+
+    /**
+     * Searches for the items whose name contains part of a name.
+     *
+     * @return The matching items.
+     */
+    @Benchmark
+    public List<ItemDTO> searchByName() {
+        next = (next + 1) & (nameParts.length - 1);
+        return index.searchByName(nameParts[next], LIMIT);
+    }
+}
@@ -0,0 +1,84 @@
+package src.jmh.java.processSale.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import src.main.java.processSale.integration.Printer;
+import src.main.java.processSale.integration.ReceiptRenderer;
+import src.main.java.processSale.model.InsufficientPaymentException;
+import src.main.java.processSale.model.Sale;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.model.dto.TimeOfSaleDTO;
+
+/**
+ * Measures rendering and printing a receipt. The console output is discarded,
+ * so the benchmark measures formatting and the writes to {@code System.out}.
+ * Rendering alone is measured with a channel that discards its input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReceiptBenchmark {
+    @Param({ "5", "50" })
+    private int lineCount;
+
+    private Printer printer;
+    private ReceiptRenderer renderer;
+    private TimeOfSaleDTO timeOfSale;
+    private SaleSummaryDTO saleSummary;
+    private PrintStream console;
+
+    /**
+     * Creates a paid sale with the benchmarked number of lines.
+     *
+     * @throws InsufficientPaymentException never, since the payment is large.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws InsufficientPaymentException {
+        console = BenchmarkData.silenceConsole();
+        printer = new Printer();
+        renderer = new ReceiptRenderer(Channels.newChannel(OutputStream.nullOutputStream()));
+        Sale sale = new Sale(BenchmarkData.createCashRegister());
+        for (int i = 0; i < lineCount; i++) {
+            sale.addItem(new ItemDTO("Item" + i, "receipt-" + i, "Benchmark_item.",
+                    BenchmarkData.price(1990 + i), new BigDecimal("0.12")));
+        }
+        timeOfSale = sale.getTimeOfSale();
+        printer.createReceipt(timeOfSale);
+        saleSummary = sale.processSale(BigDecimal.valueOf(1_000_000));
+    }
+
+    /**
+     * Restores the console after the benchmark.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    /**
+     * Renders and prints the receipt.
+     */
+    @Benchmark
+    public void printReceipt() {
+        printer.printReceipt(saleSummary);
+    }
+
+    /**
+     * Renders the receipt into the reused buffer and writes it to a channel
+     * that discards it.
+     */
+    @Benchmark
+    public void renderReceipt() {
+        renderer.print(timeOfSale, saleSummary);
+    }
+}
@@ -0,0 +1,84 @@
+package src.jmh.java.processSale.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import src.main.java.processSale.model.InsufficientPaymentException;
+import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.model.Sale;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+
+/**
+ * Measures registering items in a sale and finishing a sale.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaleBenchmark {
+    @Param({ "20" })
+    private int basketSize;
+
+    private RegisterCashCompartment cashRegister;
+    private ItemDTO[] basket;
+    private Sale openSale;
+    private BigDecimal payment;
+
+    /**
+     * Creates the items of the basket and a sale that already contains them.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        cashRegister = BenchmarkData.createCashRegister();
+        basket = new ItemDTO[basketSize];
+        for (int i = 0; i < basketSize; i++) {
+            basket[i] = new ItemDTO("Item" + i, "bench-" + i, "Benchmark_item.",
+                    BenchmarkData.price(1000 + i * 95L), new BigDecimal("0.25"));
+        }
+        openSale = new Sale(cashRegister);
+        for (ItemDTO item : basket) {
+            openSale.addItem(item);
+        }
+        payment = BigDecimal.valueOf(1_000_000);
+    }
+
+    /**
+     * Adds every item of the basket to a new sale.
+     *
+     * @return The sale.
+     */
+    @Benchmark
+    public Sale addItem() {
+        Sale sale = new Sale(cashRegister);
+        for (ItemDTO item : basket) {
+            sale.addItem(item);
+        }
+        return sale;
+    }
+
+    /**
+     * Increases the quantity of an item that is already in the sale.
+     *
+     * @return The printout of the updated item.
+     */
+    @Benchmark
+    public String increaseItemQuantity() {
+        return openSale.increaseItemQuantity(basket[0].getID());
+    }
+
+    /**
+     * Pays for a sale containing the whole basket.
+     *
+     * @return The summary of the paid sale.
+     * @throws InsufficientPaymentException never, since the payment is large.
+     */
+    @Benchmark
+    public SaleSummaryDTO processSale() throws InsufficientPaymentException {
+        return openSale.processSale(payment);
+    }
+}
@@ -0,0 +1,53 @@
+package src.main.java.processSale.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * How register sessions and their post-payment work are executed by a server.
+ */
+public enum ExecutionMode {
+    /**
+     * Commands run on the I/O thread that received them. Cheapest when every
+     * call is fast, but a slow call stalls all connections of that thread.
+     */
+    INLINE,
+
+    /**
+     * Commands run on a fixed pool of platform threads. A blocking call ties up
+     * one pool thread, so the pool size limits how many calls can block at
+     * once.
+     */
+    PLATFORM_POOL,
+
+    /**
+     * Commands run on virtual threads, so a blocking call only parks a virtual
+     * thread and thousands of open sales need no more than a few OS threads.
+     * Requires a JVM with virtual threads.
+     */
+    VIRTUAL_THREADS;
+
+    /**
+     * Creates the executor of this mode.
+     *
+     * @param platformThreads The number of threads of a
+     *                        {@link #PLATFORM_POOL}. Ignored by other modes.
+     * @param namePrefix      The prefix of the names of platform threads.
+     * @return The executor, or {@code null} for {@link #INLINE}.
+     * @throws UnsupportedOperationException if {@link #VIRTUAL_THREADS} is used
+     *                                       on a JVM without virtual threads.
+     */
+    public ExecutorService newExecutor(int platformThreads, String namePrefix) {
+        switch (this) {
+            case PLATFORM_POOL:
+                return Executors.newFixedThreadPool(platformThreads, ThreadPools.daemonThreadFactory(namePrefix));
+            case VIRTUAL_THREADS:
+                if (!ThreadPools.hasVirtualThreads()) {
+                    throw new UnsupportedOperationException("Virtual threads require Java 21 or later.");
+                }
+                return ThreadPools.newPerTaskExecutor(namePrefix);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package src.main.java.processSale.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a group of independent tasks concurrently and waits for all of them,
+ * like a structured task scope: no task outlives the call. A failing task
+ * does not stop the others, since they do not depend on it. Once every task
+ * has finished, the exception of the first task to fail is rethrown to the
+ * caller, with the exceptions of the other failed tasks suppressed in it.
+ */
+public final class FanOut {
+
+    /**
+     * Prevents instantiation, since this class only holds helper methods.
+     */
+    private FanOut() {
+    }
+
+    /**
+     * Runs the tasks concurrently on an executor and waits until all of them
+     * have completed, whether or not some of them failed.
+     *
+     * @param executor The executor running the tasks.
+     * @param tasks    The tasks to run.
+     * @throws RuntimeException      the exception of the first task that
+     *                               failed, after every other task has
+     *                               completed. The exceptions of the other
+     *                               failed tasks are suppressed in it.
+     * @throws IllegalStateException if the calling thread is interrupted while
+     *                               waiting. The tasks are cancelled and the
+     *                               interrupt status is kept.
+     */
+    public static void runAll(ExecutorService executor, Runnable... tasks) {
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> forked = new ArrayList<>(tasks.length);
+        for (Runnable task : tasks) {
+            forked.add(completion.submit(task, null));
+        }
+        Throwable failure = null;
+        try {
+            for (int i = 0; i < tasks.length; i++) {
+                try {
+                    completion.take().get();
+                } catch (ExecutionException e) {
+                    failure = collect(failure, e.getCause());
+                } catch (CancellationException e) {
+                    failure = collect(failure, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll(forked);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for concurrent tasks.", e);
+        }
+        if (failure != null) {
+            throw rethrowable(failure);
+        }
+    }
+
+    /**
+     * Adds the failure of a task to the failures collected so far.
+     *
+     * @param first   The first failure, or {@code null} if no task has failed.
+     * @param failure The failure of a task.
+     * @return The first failure, with {@code failure} suppressed in it, or
+     *         {@code failure} if it is the first.
+     */
+    private static Throwable collect(Throwable first, Throwable failure) {
+        if (first == null) {
+            return failure;
+        }
+        if (failure != first) {
+            first.addSuppressed(failure);
+        }
+        return first;
+    }
+
+    /**
+     * Cancels every task that has not completed.
+     *
+     * @param forked The futures of the tasks.
+     */
+    private static void cancelAll(List<Future<Void>> forked) {
+        for (Future<Void> future : forked) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Converts the failure of a task into an unchecked exception.
+     *
+     * @param failure The exception thrown by the task.
+     * @return The failure itself if it is unchecked, otherwise the failure
+     *         wrapped in an {@link IllegalStateException}.
+     * @throws Error if the failure is an error.
+     */
+    private static RuntimeException rethrowable(Throwable failure) {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        }
+        return new IllegalStateException(failure);
+    }
+}
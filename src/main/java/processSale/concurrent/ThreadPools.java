@@ -0,0 +1,79 @@
+package src.main.java.processSale.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors used by the servers of the application. The
+ * application targets Java 17, so virtual threads are used when the running
+ * JVM provides them, and small daemon platform threads otherwise.
+ */
+public final class ThreadPools {
+
+    /**
+     * Prevents instantiation, since this class only holds factory methods.
+     */
+    private ThreadPools() {
+    }
+
+    /**
+     * Creates an executor that runs every task on a new virtual thread, or on a
+     * cached daemon platform thread if the JVM has no virtual threads.
+     *
+     * @param namePrefix The prefix of the names of the platform threads.
+     * @return The executor.
+     */
+    public static ExecutorService newPerTaskExecutor(String namePrefix) {
+        ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+        if (virtualThreads != null) {
+            return virtualThreads;
+        }
+        return Executors.newCachedThreadPool(daemonThreadFactory(namePrefix));
+    }
+
+    /**
+     * Checks if the running JVM provides virtual threads.
+     *
+     * @return {@code true} if tasks can run on virtual threads.
+     */
+    public static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a thread factory for named daemon platform threads.
+     *
+     * @param namePrefix The prefix of the thread names, followed by a number.
+     * @return The thread factory.
+     */
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return task -> {
+            Thread thread = new Thread(task, namePrefix + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Calls {@code Executors.newVirtualThreadPerTaskExecutor()} if it exists.
+     *
+     * @return The executor, or {@code null} if the JVM has no virtual threads.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
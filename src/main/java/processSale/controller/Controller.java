@@ -1,10 +1,20 @@
 package src.main.java.processSale.controller;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
+import src.main.java.processSale.concurrent.FanOut;
 import src.main.java.processSale.integration.*;
 import src.main.java.processSale.model.*;
 import src.main.java.processSale.model.dto.*;
+import src.main.java.processSale.monitoring.MetricsSnapshot;
+import src.main.java.processSale.monitoring.SaleMetrics;
+import src.main.java.processSale.monitoring.SaleOperation;
+import src.main.java.processSale.monitoring.events.*;
 import src.main.java.processSale.view.*;
 
 /**
@@ -13,14 +23,34 @@ import src.main.java.processSale.view.*;
  * handling user input and coordinating updates across the system.
  */
 public class Controller {
+    private static final String DEFAULT_REGISTER_ID = "register-1";
+    private static final String INVENTORY_SYSTEM = "Inventory";
+    private static final String ACCOUNTING_SYSTEM = "Account";
+    private static final String PRINTER_SYSTEM = "Printer";
+    private static final String CUSTOMER_SYSTEM = "Customer Registry";
+    private static final String ARCHIVE_SYSTEM = "Receipt Archive";
+
     private final Printer printer;                      // Handles receipt printing
-    private final Inventory externalInventory;          // Manages inventory operations
+    private final InventoryClient externalInventory;    // Manages inventory operations
     private final Discount discountDatabase;            // Handles discount operations
     private final Account externalAccounting;           // Handles accounting operations
     private final RegisterCashCompartment cashRegister; // Manages cash in register
-    private View view;                                  // The view layer for user interaction
+    private final Clock clock;                          // Provides the time of each sale
+    private SaleDisplay view;                           // The view layer for user interaction
     private Sale currentSale;                           // Represents the ongoing sale
     private Logger logger;                              // Handles logging of errors and events
+    private BestSellerSketch bestSellers;               // Tracks best-selling items across sales
+    private volatile ItemSearchIndex searchIndex;       // Finds items by partial identifier or name, if set
+    private SaleMetrics metrics;                        // Records latencies and error counts
+    private String registerID = DEFAULT_REGISTER_ID;    // Identifies this register in recorded events
+    private ExecutorService postPaymentExecutor;        // Runs the post-payment steps concurrently, if set
+    private CircuitBreaker accountingBreaker;           // Guards the accounting system, if set
+    private CircuitBreaker printerBreaker;              // Guards the receipt printer, if set
+    private OfflineSaleQueue accountingQueue;           // Queues sales for the accounting system, if set
+    private OfflineSaleQueue inventoryQueue;            // Queues sales for the inventory system, if set
+    private volatile CustomerRegistry customerRegistry; // Verifies loyalty program members, if set
+    private String currentCustomerID;                   // The loyalty card scanned in the sale, or null
+    private ReceiptArchive receiptArchive;              // Keeps the receipts of paid sales, if set
 
     /**
      * Initializes the Controller with the required external system dependencies.
@@ -32,22 +62,42 @@ public class Controller {
      * @param externalAccounting The accounting system for recording transactions.
      * @param cashRegister       The cash register compartment.
      */
-    public Controller(Printer printer, Inventory externalInventory, Discount discountDatabase,
+    public Controller(Printer printer, InventoryClient externalInventory, Discount discountDatabase,
             Account externalAccounting, RegisterCashCompartment cashRegister) {
+        this(printer, externalInventory, discountDatabase, externalAccounting, cashRegister,
+                Clock.systemDefaultZone());
+    }
+
+    /**
+     * Initializes the Controller with the required external system dependencies
+     * and the clock that provides the time of each sale.
+     *
+     * @param printer            The printer instance for printing receipts.
+     * @param externalInventory  The inventory system for retrieving item
+     *                           information.
+     * @param discountDatabase   The discount system for applying discounts.
+     * @param externalAccounting The accounting system for recording transactions.
+     * @param cashRegister       The cash register compartment.
+     * @param clock              The clock that provides the time of each sale.
+     */
+    public Controller(Printer printer, InventoryClient externalInventory, Discount discountDatabase,
+            Account externalAccounting, RegisterCashCompartment cashRegister, Clock clock) {
         this.printer = printer;
         this.externalInventory = externalInventory;
         this.discountDatabase = discountDatabase;
         this.externalAccounting = externalAccounting;
         this.cashRegister = cashRegister;
+        this.clock = clock;
     }
 
     /**
      * Sets the view instance for the controller, enabling communication with the
      * view layer.
      *
-     * @param view The view instance to be set.
+     * @param view The view instance to be set, or any other {@link SaleDisplay}
+     *             when the controller runs without a user interface.
      */
-    public void setView(View view) {
+    public void setView(SaleDisplay view) {
         this.view = view;
     }
 
@@ -60,6 +110,220 @@ public class Controller {
         this.logger = logger;
     }
 
+    /**
+     * Sets the sketch that tracks best-selling items. Every completed sale is
+     * recorded in the sketch. The same sketch can be shared by several
+     * controllers to track best sellers across registers.
+     *
+     * @param bestSellers The {@link BestSellerSketch} to record sales in.
+     */
+    public void setBestSellerSketch(BestSellerSketch bestSellers) {
+        this.bestSellers = bestSellers;
+    }
+
+    /**
+     * Sets the index used to search for items by partial identifier or name.
+     * The index may be set while the register is in use, as when it is built
+     * in the background after startup.
+     *
+     * @param searchIndex The {@link ItemSearchIndex} over the catalog.
+     */
+    public void setSearchIndex(ItemSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Sets the registry used to verify that a customer is a member of the
+     * loyalty program before member prices are given. The registry may be
+     * set while the register is in use.
+     *
+     * @param customerRegistry The {@link CustomerRegistry}.
+     */
+    public void setCustomerRegistry(CustomerRegistry customerRegistry) {
+        this.customerRegistry = customerRegistry;
+    }
+
+    /**
+     * Searches for items by the start of their identifier, or by any part of
+     * their name or description.
+     *
+     * @param query The text keyed by the cashier.
+     * @param limit The largest number of items to return.
+     * @return At most {@code limit} matching items, best match first. Empty if
+     *         no search index has been set.
+     */
+    public List<ItemDTO> searchItems(String query, int limit) {
+        ItemSearchIndex index = searchIndex;
+        if (index == null) {
+            return List.of();
+        }
+        return index.search(query, limit);
+    }
+
+    /**
+     * Retrieves the current best-selling items.
+     *
+     * @param n The maximum number of items to retrieve.
+     * @return A list of at most {@code n} best sellers, ordered by estimated
+     *         quantity sold. Empty if no sketch has been set.
+     */
+    public List<BestSellerDTO> getBestSellers(int n) {
+        if (bestSellers == null) {
+            return List.of();
+        }
+        return bestSellers.topN(n);
+    }
+
+    /**
+     * Sets the identifier of the register this controller serves. The
+     * identifier is included in the Java Flight Recorder events emitted by the
+     * controller.
+     *
+     * @param registerID The unique identifier of the register.
+     */
+    public void setRegisterID(String registerID) {
+        this.registerID = registerID;
+    }
+
+    /**
+     * Retrieves the identifier of the register this controller serves.
+     *
+     * @return The unique identifier of the register.
+     */
+    public String getRegisterID() {
+        return registerID;
+    }
+
+    /**
+     * Tells whether a sale has been started, so items can be registered.
+     *
+     * @return {@code true} if a sale has been started.
+     */
+    public boolean isSaleInProgress() {
+        return currentSale != null;
+    }
+
+    /**
+     * Sets the executor that runs the steps after a payment concurrently:
+     * printing the receipt, updating the inventory, recording the sale in the
+     * accounting system and recording the best sellers. The payment completes
+     * when all steps have completed. A failing step does not stop the others,
+     * and its failure is reported once they have completed. Without an
+     * executor, the steps run one after the other.
+     *
+     * @param postPaymentExecutor The executor, or {@code null} to run the steps
+     *                            on the calling thread.
+     */
+    public void setPostPaymentExecutor(ExecutorService postPaymentExecutor) {
+        this.postPaymentExecutor = postPaymentExecutor;
+    }
+
+    /**
+     * Sets the circuit breaker that guards the calls to the accounting system.
+     * While the breaker is open, sales are completed without waiting for the
+     * accounting system, and the failure is logged.
+     *
+     * @param accountingBreaker The circuit breaker, or {@code null} to call the
+     *                          accounting system directly.
+     */
+    public void setAccountingBreaker(CircuitBreaker accountingBreaker) {
+        this.accountingBreaker = accountingBreaker;
+    }
+
+    /**
+     * Sets the queues through which paid sales reach the accounting and
+     * inventory systems in offline mode. A queued sale is delivered in the
+     * background, so a slow or unreachable system never holds up the register.
+     *
+     * @param accountingQueue The queue for the accounting system, or
+     *                        {@code null} to call it directly.
+     * @param inventoryQueue  The queue for the inventory system, or
+     *                        {@code null} to call it directly.
+     */
+    public void setOfflineQueues(OfflineSaleQueue accountingQueue, OfflineSaleQueue inventoryQueue) {
+        this.accountingQueue = accountingQueue;
+        this.inventoryQueue = inventoryQueue;
+    }
+
+    /**
+     * Sets the circuit breaker that guards the printing of receipts. While the
+     * breaker is open, sales are completed without waiting for the printer,
+     * and the failure is logged.
+     *
+     * @param printerBreaker The circuit breaker, or {@code null} to call the
+     *                       printer directly.
+     */
+    public void setPrinterBreaker(CircuitBreaker printerBreaker) {
+        this.printerBreaker = printerBreaker;
+    }
+
+    /**
+     * Sets the archive that keeps the receipt of every paid sale for audits.
+     * Receipts are archived in the background, whether or not the printer
+     * can be reached.
+     *
+     * @param receiptArchive The archive, or {@code null} to keep no receipts.
+     */
+    public void setReceiptArchive(ReceiptArchive receiptArchive) {
+        this.receiptArchive = receiptArchive;
+    }
+
+    /**
+     * Prints the receipt of an archived sale again.
+     *
+     * @param saleID The sale ID given to the sale by the archive.
+     * @return {@code true} if the receipt was found and sent to the printer.
+     */
+    public boolean reprintReceipt(long saleID) {
+        if (receiptArchive == null) {
+            return false;
+        }
+        SaleSummaryDTO saleSummary;
+        try {
+            saleSummary = receiptArchive.find(saleID);
+        } catch (IOException e) {
+            handleConnectionError(new ConnectionEstablishmentException(
+                    "The receipt archive could not be read: " + e.getMessage(), ARCHIVE_SYSTEM));
+            return false;
+        }
+        if (saleSummary == null) {
+            return false;
+        }
+        printReceipt(saleSummary);
+        return true;
+    }
+
+    /**
+     * Sets the metrics that record the latency of each sale operation and count
+     * scans, missing items, connection errors and insufficient payments. The
+     * same metrics can be shared by several controllers.
+     *
+     * @param metrics The {@link SaleMetrics} to record in.
+     */
+    public void setMetrics(SaleMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Retrieves a snapshot of the recorded metrics.
+     *
+     * @return A {@link MetricsSnapshot}, or {@code null} if no metrics have been
+     *         set.
+     */
+    public MetricsSnapshot getMetricsSnapshot() {
+        return metrics == null ? null : metrics.snapshot();
+    }
+
+    /**
+     * Retrieves the revenue and number of payments of the register during the
+     * last minute, the last hour and the current day.
+     *
+     * @return A {@link RevenueWindowsDTO} with the revenue of each window.
+     */
+    public RevenueWindowsDTO getRevenueWindows() {
+        return cashRegister.getRevenueWindows();
+    }
+
     /**
      * Sets observer instances to receive updates about total revenue.
      *
@@ -75,11 +339,24 @@ public class Controller {
 
     /**
      * Starts a new sale by creating a new Sale instance and initializing the
-     * receipt. Also sets up the revenue observer for the cash register.
+     * receipt. Also sets up the revenue observer for the cash register. The
+     * sale is priced with the discount rules while it is scanned.
      */
     public void startSale() {
-        currentSale = new Sale(cashRegister);
+        long start = startTiming();
+        SaleStartEvent event = new SaleStartEvent();
+        event.begin();
+        currentSale = new Sale(cashRegister, clock);
+        currentSale.setDiscounts(discountDatabase.getEngine(), null);
+        currentCustomerID = null;
+        ExternalSystemCallEvent call = beginCall();
         printer.createReceipt(currentSale.getTimeOfSale());
+        commitCall(call, PRINTER_SYSTEM, "createReceipt", true);
+        event.end();
+        if (event.shouldCommit()) {
+            commitEvent(event);
+        }
+        recordTiming(SaleOperation.START_SALE, start);
     }
 
     /**
@@ -94,38 +371,300 @@ public class Controller {
      *                               found in the inventory. This exception is also
      *                               logged and an informative message is shown to
      *                               the user.
+     * @throws NullPointerException  if {@code itemID} is {@code null}.
      */
     public void registerItem(String itemID) throws ItemNotFoundException {
-        if (currentSale.itemExists(itemID)) {
-            view.displayAddedItem(currentSale.increaseItemQuantity(itemID));
-            return;
+        registerItem(itemID, 1);
+    }
+
+    /**
+     * Registers several units of an item in the current sale at once, as for a
+     * multipack or a bulk purchase. The quantity and the totals are updated in
+     * one step and the view is updated once, however large the quantity.
+     * Errors are handled as by {@link #registerItem(String)}.
+     *
+     * @param itemID   The unique identifier of the item to be registered.
+     * @param quantity The number of units to register.
+     * @throws ItemNotFoundException    if no item with the specified identifier
+     *                                  is found in the inventory.
+     * @throws NullPointerException     if {@code itemID} is {@code null}.
+     * @throws IllegalArgumentException if {@code quantity} is not positive.
+     */
+    public void registerItem(String itemID, int quantity) throws ItemNotFoundException {
+        if (itemID == null) {
+            throw new NullPointerException("Item ID cannot be null when registering an item.");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity of item with ID " + itemID + " must be positive.");
+        }
+        registerLine(itemID, quantity, null);
+    }
+
+    /**
+     * Registers a weighed amount of a loose item, priced per kilogram, in the
+     * current sale. The weight is rounded to whole grams, and several
+     * weighings of the same item are added to one line. Errors are handled as
+     * by {@link #registerItem(String)}.
+     *
+     * @param itemID    The unique identifier of the item to be registered.
+     * @param kilograms The weight in kilograms.
+     * @throws ItemNotFoundException    if no item with the specified identifier
+     *                                  is found in the inventory.
+     * @throws NullPointerException     if {@code itemID} or {@code kilograms} is
+     *                                  {@code null}.
+     * @throws IllegalArgumentException if {@code kilograms} is not positive.
+     */
+    public void registerWeighedItem(String itemID, BigDecimal kilograms) throws ItemNotFoundException {
+        if (itemID == null || kilograms == null) {
+            throw new NullPointerException("Item ID and weight cannot be null when registering a weighed item.");
+        }
+        if (kilograms.signum() <= 0) {
+            throw new IllegalArgumentException("Weight of item with ID " + itemID + " must be positive.");
+        }
+        registerLine(itemID, 0, kilograms);
+    }
+
+    /**
+     * Registers a quantity or a weight of an item in the current sale,
+     * retrieving the item from the inventory system unless it is already in
+     * the sale.
+     *
+     * @param itemID    The unique identifier of the item to be registered.
+     * @param quantity  The number of units to register. Ignored if
+     *                  {@code kilograms} is set.
+     * @param kilograms The weight to register, or {@code null} for an item
+     *                  sold by the unit.
+     * @throws ItemNotFoundException if no item with the specified identifier is
+     *                               found in the inventory.
+     */
+    private void registerLine(String itemID, int quantity, BigDecimal kilograms) throws ItemNotFoundException {
+        long start = startTiming();
+        ItemRegistrationEvent event = new ItemRegistrationEvent();
+        event.begin();
+        boolean alreadyInSale = false;
+        boolean found = false;
+        if (metrics != null) {
+            metrics.countScan();
+        }
+        try {
+            if (currentSale.itemExists(itemID)) {
+                alreadyInSale = true;
+                found = true;
+                view.displayAddedItem(kilograms == null ? currentSale.increaseItemQuantity(itemID, quantity)
+                        : currentSale.addWeighedItem(currentSale.getItem(itemID), kilograms));
+                return;
+            }
+            ItemDTO searchedItem = lookUpItem(itemID);
+            found = true;
+            view.displayAddedItem(kilograms == null ? currentSale.addItem(searchedItem, quantity)
+                    : currentSale.addWeighedItem(searchedItem, kilograms));
+        } catch (ItemNotFoundException e) {
+            if (metrics != null) {
+                metrics.countMiss();
+            }
+            throw e;
+        } catch (IllegalArgumentException e) {
+            logIllegalArgumentError(e);
+        } catch (ConnectionEstablishmentException e) {
+            if (metrics != null) {
+                metrics.countConnectionError();
+            }
+            logConnectionError(e);
+        } finally {
+            recordTiming(SaleOperation.REGISTER_ITEM, start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setItemID(itemID);
+                event.setCatalogHit(found);
+                event.setAlreadyInSale(alreadyInSale);
+                commitEvent(event);
+            }
+        }
+    }
+
+    /**
+     * Registers a whole basket of items in the current sale, as delivered by a
+     * conveyor belt or a bag scanner. The items are retrieved from the
+     * inventory system in one call, the sale totals are updated once and the
+     * view is updated once for the whole basket. Items that are not found are
+     * skipped and returned, so the rest of the basket is still registered. If
+     * the inventory system cannot be reached, or an item of the basket is
+     * already in the sale sold by weight, the error is logged and nothing is
+     * registered.
+     *
+     * @param itemIDs    The unique identifiers of the items. An identifier may
+     *                   occur more than once.
+     * @param quantities The number of units of each item in {@code itemIDs}.
+     * @return The identifiers that were not found in the inventory, in the
+     *         order they were given.
+     * @throws NullPointerException     if {@code itemIDs}, {@code quantities}
+     *                                  or an identifier is {@code null}.
+     * @throws IllegalArgumentException if the arrays differ in length or a
+     *                                  quantity is not positive.
+     */
+    public List<String> registerItems(String[] itemIDs, int[] quantities) {
+        if (itemIDs == null || quantities == null) {
+            throw new NullPointerException("Item IDs and quantities cannot be null when registering items.");
+        }
+        if (itemIDs.length != quantities.length) {
+            throw new IllegalArgumentException("Every item ID needs exactly one quantity.");
+        }
+        for (int i = 0; i < itemIDs.length; i++) {
+            if (itemIDs[i] == null) {
+                throw new NullPointerException("Item ID cannot be null when registering items.");
+            }
+            if (quantities[i] <= 0) {
+                throw new IllegalArgumentException("Quantity of item with ID " + itemIDs[i] + " must be positive.");
+            }
         }
+        long start = startTiming();
+        List<String> missingItemIDs = new ArrayList<>();
         try {
-            ItemDTO searchedItem = externalInventory.getItem(itemID);
-            view.displayAddedItem(currentSale.addItem(searchedItem));
+            ItemDTO[] basket = lookUpItems(itemIDs);
+            for (int i = 0; i < basket.length; i++) {
+                if (basket[i] == null) {
+                    missingItemIDs.add(itemIDs[i]);
+                }
+            }
+            if (metrics != null) {
+                metrics.countScans(itemIDs.length);
+                metrics.countMisses(missingItemIDs.size());
+            }
+            view.displayAddedItem(currentSale.addItems(basket, quantities));
         } catch (IllegalArgumentException e) {
             logIllegalArgumentError(e);
         } catch (ConnectionEstablishmentException e) {
+            if (metrics != null) {
+                metrics.countConnectionError();
+            }
             logConnectionError(e);
+        } finally {
+            recordTiming(SaleOperation.REGISTER_ITEMS, start);
+        }
+        return missingItemIDs;
+    }
+
+    /**
+     * Retrieves several items from the inventory system in one call.
+     *
+     * @param itemIDs The unique identifiers of the items.
+     * @return The found items, with {@code null} for each missing item.
+     * @throws ConnectionEstablishmentException if the inventory system cannot
+     *                                          be reached.
+     */
+    private ItemDTO[] lookUpItems(String[] itemIDs) throws ConnectionEstablishmentException {
+        ExternalSystemCallEvent call = beginCall();
+        boolean succeeded = false;
+        try {
+            ItemDTO[] items = externalInventory.getItems(itemIDs);
+            succeeded = true;
+            return items;
+        } finally {
+            commitCall(call, INVENTORY_SYSTEM, "getItems", succeeded);
+        }
+    }
+
+    /**
+     * Retrieves an item from the inventory system.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The found {@link ItemDTO}.
+     * @throws ItemNotFoundException if no item with the identifier is found.
+     */
+    private ItemDTO lookUpItem(String itemID) throws ItemNotFoundException {
+        ExternalSystemCallEvent call = beginCall();
+        boolean succeeded = false;
+        try {
+            ItemDTO item = externalInventory.getItem(itemID);
+            succeeded = true;
+            return item;
+        } finally {
+            commitCall(call, INVENTORY_SYSTEM, "getItem", succeeded);
+        }
+    }
+
+    /**
+     * Identifies the customer of the current sale by their loyalty card. The
+     * profile of the customer is prefetched from the customer registry while
+     * the items are scanned, and the lines are priced with the member's rules
+     * from now on, so member pricing adds no wait when the sale ends.
+     *
+     * @param customerID The unique identifier of the customer.
+     */
+    public void identifyCustomer(String customerID) {
+        currentCustomerID = customerID;
+        CustomerRegistry registry = customerRegistry;
+        if (registry != null) {
+            registry.prefetch(customerID);
+        }
+        DiscountEngine discounts = discountDatabase.getEngine();
+        if (discounts.hasCustomerRules(customerID)) {
+            currentSale.setDiscounts(discounts, customerID);
         }
     }
 
     /**
-     * Ends the current sale and calculates the total price.
-     * This method can be extended to include additional operations,
-     * such as applying discounts or notifying the view.
+     * Ends the current sale, applies the discounts of the customer and shows
+     * the total price. The line discounts were kept up to date while the
+     * sale was scanned, so only the basket rules are applied unless the
+     * customer has rules of their own. If a customer registry is set, only
+     * members of the loyalty program get member prices.
      *
-     * @param customerID The unique identifier of the customer (currently unused).
+     * @param customerID The unique identifier of the customer, or {@code null}
+     *                   for the customer identified during the sale, if any.
      */
     public void endSale(String customerID) {
-        BigDecimal totalPrice = currentSale.getRunningTotal();
+        long start = startTiming();
+        SaleEndEvent event = new SaleEndEvent();
+        event.begin();
+        String memberID = findMember(customerID == null ? currentCustomerID : customerID);
+        BigDecimal discount = currentSale.applyDiscounts(discountDatabase.getEngine(), memberID);
+        BigDecimal totalPrice = currentSale.getTotalPrice();
+        if (discount.signum() > 0) {
+            view.displayDiscount(discount);
+        }
         view.displayTotalPrice(totalPrice);
-        // Future extension: Apply discounts or notify the view
+        event.end();
+        if (event.shouldCommit()) {
+            event.setTotalPrice(totalPrice.doubleValue());
+            commitEvent(event);
+        }
+        recordTiming(SaleOperation.END_SALE, start);
     }
 
     /**
-     * Processes the sale by finalizing payment, printing the receipt,
-     * and updating the inventory and accounting systems.
+     * Verifies that a customer is a member of the loyalty program. If the
+     * customer registry cannot be reached, the customer is trusted, so an
+     * outage does not take member prices away.
+     *
+     * @param customerID The unique identifier of the customer, or
+     *                   {@code null}.
+     * @return The customer ID if the customer is a member or no registry is
+     *         set, otherwise {@code null}.
+     */
+    private String findMember(String customerID) {
+        CustomerRegistry registry = customerRegistry;
+        if (customerID == null || registry == null) {
+            return customerID;
+        }
+        ExternalSystemCallEvent call = beginCall();
+        boolean succeeded = false;
+        try {
+            CustomerDTO profile = registry.findCustomer(customerID);
+            succeeded = true;
+            return profile == null ? null : profile.getCustomerID();
+        } catch (ConnectionEstablishmentException e) {
+            handleConnectionError(e);
+            return customerID;
+        } finally {
+            commitCall(call, CUSTOMER_SYSTEM, "findCustomer", succeeded);
+        }
+    }
+
+    /**
+     * Processes the sale by finalizing payment, archiving and printing the
+     * receipt, updating the inventory and accounting systems, recording the
+     * sold items as best sellers and showing the change.
      *
      * Handles InsufficientPaymentException if the payment is too low,
      * logging the error to both the user and a file.
@@ -133,15 +672,251 @@ public class Controller {
      * @param amountPaid The amount paid by the customer.
      */
     public void processSale(BigDecimal amountPaid) {
+        long start = startTiming();
         try {
-            SaleSummaryDTO saleSummary = currentSale.processSale(amountPaid);
-            printer.printReceipt(saleSummary);
-            externalInventory.updateInventory(saleSummary);
-            externalAccounting.accountSale(saleSummary);
+            SaleSummaryDTO saleSummary = pay(amountPaid);
+            archiveReceipt(saleSummary);
+            if (postPaymentExecutor == null) {
+                printReceipt(saleSummary);
+                updateInventory(saleSummary);
+                accountSale(saleSummary);
+                recordBestSellers(saleSummary);
+            } else {
+                FanOut.runAll(postPaymentExecutor,
+                        () -> printReceipt(saleSummary),
+                        () -> updateInventory(saleSummary),
+                        () -> accountSale(saleSummary),
+                        () -> recordBestSellers(saleSummary));
+            }
+            if (metrics != null) {
+                metrics.countSale();
+            }
+            view.displayChange(saleSummary.getChange());
         } catch (InsufficientPaymentException e) {
+            if (metrics != null) {
+                metrics.countInsufficientPayment();
+            }
             logInsufficientPayment(e);
         } catch (NullPointerException e) {
             logNullPointerError(e);
+        } finally {
+            recordTiming(SaleOperation.PROCESS_SALE, start);
+        }
+    }
+
+    /**
+     * Pays for the current sale.
+     *
+     * @param amountPaid The amount paid by the customer.
+     * @return A {@link SaleSummaryDTO} of the paid sale.
+     * @throws InsufficientPaymentException if the amount paid is lower than the
+     *                                      total price.
+     */
+    private SaleSummaryDTO pay(BigDecimal amountPaid) throws InsufficientPaymentException {
+        PaymentEvent event = new PaymentEvent();
+        event.begin();
+        boolean sufficient = false;
+        try {
+            SaleSummaryDTO saleSummary = currentSale.processSale(amountPaid);
+            sufficient = true;
+            return saleSummary;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setAmountPaid(amountPaid == null ? 0 : amountPaid.doubleValue());
+                event.setSufficient(sufficient);
+                commitEvent(event);
+            }
+        }
+    }
+
+    /**
+     * Archives the receipt of a paid sale, if an archive is set.
+     *
+     * @param saleSummary The {@link SaleSummaryDTO} of the paid sale.
+     */
+    private void archiveReceipt(SaleSummaryDTO saleSummary) {
+        if (receiptArchive == null) {
+            return;
+        }
+        try {
+            receiptArchive.submit(saleSummary);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Prints the receipt of a paid sale. A printer that cannot be reached is
+     * logged, since the sale has already been paid.
+     *
+     * @param saleSummary The {@link SaleSummaryDTO} of the paid sale.
+     */
+    private void printReceipt(SaleSummaryDTO saleSummary) {
+        ReceiptPrintEvent event = new ReceiptPrintEvent();
+        event.begin();
+        try {
+            callThrough(printerBreaker, () -> printer.printReceipt(saleSummary));
+        } catch (ConnectionEstablishmentException e) {
+            handleConnectionError(e);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setLineCount(saleSummary.getBoughtItems() == null ? 0 : saleSummary.getBoughtItems().size());
+            commitEvent(event);
+        }
+    }
+
+    /**
+     * Updates the inventory after a paid sale. An inventory system that cannot
+     * be reached is logged, since the sale has already been paid. In offline
+     * mode the sale is queued instead.
+     *
+     * @param saleSummary The {@link SaleSummaryDTO} of the paid sale.
+     */
+    private void updateInventory(SaleSummaryDTO saleSummary) {
+        if (inventoryQueue != null) {
+            inventoryQueue.submit(saleSummary);
+            return;
+        }
+        ExternalSystemCallEvent call = beginCall();
+        boolean succeeded = false;
+        try {
+            externalInventory.updateInventory(saleSummary);
+            succeeded = true;
+        } catch (ConnectionEstablishmentException e) {
+            handleConnectionError(e);
+        } finally {
+            commitCall(call, INVENTORY_SYSTEM, "updateInventory", succeeded);
+        }
+    }
+
+    /**
+     * Records a paid sale in the accounting system. An accounting system that
+     * cannot be reached is logged, since the sale has already been paid. In
+     * offline mode the sale is queued instead.
+     *
+     * @param saleSummary The {@link SaleSummaryDTO} of the paid sale.
+     */
+    private void accountSale(SaleSummaryDTO saleSummary) {
+        if (accountingQueue != null) {
+            accountingQueue.submit(saleSummary);
+            return;
+        }
+        ExternalSystemCallEvent call = beginCall();
+        boolean succeeded = false;
+        try {
+            callThrough(accountingBreaker, () -> externalAccounting.accountSale(saleSummary));
+            succeeded = true;
+        } catch (ConnectionEstablishmentException e) {
+            handleConnectionError(e);
+        } finally {
+            commitCall(call, ACCOUNTING_SYSTEM, "accountSale", succeeded);
+        }
+    }
+
+    /**
+     * Calls an external system through its circuit breaker, if it has one.
+     *
+     * @param breaker The circuit breaker of the system, or {@code null}.
+     * @param call    The call to make.
+     * @throws ConnectionEstablishmentException if the system cannot be reached
+     *                                          or its breaker is open.
+     */
+    private static void callThrough(CircuitBreaker breaker, Runnable call) {
+        if (breaker == null) {
+            call.run();
+            return;
+        }
+        breaker.call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Counts and logs a failed call to an external system.
+     *
+     * @param exception The ConnectionEstablishmentException to log.
+     */
+    private void handleConnectionError(ConnectionEstablishmentException exception) {
+        if (metrics != null) {
+            metrics.countConnectionError();
+        }
+        logConnectionError(exception);
+    }
+
+    /**
+     * Records the items of a paid sale as best sellers, if a sketch is set.
+     *
+     * @param saleSummary The {@link SaleSummaryDTO} of the paid sale.
+     */
+    private void recordBestSellers(SaleSummaryDTO saleSummary) {
+        if (bestSellers != null) {
+            bestSellers.recordSale(saleSummary);
+        }
+    }
+
+    /**
+     * Starts timing a call to an external system.
+     *
+     * @return The started {@link ExternalSystemCallEvent}.
+     */
+    private ExternalSystemCallEvent beginCall() {
+        ExternalSystemCallEvent call = new ExternalSystemCallEvent();
+        call.begin();
+        return call;
+    }
+
+    /**
+     * Ends a call to an external system and commits its event, if recording is
+     * enabled.
+     *
+     * @param call      The event returned by {@link #beginCall()}.
+     * @param system    The name of the called system.
+     * @param operation The name of the called method.
+     * @param succeeded {@code false} if the call threw an exception.
+     */
+    private void commitCall(ExternalSystemCallEvent call, String system, String operation, boolean succeeded) {
+        call.end();
+        if (call.shouldCommit()) {
+            call.setCall(system, operation);
+            call.setSucceeded(succeeded);
+            commitEvent(call);
+        }
+    }
+
+    /**
+     * Sets the register of an event and commits it. Only called after
+     * {@code shouldCommit()} has returned {@code true}.
+     *
+     * @param event The event to commit.
+     */
+    private void commitEvent(RegisterEvent event) {
+        event.setRegisterID(registerID);
+        event.commit();
+    }
+
+    /**
+     * Reads the time at which an operation starts, if metrics are recorded.
+     *
+     * @return The current value of {@link System#nanoTime()}, or 0 if no metrics
+     *         have been set.
+     */
+    private long startTiming() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Records the latency of an operation, if metrics are recorded.
+     *
+     * @param operation The operation that finished.
+     * @param start     The value returned by {@link #startTiming()} when the
+     *                  operation started.
+     */
+    private void recordTiming(SaleOperation operation, long start) {
+        if (metrics != null) {
+            metrics.recordLatency(operation, System.nanoTime() - start);
         }
     }
 
@@ -162,7 +937,7 @@ public class Controller {
      *
      * @param exception The ConnectionEstablishmentException to log.
      */
-    private void logConnectionError(ConnectionEstablishmentException exception) {
+    private synchronized void logConnectionError(ConnectionEstablishmentException exception) {
         setLogger(new ErrorView());
         logger.logConnectionError(exception);
         setLogger(new FileLogger());
@@ -0,0 +1,264 @@
+package src.main.java.processSale.integration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import src.main.java.processSale.concurrent.ThreadPools;
+import src.main.java.processSale.model.dto.CustomerDTO;
+
+/**
+ * A read-through cache in front of another {@link CustomerRegistry}. Profiles
+ * are kept for a limited time in a bounded table that evicts the least
+ * recently used profile when full. Customers who are not members are cached
+ * too, for a shorter time, so a mistyped or foreign card does not cost a
+ * round trip at every checkout. A profile can be prefetched in the background
+ * when the loyalty card is scanned, and a lookup of a profile that is being
+ * loaded waits for that load instead of asking the registry again. Failures
+ * are not cached. This class is thread-safe.
+ */
+public class CachingCustomerRegistry implements CustomerRegistry {
+    private final CustomerRegistry delegate;                                       // The registry behind the cache
+    private final int capacity;                                                    // Maximum number of cached profiles
+    private final long timeToLiveMillis;                                           // How long a profile stays fresh
+    private final long negativeTimeToLiveMillis;                                   // How long a non-member stays cached
+    private final Clock clock;                                                     // Decides when profiles expire
+    private final Executor prefetcher;                                             // Runs prefetches
+    private final LinkedHashMap<String, CachedProfile> profiles;                   // Cached profiles, oldest use first
+    private final ConcurrentHashMap<String, CompletableFuture<CustomerDTO>> loads; // Lookups in progress
+    private final LongAdder hits = new LongAdder();                                // Lookups served from the cache
+    private final LongAdder misses = new LongAdder();                              // Lookups passed to the delegate
+
+    /**
+     * Creates a new cache that uses the system clock and prefetches on daemon
+     * threads.
+     *
+     * @param delegate           The registry behind the cache.
+     * @param capacity           The maximum number of cached profiles.
+     * @param timeToLive         How long a profile is served from the cache.
+     * @param negativeTimeToLive How long a customer who is not a member is
+     *                           remembered as such.
+     */
+    public CachingCustomerRegistry(CustomerRegistry delegate, int capacity, Duration timeToLive,
+            Duration negativeTimeToLive) {
+        this(delegate, capacity, timeToLive, negativeTimeToLive, Clock.systemUTC(),
+                Executors.newCachedThreadPool(ThreadPools.daemonThreadFactory("customer-prefetch")));
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param delegate           The registry behind the cache.
+     * @param capacity           The maximum number of cached profiles.
+     * @param timeToLive         How long a profile is served from the cache.
+     * @param negativeTimeToLive How long a customer who is not a member is
+     *                           remembered as such.
+     * @param clock              The clock that decides when profiles expire.
+     * @param prefetcher         Runs the prefetches.
+     * @throws IllegalArgumentException if {@code capacity} is not positive.
+     */
+    public CachingCustomerRegistry(CustomerRegistry delegate, int capacity, Duration timeToLive,
+            Duration negativeTimeToLive, Clock clock, Executor prefetcher) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive.");
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.negativeTimeToLiveMillis = negativeTimeToLive.toMillis();
+        this.clock = clock;
+        this.prefetcher = prefetcher;
+        this.profiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedProfile> eldest) {
+                return size() > CachingCustomerRegistry.this.capacity;
+            }
+        };
+        this.loads = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Retrieves the profile of a customer from the cache, or from the registry
+     * if it is not cached or has expired. If the profile is being prefetched,
+     * waits for the prefetch instead.
+     *
+     * @param customerID The unique identifier of the customer.
+     * @return The {@link CustomerDTO}, or {@code null} if the customer is not
+     *         a member.
+     * @throws ConnectionEstablishmentException if the customer registry cannot
+     *                                          be reached.
+     */
+    @Override
+    public CustomerDTO findCustomer(String customerID) {
+        if (customerID == null) {
+            return null;
+        }
+        CachedProfile cached = lookUp(customerID, true);
+        if (cached != null) {
+            return cached.profile;
+        }
+        CompletableFuture<CustomerDTO> load = new CompletableFuture<>();
+        CompletableFuture<CustomerDTO> inProgress = loads.putIfAbsent(customerID, load);
+        if (inProgress != null) {
+            return await(inProgress, customerID);
+        }
+        load(customerID, load);
+        return await(load, customerID);
+    }
+
+    /**
+     * Starts loading the profile of a customer on a prefetch thread, unless it
+     * is cached or already being loaded.
+     *
+     * @param customerID The unique identifier of the customer.
+     */
+    @Override
+    public void prefetch(String customerID) {
+        if (customerID == null || lookUp(customerID, false) != null) {
+            return;
+        }
+        CompletableFuture<CustomerDTO> load = new CompletableFuture<>();
+        if (loads.putIfAbsent(customerID, load) == null) {
+            prefetcher.execute(() -> load(customerID, load));
+        }
+    }
+
+    /**
+     * Retrieves the number of lookups served from the cache, including
+     * customers remembered as not being members.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Retrieves the number of lookups that were not served from the cache,
+     * including those that waited for a load already in progress.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Retrieves the number of cached profiles, including expired ones not yet
+     * evicted.
+     *
+     * @return The number of cached profiles.
+     */
+    public int size() {
+        synchronized (profiles) {
+            return profiles.size();
+        }
+    }
+
+    /**
+     * Retrieves a fresh entry from the cache.
+     *
+     * @param customerID The unique identifier of the customer.
+     * @param count      {@code true} to count the hit or miss.
+     * @return The cached entry, or {@code null} if the customer is not cached
+     *         or has expired.
+     */
+    private CachedProfile lookUp(String customerID, boolean count) {
+        long now = clock.millis();
+        synchronized (profiles) {
+            CachedProfile cached = profiles.get(customerID);
+            if (cached != null && cached.expiresAt > now) {
+                if (count) {
+                    hits.increment();
+                }
+                return cached;
+            }
+            if (cached != null) {
+                profiles.remove(customerID);
+            }
+        }
+        if (count) {
+            misses.increment();
+        }
+        return null;
+    }
+
+    /**
+     * Loads a profile from the registry, caches it and completes the load. The
+     * cache is checked again first, since another load may have completed
+     * after the caller missed the cache but before it started this load.
+     *
+     * @param customerID The unique identifier of the customer.
+     * @param load       The load to complete with the profile or the failure.
+     */
+    private void load(String customerID, CompletableFuture<CustomerDTO> load) {
+        try {
+            CachedProfile cached = lookUp(customerID, false);
+            if (cached == null) {
+                CustomerDTO profile = delegate.findCustomer(customerID);
+                long timeToLive = profile == null ? negativeTimeToLiveMillis : timeToLiveMillis;
+                cached = new CachedProfile(profile, clock.millis() + timeToLive);
+                synchronized (profiles) {
+                    profiles.put(customerID, cached);
+                }
+            }
+            load.complete(cached.profile);
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+        } finally {
+            loads.remove(customerID, load);
+        }
+    }
+
+    /**
+     * Waits for a load, started by this or another thread.
+     *
+     * @param load       The load.
+     * @param customerID The unique identifier of the customer.
+     * @return The loaded profile, or {@code null} if the customer is not a
+     *         member.
+     * @throws ConnectionEstablishmentException if the customer registry could
+     *                                          not be reached, or the wait was
+     *                                          interrupted.
+     */
+    private static CustomerDTO await(CompletableFuture<CustomerDTO> load, String customerID) {
+        try {
+            return load.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw (Error) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionEstablishmentException(
+                    "Interrupted while waiting for customer " + customerID + ".", "Customer Registry");
+        }
+    }
+
+    /**
+     * A cached profile and the time it expires.
+     */
+    private static class CachedProfile {
+        private final CustomerDTO profile; // The cached profile, or null for a customer who is not a member
+        private final long expiresAt;      // Epoch millisecond after which the customer is looked up again
+
+        /**
+         * Creates a new cache entry.
+         *
+         * @param profile   The cached profile, or {@code null}.
+         * @param expiresAt The epoch millisecond after which the entry expires.
+         */
+        CachedProfile(CustomerDTO profile, long expiresAt) {
+            this.profile = profile;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
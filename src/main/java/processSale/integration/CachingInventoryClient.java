@@ -0,0 +1,351 @@
+package src.main.java.processSale.integration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+
+/**
+ * A read-through cache in front of another {@link InventoryClient}, usually a
+ * {@link RemoteInventoryClient}. Found items are kept for a limited time in a
+ * bounded table that evicts the least recently used item when full, so the
+ * items scanned most often are served without leaving the register process.
+ * When several threads miss the same item at once, only one of them asks the
+ * inventory system and the others wait for its answer. Missing items and
+ * failures are not cached. While the inventory system cannot be reached,
+ * lookups can be answered by an offline catalog. Its answers are not cached
+ * either, so the prices of the inventory system are used as soon as it can be
+ * reached again. This class is thread-safe.
+ */
+public class CachingInventoryClient implements InventoryClient {
+    private final InventoryClient delegate;                                    // The inventory system behind the cache
+    private final InventoryClient fallback;                                    // The offline catalog, or null
+    private final int capacity;                                                // Maximum number of cached items
+    private final long timeToLiveMillis;                                       // How long an item stays fresh
+    private final Clock clock;                                                 // Decides when items expire
+    private final LinkedHashMap<String, CachedItem> items;                     // Cached items, oldest use first
+    private final ConcurrentHashMap<String, CompletableFuture<ItemDTO>> loads; // Lookups in progress
+    private final LongAdder hits = new LongAdder();                            // Lookups served from the cache
+    private final LongAdder misses = new LongAdder();                          // Lookups passed to the delegate
+
+    /**
+     * Creates a new cache that uses the system clock.
+     *
+     * @param delegate   The inventory system behind the cache.
+     * @param capacity   The maximum number of cached items.
+     * @param timeToLive How long an item is served from the cache before it
+     *                   is looked up again.
+     */
+    public CachingInventoryClient(InventoryClient delegate, int capacity, Duration timeToLive) {
+        this(delegate, null, capacity, timeToLive, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a new cache with an offline catalog that uses the system clock.
+     *
+     * @param delegate   The inventory system behind the cache.
+     * @param fallback   The offline catalog used while the inventory system
+     *                   cannot be reached, such as the local
+     *                   {@link Inventory}, or {@code null} to report the
+     *                   failure instead.
+     * @param capacity   The maximum number of cached items.
+     * @param timeToLive How long an item is served from the cache before it
+     *                   is looked up again.
+     */
+    public CachingInventoryClient(InventoryClient delegate, InventoryClient fallback, int capacity,
+            Duration timeToLive) {
+        this(delegate, fallback, capacity, timeToLive, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param delegate   The inventory system behind the cache.
+     * @param capacity   The maximum number of cached items.
+     * @param timeToLive How long an item is served from the cache before it
+     *                   is looked up again.
+     * @param clock      The clock that decides when items expire.
+     * @throws IllegalArgumentException if {@code capacity} is not positive.
+     */
+    public CachingInventoryClient(InventoryClient delegate, int capacity, Duration timeToLive, Clock clock) {
+        this(delegate, null, capacity, timeToLive, clock);
+    }
+
+    /**
+     * Creates a new cache with an offline catalog.
+     *
+     * @param delegate   The inventory system behind the cache.
+     * @param fallback   The offline catalog used while the inventory system
+     *                   cannot be reached, or {@code null} to report the
+     *                   failure instead.
+     * @param capacity   The maximum number of cached items.
+     * @param timeToLive How long an item is served from the cache before it
+     *                   is looked up again.
+     * @param clock      The clock that decides when items expire.
+     * @throws IllegalArgumentException if {@code capacity} is not positive.
+     */
+    public CachingInventoryClient(InventoryClient delegate, InventoryClient fallback, int capacity,
+            Duration timeToLive, Clock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive.");
+        }
+        this.delegate = delegate;
+        this.fallback = fallback;
+        this.capacity = capacity;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.clock = clock;
+        this.items = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedItem> eldest) {
+                return size() > CachingInventoryClient.this.capacity;
+            }
+        };
+        this.loads = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Retrieves an item from the cache, or from the inventory system if it is
+     * not cached or has expired, or from the offline catalog if the inventory
+     * system cannot be reached.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The {@link ItemDTO}.
+     * @throws ItemNotFoundException            if the inventory system does not
+     *                                          know the item.
+     * @throws ConnectionEstablishmentException if neither the inventory system
+     *                                          nor the offline catalog can be
+     *                                          reached.
+     */
+    @Override
+    public ItemDTO getItem(String itemID) throws ItemNotFoundException, ConnectionEstablishmentException {
+        if (itemID == null) {
+            return delegate.getItem(null);
+        }
+        String key = keyOf(itemID);
+        ItemDTO cached = lookUp(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<ItemDTO> load = new CompletableFuture<>();
+        CompletableFuture<ItemDTO> inProgress = loads.putIfAbsent(key, load);
+        try {
+            if (inProgress != null) {
+                return await(inProgress, itemID);
+            }
+            try {
+                ItemDTO item = delegate.getItem(itemID);
+                store(key, item);
+                load.complete(item);
+                return item;
+            } catch (ItemNotFoundException | RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            } finally {
+                loads.remove(key, load);
+            }
+        } catch (ConnectionEstablishmentException e) {
+            if (fallback == null) {
+                throw e;
+            }
+            return fallback.getItem(itemID);
+        }
+    }
+
+    /**
+     * Retrieves several items, asking the inventory system in one call for
+     * those that are not cached, or the offline catalog if the inventory
+     * system cannot be reached.
+     *
+     * @param itemIDs The unique identifiers of the items.
+     * @return The found items, in the same order as {@code itemIDs}, with
+     *         {@code null} for each identifier that is not in the inventory.
+     * @throws ConnectionEstablishmentException if neither the inventory system
+     *                                          nor the offline catalog can be
+     *                                          reached.
+     */
+    @Override
+    public ItemDTO[] getItems(String[] itemIDs) throws ConnectionEstablishmentException {
+        ItemDTO[] found = new ItemDTO[itemIDs.length];
+        List<Integer> missed = new ArrayList<>();
+        for (int i = 0; i < itemIDs.length; i++) {
+            found[i] = lookUp(keyOf(itemIDs[i]));
+            if (found[i] == null) {
+                missed.add(i);
+            }
+        }
+        if (missed.isEmpty()) {
+            return found;
+        }
+        String[] missedIDs = new String[missed.size()];
+        for (int i = 0; i < missedIDs.length; i++) {
+            missedIDs[i] = itemIDs[missed.get(i)];
+        }
+        ItemDTO[] loaded;
+        boolean cacheable = true;
+        try {
+            loaded = delegate.getItems(missedIDs);
+        } catch (ConnectionEstablishmentException e) {
+            if (fallback == null) {
+                throw e;
+            }
+            loaded = fallback.getItems(missedIDs);
+            cacheable = false;
+        }
+        for (int i = 0; i < missedIDs.length; i++) {
+            found[missed.get(i)] = loaded[i];
+            if (cacheable && loaded[i] != null) {
+                store(keyOf(missedIDs[i]), loaded[i]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Passes an inventory update on to the inventory system.
+     *
+     * @param saleSummaryDTO A {@link SaleSummaryDTO} containing details of the
+     *                       completed sale.
+     */
+    @Override
+    public void updateInventory(SaleSummaryDTO saleSummaryDTO) {
+        delegate.updateInventory(saleSummaryDTO);
+    }
+
+    /**
+     * Retrieves the number of lookups served from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Retrieves the number of lookups passed to the inventory system, including
+     * those that waited for a lookup already in progress.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Retrieves the number of cached items, including expired ones not yet
+     * evicted.
+     *
+     * @return The number of cached items.
+     */
+    public int size() {
+        synchronized (items) {
+            return items.size();
+        }
+    }
+
+    /**
+     * Retrieves a fresh item from the cache and counts the hit or miss.
+     *
+     * @param key The cache key of the item.
+     * @return The cached item, or {@code null} if it is not cached or has
+     *         expired.
+     */
+    private ItemDTO lookUp(String key) {
+        long now = clock.millis();
+        synchronized (items) {
+            CachedItem cached = items.get(key);
+            if (cached != null && cached.expiresAt > now) {
+                hits.increment();
+                return cached.item;
+            }
+            if (cached != null) {
+                items.remove(key);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches an item, evicting the least recently used item if the cache is
+     * full.
+     *
+     * @param key  The cache key of the item.
+     * @param item The item.
+     */
+    private void store(String key, ItemDTO item) {
+        CachedItem cached = new CachedItem(item, clock.millis() + timeToLiveMillis);
+        synchronized (items) {
+            items.put(key, cached);
+        }
+    }
+
+    /**
+     * Waits for a lookup started by another thread.
+     *
+     * @param load   The lookup in progress.
+     * @param itemID The unique identifier of the item.
+     * @return The item found by the other thread.
+     * @throws ItemNotFoundException            if the item was not found.
+     * @throws ConnectionEstablishmentException if the inventory system could
+     *                                          not be reached, or the wait was
+     *                                          interrupted.
+     */
+    private static ItemDTO await(CompletableFuture<ItemDTO> load, String itemID) throws ItemNotFoundException {
+        try {
+            return load.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ItemNotFoundException) {
+                throw (ItemNotFoundException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw (Error) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionEstablishmentException(
+                    "Interrupted while waiting for item " + itemID + ".", "External Inventory System");
+        }
+    }
+
+    /**
+     * Maps an item identifier to its cache key. Identifiers are matched
+     * without regard to case, as by the inventory.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The cache key.
+     */
+    private static String keyOf(String itemID) {
+        return itemID.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A cached item and the time it expires.
+     */
+    private static class CachedItem {
+        private final ItemDTO item;   // The cached item
+        private final long expiresAt; // Epoch millisecond after which the item is looked up again
+
+        /**
+         * Creates a new cache entry.
+         *
+         * @param item      The cached item.
+         * @param expiresAt The epoch millisecond after which the item expires.
+         */
+        CachedItem(ItemDTO item, long expiresAt) {
+            this.item = item;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package src.main.java.processSale.integration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import src.main.java.processSale.concurrent.ThreadPools;
+
+/**
+ * Guards the calls to one external system, so that a dead system makes calls
+ * fail at once instead of each waiting for its own timeout.
+ * <ul>
+ * <li>While {@link State#CLOSED}, calls go through. A call that throws an
+ * unchecked exception or exceeds its deadline is a failure, and a number of
+ * failures in a row opens the breaker.</li>
+ * <li>While {@link State#OPEN}, calls fail at once with a
+ * {@link CircuitOpenException}, until the open duration has passed.</li>
+ * <li>Then the breaker is {@link State#HALF_OPEN}: one trial call goes through
+ * while the others still fail at once. If the trial succeeds the breaker
+ * closes, otherwise it opens again.</li>
+ * </ul>
+ * Checked exceptions, such as {@link src.main.java.processSale.model.ItemNotFoundException},
+ * are answers from a working system and do not count as failures. This class
+ * is thread-safe.
+ */
+public class CircuitBreaker {
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * A call to an external system.
+     *
+     * @param <T> The type of the result.
+     * @param <E> The type of the checked exception the call may throw.
+     */
+    @FunctionalInterface
+    public interface ExternalCall<T, E extends Exception> {
+        /**
+         * Calls the external system.
+         *
+         * @return The result of the call.
+         * @throws E if the external system answers with an error.
+         */
+        T call() throws E;
+    }
+
+    private final String systemName;        // The guarded system, named in exceptions
+    private final int failureThreshold;     // Failures in a row that open the breaker
+    private final long openMillis;          // How long the breaker stays open
+    private final Duration callTimeout;     // Deadline of each call, or null for no deadline
+    private final Clock clock;              // Decides when an open breaker may be tried
+    private final ExecutorService executor; // Runs calls with a deadline, or null
+    private State state = State.CLOSED;     // The current state, guarded by this
+    private int consecutiveFailures;        // Failures since the last success, guarded by this
+    private long openedAt;                  // Epoch millisecond the breaker last opened, guarded by this
+    private boolean trialInFlight;          // Set while a half-open trial call runs, guarded by this
+
+    /**
+     * Creates a new, closed circuit breaker that uses the system clock.
+     *
+     * @param systemName       The name of the guarded system.
+     * @param failureThreshold The number of failures in a row that opens the
+     *                         breaker.
+     * @param openDuration     How long the breaker stays open before a trial
+     *                         call is let through.
+     * @param callTimeout      The deadline of each call, or {@code null} to let
+     *                         calls run on the calling thread without a
+     *                         deadline.
+     */
+    public CircuitBreaker(String systemName, int failureThreshold, Duration openDuration, Duration callTimeout) {
+        this(systemName, failureThreshold, openDuration, callTimeout, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a new, closed circuit breaker.
+     *
+     * @param systemName       The name of the guarded system.
+     * @param failureThreshold The number of failures in a row that opens the
+     *                         breaker.
+     * @param openDuration     How long the breaker stays open before a trial
+     *                         call is let through.
+     * @param callTimeout      The deadline of each call, or {@code null} to let
+     *                         calls run on the calling thread without a
+     *                         deadline.
+     * @param clock            The clock that decides when an open breaker may
+     *                         be tried.
+     * @throws IllegalArgumentException if {@code failureThreshold} is not
+     *                                  positive.
+     */
+    public CircuitBreaker(String systemName, int failureThreshold, Duration openDuration, Duration callTimeout,
+            Clock clock) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("The failure threshold must be positive.");
+        }
+        this.systemName = systemName;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.callTimeout = callTimeout;
+        this.clock = clock;
+        this.executor = callTimeout == null ? null : ThreadPools.newPerTaskExecutor("breaker-" + systemName);
+    }
+
+    /**
+     * Makes a call through the breaker.
+     *
+     * @param <T>  The type of the result.
+     * @param <E>  The type of the checked exception the call may throw.
+     * @param call The call to make.
+     * @return The result of the call.
+     * @throws E                                if the call throws it.
+     * @throws CircuitOpenException             if the breaker is open.
+     * @throws ConnectionEstablishmentException if the call exceeds its
+     *                                          deadline.
+     * @throws RuntimeException                 if the call throws it.
+     */
+    public <T, E extends Exception> T call(ExternalCall<T, E> call) throws E {
+        boolean trial = acquirePermission();
+        boolean succeeded = false;
+        try {
+            T result = callTimeout == null ? call.call() : callWithDeadline(call);
+            succeeded = true;
+            return result;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Exception e) {
+            // A checked exception is an answer from a working system
+            succeeded = true;
+            throw e;
+        } finally {
+            release(trial, succeeded);
+        }
+    }
+
+    /**
+     * Retrieves the current state of the breaker. An open breaker whose open
+     * duration has passed is reported as half-open.
+     *
+     * @return The current state.
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.millis() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Retrieves the name of the guarded system.
+     *
+     * @return The system name.
+     */
+    public String getSystemName() {
+        return systemName;
+    }
+
+    /**
+     * Decides if a call may go through.
+     *
+     * @return {@code true} if the call is the trial call of a half-open breaker.
+     * @throws CircuitOpenException if the call must fail at once.
+     */
+    private synchronized boolean acquirePermission() {
+        if (state == State.OPEN && clock.millis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        throw new CircuitOpenException(systemName + " is unavailable, failing fast.", systemName);
+    }
+
+    /**
+     * Records the outcome of a call.
+     *
+     * @param trial     {@code true} if the call was the trial call of a
+     *                  half-open breaker.
+     * @param succeeded {@code true} if the call succeeded.
+     */
+    private synchronized void release(boolean trial, boolean succeeded) {
+        if (trial) {
+            trialInFlight = false;
+        }
+        if (succeeded) {
+            consecutiveFailures = 0;
+            state = State.CLOSED;
+            return;
+        }
+        consecutiveFailures++;
+        if (trial || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.millis();
+        }
+    }
+
+    /**
+     * Makes a call on another thread and waits for it until the deadline. A
+     * call that misses the deadline is interrupted.
+     *
+     * @param <T>  The type of the result.
+     * @param <E>  The type of the checked exception the call may throw.
+     * @param call The call to make.
+     * @return The result of the call.
+     * @throws E                                if the call throws it.
+     * @throws ConnectionEstablishmentException if the call exceeds its deadline
+     *                                          or the caller is interrupted.
+     */
+    @SuppressWarnings("unchecked")
+    private <T, E extends Exception> T callWithDeadline(ExternalCall<T, E> call) throws E {
+        Future<T> future = executor.submit(call::call);
+        try {
+            return future.get(callTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (E) cause;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ConnectionEstablishmentException(
+                    systemName + " did not answer within " + callTimeout.toMillis() + " ms.", systemName);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ConnectionEstablishmentException("Interrupted while waiting for " + systemName + ".",
+                    systemName);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package src.main.java.processSale.integration;
+
+/**
+ * Thrown instead of calling an external system whose {@link CircuitBreaker} is
+ * open. Since the system recently failed repeatedly, it is treated as
+ * unreachable without waiting for it.
+ */
+public class CircuitOpenException extends ConnectionEstablishmentException {
+    /**
+     * Constructs a new CircuitOpenException with the specified detail message
+     * and the source system.
+     *
+     * @param msg    The detail message explaining the reason for the exception.
+     * @param source The system whose circuit breaker is open.
+     */
+    public CircuitOpenException(String msg, String source) {
+        super(msg, source);
+    }
+}
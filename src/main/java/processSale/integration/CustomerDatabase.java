@@ -0,0 +1,92 @@
+package src.main.java.processSale.integration;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
+
+import src.main.java.processSale.model.dto.CustomerDTO;
+
+/**
+ * A stand-in for the external customer registry that loads the members of
+ * the loyalty program from a file. Each lookup can be made to take a fixed
+ * time, to act like the round trip to a real registry.
+ */
+public class CustomerDatabase implements CustomerRegistry {
+    private final Map<String, CustomerDTO> customers; // The members, keyed by customer ID
+    private final long latencyMillis;                 // How long each lookup takes
+
+    /**
+     * Loads the members from the default customer file, without latency.
+     */
+    public CustomerDatabase() {
+        this(Paths.get("src", "main", "java", "processSale", "integration", "CustomerDatabase.txt").toFile(),
+                Duration.ZERO);
+    }
+
+    /**
+     * Loads the members from the specified file. The file must contain one
+     * member per line in the format: customerID name. Prints an error message
+     * if the file cannot be found.
+     *
+     * @param customerDatabase The file containing the members.
+     * @param latency          How long each lookup takes.
+     */
+    public CustomerDatabase(File customerDatabase, Duration latency) {
+        this.customers = new HashMap<>();
+        this.latencyMillis = latency.toMillis();
+        try (Scanner reader = new Scanner(customerDatabase)) {
+            while (reader.hasNextLine()) {
+                String[] row = reader.nextLine().trim().split(" ", 2);
+                if (row.length == 2) {
+                    customers.put(row[0], new CustomerDTO(row[0], row[1]));
+                }
+            }
+        } catch (FileNotFoundException e) {
+            System.out.println("Error: Customer file not found.");
+        }
+        System.out.println("Customer registry initialized.");
+    }
+
+    /**
+     * Retrieves the profile of a member, after the configured latency.
+     *
+     * @param customerID The unique identifier of the customer.
+     * @return The {@link CustomerDTO}, or {@code null} if the customer is not
+     *         a member.
+     * @throws ConnectionEstablishmentException if the customer ID is the magic
+     *                                          identifier that makes the
+     *                                          registry unreachable, or the
+     *                                          lookup is interrupted.
+     */
+    @Override
+    public CustomerDTO findCustomer(String customerID) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConnectionEstablishmentException("Interrupted while looking up customer " + customerID
+                        + ".", "Customer Registry");
+            }
+        }
+        if ("error".equalsIgnoreCase(customerID)) {
+            throw new ConnectionEstablishmentException(
+                    "Customer Registry could not be reached.",
+                    "Customer Registry");
+        }
+        return customerID == null ? null : customers.get(customerID);
+    }
+
+    /**
+     * Retrieves the number of members.
+     *
+     * @return The number of members loaded from the file.
+     */
+    public int size() {
+        return customers.size();
+    }
+}
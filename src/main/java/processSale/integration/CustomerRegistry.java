@@ -0,0 +1,33 @@
+package src.main.java.processSale.integration;
+
+import src.main.java.processSale.model.dto.CustomerDTO;
+
+/**
+ * The operations the controller needs from the external customer registry,
+ * which knows the members of the loyalty program. Implemented by the
+ * file-based {@link CustomerDatabase} stand-in and by the
+ * {@link CachingCustomerRegistry} that caches profiles in front of another
+ * registry.
+ */
+public interface CustomerRegistry {
+    /**
+     * Retrieves the profile of a customer.
+     *
+     * @param customerID The unique identifier of the customer.
+     * @return The {@link CustomerDTO}, or {@code null} if the customer is not
+     *         a member.
+     * @throws ConnectionEstablishmentException if the customer registry cannot
+     *                                          be reached.
+     */
+    CustomerDTO findCustomer(String customerID);
+
+    /**
+     * Starts retrieving the profile of a customer in the background, so that
+     * a later {@link #findCustomer(String)} does not have to wait for it. Called
+     * when the loyalty card is scanned. By default nothing is done.
+     *
+     * @param customerID The unique identifier of the customer.
+     */
+    default void prefetch(String customerID) {
+    }
+}
@@ -1,30 +1,135 @@
 package src.main.java.processSale.integration;
 
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
 
 /**
  * Represents the discount system that calculates discounts for customers.
- * This class can be extended to implement more complex discount logic.
+ * The discount rules are loaded from a file and compiled into a
+ * {@link DiscountEngine}, which prices the lines and the total of each sale.
  */
 public class Discount {
+    private final DiscountEngine engine; // The compiled discount rules
 
     /**
-     * Creates a new instance of the Discount system. This constructor can be
-     * extended to initialize discount-specific settings.
+     * Creates a new instance of the Discount system with the rules of the
+     * default discount file.
      */
     public Discount() {
+        this(Paths.get("src", "main", "java", "processSale", "integration", "DiscountRules.txt").toFile());
+    }
+
+    /**
+     * Creates a new instance of the Discount system with the rules of the
+     * specified file. Each line holds one rule, in one of the formats:
+     * <ul>
+     * <li>{@code item <item ID> <percent off> [customer ID]}</li>
+     * <li>{@code category <category> <percent off> [customer ID]}</li>
+     * <li>{@code members <category> <item ID> <item ID> ...}</li>
+     * <li>{@code multibuy <item ID> <units bought> <units paid for> [customer ID]}</li>
+     * <li>{@code basket <threshold> <percent off> [customer ID]}</li>
+     * </ul>
+     * Empty lines and lines starting with {@code #} are ignored. Prints an
+     * error message and gives no discounts if the file cannot be found.
+     *
+     * @param rulesFile The file containing the discount rules.
+     * @throws IllegalArgumentException if a rule is malformed.
+     */
+    public Discount(File rulesFile) {
+        List<DiscountRule> rules = new ArrayList<>();
+        Map<String, List<String>> categories = new HashMap<>();
+        try (Scanner reader = new Scanner(rulesFile)) {
+            while (reader.hasNextLine()) {
+                String line = reader.nextLine().trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    parseRule(line.split("\\s+"), rules, categories);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            System.out.println("Error: Discount rules file not found.");
+        }
+        this.engine = new DiscountEngine(rules, categories);
+        System.out.println("Discount system initialized.");
+    }
+
+    /**
+     * Creates a new instance of the Discount system with already compiled
+     * rules.
+     *
+     * @param engine The compiled discount rules.
+     */
+    public Discount(DiscountEngine engine) {
+        this.engine = engine;
         System.out.println("Discount system initialized.");
     }
 
     /**
-     * Retrieves the discount factor for a given customer.
+     * Retrieves the discount factor for a given customer, from the basket
+     * rules that apply to all of the customer's sales.
      *
      * @param customerID The unique identifier of the customer.
      * @return A discount factor as a {@link BigDecimal} (e.g., 1.0 for no discount,
      *         0.9 for a 10% discount).
      */
     public BigDecimal getDiscount(String customerID) {
-        // Placeholder logic: Always return no discount (factor of 1.0)
-        return new BigDecimal(1.0);
+        return engine.getCustomerFactor(customerID);
+    }
+
+    /**
+     * Retrieves the compiled discount rules.
+     *
+     * @return The {@link DiscountEngine}.
+     */
+    public DiscountEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Parses one line of the rules file.
+     *
+     * @param fields     The fields of the line.
+     * @param rules      The rules read so far, to add the rule to.
+     * @param categories The categories read so far, to add members to.
+     * @throws IllegalArgumentException if the line is malformed.
+     */
+    private static void parseRule(String[] fields, List<DiscountRule> rules, Map<String, List<String>> categories) {
+        try {
+            DiscountRule rule;
+            int customerField;
+            switch (fields[0]) {
+                case "members" -> {
+                    List<String> members = categories.computeIfAbsent(fields[1], category -> new ArrayList<>());
+                    members.addAll(List.of(fields).subList(2, fields.length));
+                    return;
+                }
+                case "item" -> {
+                    rule = DiscountRule.forItem(fields[1], new BigDecimal(fields[2]));
+                    customerField = 3;
+                }
+                case "category" -> {
+                    rule = DiscountRule.forCategory(fields[1], new BigDecimal(fields[2]));
+                    customerField = 3;
+                }
+                case "multibuy" -> {
+                    rule = DiscountRule.multiBuy(fields[1], Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+                    customerField = 4;
+                }
+                case "basket" -> {
+                    rule = DiscountRule.basketThreshold(new BigDecimal(fields[1]), new BigDecimal(fields[2]));
+                    customerField = 3;
+                }
+                default -> throw new IllegalArgumentException("Unknown discount rule: " + fields[0]);
+            }
+            rules.add(fields.length > customerField ? rule.forCustomer(fields[customerField]) : rule);
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed discount rule: " + String.join(" ", fields), e);
+        }
     }
 }
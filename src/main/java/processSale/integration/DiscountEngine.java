@@ -0,0 +1,289 @@
+package src.main.java.processSale.integration;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import src.main.java.processSale.model.dto.ItemDTO;
+
+/**
+ * The discount rules of the discount system, compiled once into lookup tables
+ * so that the cost of pricing a sale does not grow with the number of rules.
+ * <ul>
+ * <li>Item and category rules are merged per item when the engine is built,
+ * so each sale line needs one hash lookup for the best percentage and the
+ * multi-buy deals of its item.</li>
+ * <li>Basket rules are sorted by threshold with the best percentage up to
+ * each threshold precomputed, so the basket discount is one binary
+ * search.</li>
+ * <li>Rules restricted to a customer are compiled into a separate table per
+ * customer, looked up by customer ID.</li>
+ * </ul>
+ * Each line gets the single best of its applicable item, category and
+ * multi-buy rules, and the sale as a whole gets the best basket rule whose
+ * threshold its total reaches after the line discounts. Instances are
+ * immutable and safe to share between registers.
+ */
+public class DiscountEngine {
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final DiscountEngine EMPTY = new DiscountEngine(List.of(), Map.of());
+
+    private final RuleTable everyone;                       // Rules that apply to all customers
+    private final HashMap<String, RuleTable> byCustomer;    // Rules restricted to each customer
+    private final int ruleCount;                            // Number of compiled rules
+
+    /**
+     * Compiles a set of rules.
+     *
+     * @param rules      The rules.
+     * @param categories The item identifiers in each category named by a
+     *                   category rule.
+     */
+    public DiscountEngine(Collection<DiscountRule> rules, Map<String, ? extends Collection<String>> categories) {
+        Map<String, List<DiscountRule>> rulesByCustomer = new HashMap<>();
+        List<DiscountRule> rulesForEveryone = new ArrayList<>();
+        for (DiscountRule rule : rules) {
+            if (rule.getCustomerID() == null) {
+                rulesForEveryone.add(rule);
+            } else {
+                rulesByCustomer.computeIfAbsent(rule.getCustomerID(), id -> new ArrayList<>()).add(rule);
+            }
+        }
+        this.everyone = new RuleTable(rulesForEveryone, categories);
+        this.byCustomer = new HashMap<>(rulesByCustomer.size() * 2);
+        rulesByCustomer.forEach((customerID, customerRules) ->
+                byCustomer.put(customerID, new RuleTable(customerRules, categories)));
+        this.ruleCount = rules.size();
+    }
+
+    /**
+     * Retrieves an engine without rules.
+     *
+     * @return An engine that gives no discounts.
+     */
+    public static DiscountEngine empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Calculates the discount on one sale line: the best of the item,
+     * category and multi-buy rules that apply to its item and customer.
+     * Multi-buy deals do not apply to items sold by weight.
+     *
+     * @param customerID The unique identifier of the customer, or
+     *                   {@code null}.
+     * @param item       The item of the line.
+     * @param quantity   The number of units on the line.
+     * @param kilograms  The weight of the line, or {@code null} unless it is
+     *                   sold by weight.
+     * @return The discount on the line, rounded to öre.
+     */
+    public BigDecimal getLineDiscount(String customerID, ItemDTO item, int quantity, BigDecimal kilograms) {
+        String key = keyOf(item.getID());
+        LineRules common = everyone.byItem.get(key);
+        RuleTable customerTable = customerID == null ? null : byCustomer.get(customerID);
+        LineRules personal = customerTable == null ? null : customerTable.byItem.get(key);
+        if (common == null && personal == null) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal linePrice = item.getPrice().multiply(kilograms == null ? BigDecimal.valueOf(quantity) : kilograms);
+        BigDecimal best = BigDecimal.ZERO;
+        for (LineRules rules : new LineRules[] {common, personal}) {
+            if (rules == null) {
+                continue;
+            }
+            best = best.max(percentOf(linePrice, rules.percentOff));
+            if (kilograms == null) {
+                for (int[] deal : rules.deals) {
+                    int freeUnits = quantity / deal[0] * (deal[0] - deal[1]);
+                    best = best.max(item.getPrice().multiply(BigDecimal.valueOf(freeUnits)));
+                }
+            }
+        }
+        return best.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculates the discount on the whole sale: the best basket rule whose
+     * threshold the subtotal reaches.
+     *
+     * @param customerID The unique identifier of the customer, or
+     *                   {@code null}.
+     * @param subtotal   The total of the sale after the line discounts.
+     * @return The discount on the sale, rounded to öre.
+     */
+    public BigDecimal getBasketDiscount(String customerID, BigDecimal subtotal) {
+        BigDecimal percent = everyone.basketPercent(subtotal);
+        RuleTable customerTable = customerID == null ? null : byCustomer.get(customerID);
+        if (customerTable != null) {
+            percent = percent.max(customerTable.basketPercent(subtotal));
+        }
+        return percentOf(subtotal, percent).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Retrieves the factor a customer pays of every sale regardless of its
+     * contents, from the basket rules without a threshold.
+     *
+     * @param customerID The unique identifier of the customer, or
+     *                   {@code null}.
+     * @return The factor, 1 if the customer has no such discount.
+     */
+    public BigDecimal getCustomerFactor(String customerID) {
+        BigDecimal percent = everyone.basketPercent(BigDecimal.ZERO);
+        RuleTable customerTable = customerID == null ? null : byCustomer.get(customerID);
+        if (customerTable != null) {
+            percent = percent.max(customerTable.basketPercent(BigDecimal.ZERO));
+        }
+        return BigDecimal.ONE.subtract(percent.movePointLeft(2));
+    }
+
+    /**
+     * Checks whether any rules are restricted to a customer, that is whether
+     * the customer can be priced differently from an anonymous customer.
+     *
+     * @param customerID The unique identifier of the customer, or
+     *                   {@code null}.
+     * @return {@code true} if the customer has rules of their own.
+     */
+    public boolean hasCustomerRules(String customerID) {
+        return customerID != null && byCustomer.containsKey(customerID);
+    }
+
+    /**
+     * Retrieves the number of compiled rules.
+     *
+     * @return The number of rules.
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Calculates a percentage of an amount, without rounding.
+     *
+     * @param amount  The amount.
+     * @param percent The percentage.
+     * @return The percentage of the amount.
+     */
+    private static BigDecimal percentOf(BigDecimal amount, BigDecimal percent) {
+        return percent.signum() == 0 ? BigDecimal.ZERO : amount.multiply(percent).divide(HUNDRED);
+    }
+
+    /**
+     * Maps an item identifier to its table key. Identifiers are matched
+     * without regard to case, as by the inventory.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The table key.
+     */
+    private static String keyOf(String itemID) {
+        return itemID.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The compiled rules that apply to one group of customers.
+     */
+    private static class RuleTable {
+        private final HashMap<String, LineRules> byItem; // The line rules of each item
+        private final BigDecimal[] thresholds;           // Basket thresholds, ascending
+        private final BigDecimal[] bestPercents;         // Best basket percentage up to each threshold
+
+        /**
+         * Compiles rules into a table.
+         *
+         * @param rules      The rules.
+         * @param categories The item identifiers in each category.
+         */
+        RuleTable(List<DiscountRule> rules, Map<String, ? extends Collection<String>> categories) {
+            this.byItem = new HashMap<>();
+            List<DiscountRule> basketRules = new ArrayList<>();
+            for (DiscountRule rule : rules) {
+                switch (rule.getKind()) {
+                    case ITEM -> lineRulesOf(rule.getTarget()).addPercent(rule.getPercentOff());
+                    case CATEGORY -> {
+                        Collection<String> members = categories.get(rule.getTarget());
+                        for (String itemID : members == null ? List.<String>of() : members) {
+                            lineRulesOf(itemID).addPercent(rule.getPercentOff());
+                        }
+                    }
+                    case MULTI_BUY -> lineRulesOf(rule.getTarget()).addDeal(rule.getBuy(), rule.getPayFor());
+                    case BASKET -> basketRules.add(rule);
+                }
+            }
+            basketRules.sort((first, second) -> first.getThreshold().compareTo(second.getThreshold()));
+            this.thresholds = new BigDecimal[basketRules.size()];
+            this.bestPercents = new BigDecimal[basketRules.size()];
+            BigDecimal best = BigDecimal.ZERO;
+            for (int i = 0; i < thresholds.length; i++) {
+                best = best.max(basketRules.get(i).getPercentOff());
+                thresholds[i] = basketRules.get(i).getThreshold();
+                bestPercents[i] = best;
+            }
+        }
+
+        /**
+         * Retrieves the line rules of an item, creating them if needed.
+         *
+         * @param itemID The unique identifier of the item.
+         * @return The line rules of the item.
+         */
+        private LineRules lineRulesOf(String itemID) {
+            return byItem.computeIfAbsent(keyOf(itemID), key -> new LineRules());
+        }
+
+        /**
+         * Finds the best basket percentage whose threshold a subtotal reaches.
+         *
+         * @param subtotal The subtotal of the sale.
+         * @return The best percentage, 0 if no threshold is reached.
+         */
+        BigDecimal basketPercent(BigDecimal subtotal) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (thresholds[middle].compareTo(subtotal) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low == 0 ? BigDecimal.ZERO : bestPercents[low - 1];
+        }
+    }
+
+    /**
+     * The compiled rules that apply to the lines of one item.
+     */
+    private static class LineRules {
+        private BigDecimal percentOff = BigDecimal.ZERO; // Best percentage of the item and category rules
+        private int[][] deals = new int[0][];            // Units bought and paid for of each multi-buy deal
+
+        /**
+         * Merges a percentage rule, keeping the best percentage.
+         *
+         * @param percent The percentage of the rule.
+         */
+        void addPercent(BigDecimal percent) {
+            percentOff = percentOff.max(percent);
+        }
+
+        /**
+         * Adds a multi-buy deal.
+         *
+         * @param buy    The units bought per deal.
+         * @param payFor The units paid for per deal.
+         */
+        void addDeal(int buy, int payFor) {
+            deals = Arrays.copyOf(deals, deals.length + 1);
+            deals[deals.length - 1] = new int[] {buy, payFor};
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package src.main.java.processSale.integration;
+
+import java.math.BigDecimal;
+
+/**
+ * A discount rule of the discount system. Rules are created with the factory
+ * methods, optionally restricted to one customer with
+ * {@link #forCustomer(String)}, and compiled into a {@link DiscountEngine}.
+ * <ul>
+ * <li>An item rule takes a percentage off every unit of one item.</li>
+ * <li>A category rule takes a percentage off every unit of each item in a
+ * category.</li>
+ * <li>A multi-buy rule makes the customer pay for fewer units than they buy
+ * of one item, such as three for the price of two.</li>
+ * <li>A basket rule takes a percentage off the whole sale once its total
+ * reaches a threshold.</li>
+ * </ul>
+ * Instances are immutable.
+ */
+public class DiscountRule {
+    /**
+     * The kinds of discount rules.
+     */
+    public enum Kind {
+        ITEM, CATEGORY, MULTI_BUY, BASKET
+    }
+
+    private final Kind kind;                // The kind of rule
+    private final String target;            // The item ID or category, or null for a basket rule
+    private final BigDecimal percentOff;    // The percentage taken off, or null for a multi-buy rule
+    private final BigDecimal threshold;     // The total a basket must reach, or null for other rules
+    private final int buy;                  // The units bought per multi-buy deal, or 0
+    private final int payFor;               // The units paid for per multi-buy deal, or 0
+    private final String customerID;        // The only customer the rule applies to, or null for all
+
+    /**
+     * Creates a new rule. Use the factory methods instead.
+     *
+     * @param kind       The kind of rule.
+     * @param target     The item ID or category, or {@code null}.
+     * @param percentOff The percentage taken off, or {@code null}.
+     * @param threshold  The total a basket must reach, or {@code null}.
+     * @param buy        The units bought per multi-buy deal, or 0.
+     * @param payFor     The units paid for per multi-buy deal, or 0.
+     * @param customerID The only customer the rule applies to, or
+     *                   {@code null}.
+     */
+    private DiscountRule(Kind kind, String target, BigDecimal percentOff, BigDecimal threshold, int buy, int payFor,
+            String customerID) {
+        this.kind = kind;
+        this.target = target;
+        this.percentOff = percentOff;
+        this.threshold = threshold;
+        this.buy = buy;
+        this.payFor = payFor;
+        this.customerID = customerID;
+    }
+
+    /**
+     * Creates a rule that takes a percentage off every unit of one item.
+     *
+     * @param itemID     The unique identifier of the item.
+     * @param percentOff The percentage taken off, from 0 to 100.
+     * @return The rule.
+     * @throws IllegalArgumentException if the percentage is out of range.
+     */
+    public static DiscountRule forItem(String itemID, BigDecimal percentOff) {
+        return new DiscountRule(Kind.ITEM, itemID, checkPercent(percentOff), null, 0, 0, null);
+    }
+
+    /**
+     * Creates a rule that takes a percentage off every unit of the items in a
+     * category.
+     *
+     * @param category   The name of the category.
+     * @param percentOff The percentage taken off, from 0 to 100.
+     * @return The rule.
+     * @throws IllegalArgumentException if the percentage is out of range.
+     */
+    public static DiscountRule forCategory(String category, BigDecimal percentOff) {
+        return new DiscountRule(Kind.CATEGORY, category, checkPercent(percentOff), null, 0, 0, null);
+    }
+
+    /**
+     * Creates a rule that lets the customer pay for {@code payFor} units of an
+     * item for every {@code buy} units bought.
+     *
+     * @param itemID The unique identifier of the item.
+     * @param buy    The number of units bought per deal.
+     * @param payFor The number of units paid for per deal.
+     * @return The rule.
+     * @throws IllegalArgumentException if {@code payFor} is not between 0 and
+     *                                  {@code buy}.
+     */
+    public static DiscountRule multiBuy(String itemID, int buy, int payFor) {
+        if (payFor < 0 || payFor >= buy) {
+            throw new IllegalArgumentException("A multi-buy deal must pay for fewer units than it buys.");
+        }
+        return new DiscountRule(Kind.MULTI_BUY, itemID, null, null, buy, payFor, null);
+    }
+
+    /**
+     * Creates a rule that takes a percentage off the whole sale once its total
+     * reaches a threshold.
+     *
+     * @param threshold  The total the sale must reach, after the discounts on
+     *                   its items.
+     * @param percentOff The percentage taken off, from 0 to 100.
+     * @return The rule.
+     * @throws IllegalArgumentException if the percentage is out of range.
+     */
+    public static DiscountRule basketThreshold(BigDecimal threshold, BigDecimal percentOff) {
+        return new DiscountRule(Kind.BASKET, null, checkPercent(percentOff), threshold, 0, 0, null);
+    }
+
+    /**
+     * Restricts the rule to one customer.
+     *
+     * @param customerID The unique identifier of the customer.
+     * @return A copy of the rule that only applies to the customer.
+     */
+    public DiscountRule forCustomer(String customerID) {
+        return new DiscountRule(kind, target, percentOff, threshold, buy, payFor, customerID);
+    }
+
+    /**
+     * Retrieves the kind of the rule.
+     *
+     * @return The kind.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Retrieves the item identifier or category the rule applies to.
+     *
+     * @return The item ID or category, or {@code null} for a basket rule.
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * Retrieves the percentage the rule takes off.
+     *
+     * @return The percentage, or {@code null} for a multi-buy rule.
+     */
+    public BigDecimal getPercentOff() {
+        return percentOff;
+    }
+
+    /**
+     * Retrieves the total a sale must reach for a basket rule to apply.
+     *
+     * @return The threshold, or {@code null} for other rules.
+     */
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Retrieves the number of units bought per multi-buy deal.
+     *
+     * @return The units bought, or 0 for other rules.
+     */
+    public int getBuy() {
+        return buy;
+    }
+
+    /**
+     * Retrieves the number of units paid for per multi-buy deal.
+     *
+     * @return The units paid for, or 0 for other rules.
+     */
+    public int getPayFor() {
+        return payFor;
+    }
+
+    /**
+     * Retrieves the customer the rule is restricted to.
+     *
+     * @return The customer ID, or {@code null} if the rule applies to all
+     *         customers.
+     */
+    public String getCustomerID() {
+        return customerID;
+    }
+
+    /**
+     * Checks that a percentage is between 0 and 100.
+     *
+     * @param percent The percentage.
+     * @return The percentage.
+     * @throws IllegalArgumentException if the percentage is out of range.
+     */
+    private static BigDecimal checkPercent(BigDecimal percent) {
+        if (percent.signum() < 0 || percent.compareTo(BigDecimal.valueOf(100)) > 0) {
+            throw new IllegalArgumentException("A discount must be between 0 and 100 percent.");
+        }
+        return percent;
+    }
+}
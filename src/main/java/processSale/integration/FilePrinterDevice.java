@@ -0,0 +1,100 @@
+package src.main.java.processSale.integration;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * A stand-in for a physical receipt printer that appends each receipt to a
+ * file. Each write can be made to take a fixed time, to act like a slow
+ * printer. A write interrupted while writing closes the file, as for any
+ * {@link FileChannel}, so the next write opens it again.
+ */
+public class FilePrinterDevice implements WritableByteChannel {
+    private final Path path;            // The file the receipts are appended to
+    private final long printTimeMillis; // How long each write takes
+    private FileChannel file;           // The open printer file, guarded by this
+    private boolean closed;             // Set when the device is closed, guarded by this
+
+    /**
+     * Opens the printer file, creating it if needed.
+     *
+     * @param file      The file the receipts are appended to.
+     * @param printTime How long each write takes.
+     * @throws IOException if the file cannot be opened.
+     */
+    public FilePrinterDevice(Path file, Duration printTime) throws IOException {
+        this.path = file;
+        this.file = open(file);
+        this.printTimeMillis = printTime.toMillis();
+    }
+
+    /**
+     * Opens a printer file for appending, creating it if needed.
+     *
+     * @param file The file the receipts are appended to.
+     * @return The open file.
+     * @throws IOException if the file cannot be opened.
+     */
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Appends the remaining bytes to the file, after the print time.
+     *
+     * @param source The bytes to print.
+     * @return The number of bytes printed.
+     * @throws IOException if the file cannot be written, the print is
+     *                     interrupted, or the device is closed.
+     */
+    @Override
+    public synchronized int write(ByteBuffer source) throws IOException {
+        if (printTimeMillis > 0) {
+            try {
+                Thread.sleep(printTimeMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while printing.");
+            }
+        }
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (!file.isOpen()) {
+            file = open(path);
+        }
+        int count = 0;
+        while (source.hasRemaining()) {
+            count += file.write(source);
+        }
+        return count;
+    }
+
+    /**
+     * Tells whether the printer file is open.
+     *
+     * @return {@code true} until the device is closed.
+     */
+    @Override
+    public synchronized boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Closes the printer file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        file.close();
+    }
+}
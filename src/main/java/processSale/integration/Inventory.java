@@ -1,8 +1,17 @@
 package src.main.java.processSale.integration;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 import java.math.BigDecimal;
 
 import src.main.java.processSale.model.ItemNotFoundException;
@@ -11,42 +20,111 @@ import src.main.java.processSale.model.dto.*;
 /**
  * Represents the inventory system that manages item data and updates inventory
  * after a sale. It loads item data from a file and provides methods to retrieve
- * and update inventory information.
+ * and update inventory information. Loaded items are kept in a map keyed by
+ * identifier, and are looked up without regard to case. This is the local
+ * {@link InventoryClient}, and also the catalog served by the
+ * {@link InventoryServer} stand-in.
  */
-public class Inventory {
-    private final File inventoryDatabase; // File containing inventory data
-    private final ItemDTO[] items;        // Array to store items in the inventory
+public class Inventory implements InventoryClient {
+    private static final int PARALLEL_PARSE_THRESHOLD = 10_000; // Rows from which the catalog is parsed in parallel
+
+    private final File inventoryDatabase;         // File containing inventory data
+    private final ItemDTO[] items;                // Array to store items in the inventory
+    private final Map<String, ItemDTO> catalog;   // Items keyed by their ID in lower case, never modified
 
     /**
-     * Initializes the inventory system by loading item data from a file.
+     * Initializes the inventory system by loading item data from the default
+     * inventory file.
      * The file must contain item data in the format: name ID description price
      * VATRate. Prints an error message if the file cannot be found.
      */
     public Inventory() {
-        inventoryDatabase = new File("src\\main\\java\\processSale\\integration\\InventoryDatabase.txt");
-        items = new ItemDTO[6]; // Assuming a fixed size for simplicity
-
-        try (Scanner myReader = new Scanner(inventoryDatabase)) {
-            int rowNumber = 0;
-            while (myReader.hasNextLine() && rowNumber < items.length) {
-                String[] row = myReader.nextLine().split(" ");
-                ItemDTO item = new ItemDTO(
-                        row[0], // Name
-                        row[1], // ID
-                        row[2], // Description
-                        new BigDecimal(row[3]), // Price
-                        new BigDecimal(row[4]) // VAT Rate
-                );
-                items[rowNumber++] = item;
-            }
-        } catch (FileNotFoundException e) {
+        this(Paths.get("src", "main", "java", "processSale", "integration", "InventoryDatabase.txt").toFile());
+    }
+
+    /**
+     * Initializes the inventory system by loading item data from the specified
+     * file. The file must contain one item per line in the format: name ID
+     * description price VATRate. A large catalog is parsed on several threads
+     * and catalogued in file order, so startup time grows slowly with its size.
+     * If an identifier occurs on several rows, the first row is used.
+     * Prints an error message if the file cannot be found.
+     *
+     * @param inventoryDatabase The file containing the inventory data.
+     */
+    public Inventory(File inventoryDatabase) {
+        this.inventoryDatabase = inventoryDatabase;
+        List<String> rows = List.of();
+        try {
+            rows = Files.readAllLines(inventoryDatabase.toPath(), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
             System.out.println("Error: Inventory file not found.");
             e.printStackTrace();
+        } catch (IOException e) {
+            System.out.println("Error: Inventory file could not be read: " + e.getMessage());
+        }
+        Stream<String> rowStream = rows.size() >= PARALLEL_PARSE_THRESHOLD ? rows.parallelStream() : rows.stream();
+        items = rowStream.map(Inventory::parseRow).filter(Objects::nonNull).toArray(ItemDTO[]::new);
+        catalog = new HashMap<>();
+        for (ItemDTO item : items) {
+            catalog.putIfAbsent(key(item.getID()), item);
         }
 
         System.out.println("Inventory system initialized.");
     }
 
+    /**
+     * Parses one row of inventory data in the format: name ID description price
+     * VATRate. The same format is used by the {@link InventoryServer}.
+     *
+     * @param line The row.
+     * @return The item, or {@code null} if the row has too few fields.
+     * @throws NumberFormatException if the price or VAT rate is not a number.
+     */
+    static ItemDTO parseRow(String line) {
+        String[] row = line.split(" ");
+        if (row.length < 5) {
+            return null;
+        }
+        return new ItemDTO(
+                row[0], // Name
+                row[1], // ID
+                row[2], // Description
+                new BigDecimal(row[3]), // Price
+                new BigDecimal(row[4]) // VAT Rate
+        );
+    }
+
+    /**
+     * Formats an item as one row of inventory data, the inverse of
+     * {@link #parseRow(String)}.
+     *
+     * @param item The item.
+     * @return The row, without a line separator.
+     */
+    static String formatRow(ItemDTO item) {
+        return item.getName() + " " + item.getID() + " " + item.getDescription() + " "
+                + item.getPrice().toPlainString() + " " + item.getVATRate().toPlainString();
+    }
+
+    /**
+     * Retrieves the number of items in the inventory.
+     *
+     * @return The number of items loaded from the inventory file.
+     */
+    public int getCatalogSize() {
+        return items.length;
+    }
+
+    /**
+     * Builds a search index over the items in the inventory.
+     *
+     * @return A new {@link ItemSearchIndex} over the loaded items.
+     */
+    public ItemSearchIndex createSearchIndex() {
+        return new ItemSearchIndex(items);
+    }
+
     /**
      * Retrieves an item from the inventory based on its unique identifier.
      *
@@ -56,23 +134,58 @@ public class Inventory {
      *                               in the inventory.
      * @throws ConnectionEstablishmentException if certain hardcoded message is read.
      */
+    @Override
     public ItemDTO getItem(String itemID) throws ItemNotFoundException, ConnectionEstablishmentException {
 
-        if (itemID.equalsIgnoreCase("error")) {
+        if ("error".equalsIgnoreCase(itemID)) {
             throw new ConnectionEstablishmentException(
                     "External Inventory System socket could not be reached.",
                     "External Inventory System");
         }
 
-        for (ItemDTO item : items) {
-            if (item != null && item.getID().equalsIgnoreCase(itemID)) {
-                return item;
-            }
+        ItemDTO item = itemID == null ? null : catalog.get(key(itemID));
+        if (item != null) {
+            return item;
         }
         throw new ItemNotFoundException(
                 "Item with identifier '" + itemID + "' could not be found in External Inventory System.", itemID);
     }
 
+    /**
+     * Retrieves several items in one call, as when a whole basket is scanned
+     * at once. Missing items do not fail the call, so one unknown barcode does
+     * not hold up the rest of the basket.
+     *
+     * @param itemIDs The unique identifiers of the items.
+     * @return The found items, in the same order as {@code itemIDs}, with
+     *         {@code null} for each identifier that is not in the inventory.
+     * @throws ConnectionEstablishmentException if certain hardcoded message is
+     *                                          among the identifiers.
+     */
+    @Override
+    public ItemDTO[] getItems(String[] itemIDs) throws ConnectionEstablishmentException {
+        ItemDTO[] found = new ItemDTO[itemIDs.length];
+        for (int i = 0; i < itemIDs.length; i++) {
+            if ("error".equalsIgnoreCase(itemIDs[i])) {
+                throw new ConnectionEstablishmentException(
+                        "External Inventory System socket could not be reached.",
+                        "External Inventory System");
+            }
+            found[i] = itemIDs[i] == null ? null : catalog.get(key(itemIDs[i]));
+        }
+        return found;
+    }
+
+    /**
+     * Normalizes an item identifier for lookup.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The identifier in lower case.
+     */
+    private static String key(String itemID) {
+        return itemID.toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Updates the inventory after a sale. This implementation only prints a
      * message, but could be extended to update actual inventory data.
@@ -80,6 +193,7 @@ public class Inventory {
      * @param saleSummaryDTO A {@link SaleSummaryDTO} containing details of the
      *                       completed sale.
      */
+    @Override
     public void updateInventory(SaleSummaryDTO saleSummaryDTO) {
         System.out.println("Inventory updated.");
     }
@@ -0,0 +1,58 @@
+package src.main.java.processSale.integration;
+
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+
+/**
+ * The operations the controller needs from the external inventory system.
+ * Implemented by the local, file-based {@link Inventory}, by the
+ * {@link RemoteInventoryClient} that calls an inventory server over HTTP, and
+ * by the {@link CachingInventoryClient} that caches items in front of another
+ * client.
+ */
+public interface InventoryClient {
+    /**
+     * Retrieves an item based on its unique identifier.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The {@link ItemDTO} object if found.
+     * @throws ItemNotFoundException            if no item with the specified ID
+     *                                          exists in the inventory.
+     * @throws ConnectionEstablishmentException if the inventory system cannot
+     *                                          be reached.
+     */
+    ItemDTO getItem(String itemID) throws ItemNotFoundException, ConnectionEstablishmentException;
+
+    /**
+     * Retrieves several items in one call. Missing items do not fail the call.
+     * By default the items are retrieved one at a time.
+     *
+     * @param itemIDs The unique identifiers of the items.
+     * @return The found items, in the same order as {@code itemIDs}, with
+     *         {@code null} for each identifier that is not in the inventory.
+     * @throws ConnectionEstablishmentException if the inventory system cannot
+     *                                          be reached.
+     */
+    default ItemDTO[] getItems(String[] itemIDs) throws ConnectionEstablishmentException {
+        ItemDTO[] found = new ItemDTO[itemIDs.length];
+        for (int i = 0; i < itemIDs.length; i++) {
+            try {
+                found[i] = getItem(itemIDs[i]);
+            } catch (ItemNotFoundException e) {
+                found[i] = null;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Updates the inventory after a sale.
+     *
+     * @param saleSummaryDTO A {@link SaleSummaryDTO} containing details of the
+     *                       completed sale.
+     * @throws ConnectionEstablishmentException if the inventory system cannot
+     *                                          be reached.
+     */
+    void updateInventory(SaleSummaryDTO saleSummaryDTO);
+}
@@ -0,0 +1,213 @@
+package src.main.java.processSale.integration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import src.main.java.processSale.concurrent.ThreadPools;
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.ItemDTO;
+
+/**
+ * A local stand-in for the external inventory system, serving an
+ * {@link Inventory} over HTTP so that registers can be run against a remote
+ * catalog with the {@link RemoteInventoryClient}.
+ * <ul>
+ * <li>{@code GET /items/<id>} returns the item as a row in the format of the
+ * inventory file, or 404 if it is missing.</li>
+ * <li>{@code GET /items?ids=<id>,<id>} returns one row per identifier, with an
+ * empty row for each missing item.</li>
+ * <li>{@code POST /inventory} accepts the sold lines of a sale.</li>
+ * </ul>
+ * The magic identifier that makes the inventory unreachable is answered with
+ * 503.
+ */
+public class InventoryServer {
+    private static final int DEFAULT_PORT = 8081;
+    private static final String ROW_CONTENT_TYPE = "text/plain; charset=utf-8";
+
+    private final HttpServer server;        // The JDK HTTP server
+    private final ExecutorService executor; // Runs the request handlers
+    private final Inventory inventory;      // The served catalog
+    private final LongAdder itemRequests;   // Number of item lookups served
+    private final LongAdder updates;        // Number of inventory updates received
+
+    /**
+     * Creates a new server bound to the specified address. The server does not
+     * accept requests until it is started.
+     *
+     * @param address   The address to listen on. Port 0 picks a free port.
+     * @param inventory The catalog to serve.
+     * @throws IOException if the address cannot be bound.
+     */
+    public InventoryServer(InetSocketAddress address, Inventory inventory) throws IOException {
+        this.inventory = inventory;
+        this.itemRequests = new LongAdder();
+        this.updates = new LongAdder();
+        this.server = HttpServer.create(address, 0);
+        this.executor = ThreadPools.newPerTaskExecutor("inventory-http");
+        server.setExecutor(executor);
+        server.createContext("/items", this::serveItems);
+        server.createContext("/inventory", this::receiveUpdate);
+    }
+
+    /**
+     * Starts a stand-in inventory system serving the default inventory file,
+     * and keeps running until the process is stopped.
+     *
+     * @param args The port, by default {@value #DEFAULT_PORT}.
+     * @throws IOException          if the port cannot be bound.
+     * @throws InterruptedException if the main thread is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        InventoryServer server = new InventoryServer(new InetSocketAddress(port), new Inventory());
+        server.start();
+        System.out.println("Inventory system listening on port " + server.getPort() + ".");
+        // The handler threads are daemons, so keep the main thread alive
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and releases the port.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return The port number.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Retrieves the number of item lookups served, counting a batch lookup as
+     * one.
+     *
+     * @return The number of item requests.
+     */
+    public long getItemRequestCount() {
+        return itemRequests.sum();
+    }
+
+    /**
+     * Retrieves the number of inventory updates received.
+     *
+     * @return The number of updates.
+     */
+    public long getUpdateCount() {
+        return updates.sum();
+    }
+
+    /**
+     * Serves a single or a batch item lookup.
+     *
+     * @param exchange The request and response.
+     * @throws IOException if the response cannot be written.
+     */
+    private void serveItems(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            itemRequests.increment();
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getRawQuery();
+            try {
+                if (path.startsWith("/items/")) {
+                    String itemID = path.substring("/items/".length());
+                    respond(exchange, 200, Inventory.formatRow(inventory.getItem(itemID)));
+                } else if (query != null && query.startsWith("ids=")) {
+                    respond(exchange, 200, lookUpBatch(query.substring("ids=".length())));
+                } else {
+                    exchange.sendResponseHeaders(400, -1);
+                }
+            } catch (ItemNotFoundException e) {
+                exchange.sendResponseHeaders(404, -1);
+            } catch (ConnectionEstablishmentException e) {
+                exchange.sendResponseHeaders(503, -1);
+            }
+        }
+    }
+
+    /**
+     * Looks up a batch of items.
+     *
+     * @param encodedIDs The comma-separated, URL-encoded item identifiers.
+     * @return One row per identifier, with an empty row for a missing item.
+     * @throws ConnectionEstablishmentException if the magic identifier is among
+     *                                          the identifiers.
+     */
+    private String lookUpBatch(String encodedIDs) {
+        String[] itemIDs = encodedIDs.split(",");
+        for (int i = 0; i < itemIDs.length; i++) {
+            itemIDs[i] = URLDecoder.decode(itemIDs[i], StandardCharsets.UTF_8);
+        }
+        StringBuilder rows = new StringBuilder();
+        for (ItemDTO item : inventory.getItems(itemIDs)) {
+            if (item != null) {
+                rows.append(Inventory.formatRow(item));
+            }
+            rows.append('\n');
+        }
+        return rows.toString();
+    }
+
+    /**
+     * Receives the sold lines of a sale.
+     *
+     * @param exchange The request and response.
+     * @throws IOException if the request cannot be read.
+     */
+    private void receiveUpdate(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            body.readAllBytes();
+            updates.increment();
+            exchange.sendResponseHeaders(204, -1);
+        }
+    }
+
+    /**
+     * Sends a text response.
+     *
+     * @param exchange The request and response.
+     * @param status   The status code.
+     * @param body     The response body.
+     * @throws IOException if the response cannot be written.
+     */
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", ROW_CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package src.main.java.processSale.integration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import src.main.java.processSale.model.dto.ItemDTO;
+
+/**
+ * An immutable search index over a catalog of items, for cashiers who key a
+ * partial item identifier or look up produce by name.
+ * <ul>
+ * <li>Identifiers, and the words of names and descriptions, are kept in
+ * sorted arrays, so a prefix query is a binary search followed by a scan of
+ * the matching range.</li>
+ * <li>Names and descriptions are also split into trigrams, each mapped to the
+ * sorted positions of the items containing it, so a query for any part of a
+ * name only looks at the items that contain all its trigrams.</li>
+ * </ul>
+ * Matching ignores case and punctuation. The index is built once from a
+ * snapshot of the catalog and is safe to share between threads.
+ */
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemDTO[] items;              // The indexed items, by position
+    private final String[] names;               // The normalized name of each item
+    private final String[] descriptions;        // The normalized description of each item
+    private final String[] idKeys;              // The lowercase identifiers, sorted
+    private final int[] idItems;                // The item position of each identifier key
+    private final String[] wordKeys;            // The words of all names and descriptions, sorted
+    private final int[] wordItems;              // The item position of each word key
+    private final HashMap<Long, int[]> grams;   // The sorted item positions containing each trigram
+
+    /**
+     * Builds the index over the specified items.
+     *
+     * @param catalog The items to index.
+     */
+    public ItemSearchIndex(ItemDTO[] catalog) {
+        this.items = catalog.clone();
+        this.names = new String[items.length];
+        this.descriptions = new String[items.length];
+        List<Key> ids = new ArrayList<>(items.length);
+        List<Key> words = new ArrayList<>(items.length * 3);
+        HashMap<Long, Postings> postings = new HashMap<>();
+        for (int position = 0; position < items.length; position++) {
+            ItemDTO item = items[position];
+            names[position] = normalize(item.getName());
+            descriptions[position] = normalize(item.getDescription());
+            ids.add(new Key(item.getID().toLowerCase(Locale.ROOT), position));
+            for (String text : new String[] {names[position], descriptions[position]}) {
+                for (String word : text.split(" ")) {
+                    if (!word.isEmpty()) {
+                        words.add(new Key(word, position));
+                    }
+                }
+                for (int start = 0; start + GRAM_LENGTH <= text.length(); start++) {
+                    postings.computeIfAbsent(gramAt(text, start), gram -> new Postings()).add(position);
+                }
+            }
+        }
+        ids.sort(Comparator.comparing((Key key) -> key.text));
+        words.sort(Comparator.comparing((Key key) -> key.text));
+        this.idKeys = texts(ids);
+        this.idItems = positions(ids);
+        this.wordKeys = texts(words);
+        this.wordItems = positions(words);
+        this.grams = new HashMap<>(postings.size() * 2);
+        postings.forEach((gram, list) -> grams.put(gram, list.toArray()));
+    }
+
+    /**
+     * Searches by identifier first and by name and description second. The
+     * items whose identifier starts with the query come first, followed by the
+     * items found by {@link #searchByName(String, int)}.
+     *
+     * @param query The text keyed by the cashier.
+     * @param limit The largest number of items to return.
+     * @return At most {@code limit} matching items, best match first.
+     */
+    public List<ItemDTO> search(String query, int limit) {
+        LinkedHashSet<ItemDTO> found = new LinkedHashSet<>(searchByID(query, limit));
+        if (found.size() < limit) {
+            found.addAll(searchByName(query, limit));
+        }
+        List<ItemDTO> matches = new ArrayList<>(found);
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Searches for the items whose identifier starts with a prefix. An exact
+     * match comes first, and the others follow in the order of their
+     * identifiers.
+     *
+     * @param prefix The start of the identifier.
+     * @param limit  The largest number of items to return.
+     * @return At most {@code limit} matching items.
+     */
+    public List<ItemDTO> searchByID(String prefix, int limit) {
+        return scanPrefix(idKeys, idItems, prefix.trim().toLowerCase(Locale.ROOT), limit);
+    }
+
+    /**
+     * Searches for the items whose name or description contains the query.
+     * Items whose name starts with the query rank first, then other name
+     * matches, then description matches. Within each group shorter names rank
+     * first. A query shorter than a trigram matches the start of any word
+     * instead.
+     *
+     * @param query Any part of the name or description.
+     * @param limit The largest number of items to return.
+     * @return At most {@code limit} matching items, best match first.
+     */
+    public List<ItemDTO> searchByName(String query, int limit) {
+        String text = normalize(query);
+        if (text.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (text.length() < GRAM_LENGTH) {
+            return scanPrefix(wordKeys, wordItems, text, limit);
+        }
+        int[] candidates = candidatesFor(text);
+        Comparator<Integer> worstFirst = Comparator.comparingInt((Integer position) -> rank(position, text))
+                .thenComparingInt(position -> names[position].length())
+                .thenComparing(position -> names[position]).reversed();
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, worstFirst);
+        for (int position : candidates) {
+            if (rank(position, text) == Integer.MAX_VALUE) {
+                continue;
+            }
+            best.add(position);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        ItemDTO[] matches = new ItemDTO[best.size()];
+        for (int i = matches.length - 1; i >= 0; i--) {
+            matches[i] = items[best.poll()];
+        }
+        return Arrays.asList(matches);
+    }
+
+    /**
+     * Retrieves the number of indexed items.
+     *
+     * @return The number of items.
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Finds the items that contain every trigram of a query, by intersecting
+     * the posting lists starting with the shortest.
+     *
+     * @param text The normalized query, at least one trigram long.
+     * @return The sorted positions of the candidate items.
+     */
+    private int[] candidatesFor(String text) {
+        List<int[]> lists = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int start = 0; start + GRAM_LENGTH <= text.length(); start++) {
+            long gram = gramAt(text, start);
+            if (!seen.add(gram)) {
+                continue;
+            }
+            int[] list = grams.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        int[] candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            int[] other = lists.get(i);
+            int kept = 0;
+            int[] filtered = new int[candidates.length];
+            for (int position : candidates) {
+                if (Arrays.binarySearch(other, position) >= 0) {
+                    filtered[kept++] = position;
+                }
+            }
+            candidates = Arrays.copyOf(filtered, kept);
+        }
+        return candidates;
+    }
+
+    /**
+     * Ranks how well an item matches a query.
+     *
+     * @param position The position of the item.
+     * @param text     The normalized query.
+     * @return 0 if the name starts with the query, 1 if the name contains it,
+     *         2 if the description contains it, and {@link Integer#MAX_VALUE}
+     *         if the item does not match.
+     */
+    private int rank(int position, String text) {
+        if (names[position].startsWith(text)) {
+            return 0;
+        }
+        if (names[position].contains(text)) {
+            return 1;
+        }
+        return descriptions[position].contains(text) ? 2 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Collects the distinct items of the keys that start with a prefix.
+     *
+     * @param keys      The sorted keys.
+     * @param positions The item position of each key.
+     * @param prefix    The normalized prefix.
+     * @param limit     The largest number of items to return.
+     * @return At most {@code limit} items, in the order of their keys.
+     */
+    private List<ItemDTO> scanPrefix(String[] keys, int[] positions, String prefix, int limit) {
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        LinkedHashSet<ItemDTO> found = new LinkedHashSet<>();
+        int first = lowerBound(keys, prefix);
+        for (int i = first; i < keys.length && keys[i].startsWith(prefix) && found.size() < limit; i++) {
+            found.add(items[positions[i]]);
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * Finds the first key that is not smaller than a value.
+     *
+     * @param keys  The sorted keys.
+     * @param value The value.
+     * @return The index of the first key not smaller than {@code value}.
+     */
+    private static int lowerBound(String[] keys, String value) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Normalizes text for matching: lower case, with every run of characters
+     * other than letters and digits replaced by a single space.
+     *
+     * @param text The text.
+     * @return The normalized text.
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /**
+     * Packs the trigram starting at a position of a text into one number.
+     *
+     * @param text  The normalized text.
+     * @param start The position of the first character.
+     * @return The packed trigram.
+     */
+    private static long gramAt(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Extracts the texts of sorted keys.
+     *
+     * @param keys The sorted keys.
+     * @return The text of each key.
+     */
+    private static String[] texts(List<Key> keys) {
+        String[] texts = new String[keys.size()];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = keys.get(i).text;
+        }
+        return texts;
+    }
+
+    /**
+     * Extracts the item positions of sorted keys.
+     *
+     * @param keys The sorted keys.
+     * @return The item position of each key.
+     */
+    private static int[] positions(List<Key> keys) {
+        int[] positions = new int[keys.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = keys.get(i).position;
+        }
+        return positions;
+    }
+
+    /**
+     * A search key and the position of the item it belongs to.
+     */
+    private static class Key {
+        private final String text;  // The normalized key
+        private final int position; // The position of the item
+
+        /**
+         * Creates a new key.
+         *
+         * @param text     The normalized key.
+         * @param position The position of the item.
+         */
+        Key(String text, int position) {
+            this.text = text;
+            this.position = position;
+        }
+    }
+
+    /**
+     * A growing, sorted list of item positions without duplicates, filled in
+     * the order the items are indexed.
+     */
+    private static class Postings {
+        private int[] positions = new int[4]; // The positions, in ascending order
+        private int size;                     // The number of positions
+
+        /**
+         * Adds a position unless it was the last one added.
+         *
+         * @param position The position of the item.
+         */
+        void add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        /**
+         * Copies the positions to an array of the exact size.
+         *
+         * @return The positions.
+         */
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package src.main.java.processSale.integration;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import src.main.java.processSale.concurrent.ThreadPools;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+
+/**
+ * Delivers completed sales to one external system, such as the accounting
+ * system, in the background. Submitted sales are written to a
+ * {@link SaleJournal} and the register goes on at once, whether or not the
+ * external system can be reached. A drainer thread delivers the queued sales
+ * in the order they were submitted, a batch at a time, and removes each batch
+ * from the journal once it is delivered. When a delivery fails, the drainer
+ * waits before trying again, doubling the wait after each failure up to a
+ * maximum, so an unreachable system is not flooded with retries. Sales are
+ * delivered at least once: a sale delivered just before the register stops
+ * may be delivered again after a restart.
+ *
+ * A {@link ConnectionEstablishmentException} means the system cannot be
+ * reached, and the sale is retried until it can. Any other failure means the
+ * system refused the sale itself. A sale refused {@value #MAX_ATTEMPTS} times
+ * in a row is moved to a dead-letter journal, or dropped with a message if
+ * there is none, so it does not hold up the sales behind it. This class is
+ * thread-safe.
+ */
+public class OfflineSaleQueue {
+    /**
+     * The number of times in a row a sale may be refused before it is moved
+     * out of the queue.
+     */
+    public static final int MAX_ATTEMPTS = 5;
+
+    private final String systemName;                     // The external system, named in messages
+    private final SaleJournal journal;                   // The durable queue of undelivered sales
+    private final SaleJournal deadLetters;               // Sales the system keeps refusing, or null
+    private final Consumer<SaleSummaryDTO> destination;  // Delivers one sale to the external system
+    private final int batchSize;                         // The largest number of sales delivered per batch
+    private final long initialBackoffMillis;             // Wait after the first failed delivery
+    private final long maxBackoffMillis;                 // Longest wait between failed deliveries
+    private final Object signal = new Object();          // Wakes the drainer when a sale is submitted or it stops
+    private final LongAdder delivered = new LongAdder(); // Number of sales delivered
+    private final LongAdder failures = new LongAdder();  // Number of failed deliveries
+    private final LongAdder refused = new LongAdder();   // Number of sales moved out of the queue
+    private final Thread drainer;                        // Delivers the queued sales
+    private volatile boolean running;                    // Cleared when the queue is stopped
+    private int refusals;                                // Refusals in a row of the oldest sale, drainer only
+
+    /**
+     * Creates a new queue without a dead-letter journal, so a sale the system
+     * keeps refusing is dropped. Sales queued in the journal by an earlier run
+     * are delivered once the queue is started.
+     *
+     * @param systemName     The name of the external system.
+     * @param journal        The durable queue of undelivered sales.
+     * @param destination    Delivers one sale to the external system, throwing
+     *                       an unchecked exception if it fails.
+     * @param batchSize      The largest number of sales delivered before the
+     *                       journal is updated.
+     * @param initialBackoff The wait after the first failed delivery.
+     * @param maxBackoff     The longest wait between failed deliveries.
+     * @throws IllegalArgumentException if {@code batchSize} is not positive.
+     */
+    public OfflineSaleQueue(String systemName, SaleJournal journal, Consumer<SaleSummaryDTO> destination,
+            int batchSize, Duration initialBackoff, Duration maxBackoff) {
+        this(systemName, journal, null, destination, batchSize, initialBackoff, maxBackoff);
+    }
+
+    /**
+     * Creates a new queue. Sales queued in the journal by an earlier run are
+     * delivered once the queue is started.
+     *
+     * @param systemName     The name of the external system.
+     * @param journal        The durable queue of undelivered sales.
+     * @param deadLetters    The journal that sales the system keeps refusing
+     *                       are moved to, or {@code null} to drop them.
+     * @param destination    Delivers one sale to the external system, throwing
+     *                       an unchecked exception if it fails.
+     * @param batchSize      The largest number of sales delivered before the
+     *                       journal is updated.
+     * @param initialBackoff The wait after the first failed delivery.
+     * @param maxBackoff     The longest wait between failed deliveries.
+     * @throws IllegalArgumentException if {@code batchSize} is not positive.
+     */
+    public OfflineSaleQueue(String systemName, SaleJournal journal, SaleJournal deadLetters,
+            Consumer<SaleSummaryDTO> destination, int batchSize, Duration initialBackoff, Duration maxBackoff) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        this.systemName = systemName;
+        this.journal = journal;
+        this.deadLetters = deadLetters;
+        this.destination = destination;
+        this.batchSize = batchSize;
+        this.initialBackoffMillis = Math.max(1, initialBackoff.toMillis());
+        this.maxBackoffMillis = Math.max(initialBackoffMillis, maxBackoff.toMillis());
+        this.drainer = ThreadPools.daemonThreadFactory("offline-" + systemName).newThread(this::drain);
+    }
+
+    /**
+     * Starts delivering the queued sales.
+     */
+    public void start() {
+        running = true;
+        drainer.start();
+    }
+
+    /**
+     * Stops delivering sales, after the batch being delivered, and closes the
+     * journals. Sales that were not delivered stay in the journal.
+     *
+     * @throws InterruptedException if interrupted while waiting for the drainer.
+     * @throws IOException          if the journal cannot be closed.
+     */
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        drainer.join();
+        journal.close();
+        if (deadLetters != null) {
+            deadLetters.close();
+        }
+    }
+
+    /**
+     * Queues a sale for delivery and returns without waiting for the external
+     * system.
+     *
+     * @param saleSummary The {@link SaleSummaryDTO} of the completed sale.
+     */
+    public void submit(SaleSummaryDTO saleSummary) {
+        try {
+            journal.append(saleSummary);
+        } catch (IOException e) {
+            System.out.println("Sale for " + systemName + " could not be written to the journal and is only kept"
+                    + " in memory: " + e.getMessage());
+        }
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Retrieves the number of sales waiting to be delivered.
+     *
+     * @return The number of queued sales.
+     */
+    public int getPendingCount() {
+        return journal.size();
+    }
+
+    /**
+     * Retrieves the number of sales delivered since the queue was created.
+     *
+     * @return The number of delivered sales.
+     */
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * Retrieves the number of failed deliveries since the queue was created.
+     *
+     * @return The number of failed deliveries.
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Retrieves the number of sales moved out of the queue because the system
+     * kept refusing them.
+     *
+     * @return The number of refused sales.
+     */
+    public long getRefusedCount() {
+        return refused.sum();
+    }
+
+    /**
+     * Waits until every queued sale has been delivered, or moved out of the
+     * queue, or the timeout passes.
+     *
+     * @param timeout The longest time to wait.
+     * @return {@code true} if no sale is left to deliver.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (signal) {
+            while (journal.size() > 0) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                signal.wait(remainingMillis);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Delivers the queued sales until the queue is stopped. Runs on the drainer
+     * thread.
+     */
+    private void drain() {
+        long backoffMillis = initialBackoffMillis;
+        while (running) {
+            List<SaleSummaryDTO> batch = journal.peek(batchSize);
+            if (batch.isEmpty()) {
+                awaitSignal(0);
+                continue;
+            }
+            if (deliver(batch)) {
+                backoffMillis = initialBackoffMillis;
+            } else {
+                awaitSignal(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    /**
+     * Delivers a batch of sales in order, stopping at the first failure, and
+     * removes the delivered sales from the journal. A sale refused
+     * {@value #MAX_ATTEMPTS} times in a row is moved out of the queue too.
+     *
+     * @param batch The oldest queued sales.
+     * @return {@code true} if the whole batch was delivered, or the queue can
+     *         go on at once because a refused sale was moved out of it.
+     */
+    private boolean deliver(List<SaleSummaryDTO> batch) {
+        int deliveredCount = 0;
+        RuntimeException refusal = null;
+        try {
+            for (SaleSummaryDTO sale : batch) {
+                destination.accept(sale);
+                deliveredCount++;
+            }
+        } catch (ConnectionEstablishmentException e) {
+            failures.increment();
+        } catch (RuntimeException e) {
+            failures.increment();
+            refusal = e;
+        }
+        if (deliveredCount > 0) {
+            refusals = 0;
+        }
+        // Counted first, so a caller that sees an empty journal also sees the count
+        delivered.add(deliveredCount);
+        boolean movedOut = false;
+        try {
+            journal.acknowledge(deliveredCount);
+            if (refusal != null && ++refusals >= MAX_ATTEMPTS) {
+                moveOut(batch.get(deliveredCount), refusal);
+                movedOut = true;
+            }
+        } catch (IOException e) {
+            System.out.println("Delivery to " + systemName + " could not be recorded in the journal: "
+                    + e.getMessage());
+        }
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        return deliveredCount == batch.size() || movedOut;
+    }
+
+    /**
+     * Moves the oldest queued sale, which the system keeps refusing, to the
+     * dead-letter journal, or drops it if there is none.
+     *
+     * @param sale    The oldest queued sale.
+     * @param refusal The failure of its last delivery.
+     * @throws IOException if the sale cannot be moved, in which case it stays
+     *                     in the queue.
+     */
+    private void moveOut(SaleSummaryDTO sale, RuntimeException refusal) throws IOException {
+        if (deadLetters != null) {
+            deadLetters.append(sale);
+        }
+        journal.acknowledge(1);
+        refusals = 0;
+        refused.increment();
+        System.out.println("Sale of " + sale.getTimeOfSaleMillis() + " was refused by " + systemName + " "
+                + MAX_ATTEMPTS + " times and was " + (deadLetters == null ? "dropped" : "moved to the dead letters")
+                + ": " + refusal.getMessage());
+    }
+
+    /**
+     * Waits for a sale to be submitted, for the queue to stop, or for the
+     * specified time to pass. Stopping always ends the wait, but a submitted
+     * sale only ends a wait without a time limit, so a backoff is not cut
+     * short by the sales queued during an outage.
+     *
+     * @param millis The longest time to wait, or 0 to wait for a submitted
+     *               sale.
+     */
+    private void awaitSignal(long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        synchronized (signal) {
+            try {
+                if (millis == 0) {
+                    while (running && journal.size() == 0) {
+                        signal.wait();
+                    }
+                    return;
+                }
+                long remaining = millis;
+                while (running && remaining > 0) {
+                    signal.wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+}
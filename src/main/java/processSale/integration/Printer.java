@@ -4,15 +4,32 @@ import src.main.java.processSale.model.dto.*;
 
 /**
  * Represents a printer that handles the creation and printing of receipts.
+ * Receipts are written by a {@link ReceiptRenderer}, either straight to the
+ * console or to the channel of a register in a {@link PrinterSpooler}, which
+ * prints them in the background.
  */
 public class Printer {
-    private Receipt currentReceipt; // The receipt being created or printed
+    private final ReceiptRenderer renderer;  // Renders receipts and writes them to the printer output
+    private volatile Receipt currentReceipt; // The receipt of the current sale
 
     /**
-     * Creates a new instance of the Printer.
+     * Creates a new instance of the Printer that prints to the console.
      * Prints a message indicating that the printer has been initialized.
      */
     public Printer() {
+        this(new ReceiptRenderer(ReceiptRenderer.console()));
+    }
+
+    /**
+     * Creates a new instance of the Printer that prints with the specified
+     * renderer. Prints a message indicating that the printer has been
+     * initialized.
+     *
+     * @param renderer The {@link ReceiptRenderer} that renders and writes the
+     *                 receipts.
+     */
+    public Printer(ReceiptRenderer renderer) {
+        this.renderer = renderer;
         System.out.println("Printer initialized");
     }
 
@@ -27,11 +44,13 @@ public class Printer {
         if (timeOfSale == null) {
             throw new NullPointerException("TimeOfSaleDTO cannot be null when creating a receipt.");
         }
-        currentReceipt = new Receipt(timeOfSale);
+        currentReceipt = new Receipt(timeOfSale, renderer);
     }
 
     /**
-     * Prints the receipt for the completed sale.
+     * Prints the receipt for the completed sale. If the next sale has already
+     * created its receipt, as when receipts are printed in the background,
+     * the receipt is printed with the time of the completed sale.
      *
      * @param saleSummaryDTO A {@link SaleSummaryDTO} containing the details of the
      *                       completed sale.
@@ -39,12 +58,17 @@ public class Printer {
      * @throws NullPointerException  if {@code saleSummaryDTO} is {@code null}.
      */
     public void printReceipt(SaleSummaryDTO saleSummaryDTO) {
-        if (currentReceipt == null) {
+        Receipt receipt = currentReceipt;
+        if (receipt == null) {
             throw new IllegalStateException("No receipt has been created. Please create a receipt first.");
         }
         if (saleSummaryDTO == null) {
             throw new NullPointerException("SaleSummaryDTO cannot be null when printing a receipt.");
         }
-        currentReceipt.printReceipt(saleSummaryDTO);
+        TimeOfSaleDTO timeOfSale = saleSummaryDTO.getTimeOfSaleDTO();
+        if (timeOfSale != null && !receipt.isFor(timeOfSale)) {
+            receipt = new Receipt(timeOfSale, renderer);
+        }
+        receipt.printReceipt(saleSummaryDTO);
     }
 }
@@ -0,0 +1,363 @@
+package src.main.java.processSale.integration;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import src.main.java.processSale.concurrent.ThreadPools;
+
+/**
+ * Prints the receipts of several registers on one physical printer, in the
+ * background. Each register writes its rendered receipts to its own channel
+ * from {@link #channelFor(String)}, usually through a {@link ReceiptRenderer},
+ * and every write becomes one print job in a bounded queue. A worker thread
+ * sends the jobs to the printer device in the order they were submitted, so
+ * the register can start its next sale while a receipt is still printing.
+ * <ul>
+ * <li>When the queue is full, a register waits for a free place for a
+ * limited time, and then gets a {@link ConnectionEstablishmentException}, so
+ * a stuck printer slows the registers down instead of piling up receipts
+ * without limit.</li>
+ * <li>When printing a receipt fails, the whole receipt is printed again
+ * after a wait that doubles after each failure up to a maximum, so a
+ * receipt torn by a paper jam is reprinted in full.</li>
+ * <li>When the spooler is stopped, or its worker thread is interrupted, the
+ * receipts still queued are dropped and no longer count as pending, and
+ * later receipts are refused.</li>
+ * </ul>
+ * This class is thread-safe.
+ */
+public class PrinterSpooler {
+    private static final long POLL_MILLIS = 100;
+
+    private final String printerName;                          // The physical printer, named in messages
+    private final WritableByteChannel device;                  // The printer the receipts are sent to
+    private final BlockingQueue<PrintJob> jobs;                // Receipts waiting to be printed
+    private final long submitTimeoutMillis;                    // Longest wait for a place in a full queue
+    private final long initialBackoffMillis;                   // Wait after the first failed print
+    private final long maxBackoffMillis;                       // Longest wait between failed prints
+    private final AtomicInteger pending = new AtomicInteger(); // Receipts submitted but not yet printed
+    private final LongAdder printed = new LongAdder();         // Number of printed receipts
+    private final LongAdder reprints = new LongAdder();        // Number of failed prints that were retried
+    private final Object signal = new Object();                // Wakes waiters when a receipt is printed or on stop
+    private final Thread worker;                               // Sends the jobs to the printer
+    private volatile boolean running;                          // Cleared when the spooler is stopped
+    private volatile boolean stopped;                          // Set once the spooler no longer takes receipts
+
+    /**
+     * Creates a new spooler for one printer.
+     *
+     * @param printerName    The name of the printer.
+     * @param device         The printer device.
+     * @param capacity       The largest number of receipts waiting to be
+     *                       printed.
+     * @param submitTimeout  How long a register waits for a place in a full
+     *                       queue.
+     * @param initialBackoff The wait after the first failed print.
+     * @param maxBackoff     The longest wait between failed prints.
+     * @throws IllegalArgumentException if {@code capacity} is not positive.
+     */
+    public PrinterSpooler(String printerName, WritableByteChannel device, int capacity, Duration submitTimeout,
+            Duration initialBackoff, Duration maxBackoff) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The queue capacity must be positive.");
+        }
+        this.printerName = printerName;
+        this.device = device;
+        this.jobs = new ArrayBlockingQueue<>(capacity);
+        this.submitTimeoutMillis = submitTimeout.toMillis();
+        this.initialBackoffMillis = Math.max(1, initialBackoff.toMillis());
+        this.maxBackoffMillis = Math.max(initialBackoffMillis, maxBackoff.toMillis());
+        this.worker = ThreadPools.daemonThreadFactory("printer-" + printerName).newThread(this::work);
+    }
+
+    /**
+     * Starts printing the queued receipts.
+     */
+    public void start() {
+        running = true;
+        worker.start();
+    }
+
+    /**
+     * Stops printing, after the receipt being printed. Receipts still in the
+     * queue are dropped without being printed, so they are no longer pending.
+     *
+     * @throws InterruptedException if interrupted while waiting for the worker.
+     */
+    public void stop() throws InterruptedException {
+        stopped = true;
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        worker.join();
+        finish(jobs.drainTo(new ArrayList<>()));
+    }
+
+    /**
+     * Creates the channel a register writes its receipts to. Each write to the
+     * channel queues its bytes as one receipt.
+     *
+     * @param registerID The unique identifier of the register.
+     * @return The channel of the register.
+     */
+    public WritableByteChannel channelFor(String registerID) {
+        return new RegisterChannel(registerID);
+    }
+
+    /**
+     * Queues a rendered receipt, waiting for a place if the queue is full.
+     *
+     * @param registerID The unique identifier of the register.
+     * @param receipt    The rendered receipt.
+     * @throws ConnectionEstablishmentException if the spooler has stopped, the
+     *                                          queue stays full for the
+     *                                          submit timeout, or the wait is
+     *                                          interrupted.
+     */
+    public void submit(String registerID, byte[] receipt) {
+        if (stopped) {
+            throw new ConnectionEstablishmentException("The printer spooler of " + printerName + " has stopped.",
+                    printerName);
+        }
+        pending.incrementAndGet();
+        PrintJob job = new PrintJob(registerID, receipt);
+        boolean queued = false;
+        try {
+            queued = jobs.offer(job, submitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!queued) {
+                pending.decrementAndGet();
+            }
+        }
+        if (!queued) {
+            throw new ConnectionEstablishmentException("The print queue of " + printerName + " is full.",
+                    printerName);
+        }
+        if (stopped && jobs.remove(job)) {
+            finish(1);
+            throw new ConnectionEstablishmentException("The printer spooler of " + printerName + " has stopped.",
+                    printerName);
+        }
+    }
+
+    /**
+     * Retrieves the number of receipts submitted but not yet printed,
+     * including the one being printed.
+     *
+     * @return The number of pending receipts.
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Retrieves the number of receipts printed since the spooler was created.
+     *
+     * @return The number of printed receipts.
+     */
+    public long getPrintedCount() {
+        return printed.sum();
+    }
+
+    /**
+     * Retrieves the number of failed prints that were retried.
+     *
+     * @return The number of reprints.
+     */
+    public long getReprintCount() {
+        return reprints.sum();
+    }
+
+    /**
+     * Waits until every submitted receipt has been printed, or dropped because
+     * the spooler stopped, or the timeout passes.
+     *
+     * @param timeout The longest time to wait.
+     * @return {@code true} if no receipt is left to print.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (signal) {
+            while (pending.get() > 0) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                signal.wait(remainingMillis);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prints the queued receipts until the spooler is stopped or the worker
+     * is interrupted, and then drops the receipts left in the queue. Runs on
+     * the worker thread.
+     */
+    private void work() {
+        PrintJob job = null;
+        try {
+            while (running) {
+                job = jobs.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (job != null) {
+                    if (printUntilDone(job)) {
+                        printed.increment();
+                    }
+                    job = null;
+                    finish(1);
+                }
+            }
+        } catch (InterruptedException e) {
+            stopped = true;
+            running = false;
+            System.out.println("The printer spooler of " + printerName + " was interrupted and has stopped.");
+        } finally {
+            int dropped = jobs.drainTo(new ArrayList<>()) + (job == null ? 0 : 1);
+            if (dropped > 0) {
+                System.out.println("Receipts not printed on " + printerName + " after it stopped: " + dropped);
+            }
+            finish(dropped);
+        }
+    }
+
+    /**
+     * Records that receipts are no longer pending, and wakes the waiters.
+     *
+     * @param receipts The number of receipts printed or dropped.
+     */
+    private void finish(int receipts) {
+        pending.addAndGet(-receipts);
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Prints a receipt, printing it again from the start after each failure.
+     *
+     * @param job The print job.
+     * @return {@code true} if the receipt was printed, {@code false} if the
+     *         spooler was stopped first.
+     * @throws InterruptedException if the worker is interrupted while waiting
+     *                              to print again.
+     */
+    private boolean printUntilDone(PrintJob job) throws InterruptedException {
+        long backoffMillis = initialBackoffMillis;
+        while (true) {
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(job.receipt);
+                while (bytes.hasRemaining()) {
+                    device.write(bytes);
+                }
+                return true;
+            } catch (Exception e) {
+                if (backoffMillis == initialBackoffMillis) {
+                    System.out.println("Receipt of " + job.registerID + " could not be printed on " + printerName
+                            + " and will be printed again: " + e.getMessage());
+                }
+                reprints.increment();
+            }
+            if (!pause(backoffMillis)) {
+                return false;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+        }
+    }
+
+    /**
+     * Waits before printing again, unless the spooler is stopped.
+     *
+     * @param millis The time to wait.
+     * @return {@code true} if the spooler is still running.
+     * @throws InterruptedException if the worker is interrupted while waiting.
+     */
+    private boolean pause(long millis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        synchronized (signal) {
+            long remaining = millis;
+            while (running && remaining > 0) {
+                signal.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+        return running;
+    }
+
+    /**
+     * A rendered receipt waiting to be printed.
+     */
+    private static class PrintJob {
+        private final String registerID; // The register that printed the receipt
+        private final byte[] receipt;    // The rendered receipt
+
+        /**
+         * Creates a new print job.
+         *
+         * @param registerID The unique identifier of the register.
+         * @param receipt    The rendered receipt.
+         */
+        PrintJob(String registerID, byte[] receipt) {
+            this.registerID = registerID;
+            this.receipt = receipt;
+        }
+    }
+
+    /**
+     * The channel of one register, which queues each write as one receipt.
+     */
+    private class RegisterChannel implements WritableByteChannel {
+        private final String registerID; // The register writing to the channel
+
+        /**
+         * Creates the channel of a register.
+         *
+         * @param registerID The unique identifier of the register.
+         */
+        RegisterChannel(String registerID) {
+            this.registerID = registerID;
+        }
+
+        /**
+         * Queues the remaining bytes as one receipt.
+         *
+         * @param source The rendered receipt.
+         * @return The number of bytes queued.
+         * @throws ConnectionEstablishmentException if the queue stays full.
+         */
+        @Override
+        public int write(ByteBuffer source) {
+            byte[] receipt = new byte[source.remaining()];
+            source.get(receipt);
+            submit(registerID, receipt);
+            return receipt.length;
+        }
+
+        /**
+         * Tells whether the spooler is printing.
+         *
+         * @return {@code true} while the spooler runs.
+         */
+        @Override
+        public boolean isOpen() {
+            return running;
+        }
+
+        /**
+         * Does nothing, since the spooler is shared with other registers.
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
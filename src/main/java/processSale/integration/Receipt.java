@@ -1,8 +1,5 @@
 package src.main.java.processSale.integration;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
-
 import src.main.java.processSale.model.dto.*;
 
 /**
@@ -10,57 +7,62 @@ import src.main.java.processSale.model.dto.*;
  * time of sale, purchased items, total price, VAT, and payment information.
  */
 class Receipt {
-    private final String timeOfSale;    // The timestamp of the sale
-    private SaleSummaryDTO saleSummary; // Summary of the completed sale
+    private final TimeOfSaleDTO timeOfSale; // The time of the sale, formatted when printed
+    private final ReceiptRenderer renderer; // Renders and writes the receipt
 
     /**
-     * Creates a new instance of Receipt with the specified time of sale.
+     * Creates a new instance of Receipt with the specified time of sale, printed
+     * to the console.
      *
      * @param timeOfSale A {@link TimeOfSaleDTO} containing the timestamp of the
      *                   sale.
      * @throws NullPointerException if {@code timeOfSale} is {@code null}.
      */
     public Receipt(TimeOfSaleDTO timeOfSale) {
+        this(timeOfSale, new ReceiptRenderer(ReceiptRenderer.console()));
+    }
+
+    /**
+     * Creates a new instance of Receipt with the specified time of sale.
+     *
+     * @param timeOfSale A {@link TimeOfSaleDTO} containing the timestamp of the
+     *                   sale.
+     * @param renderer   The {@link ReceiptRenderer} that prints the receipt.
+     * @throws NullPointerException if {@code timeOfSale} is {@code null}.
+     */
+    Receipt(TimeOfSaleDTO timeOfSale, ReceiptRenderer renderer) {
         if (timeOfSale == null) {
             throw new NullPointerException("TimeOfSaleDTO cannot be null.");
         }
-        this.timeOfSale = timeOfSale.getTimeStamp();
+        this.timeOfSale = timeOfSale;
+        this.renderer = renderer;
     }
 
     /**
-     * Prints the receipt for the completed sale to the console.
+     * Checks whether the receipt belongs to the sale made at a time.
+     *
+     * @param timeOfSale The time of the sale.
+     * @return {@code true} if the receipt has the same time of sale.
+     */
+    boolean isFor(TimeOfSaleDTO timeOfSale) {
+        return this.timeOfSale.getEpochMillis() == timeOfSale.getEpochMillis();
+    }
+
+    /**
+     * Prints the receipt for the completed sale, in one write to the output of
+     * the renderer.
      *
      * @param saleSummary A {@link SaleSummaryDTO} containing the details of the
      *                    completed sale.
-     * @throws NullPointerException if {@code saleSummary} is {@code null}.
+     * @throws NullPointerException             if {@code saleSummary} is
+     *                                          {@code null}.
+     * @throws ConnectionEstablishmentException if the receipt cannot be
+     *                                          written.
      */
     public void printReceipt(SaleSummaryDTO saleSummary) {
         if (saleSummary == null) {
             throw new NullPointerException("SaleSummaryDTO cannot be null.");
         }
-        this.saleSummary = saleSummary;
-
-        // Build the list of purchased items
-        HashMap<ItemDTO, Integer> boughtItems = saleSummary.getBoughtItems();
-        StringBuilder items = new StringBuilder();
-        boughtItems.forEach((itemDTO, quantity) -> {
-            items.append(String.format("%s %d x %.2f = %.2f SEK%n",
-                    itemDTO.getName(),
-                    quantity,
-                    itemDTO.getPrice(),
-                    itemDTO.getPrice().multiply(BigDecimal.valueOf(quantity))));
-        });
-
-        // Print the receipt
-        System.out.println("------------------ Begin receipt -------------------");
-        System.out.println("Time of Sale: " + timeOfSale);
-        System.out.println();
-        System.out.print(items);
-        System.out.printf("Total: %.2f SEK%n", saleSummary.getTotalPrice());
-        System.out.printf("VAT: %.2f SEK%n", saleSummary.getTotalVAT());
-        System.out.println();
-        System.out.printf("Cash: %.2f SEK%n", saleSummary.getAmountPaid());
-        System.out.printf("Change: %.2f SEK%n", saleSummary.getChange());
-        System.out.println("------------------ End receipt ---------------------");
+        renderer.print(timeOfSale, saleSummary);
     }
 }
@@ -0,0 +1,964 @@
+package src.main.java.processSale.integration;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import src.main.java.processSale.concurrent.ThreadPools;
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.PaymentInfoDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.model.dto.TimeOfSaleDTO;
+
+/**
+ * Keeps the receipt of every paid sale for audits, so that any receipt can be
+ * looked up and printed again. Each archived sale gets a sale ID, counting up
+ * from 1 across restarts, and is written in the background by a writer
+ * thread, so the register does not wait for the disk.
+ * <ul>
+ * <li>Sales are written as compact binary records to segment files, and a
+ * new segment is started when the current one reaches its size limit.
+ * Records are compressed in blocks of about 64 KiB, so receipts that repeat
+ * the same items compress well, while reading one receipt only inflates the
+ * block that holds it.</li>
+ * <li>Each segment has an index file of fixed-size entries, one per sale in
+ * sale ID order, holding the time of the sale and the position of its
+ * record. A sale is found by its ID with one read of the index and one of
+ * the segment, and by its time with a binary search over the index, that is
+ * in O(log n) reads.</li>
+ * <li>The writer forces each batch of written sales to disk. When the
+ * archive is opened after a crash, an index entry torn by the crash, or
+ * whose record cannot be read, is dropped, and new sales are written to a
+ * new segment.</li>
+ * </ul>
+ * For the time index to stay sorted, each sale is indexed at the later of
+ * its own time and the time of the sale archived before it. A sale that
+ * started before a sale archived ahead of it, as can happen when several
+ * registers share the archive, is thus found under the later time. This
+ * class is thread-safe.
+ */
+public class ReceiptArchive {
+    private static final String PREFIX = "receipts-";
+    private static final String DATA_SUFFIX = ".dat";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int ENTRY_BYTES = 32;
+    private static final int BLOCK_BYTES = 64 * 1024;
+    private static final int READ_BYTES = 8 * 1024;
+    private static final long POLL_MILLIS = 100;
+
+    private final Path directory;                                   // Holds the segment and index files
+    private final long segmentBytes;                                // Size at which a new segment is started
+    private final BlockingQueue<ArchivedSale> queue;                // Sales waiting to be written
+    private final ConcurrentHashMap<Long, ArchivedSale> unwritten;  // Submitted sales not yet written, by sale ID
+    private final ConcurrentHashMap<Long, ArchivedSale> unarchived; // Sales that could not be written, by sale ID
+    private final List<Segment> segments = new ArrayList<>();       // The segments, oldest first, guarded by this
+    private final Object submitLock = new Object();                 // Orders sale IDs and the queue
+    private final Object signal = new Object();                     // Wakes the threads waiting for the writer
+    private final LongAdder archived = new LongAdder();             // Number of sales written
+    private final LongAdder failures = new LongAdder();             // Number of sales that could not be written
+    private final Thread writer;                                    // Writes the queued sales
+    private long lastSaleID;                                        // Last sale ID given out, guarded by submitLock
+    private long lastTimeKey = Long.MIN_VALUE;                      // Last indexed time, guarded by submitLock
+    private SegmentWriter current;                                  // The open segment, used by the writer only
+    private volatile boolean running;                               // Cleared when the archive is stopped
+
+    /**
+     * Opens the archive in the specified directory, creating the directory if
+     * it does not exist.
+     *
+     * @param directory    The directory of the segment and index files.
+     * @param capacity     The largest number of sales waiting to be written
+     *                     before {@link #submit(SaleSummaryDTO)} waits.
+     * @param segmentBytes The size at which a new segment is started.
+     * @throws IOException              if the archive cannot be read.
+     * @throws IllegalArgumentException if {@code capacity} or
+     *                                  {@code segmentBytes} is not positive.
+     */
+    public ReceiptArchive(Path directory, int capacity, long segmentBytes) throws IOException {
+        if (capacity <= 0 || segmentBytes <= 0) {
+            throw new IllegalArgumentException("The capacity and segment size must be positive.");
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.unwritten = new ConcurrentHashMap<>();
+        this.unarchived = new ConcurrentHashMap<>();
+        recover();
+        this.writer = ThreadPools.daemonThreadFactory("receipt-archive").newThread(this::write);
+    }
+
+    /**
+     * Starts writing the submitted sales.
+     */
+    public void start() {
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Stops the archive after writing the sales already submitted, and closes
+     * the open segment.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writer.
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join();
+    }
+
+    /**
+     * Archives the receipt of a paid sale. The sale is written in the
+     * background, and can be looked up at once. The caller only waits if
+     * {@code capacity} sales are already waiting to be written.
+     *
+     * @param saleSummary The {@link SaleSummaryDTO} of the paid sale.
+     * @return The sale ID of the archived sale.
+     * @throws InterruptedException if interrupted while waiting for a place in
+     *                              the queue.
+     */
+    public long submit(SaleSummaryDTO saleSummary) throws InterruptedException {
+        synchronized (submitLock) {
+            lastTimeKey = Math.max(lastTimeKey, saleSummary.getTimeOfSaleMillis());
+            ArchivedSale sale = new ArchivedSale(lastSaleID + 1, lastTimeKey, saleSummary);
+            unwritten.put(sale.saleID, sale);
+            try {
+                queue.put(sale);
+            } catch (InterruptedException e) {
+                unwritten.remove(sale.saleID);
+                throw e;
+            }
+            return ++lastSaleID;
+        }
+    }
+
+    /**
+     * Looks up an archived sale by its sale ID. A sale that could not be
+     * written is still found until the archive is stopped.
+     *
+     * @param saleID The sale ID.
+     * @return The {@link SaleSummaryDTO} of the sale, or {@code null} if no
+     *         sale has that ID.
+     * @throws IOException if the sale cannot be read.
+     */
+    public SaleSummaryDTO find(long saleID) throws IOException {
+        SaleSummaryDTO inMemory = findInMemory(saleID);
+        if (inMemory != null) {
+            return inMemory;
+        }
+        Segment segment;
+        long count;
+        synchronized (this) {
+            int found = segmentOf(saleID);
+            if (found < 0) {
+                return null;
+            }
+            segment = segments.get(found);
+            count = segment.count;
+        }
+        long position = saleID - segment.firstSaleID;
+        if (position >= count) {
+            // Not written when the segment was looked up
+            return findInMemory(saleID);
+        }
+        try (FileChannel index = FileChannel.open(segment.indexFile, StandardOpenOption.READ);
+                FileChannel data = FileChannel.open(segment.dataFile, StandardOpenOption.READ)) {
+            return decode(readRecord(data, readEntry(index, position)));
+        }
+    }
+
+    /**
+     * Finds the sales indexed at a time in a range, oldest first.
+     *
+     * @param fromMillis The start of the range, in milliseconds since the
+     *                   epoch.
+     * @param toMillis   The end of the range, included.
+     * @param limit      The largest number of sale IDs to return.
+     * @return At most {@code limit} sale IDs, in ascending order.
+     * @throws IOException if the index cannot be read.
+     */
+    public List<Long> findSaleIDs(long fromMillis, long toMillis, int limit) throws IOException {
+        List<ArchivedSale> pending = new ArrayList<>(unwritten.values());
+        pending.addAll(unarchived.values());
+        List<Segment> candidates = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        synchronized (this) {
+            for (Segment segment : segments) {
+                if (segment.count > 0 && segment.lastTimeKey >= fromMillis && segment.firstTimeKey <= toMillis) {
+                    candidates.add(segment);
+                    counts.add(segment.count);
+                }
+            }
+        }
+        TreeSet<Long> found = new TreeSet<>();
+        for (int i = 0; i < candidates.size() && found.size() < limit; i++) {
+            scanSegment(candidates.get(i), counts.get(i), fromMillis, toMillis, limit, found);
+        }
+        for (ArchivedSale sale : pending) {
+            if (sale.timeKey >= fromMillis && sale.timeKey <= toMillis) {
+                found.add(sale.saleID);
+            }
+        }
+        List<Long> saleIDs = new ArrayList<>(found);
+        return saleIDs.size() > limit ? saleIDs.subList(0, limit) : saleIDs;
+    }
+
+    /**
+     * Retrieves the number of sales written since the archive was opened.
+     *
+     * @return The number of written sales.
+     */
+    public long getArchivedCount() {
+        return archived.sum();
+    }
+
+    /**
+     * Retrieves the number of sales that could not be written since the
+     * archive was opened.
+     *
+     * @return The number of failed sales.
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Retrieves the number of segments in the archive.
+     *
+     * @return The number of segments.
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Waits until every submitted sale has been written, or the timeout passes.
+     *
+     * @param timeout The longest time to wait.
+     * @return {@code true} if no sale is left to write.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitArchived(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (signal) {
+            while (!unwritten.isEmpty()) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                signal.wait(remainingMillis);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Looks up a sale that is not in the segment files.
+     *
+     * @param saleID The sale ID.
+     * @return The sale, or {@code null} if it is not held in memory.
+     */
+    private SaleSummaryDTO findInMemory(long saleID) {
+        ArchivedSale sale = unwritten.get(saleID);
+        if (sale == null) {
+            sale = unarchived.get(saleID);
+        }
+        return sale == null ? null : sale.summary;
+    }
+
+    /**
+     * Reads the segments of an earlier run, dropping files that hold no sales
+     * and a last index entry torn by a crash.
+     *
+     * @throws IOException if the archive cannot be read.
+     */
+    private void recover() throws IOException {
+        List<Long> firstSaleIDs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + INDEX_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    firstSaleIDs.add(Long.parseLong(
+                            name.substring(PREFIX.length(), name.length() - INDEX_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not a segment of this archive
+                }
+            }
+        }
+        firstSaleIDs.sort(null);
+        for (int i = 0; i < firstSaleIDs.size(); i++) {
+            Segment segment = new Segment(firstSaleIDs.get(i));
+            try (FileChannel index = FileChannel.open(segment.indexFile, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                segment.count = index.size() / ENTRY_BYTES;
+                if (i == firstSaleIDs.size() - 1 && segment.count > 0 && !isReadable(segment, index)) {
+                    segment.count--;
+                }
+                index.truncate(segment.count * ENTRY_BYTES);
+                if (segment.count > 0) {
+                    segment.firstTimeKey = readEntry(index, 0).timeKey;
+                    segment.lastTimeKey = readEntry(index, segment.count - 1).timeKey;
+                }
+            }
+            if (segment.count == 0) {
+                Files.deleteIfExists(segment.indexFile);
+                Files.deleteIfExists(segment.dataFile);
+                continue;
+            }
+            segments.add(segment);
+            lastSaleID = segment.firstSaleID + segment.count - 1;
+            lastTimeKey = segment.lastTimeKey;
+        }
+    }
+
+    /**
+     * Checks that the record of the last index entry of a segment can be read.
+     *
+     * @param segment The segment.
+     * @param index   The open index file of the segment.
+     * @return {@code true} if the record can be read and decoded.
+     */
+    private static boolean isReadable(Segment segment, FileChannel index) {
+        try (FileChannel data = FileChannel.open(segment.dataFile, StandardOpenOption.READ)) {
+            IndexEntry entry = readEntry(index, segment.count - 1);
+            return entry.saleID == segment.firstSaleID + segment.count - 1
+                    && decode(readRecord(data, entry)) != null;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Finds the segment that would hold a sale ID.
+     *
+     * @param saleID The sale ID.
+     * @return The position of the segment, or -1 if the sale ID is before the
+     *         first segment.
+     */
+    private int segmentOf(long saleID) {
+        int low = 0;
+        int high = segments.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (segments.get(middle).firstSaleID <= saleID) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Collects the sale IDs of a segment that are indexed in a time range,
+     * starting at the first entry in the range, found by binary search.
+     *
+     * @param segment    The segment.
+     * @param count      The number of entries to consider.
+     * @param fromMillis The start of the range.
+     * @param toMillis   The end of the range, included.
+     * @param limit      The largest number of sale IDs to collect.
+     * @param found      Receives the sale IDs.
+     * @throws IOException if the index cannot be read.
+     */
+    private static void scanSegment(Segment segment, long count, long fromMillis, long toMillis, int limit,
+            TreeSet<Long> found) throws IOException {
+        try (FileChannel index = FileChannel.open(segment.indexFile, StandardOpenOption.READ)) {
+            long low = 0;
+            long high = count;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (readEntry(index, middle).timeKey < fromMillis) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            for (long position = low; position < count && found.size() < limit; position++) {
+                IndexEntry entry = readEntry(index, position);
+                if (entry.timeKey > toMillis) {
+                    return;
+                }
+                found.add(entry.saleID);
+            }
+        }
+    }
+
+    /**
+     * Writes the submitted sales until the archive is stopped and every
+     * submitted sale is written. Runs on the writer thread.
+     */
+    private void write() {
+        List<ArchivedSale> batch = new ArrayList<>();
+        try {
+            while (running || !queue.isEmpty()) {
+                ArchivedSale first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                writeBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSegment();
+        }
+    }
+
+    /**
+     * Writes a batch of sales and forces them to disk. A sale that cannot be
+     * written is logged and kept in memory for lookups, and the next sale
+     * starts a new segment.
+     *
+     * @param batch The sales, in sale ID order.
+     */
+    private void writeBatch(List<ArchivedSale> batch) {
+        int written = 0;
+        for (ArchivedSale sale : batch) {
+            try {
+                if (current != null && current.dataSize >= segmentBytes) {
+                    closeSegment();
+                }
+                if (current == null) {
+                    current = openSegment(sale.saleID);
+                }
+                current.append(sale);
+                written++;
+            } catch (IOException e) {
+                failures.increment();
+                System.out.println("Receipt of sale " + sale.saleID + " could not be archived: " + e.getMessage());
+                closeSegment();
+            }
+        }
+        try {
+            if (current != null) {
+                current.force();
+            }
+        } catch (IOException e) {
+            System.out.println("Archived receipts could not be forced to disk: " + e.getMessage());
+        }
+        // Counted first, so a caller that sees no unwritten sale also sees the count
+        archived.add(written);
+        for (ArchivedSale sale : batch) {
+            if (!sale.written) {
+                unarchived.put(sale.saleID, sale);
+            }
+            unwritten.remove(sale.saleID);
+        }
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Creates a segment starting at a sale ID and makes it the open segment.
+     *
+     * @param firstSaleID The sale ID of the first sale in the segment.
+     * @return The writer of the segment.
+     * @throws IOException if the segment files cannot be created.
+     */
+    private SegmentWriter openSegment(long firstSaleID) throws IOException {
+        Segment segment = new Segment(firstSaleID);
+        SegmentWriter segmentWriter = new SegmentWriter(segment);
+        synchronized (this) {
+            segments.add(segment);
+        }
+        return segmentWriter;
+    }
+
+    /**
+     * Closes the open segment, if any. A new segment is started for the next
+     * sale.
+     */
+    private void closeSegment() {
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (IOException e) {
+            System.out.println("Receipt archive segment could not be closed: " + e.getMessage());
+        }
+        current = null;
+    }
+
+    /**
+     * Reads an index entry.
+     *
+     * @param index    The index file.
+     * @param position The position of the entry.
+     * @return The entry.
+     * @throws IOException if the entry cannot be read.
+     */
+    private static IndexEntry readEntry(FileChannel index, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES);
+        long offset = position * ENTRY_BYTES;
+        while (buffer.hasRemaining()) {
+            if (index.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("The index entry of the receipt is torn.");
+            }
+        }
+        buffer.flip();
+        return new IndexEntry(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getInt(),
+                buffer.getInt());
+    }
+
+    /**
+     * Reads a record by inflating its block up to the end of the record.
+     *
+     * @param data  The segment file.
+     * @param entry The index entry of the record.
+     * @return The uncompressed record.
+     * @throws IOException if the record is torn or corrupt.
+     */
+    private static byte[] readRecord(FileChannel data, IndexEntry entry) throws IOException {
+        byte[] block = new byte[entry.recordOffset + entry.recordLength];
+        Inflater inflater = new Inflater(true);
+        try {
+            ByteBuffer input = ByteBuffer.allocate(READ_BYTES);
+            long offset = entry.blockOffset;
+            int inflated = 0;
+            while (inflated < block.length) {
+                if (inflater.needsInput()) {
+                    input.clear();
+                    int read = data.read(input, offset);
+                    if (read < 0) {
+                        throw new IOException("The archived receipt is torn.");
+                    }
+                    offset += read;
+                    inflater.setInput(input.array(), 0, read);
+                }
+                inflated += inflater.inflate(block, inflated, block.length - inflated);
+                if (inflater.finished() && inflated < block.length) {
+                    throw new IOException("The archived receipt is torn.");
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("The archived receipt is corrupt.", e);
+        } finally {
+            inflater.end();
+        }
+        return Arrays.copyOfRange(block, entry.recordOffset, block.length);
+    }
+
+    /**
+     * Encodes a sale as a record: the time of the sale, the payment, and for
+     * each sold line the name, ID, description, price and VAT rate of the item,
+     * the quantity and the weight in grams. Numbers are written as variable-length
+     * integers.
+     *
+     * @param summary The sale.
+     * @return The record.
+     */
+    private static byte[] encode(SaleSummaryDTO summary) {
+        RecordWriter record = new RecordWriter();
+        record.writeLong(summary.getTimeOfSaleMillis());
+        record.writeAmount(summary.getAmountPaid());
+        record.writeAmount(summary.getChange());
+        record.writeAmount(summary.getTotalPrice());
+        record.writeAmount(summary.getTotalVAT());
+        BoughtItemsDTO boughtItems = summary.getBoughtItems();
+        int lineCount = boughtItems == null ? 0 : boughtItems.size();
+        record.writeLong(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            ItemDTO item = boughtItems.getItem(i);
+            record.writeString(item.getName());
+            record.writeString(item.getID());
+            record.writeString(item.getDescription());
+            record.writeAmount(item.getPrice());
+            record.writeAmount(item.getVATRate());
+            record.writeLong(boughtItems.getQuantity(i));
+            record.writeLong(boughtItems.getWeight(i).movePointRight(3).intValue());
+        }
+        return record.toByteArray();
+    }
+
+    /**
+     * Decodes a record written by {@link #encode(SaleSummaryDTO)}.
+     *
+     * @param bytes The record.
+     * @return The sale.
+     * @throws IOException if the record is corrupt.
+     */
+    private static SaleSummaryDTO decode(byte[] bytes) throws IOException {
+        RecordReader record = new RecordReader(bytes);
+        try {
+            TimeOfSaleDTO timeOfSale = new TimeOfSaleDTO(record.readLong());
+            PaymentInfoDTO payment = new PaymentInfoDTO(record.readAmount(), record.readAmount(),
+                    record.readAmount(), record.readAmount());
+            int lineCount = (int) record.readLong();
+            ItemDTO[] items = new ItemDTO[lineCount];
+            int[] quantities = new int[lineCount];
+            int[] weights = new int[lineCount];
+            for (int i = 0; i < lineCount; i++) {
+                ItemDTO item = new ItemDTO(record.readString(), record.readString(), record.readString(),
+                        record.readAmount(), record.readAmount());
+                items[i] = item;
+                quantities[i] = (int) record.readLong();
+                weights[i] = (int) record.readLong();
+            }
+            return new SaleSummaryDTO(timeOfSale, new BoughtItemsDTO(items, quantities, weights, lineCount),
+                    payment);
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("The archived receipt is corrupt.", e);
+        }
+    }
+
+    /**
+     * A submitted sale, its sale ID and the time it is indexed at.
+     */
+    private static class ArchivedSale {
+        private final long saleID;            // The sale ID
+        private final long timeKey;           // The time the sale is indexed at
+        private final SaleSummaryDTO summary; // The paid sale
+        private boolean written;              // Set by the writer once the sale is written
+
+        /**
+         * Creates a new submitted sale.
+         *
+         * @param saleID  The sale ID.
+         * @param timeKey The time the sale is indexed at.
+         * @param summary The paid sale.
+         */
+        ArchivedSale(long saleID, long timeKey, SaleSummaryDTO summary) {
+            this.saleID = saleID;
+            this.timeKey = timeKey;
+            this.summary = summary;
+        }
+    }
+
+    /**
+     * An entry of a segment index.
+     */
+    private static class IndexEntry {
+        private final long saleID;      // The sale ID
+        private final long timeKey;     // The time the sale is indexed at
+        private final long blockOffset; // The position of the compressed block in the segment file
+        private final int recordOffset; // The position of the record in the uncompressed block
+        private final int recordLength; // The length of the uncompressed record
+
+        /**
+         * Creates a new index entry.
+         *
+         * @param saleID       The sale ID.
+         * @param timeKey      The time the sale is indexed at.
+         * @param blockOffset  The position of the compressed block.
+         * @param recordOffset The position of the record in the block.
+         * @param recordLength The length of the record.
+         */
+        IndexEntry(long saleID, long timeKey, long blockOffset, int recordOffset, int recordLength) {
+            this.saleID = saleID;
+            this.timeKey = timeKey;
+            this.blockOffset = blockOffset;
+            this.recordOffset = recordOffset;
+            this.recordLength = recordLength;
+        }
+    }
+
+    /**
+     * The files of a segment and what its index holds. The counters are
+     * guarded by the archive.
+     */
+    private class Segment {
+        private final long firstSaleID; // The sale ID of the first sale in the segment
+        private final Path dataFile;    // The compressed records
+        private final Path indexFile;   // The index entries
+        private long count;             // The number of written sales
+        private long firstTimeKey;      // The time the first sale is indexed at
+        private long lastTimeKey;       // The time the last sale is indexed at
+
+        /**
+         * Creates the description of a segment.
+         *
+         * @param firstSaleID The sale ID of the first sale in the segment.
+         */
+        Segment(long firstSaleID) {
+            String name = PREFIX + String.format("%020d", firstSaleID);
+            this.firstSaleID = firstSaleID;
+            this.dataFile = directory.resolve(name + DATA_SUFFIX);
+            this.indexFile = directory.resolve(name + INDEX_SUFFIX);
+        }
+    }
+
+    /**
+     * Appends records to the open segment. Records are deflated as one stream,
+     * flushed after each record so it can be read at once, and the compression
+     * history is reset at the end of each block, so a block can be inflated on
+     * its own. Used by the writer thread only.
+     */
+    private class SegmentWriter {
+        private final Segment segment;                      // The segment written to
+        private final FileChannel data;                     // Appends to the segment file
+        private final FileChannel index;                    // Appends to the index file
+        private final Deflater deflater;                    // Compresses the records
+        private final byte[] output = new byte[READ_BYTES]; // Receives compressed bytes
+        private final ByteBuffer entry;                     // Holds an index entry
+        private long dataSize;                              // Size of the segment file
+        private long blockOffset;                           // Position of the current block
+        private int blockUsed;                              // Uncompressed bytes in the current block
+
+        /**
+         * Creates the files of a segment.
+         *
+         * @param segment The segment.
+         * @throws IOException if the files cannot be created.
+         */
+        SegmentWriter(Segment segment) throws IOException {
+            this.segment = segment;
+            this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            this.entry = ByteBuffer.allocate(ENTRY_BYTES);
+            this.data = FileChannel.open(segment.dataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                this.index = FileChannel.open(segment.indexFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                data.close();
+                deflater.end();
+                throw e;
+            }
+        }
+
+        /**
+         * Appends a sale to the segment, then its index entry.
+         *
+         * @param sale The sale.
+         * @throws IOException if the sale cannot be written.
+         */
+        void append(ArchivedSale sale) throws IOException {
+            byte[] record = encode(sale.summary);
+            if (blockUsed >= BLOCK_BYTES) {
+                blockOffset = dataSize;
+                blockUsed = 0;
+            }
+            int recordOffset = blockUsed;
+            blockUsed += record.length;
+            int flush = blockUsed >= BLOCK_BYTES ? Deflater.FULL_FLUSH : Deflater.SYNC_FLUSH;
+            deflater.setInput(record);
+            int produced;
+            do {
+                produced = deflater.deflate(output, 0, output.length, flush);
+                writeFully(data, ByteBuffer.wrap(output, 0, produced));
+                dataSize += produced;
+            } while (produced == output.length);
+            entry.clear();
+            entry.putLong(sale.saleID).putLong(sale.timeKey).putLong(blockOffset).putInt(recordOffset)
+                    .putInt(record.length).flip();
+            writeFully(index, entry);
+            sale.written = true;
+            synchronized (ReceiptArchive.this) {
+                if (segment.count == 0) {
+                    segment.firstTimeKey = sale.timeKey;
+                }
+                segment.count++;
+                segment.lastTimeKey = sale.timeKey;
+            }
+        }
+
+        /**
+         * Forces the written sales to disk.
+         *
+         * @throws IOException if the files cannot be forced.
+         */
+        void force() throws IOException {
+            data.force(false);
+            index.force(false);
+        }
+
+        /**
+         * Closes the files of the segment.
+         *
+         * @throws IOException if the files cannot be closed.
+         */
+        void close() throws IOException {
+            deflater.end();
+            try {
+                data.close();
+            } finally {
+                index.close();
+            }
+        }
+
+        /**
+         * Writes all remaining bytes of a buffer.
+         *
+         * @param channel The file to write to.
+         * @param buffer  The bytes.
+         * @throws IOException if the bytes cannot be written.
+         */
+        private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Builds a record from variable-length integers and strings.
+     */
+    private static class RecordWriter {
+        private byte[] bytes = new byte[256]; // The record so far
+        private int size;                     // The length of the record
+
+        /**
+         * Writes a number as a variable-length integer, seven bits per byte,
+         * with the sign folded into the lowest bit.
+         *
+         * @param value The number.
+         */
+        void writeLong(long value) {
+            long folded = (value << 1) ^ (value >> 63);
+            while ((folded & ~0x7FL) != 0) {
+                writeByte((int) ((folded & 0x7F) | 0x80));
+                folded >>>= 7;
+            }
+            writeByte((int) folded);
+        }
+
+        /**
+         * Writes an amount as its scale plus one, or 0 for {@code null},
+         * followed by its unscaled value.
+         *
+         * @param amount The amount, or {@code null}.
+         */
+        void writeAmount(BigDecimal amount) {
+            if (amount == null) {
+                writeLong(0);
+                return;
+            }
+            BigDecimal scaled = amount.scale() < 0 ? amount.setScale(0) : amount;
+            writeLong(scaled.scale() + 1L);
+            writeLong(scaled.unscaledValue().longValueExact());
+        }
+
+        /**
+         * Writes a string as its length in bytes followed by its UTF-8 bytes,
+         * or as -1 for {@code null}.
+         *
+         * @param text The string, or {@code null}.
+         */
+        void writeString(String text) {
+            if (text == null) {
+                writeLong(-1);
+                return;
+            }
+            byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+            writeLong(encoded.length);
+            ensureCapacity(encoded.length);
+            System.arraycopy(encoded, 0, bytes, size, encoded.length);
+            size += encoded.length;
+        }
+
+        /**
+         * Copies the record to an array of the exact size.
+         *
+         * @return The record.
+         */
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        /**
+         * Writes one byte.
+         *
+         * @param value The byte, in the lowest eight bits.
+         */
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * Grows the record so that more bytes fit.
+         *
+         * @param extra The number of bytes to fit.
+         */
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Reads a record written by a {@link RecordWriter}.
+     */
+    private static class RecordReader {
+        private final byte[] bytes; // The record
+        private int position;       // The position of the next byte
+
+        /**
+         * Creates a reader of a record.
+         *
+         * @param bytes The record.
+         */
+        RecordReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Reads a variable-length integer.
+         *
+         * @return The number.
+         */
+        long readLong() {
+            long folded = 0;
+            int shift = 0;
+            int next;
+            do {
+                next = bytes[position++];
+                folded |= (long) (next & 0x7F) << shift;
+                shift += 7;
+            } while ((next & 0x80) != 0);
+            return (folded >>> 1) ^ -(folded & 1);
+        }
+
+        /**
+         * Reads an amount.
+         *
+         * @return The amount, or {@code null}.
+         */
+        BigDecimal readAmount() {
+            long scale = readLong();
+            return scale == 0 ? null : BigDecimal.valueOf(readLong(), (int) scale - 1);
+        }
+
+        /**
+         * Reads a string.
+         *
+         * @return The string, or {@code null}.
+         */
+        String readString() {
+            int length = (int) readLong();
+            if (length < 0) {
+                return null;
+            }
+            String text = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package src.main.java.processSale.integration;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.model.dto.TimeOfSaleDTO;
+
+/**
+ * Renders receipts from templates that are compiled once, into a buffer that
+ * each thread reuses, and writes each receipt to its output channel in a
+ * single write.
+ * <ul>
+ * <li>A template is plain text with fields such as {@code {total}}, and
+ * {@code \n} for a line separator. It is split into its encoded literal
+ * parts and its fields when the renderer is created.</li>
+ * <li>Amounts are written digit by digit with two decimals, rounded half up
+ * and with the decimal separator of the default locale, as by
+ * {@code String.format("%.2f", amount)}, but without a
+ * {@link java.util.Formatter}.</li>
+ * <li>Text is encoded as UTF-8.</li>
+ * </ul>
+ * Instances are thread-safe if their output channel is.
+ */
+public class ReceiptRenderer {
+    /**
+     * The receipt printed by the register, with the sold lines in place of
+     * {@code {lines}}.
+     */
+    public static final String DEFAULT_TEMPLATE = "------------------ Begin receipt -------------------\n"
+            + "Time of Sale: {time}\n"
+            + "\n"
+            + "{lines}Total: {total} SEK\n"
+            + "VAT: {vat} SEK\n"
+            + "\n"
+            + "Cash: {paid} SEK\n"
+            + "Change: {change} SEK\n"
+            + "------------------ End receipt ---------------------\n";
+    private static final String COUNTED_LINE_TEMPLATE = "{name} {quantity} x {price} = {amount} SEK\n";
+    private static final String WEIGHED_LINE_TEMPLATE = "{name} {weight} kg x {price} = {amount} SEK\n";
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(() -> new Buffer(INITIAL_BUFFER_SIZE));
+
+    private final Template receipt;             // The compiled receipt template
+    private final Template countedLine;         // The compiled template of a line sold by quantity
+    private final Template weighedLine;         // The compiled template of a line sold by weight
+    private final byte decimalSeparator;        // The decimal separator of the default locale
+    private final WritableByteChannel output;   // Where the receipts are written
+
+    /**
+     * Creates a renderer of the default receipt.
+     *
+     * @param output The channel each receipt is written to.
+     */
+    public ReceiptRenderer(WritableByteChannel output) {
+        this(DEFAULT_TEMPLATE, output);
+    }
+
+    /**
+     * Creates a renderer of a receipt template. The fields of a receipt are
+     * {@code {time}}, {@code {lines}}, {@code {total}}, {@code {vat}},
+     * {@code {paid}} and {@code {change}}.
+     *
+     * @param template The receipt template.
+     * @param output   The channel each receipt is written to.
+     * @throws IllegalArgumentException if the template has an unknown or
+     *                                  unterminated field, or a field of a
+     *                                  sold line.
+     */
+    public ReceiptRenderer(String template, WritableByteChannel output) {
+        this.receipt = new Template(template);
+        for (Field field : receipt.fields) {
+            if (field.compareTo(Field.NAME) >= 0) {
+                throw new IllegalArgumentException("Receipt field " + field + " is only allowed on a sold line.");
+            }
+        }
+        this.countedLine = new Template(COUNTED_LINE_TEMPLATE);
+        this.weighedLine = new Template(WEIGHED_LINE_TEMPLATE);
+        char separator = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT))
+                .getDecimalSeparator();
+        this.decimalSeparator = separator < 0x80 ? (byte) separator : (byte) '.';
+        this.output = output;
+    }
+
+    /**
+     * Creates a channel that writes to {@code System.out}, looked up at each
+     * write, and flushes it after each write.
+     *
+     * @return The channel.
+     */
+    public static WritableByteChannel console() {
+        return new ConsoleChannel();
+    }
+
+    /**
+     * Renders a receipt and writes it to the output channel in one write.
+     *
+     * @param timeOfSale  The time of the sale.
+     * @param saleSummary The summary of the paid sale.
+     * @throws ConnectionEstablishmentException if the receipt cannot be
+     *                                          written.
+     */
+    public void print(TimeOfSaleDTO timeOfSale, SaleSummaryDTO saleSummary) {
+        Buffer buffer = renderToBuffer(timeOfSale, saleSummary);
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.bytes, 0, buffer.length);
+            while (bytes.hasRemaining()) {
+                output.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new ConnectionEstablishmentException("Receipt could not be printed: " + e.getMessage(), "Printer");
+        }
+    }
+
+    /**
+     * Renders a receipt without writing it.
+     *
+     * @param timeOfSale  The time of the sale.
+     * @param saleSummary The summary of the paid sale.
+     * @return The receipt, encoded as UTF-8.
+     */
+    public byte[] render(TimeOfSaleDTO timeOfSale, SaleSummaryDTO saleSummary) {
+        Buffer buffer = renderToBuffer(timeOfSale, saleSummary);
+        return Arrays.copyOf(buffer.bytes, buffer.length);
+    }
+
+    /**
+     * Renders a receipt into the buffer of the calling thread.
+     *
+     * @param timeOfSale  The time of the sale.
+     * @param saleSummary The summary of the paid sale.
+     * @return The buffer, holding only the receipt.
+     */
+    private Buffer renderToBuffer(TimeOfSaleDTO timeOfSale, SaleSummaryDTO saleSummary) {
+        Buffer buffer = BUFFERS.get();
+        buffer.length = 0;
+        appendTemplate(buffer, receipt, timeOfSale, saleSummary, -1);
+        return buffer;
+    }
+
+    /**
+     * Appends a compiled template, with its fields filled in.
+     *
+     * @param buffer      The buffer to append to.
+     * @param template    The compiled template.
+     * @param timeOfSale  The time of the sale.
+     * @param saleSummary The summary of the paid sale.
+     * @param line        The sold line, for a line template, or -1.
+     */
+    private void appendTemplate(Buffer buffer, Template template, TimeOfSaleDTO timeOfSale,
+            SaleSummaryDTO saleSummary, int line) {
+        for (int i = 0; i < template.fields.length; i++) {
+            buffer.append(template.literals[i]);
+            appendField(buffer, template.fields[i], timeOfSale, saleSummary, line);
+        }
+        buffer.append(template.literals[template.fields.length]);
+    }
+
+    /**
+     * Appends the value of one field.
+     *
+     * @param buffer      The buffer to append to.
+     * @param field       The field.
+     * @param timeOfSale  The time of the sale.
+     * @param saleSummary The summary of the paid sale.
+     * @param line        The sold line, for a line field, or -1.
+     */
+    private void appendField(Buffer buffer, Field field, TimeOfSaleDTO timeOfSale, SaleSummaryDTO saleSummary,
+            int line) {
+        BoughtItemsDTO boughtItems = saleSummary.getBoughtItems();
+        switch (field) {
+            case TIME -> appendText(buffer, timeOfSale.getTimeStamp());
+            case LINES -> {
+                int lineCount = boughtItems == null ? 0 : boughtItems.size();
+                for (int i = 0; i < lineCount; i++) {
+                    Template lineTemplate = boughtItems.isWeighed(i) ? weighedLine : countedLine;
+                    appendTemplate(buffer, lineTemplate, timeOfSale, saleSummary, i);
+                }
+            }
+            case TOTAL -> appendDecimal(buffer, saleSummary.getTotalPrice(), 2);
+            case VAT -> appendDecimal(buffer, saleSummary.getTotalVAT(), 2);
+            case PAID -> appendDecimal(buffer, saleSummary.getAmountPaid(), 2);
+            case CHANGE -> appendDecimal(buffer, saleSummary.getChange(), 2);
+            case NAME -> appendText(buffer, boughtItems.getItem(line).getName());
+            case QUANTITY -> appendLong(buffer, boughtItems.getQuantity(line));
+            case WEIGHT -> appendDecimal(buffer, boughtItems.getWeight(line), 3);
+            case PRICE -> appendDecimal(buffer, boughtItems.getItem(line).getPrice(), 2);
+            case AMOUNT -> appendDecimal(buffer, boughtItems.getLinePrice(line), 2);
+        }
+    }
+
+    /**
+     * Appends an amount rounded half up to a number of decimals, or
+     * {@code null} if there is no amount.
+     *
+     * @param buffer The buffer to append to.
+     * @param amount The amount, or {@code null}.
+     * @param scale  The number of decimals.
+     */
+    private void appendDecimal(Buffer buffer, BigDecimal amount, int scale) {
+        if (amount == null) {
+            appendText(buffer, "null");
+            return;
+        }
+        BigDecimal rounded = amount.setScale(scale, RoundingMode.HALF_UP);
+        if (rounded.precision() > 18) {
+            appendText(buffer, rounded.toPlainString().replace('.', (char) decimalSeparator));
+            return;
+        }
+        long unscaled = rounded.unscaledValue().longValue();
+        if (unscaled < 0) {
+            buffer.append((byte) '-');
+            unscaled = -unscaled;
+        }
+        long divisor = 1;
+        for (int i = 0; i < scale; i++) {
+            divisor *= 10;
+        }
+        appendLong(buffer, unscaled / divisor);
+        buffer.append(decimalSeparator);
+        long fraction = unscaled % divisor;
+        for (long digit = divisor / 10; digit > 0; digit /= 10) {
+            buffer.append((byte) ('0' + fraction / digit % 10));
+        }
+    }
+
+    /**
+     * Appends a whole number.
+     *
+     * @param buffer The buffer to append to.
+     * @param value  The number.
+     */
+    private static void appendLong(Buffer buffer, long value) {
+        if (value < 0) {
+            buffer.append((byte) '-');
+            value = -value;
+        }
+        long digit = 1;
+        while (digit <= value / 10) {
+            digit *= 10;
+        }
+        for (; digit > 0; digit /= 10) {
+            buffer.append((byte) ('0' + value / digit % 10));
+        }
+    }
+
+    /**
+     * Appends text encoded as UTF-8.
+     *
+     * @param buffer The buffer to append to.
+     * @param text   The text, or {@code null}.
+     */
+    private static void appendText(Buffer buffer, String text) {
+        if (text == null) {
+            text = "null";
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer.append((byte) c);
+                continue;
+            }
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint) - 1;
+            if (codePoint < 0x800) {
+                buffer.append((byte) (0xC0 | codePoint >> 6));
+            } else if (codePoint < 0x10000) {
+                buffer.append((byte) (0xE0 | codePoint >> 12));
+                buffer.append((byte) (0x80 | codePoint >> 6 & 0x3F));
+            } else {
+                buffer.append((byte) (0xF0 | codePoint >> 18));
+                buffer.append((byte) (0x80 | codePoint >> 12 & 0x3F));
+                buffer.append((byte) (0x80 | codePoint >> 6 & 0x3F));
+            }
+            buffer.append((byte) (0x80 | codePoint & 0x3F));
+        }
+    }
+
+    /**
+     * The fields of the templates: the fields of the receipt first, then the
+     * fields of a sold line.
+     */
+    private enum Field {
+        TIME, LINES, TOTAL, VAT, PAID, CHANGE, NAME, QUANTITY, WEIGHT, PRICE, AMOUNT
+    }
+
+    /**
+     * A compiled template: the encoded literal parts, with one field between
+     * each two of them.
+     */
+    private static class Template {
+        private final byte[][] literals; // The literal parts, one more than the fields
+        private final Field[] fields;    // The fields, in order
+
+        /**
+         * Compiles a template.
+         *
+         * @param template The template text.
+         * @throws IllegalArgumentException if the template has an unknown or
+         *                                  unterminated field.
+         */
+        Template(String template) {
+            List<byte[]> literalParts = new ArrayList<>();
+            List<Field> fieldParts = new ArrayList<>();
+            int start = 0;
+            for (int open = template.indexOf('{'); open >= 0; open = template.indexOf('{', start)) {
+                int close = template.indexOf('}', open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unterminated receipt field at " + open + ".");
+                }
+                literalParts.add(encode(template.substring(start, open)));
+                fieldParts.add(fieldNamed(template.substring(open + 1, close)));
+                start = close + 1;
+            }
+            literalParts.add(encode(template.substring(start)));
+            this.literals = literalParts.toArray(new byte[0][]);
+            this.fields = fieldParts.toArray(new Field[0]);
+        }
+
+        /**
+         * Encodes a literal part, with each {@code \n} replaced by the line
+         * separator.
+         *
+         * @param literal The literal part.
+         * @return The encoded part.
+         */
+        private static byte[] encode(String literal) {
+            return literal.replace("\n", System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Finds the field with a name.
+         *
+         * @param name The name of the field, such as {@code total}.
+         * @return The field.
+         * @throws IllegalArgumentException if there is no such field.
+         */
+        private static Field fieldNamed(String name) {
+            try {
+                return Field.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown receipt field: " + name);
+            }
+        }
+    }
+
+    /**
+     * A growing byte buffer, reused by the thread that owns it.
+     */
+    private static class Buffer {
+        private byte[] bytes; // The rendered bytes, and room for more
+        private int length;   // The number of rendered bytes
+
+        /**
+         * Creates an empty buffer.
+         *
+         * @param capacity The initial capacity in bytes.
+         */
+        Buffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        /**
+         * Appends one byte.
+         *
+         * @param value The byte.
+         */
+        void append(byte value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = value;
+        }
+
+        /**
+         * Appends several bytes.
+         *
+         * @param values The bytes.
+         */
+        void append(byte[] values) {
+            if (length + values.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + values.length));
+            }
+            System.arraycopy(values, 0, bytes, length, values.length);
+            length += values.length;
+        }
+    }
+
+    /**
+     * A channel that writes to the current {@code System.out}, holding its
+     * lock once per write.
+     */
+    private static class ConsoleChannel implements WritableByteChannel {
+        /**
+         * Writes the remaining bytes and flushes the console.
+         *
+         * @param source The bytes to write.
+         * @return The number of bytes written.
+         */
+        @Override
+        public int write(ByteBuffer source) {
+            int count = source.remaining();
+            PrintStream console = System.out;
+            if (source.hasArray()) {
+                console.write(source.array(), source.arrayOffset() + source.position(), count);
+                source.position(source.limit());
+            } else {
+                byte[] bytes = new byte[count];
+                source.get(bytes);
+                console.write(bytes, 0, count);
+            }
+            console.flush();
+            return count;
+        }
+
+        /**
+         * Tells whether the channel is open, which it always is.
+         *
+         * @return {@code true}.
+         */
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        /**
+         * Does nothing, since the console is not closed by a receipt renderer.
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
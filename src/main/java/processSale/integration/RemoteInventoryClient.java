@@ -0,0 +1,166 @@
+package src.main.java.processSale.integration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.StringJoiner;
+
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+
+/**
+ * Calls a remote inventory system over HTTP, such as the
+ * {@link InventoryServer} stand-in. Items are sent as rows in the format of
+ * the inventory file. Every call has a timeout, and a call that fails or times
+ * out is reported as a {@link ConnectionEstablishmentException}. Usually
+ * wrapped in a {@link CachingInventoryClient}, so only cache misses reach the
+ * network.
+ */
+public class RemoteInventoryClient implements InventoryClient {
+    private static final String SYSTEM_NAME = "External Inventory System";
+
+    private final HttpClient client; // Sends the requests
+    private final URI baseURI;       // The address of the inventory system, ending with a slash
+    private final Duration timeout;  // The longest time to wait for a response
+
+    /**
+     * Creates a new client for the inventory system at the specified address.
+     *
+     * @param baseURI The address of the inventory system, for example
+     *                {@code http://localhost:8081/}.
+     * @param timeout The longest time to wait for a connection and for each
+     *                response.
+     */
+    public RemoteInventoryClient(URI baseURI, Duration timeout) {
+        String base = baseURI.toString();
+        this.baseURI = URI.create(base.endsWith("/") ? base : base + "/");
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * Retrieves an item from the inventory system.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The {@link ItemDTO} as currently priced by the inventory system.
+     * @throws ItemNotFoundException            if the inventory system does not
+     *                                          know the item.
+     * @throws ConnectionEstablishmentException if the inventory system cannot
+     *                                          be reached or fails.
+     */
+    @Override
+    public ItemDTO getItem(String itemID) throws ItemNotFoundException, ConnectionEstablishmentException {
+        if (itemID == null) {
+            throw new ItemNotFoundException("Item ID cannot be null.", null);
+        }
+        HttpResponse<String> response = send(HttpRequest.newBuilder(baseURI.resolve("items/" + encode(itemID))));
+        if (response.statusCode() == 404) {
+            throw new ItemNotFoundException(
+                    "Item with identifier '" + itemID + "' could not be found in External Inventory System.", itemID);
+        }
+        checkSucceeded(response);
+        return Inventory.parseRow(response.body().strip());
+    }
+
+    /**
+     * Retrieves several items from the inventory system in one request.
+     *
+     * @param itemIDs The unique identifiers of the items.
+     * @return The found items, in the same order as {@code itemIDs}, with
+     *         {@code null} for each identifier that is not in the inventory.
+     * @throws ConnectionEstablishmentException if the inventory system cannot
+     *                                          be reached or fails.
+     */
+    @Override
+    public ItemDTO[] getItems(String[] itemIDs) throws ConnectionEstablishmentException {
+        ItemDTO[] found = new ItemDTO[itemIDs.length];
+        if (itemIDs.length == 0) {
+            return found;
+        }
+        StringJoiner ids = new StringJoiner(",");
+        for (String itemID : itemIDs) {
+            ids.add(encode(itemID));
+        }
+        HttpResponse<String> response = send(HttpRequest.newBuilder(baseURI.resolve("items?ids=" + ids)));
+        checkSucceeded(response);
+        String[] rows = response.body().split("\n", -1);
+        for (int i = 0; i < itemIDs.length && i < rows.length; i++) {
+            found[i] = Inventory.parseRow(rows[i].strip());
+        }
+        return found;
+    }
+
+    /**
+     * Sends the sold quantity of each line of a sale to the inventory system.
+     *
+     * @param saleSummaryDTO A {@link SaleSummaryDTO} containing details of the
+     *                       completed sale.
+     * @throws ConnectionEstablishmentException if the inventory system cannot
+     *                                          be reached or fails.
+     */
+    @Override
+    public void updateInventory(SaleSummaryDTO saleSummaryDTO) {
+        StringBuilder body = new StringBuilder();
+        BoughtItemsDTO boughtItems = saleSummaryDTO.getBoughtItems();
+        for (int line = 0; line < boughtItems.size(); line++) {
+            body.append(boughtItems.getItem(line).getID()).append(' ')
+                    .append(boughtItems.getQuantity(line)).append(' ')
+                    .append(boughtItems.getWeight(line).toPlainString()).append('\n');
+        }
+        checkSucceeded(send(HttpRequest.newBuilder(baseURI.resolve("inventory"))
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Sends a request and waits for the response, within the timeout.
+     *
+     * @param request The request to send.
+     * @return The response.
+     * @throws ConnectionEstablishmentException if the request fails, times out
+     *                                          or is interrupted.
+     */
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        try {
+            return client.send(request.timeout(timeout).build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new ConnectionEstablishmentException(
+                    "External Inventory System could not be reached: " + e.getMessage(), SYSTEM_NAME);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionEstablishmentException(
+                    "Interrupted while waiting for External Inventory System.", SYSTEM_NAME);
+        }
+    }
+
+    /**
+     * Checks that the inventory system handled a request.
+     *
+     * @param response The response to check.
+     * @throws ConnectionEstablishmentException if the response reports a
+     *                                          failure.
+     */
+    private static void checkSucceeded(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new ConnectionEstablishmentException(
+                    "External Inventory System failed with status " + response.statusCode() + ".", SYSTEM_NAME);
+        }
+    }
+
+    /**
+     * Encodes a value for use in a URI.
+     *
+     * @param value The value to encode.
+     * @return The encoded value.
+     */
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,93 @@
+package src.main.java.processSale.integration;
+
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+
+/**
+ * Guards the calls to an inventory system with a {@link CircuitBreaker}, and
+ * answers lookups from an offline catalog when the inventory system cannot be
+ * reached. While the breaker is open, scans are served by the offline catalog
+ * without waiting for the inventory system at all.
+ */
+public class ResilientInventoryClient implements InventoryClient {
+    private final InventoryClient delegate;  // The guarded inventory system
+    private final CircuitBreaker breaker;    // Decides if the inventory system is called
+    private final InventoryClient fallback;  // The offline catalog, or null
+
+    /**
+     * Creates a new guarded inventory client.
+     *
+     * @param delegate The guarded inventory system.
+     * @param breaker  The circuit breaker of the inventory system.
+     * @param fallback The offline catalog used while the inventory system
+     *                 cannot be reached, such as the local {@link Inventory},
+     *                 or {@code null} to report the failure instead.
+     */
+    public ResilientInventoryClient(InventoryClient delegate, CircuitBreaker breaker, InventoryClient fallback) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Retrieves an item from the inventory system, or from the offline catalog
+     * if the inventory system cannot be reached.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The {@link ItemDTO}.
+     * @throws ItemNotFoundException            if the item is not found.
+     * @throws ConnectionEstablishmentException if neither the inventory system
+     *                                          nor the offline catalog can be
+     *                                          reached.
+     */
+    @Override
+    public ItemDTO getItem(String itemID) throws ItemNotFoundException, ConnectionEstablishmentException {
+        try {
+            return breaker.call(() -> delegate.getItem(itemID));
+        } catch (ConnectionEstablishmentException e) {
+            if (fallback == null) {
+                throw e;
+            }
+            return fallback.getItem(itemID);
+        }
+    }
+
+    /**
+     * Retrieves several items from the inventory system, or from the offline
+     * catalog if the inventory system cannot be reached.
+     *
+     * @param itemIDs The unique identifiers of the items.
+     * @return The found items, with {@code null} for each missing item.
+     * @throws ConnectionEstablishmentException if neither the inventory system
+     *                                          nor the offline catalog can be
+     *                                          reached.
+     */
+    @Override
+    public ItemDTO[] getItems(String[] itemIDs) throws ConnectionEstablishmentException {
+        try {
+            return breaker.call(() -> delegate.getItems(itemIDs));
+        } catch (ConnectionEstablishmentException e) {
+            if (fallback == null) {
+                throw e;
+            }
+            return fallback.getItems(itemIDs);
+        }
+    }
+
+    /**
+     * Sends an inventory update through the circuit breaker.
+     *
+     * @param saleSummaryDTO A {@link SaleSummaryDTO} containing details of the
+     *                       completed sale.
+     * @throws ConnectionEstablishmentException if the inventory system cannot
+     *                                          be reached.
+     */
+    @Override
+    public void updateInventory(SaleSummaryDTO saleSummaryDTO) {
+        breaker.call(() -> {
+            delegate.updateInventory(saleSummaryDTO);
+            return null;
+        });
+    }
+}
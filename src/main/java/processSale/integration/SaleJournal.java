@@ -0,0 +1,257 @@
+package src.main.java.processSale.integration;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.PaymentInfoDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.model.dto.TimeOfSaleDTO;
+
+/**
+ * A durable first-in, first-out queue of completed sales, kept in an
+ * append-only file. Each sale is written as one line and forced to disk before
+ * {@link #append(SaleSummaryDTO)} returns, so a queued sale survives a crash
+ * of the register. The sequence number of the last delivered sale is kept in
+ * a checkpoint file next to the journal, and the journal is truncated each
+ * time every queued sale has been delivered. When the journal is opened, the
+ * sales that were queued but not delivered are queued again, and a line torn
+ * by a crash during writing is skipped. This class is thread-safe.
+ */
+public class SaleJournal implements AutoCloseable {
+    private static final String NONE = "-";
+
+    private final Path checkpointFile;            // Holds the sequence number of the last delivered sale
+    private final FileChannel channel;            // Appends to the journal file
+    private final ArrayDeque<QueuedSale> pending; // Undelivered sales, oldest first, guarded by this
+    private long lastSequence;                    // Sequence number of the last queued sale, guarded by this
+
+    /**
+     * Opens the journal at the specified path, creating it if it does not
+     * exist, and queues the sales that it holds but that were not delivered.
+     *
+     * @param file The journal file. The checkpoint file is created next to it.
+     * @throws IOException if the journal cannot be read or opened.
+     */
+    public SaleJournal(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.checkpointFile = file.resolveSibling(file.getFileName() + ".ack");
+        this.pending = new ArrayDeque<>();
+        long delivered = Files.exists(checkpointFile)
+                ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).strip())
+                : 0;
+        this.lastSequence = delivered;
+        byte[] contents = Files.exists(file) ? Files.readAllBytes(file) : new byte[0];
+        int end = contents.length;
+        while (end > 0 && contents[end - 1] != '\n') {
+            end--;
+        }
+        for (String line : new String(contents, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            QueuedSale sale = decode(line);
+            if (sale == null) {
+                continue;
+            }
+            lastSequence = Math.max(lastSequence, sale.sequence);
+            if (sale.sequence > delivered) {
+                pending.add(sale);
+            }
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        // Drop a line torn by a crash, so the next sale starts on a line of its own
+        channel.truncate(end);
+    }
+
+    /**
+     * Queues a sale and forces it to disk. If the sale cannot be written, it
+     * stays queued in memory and is still delivered unless the register stops
+     * first.
+     *
+     * @param saleSummary The {@link SaleSummaryDTO} of the completed sale.
+     * @throws IOException if the sale cannot be written to the journal.
+     */
+    public synchronized void append(SaleSummaryDTO saleSummary) throws IOException {
+        QueuedSale sale = new QueuedSale(++lastSequence, saleSummary);
+        pending.add(sale);
+        ByteBuffer line = StandardCharsets.UTF_8.encode(encode(sale) + "\n");
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Retrieves the oldest undelivered sales without removing them.
+     *
+     * @param maxCount The largest number of sales to retrieve.
+     * @return Up to {@code maxCount} sales, oldest first.
+     */
+    public synchronized List<SaleSummaryDTO> peek(int maxCount) {
+        List<SaleSummaryDTO> sales = new ArrayList<>(Math.min(maxCount, pending.size()));
+        Iterator<QueuedSale> oldestFirst = pending.iterator();
+        while (sales.size() < maxCount && oldestFirst.hasNext()) {
+            sales.add(oldestFirst.next().summary);
+        }
+        return sales;
+    }
+
+    /**
+     * Removes the oldest sales after they have been delivered, and records the
+     * delivery in the checkpoint file. The journal is truncated if no sale is
+     * left.
+     *
+     * @param count The number of delivered sales, counted from the oldest.
+     * @throws IOException if the checkpoint cannot be written.
+     */
+    public synchronized void acknowledge(int count) throws IOException {
+        if (count <= 0) {
+            return;
+        }
+        long delivered = 0;
+        for (int i = 0; i < count && !pending.isEmpty(); i++) {
+            delivered = pending.poll().sequence;
+        }
+        Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(temporary, Long.toString(delivered), StandardCharsets.UTF_8);
+        Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (pending.isEmpty()) {
+            channel.truncate(0);
+        }
+    }
+
+    /**
+     * Retrieves the number of undelivered sales.
+     *
+     * @return The number of queued sales.
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Closes the journal file. Queued sales stay in the file and are queued
+     * again when the journal is next opened.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Encodes a queued sale as one line: the sequence number, the time and
+     * payment of the sale, and one field per sold line holding the item in the
+     * format of the inventory file, the quantity and the weight in grams. The
+     * fields are separated by tabs.
+     *
+     * @param sale The queued sale.
+     * @return The line, without a line separator.
+     */
+    private static String encode(QueuedSale sale) {
+        SaleSummaryDTO summary = sale.summary;
+        StringBuilder line = new StringBuilder();
+        line.append(sale.sequence).append('\t').append(summary.getTimeOfSaleMillis())
+                .append('\t').append(format(summary.getAmountPaid()))
+                .append('\t').append(format(summary.getChange()))
+                .append('\t').append(format(summary.getTotalPrice()))
+                .append('\t').append(format(summary.getTotalVAT()));
+        BoughtItemsDTO boughtItems = summary.getBoughtItems();
+        for (int i = 0; i < boughtItems.size(); i++) {
+            int grams = boughtItems.getWeight(i).movePointRight(3).intValue();
+            line.append('\t').append(Inventory.formatRow(boughtItems.getItem(i)))
+                    .append('|').append(boughtItems.getQuantity(i)).append('|').append(grams);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Decodes a line written by {@link #encode(QueuedSale)}.
+     *
+     * @param line The line.
+     * @return The queued sale, or {@code null} if the line is empty or torn.
+     */
+    private static QueuedSale decode(String line) {
+        String[] fields = line.split("\t");
+        if (fields.length < 6) {
+            return null;
+        }
+        try {
+            int lineCount = fields.length - 6;
+            ItemDTO[] items = new ItemDTO[lineCount];
+            int[] quantities = new int[lineCount];
+            int[] weights = new int[lineCount];
+            for (int i = 0; i < lineCount; i++) {
+                String[] soldLine = fields[6 + i].split("\\|");
+                ItemDTO item = Inventory.parseRow(soldLine[0]);
+                if (item == null || soldLine.length < 3) {
+                    return null;
+                }
+                items[i] = item;
+                quantities[i] = Integer.parseInt(soldLine[1]);
+                weights[i] = Integer.parseInt(soldLine[2]);
+            }
+            PaymentInfoDTO payment = new PaymentInfoDTO(parse(fields[2]), parse(fields[3]), parse(fields[4]),
+                    parse(fields[5]));
+            SaleSummaryDTO summary = new SaleSummaryDTO(new TimeOfSaleDTO(Long.parseLong(fields[1])),
+                    new BoughtItemsDTO(items, quantities, weights, lineCount), payment);
+            return new QueuedSale(Long.parseLong(fields[0]), summary);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Formats an amount for the journal.
+     *
+     * @param amount The amount, or {@code null}.
+     * @return The amount as plain text, or {@value #NONE} for {@code null}.
+     */
+    private static String format(BigDecimal amount) {
+        return amount == null ? NONE : amount.toPlainString();
+    }
+
+    /**
+     * Parses an amount written by {@link #format(BigDecimal)}.
+     *
+     * @param text The amount as text.
+     * @return The amount, or {@code null} for {@value #NONE}.
+     */
+    private static BigDecimal parse(String text) {
+        return NONE.equals(text) ? null : new BigDecimal(text);
+    }
+
+    /**
+     * A sale in the journal and its sequence number.
+     */
+    private static class QueuedSale {
+        private final long sequence;          // Position of the sale in the journal, starting at 1
+        private final SaleSummaryDTO summary; // The queued sale
+
+        /**
+         * Creates a new journal entry.
+         *
+         * @param sequence The sequence number of the sale.
+         * @param summary  The queued sale.
+         */
+        QueuedSale(long sequence, SaleSummaryDTO summary) {
+            this.sequence = sequence;
+            this.summary = summary;
+        }
+    }
+}
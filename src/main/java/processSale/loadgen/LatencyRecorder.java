@@ -0,0 +1,72 @@
+package src.main.java.processSale.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples from one register thread. Samples are kept in a
+ * growing array, so recording is cheap and the percentiles are exact. Recorders
+ * from several threads are merged after the run.
+ */
+class LatencyRecorder {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] samples = new long[INITIAL_CAPACITY]; // Recorded latencies in nanoseconds
+    private int count;                                   // Number of recorded samples
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Retrieves the number of recorded samples.
+     *
+     * @return The number of samples.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Merges the samples of several recorders and sorts them.
+     *
+     * @param recorders The recorders to merge.
+     * @return All samples in ascending order.
+     */
+    static long[] mergeSorted(Iterable<LatencyRecorder> recorders) {
+        int total = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.count;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, merged, offset, recorder.count);
+            offset += recorder.count;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * Retrieves a percentile from sorted samples, using the nearest-rank method.
+     *
+     * @param sorted     The samples in ascending order.
+     * @param percentile The percentile, between 0 and 100.
+     * @return The sample at the percentile, or 0 if there are no samples.
+     */
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.min(Math.max(rank, 1), sorted.length) - 1];
+    }
+}
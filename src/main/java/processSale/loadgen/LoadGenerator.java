@@ -0,0 +1,322 @@
+package src.main.java.processSale.loadgen;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import src.main.java.processSale.controller.Controller;
+import src.main.java.processSale.integration.*;
+import src.main.java.processSale.model.BestSellerSketch;
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.view.SaleDisplay;
+
+/**
+ * Drives several registers concurrently with synthetic store traffic and
+ * measures throughput and latency. Each register has its own controller,
+ * printer and cash register, and runs on its own thread, while the inventory,
+ * discount and accounting systems and the best-seller sketch are shared, as
+ * in a store. Items are chosen by a Zipf distribution over a generated
+ * catalog, and basket sizes follow a geometric distribution.
+ *
+ * Registers run closed-loop, starting the next sale as soon as the previous
+ * one is paid, so the run measures the maximum sustainable throughput.
+ * Console output from the integration layer is discarded during the run.
+ */
+public class LoadGenerator {
+    private static final String ITEM_ID_PREFIX = "load-";
+    private static final String MISSING_ITEM_ID = "load-missing";
+
+    private final LoadProfile profile; // The traffic to generate
+
+    /**
+     * Creates a new load generator.
+     *
+     * @param profile The traffic to generate.
+     */
+    public LoadGenerator(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Runs the load and waits until every register has handled its sales.
+     *
+     * @return A {@link LoadReport} with the throughput and latencies.
+     * @throws IOException          if the generated catalog cannot be written.
+     * @throws InterruptedException if interrupted while waiting for the
+     *                              registers.
+     */
+    public LoadReport run() throws IOException, InterruptedException {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        ExecutorService executor = Executors.newFixedThreadPool(profile.getRegisters());
+        try {
+            Inventory inventory = new Inventory(createCatalog(profile.getCatalogSize()));
+            Discount discount = new Discount();
+            Account account = new Account();
+            BestSellerSketch bestSellers = new BestSellerSketch();
+            String[] itemIDsByRank = rankItems(new SplittableRandom(profile.getSeed()));
+            ZipfDistribution popularity = new ZipfDistribution(profile.getCatalogSize(), profile.getZipfExponent());
+
+            CountDownLatch startSignal = new CountDownLatch(1);
+            SplittableRandom seeds = new SplittableRandom(profile.getSeed() + 1);
+            List<Register> registers = new ArrayList<>();
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < profile.getRegisters(); i++) {
+                Register register = new Register("lane-" + (i + 1), inventory, discount, account, bestSellers,
+                        itemIDsByRank, popularity, seeds.split(), startSignal);
+                registers.add(register);
+                running.add(executor.submit(register));
+            }
+
+            long start = System.nanoTime();
+            startSignal.countDown();
+            for (Future<?> register : running) {
+                register.get();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            return createReport(registers, elapsed);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A register failed during the load run.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Merges the measurements of all registers into a report.
+     *
+     * @param registers The registers that ran.
+     * @param elapsed   The wall-clock duration of the run in nanoseconds.
+     * @return The report.
+     */
+    private LoadReport createReport(List<Register> registers, long elapsed) {
+        long misses = 0;
+        List<LatencyRecorder> scans = new ArrayList<>();
+        List<LatencyRecorder> sales = new ArrayList<>();
+        for (Register register : registers) {
+            misses += register.misses;
+            scans.add(register.scanLatencies);
+            sales.add(register.saleLatencies);
+        }
+        return new LoadReport(profile, elapsed, misses, LatencyRecorder.mergeSorted(scans),
+                LatencyRecorder.mergeSorted(sales));
+    }
+
+    /**
+     * Writes an inventory file with generated items.
+     *
+     * @param catalogSize The number of items to write.
+     * @return The inventory file, deleted when the JVM exits.
+     * @throws IOException if the file cannot be written.
+     */
+    private static File createCatalog(int catalogSize) throws IOException {
+        File catalog = Files.createTempFile("load-inventory", ".txt").toFile();
+        catalog.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(catalog)) {
+            for (int i = 0; i < catalogSize; i++) {
+                writer.printf("Item%d %s%d Load_test_item. %d.%02d 0.12%n", i, ITEM_ID_PREFIX, i, 5 + i % 195,
+                        i % 100);
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Assigns popularity ranks to the generated items in random order, so the
+     * most popular items are spread over the catalog instead of being first.
+     *
+     * @param random The source of randomness.
+     * @return The item ID of each rank.
+     */
+    private String[] rankItems(SplittableRandom random) {
+        String[] itemIDs = new String[profile.getCatalogSize()];
+        for (int i = 0; i < itemIDs.length; i++) {
+            itemIDs[i] = ITEM_ID_PREFIX + i;
+        }
+        for (int i = itemIDs.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String swapped = itemIDs[i];
+            itemIDs[i] = itemIDs[j];
+            itemIDs[j] = swapped;
+        }
+        return itemIDs;
+    }
+
+    /**
+     * One register, handling its sales one after the other on its own thread.
+     */
+    private class Register implements Runnable, SaleDisplay {
+        private final Controller controller;        // Controller of this register
+        private final String[] itemIDsByRank;       // Item ID of each popularity rank
+        private final ZipfDistribution popularity;  // Chooses the scanned items
+        private final SplittableRandom random;      // Random source of this register
+        private final CountDownLatch startSignal;   // Released when all registers are ready
+        private final LatencyRecorder scanLatencies = new LatencyRecorder(); // Latency of each scan
+        private final LatencyRecorder saleLatencies = new LatencyRecorder(); // Latency of each sale
+        private BigDecimal totalPrice = BigDecimal.ZERO; // Total shown when the last sale ended
+        private long misses;                             // Scans of items not in the inventory
+
+        /**
+         * Creates a new register.
+         *
+         * @param registerID    The unique identifier of the register.
+         * @param inventory     The shared inventory system.
+         * @param discount      The shared discount system.
+         * @param account       The shared accounting system.
+         * @param bestSellers   The shared best-seller sketch.
+         * @param itemIDsByRank The item ID of each popularity rank.
+         * @param popularity    The distribution choosing the scanned items.
+         * @param random        The random source of this register.
+         * @param startSignal   Released when all registers are ready.
+         */
+        Register(String registerID, Inventory inventory, Discount discount, Account account, BestSellerSketch bestSellers,
+                String[] itemIDsByRank, ZipfDistribution popularity, SplittableRandom random,
+                CountDownLatch startSignal) {
+            RegisterCashCompartment cashRegister = new RegisterCashCompartment();
+            cashRegister.addObserver(sumOfPayments -> {
+            });
+            this.controller = new Controller(new Printer(), inventory, discount, account, cashRegister);
+            this.controller.setView(this);
+            this.controller.setRegisterID(registerID);
+            this.controller.setBestSellerSketch(bestSellers);
+            this.itemIDsByRank = itemIDsByRank;
+            this.popularity = popularity;
+            this.random = random;
+            this.startSignal = startSignal;
+        }
+
+        /**
+         * Waits for the start signal and handles all sales of this register.
+         */
+        @Override
+        public void run() {
+            try {
+                startSignal.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (int sale = 0; sale < profile.getSalesPerRegister(); sale++) {
+                long saleStart = System.nanoTime();
+                controller.startSale();
+                int basketSize = nextBasketSize();
+                for (int scan = 0; scan < basketSize; scan++) {
+                    scanItem(nextItemID());
+                }
+                controller.endSale(null);
+                controller.processSale(totalPrice.setScale(0, RoundingMode.CEILING));
+                saleLatencies.record(System.nanoTime() - saleStart);
+            }
+        }
+
+        /**
+         * Registers one item and records the latency of the scan.
+         *
+         * @param itemID The ID of the scanned item.
+         */
+        private void scanItem(String itemID) {
+            long scanStart = System.nanoTime();
+            try {
+                controller.registerItem(itemID);
+            } catch (ItemNotFoundException e) {
+                misses++;
+            }
+            scanLatencies.record(System.nanoTime() - scanStart);
+        }
+
+        /**
+         * Chooses the ID of the next scanned item.
+         *
+         * @return The item ID, or an unknown ID for a miss.
+         */
+        private String nextItemID() {
+            if (random.nextDouble() < profile.getMissRate()) {
+                return MISSING_ITEM_ID;
+            }
+            return itemIDsByRank[popularity.sample(random)];
+        }
+
+        /**
+         * Chooses the number of scans in the next sale from a geometric
+         * distribution with the mean basket size of the profile.
+         *
+         * @return The number of scans, at least 1.
+         */
+        private int nextBasketSize() {
+            double mean = profile.getMeanBasketSize();
+            if (mean <= 1) {
+                return 1;
+            }
+            double continueProbability = 1 - 1 / mean;
+            return 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(continueProbability));
+        }
+
+        /**
+         * Ignores added items, since the load generator has no user interface.
+         *
+         * @param addedItem A string describing the item that was added.
+         */
+        @Override
+        public void displayAddedItem(String addedItem) {
+        }
+
+        /**
+         * Remembers the total price, so the sale can be paid.
+         *
+         * @param totalPrice The total price of the sale.
+         */
+        @Override
+        public void displayTotalPrice(BigDecimal totalPrice) {
+            this.totalPrice = totalPrice;
+        }
+    }
+
+    /**
+     * Runs the load generator from the command line and prints the report.
+     * Options are given as {@code --name value}: {@code --registers},
+     * {@code --sales} (per register), {@code --catalog}, {@code --zipf},
+     * {@code --basket} (mean size), {@code --miss-rate} and {@code --seed}.
+     *
+     * @param args The command-line options.
+     * @throws Exception if the run fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int registers = 8;
+        int sales = 2_000;
+        int catalog = 5_000;
+        double zipf = 1.0;
+        double basket = 12;
+        double missRate = 0.01;
+        long seed = 42;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--registers" -> registers = Integer.parseInt(value);
+                case "--sales" -> sales = Integer.parseInt(value);
+                case "--catalog" -> catalog = Integer.parseInt(value);
+                case "--zipf" -> zipf = Double.parseDouble(value);
+                case "--basket" -> basket = Double.parseDouble(value);
+                case "--miss-rate" -> missRate = Double.parseDouble(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        LoadProfile profile = new LoadProfile(registers, sales, catalog, zipf, basket, missRate, seed);
+        System.out.print(new LoadGenerator(profile).run());
+    }
+}
@@ -0,0 +1,118 @@
+package src.main.java.processSale.loadgen;
+
+/**
+ * Describes the synthetic traffic created by the {@link LoadGenerator}: how
+ * many registers run at once, how many sales each register handles, how large
+ * the catalog and the baskets are, and how skewed product popularity is.
+ */
+public class LoadProfile {
+    private final int registers;         // Number of registers running concurrently
+    private final int salesPerRegister;  // Number of sales handled by each register
+    private final int catalogSize;       // Number of distinct items in the store
+    private final double zipfExponent;   // Skew of the item popularity
+    private final double meanBasketSize; // Average number of scans per sale
+    private final double missRate;       // Share of scans with an unknown item ID
+    private final long seed;             // Seed of the random number generators
+
+    /**
+     * Creates a new load profile.
+     *
+     * @param registers        The number of registers running concurrently.
+     * @param salesPerRegister The number of sales handled by each register.
+     * @param catalogSize      The number of distinct items in the store.
+     * @param zipfExponent     The skew of the item popularity. Around 1 is
+     *                         typical for retail.
+     * @param meanBasketSize   The average number of scans per sale. Basket sizes
+     *                         follow a geometric distribution, so most baskets
+     *                         are small and a few are large.
+     * @param missRate         The share of scans, between 0 and 1, that use an
+     *                         item ID not found in the inventory.
+     * @param seed             The seed of the random number generators, so runs
+     *                         can be repeated.
+     * @throws IllegalArgumentException if a count is not positive, the mean
+     *                                  basket size is below 1 or the miss rate is
+     *                                  not between 0 and 1.
+     */
+    public LoadProfile(int registers, int salesPerRegister, int catalogSize, double zipfExponent,
+            double meanBasketSize, double missRate, long seed) {
+        if (registers <= 0 || salesPerRegister <= 0 || catalogSize <= 0) {
+            throw new IllegalArgumentException("Registers, sales and catalog size must be positive.");
+        }
+        if (meanBasketSize < 1) {
+            throw new IllegalArgumentException("Mean basket size must be at least 1.");
+        }
+        if (missRate < 0 || missRate > 1) {
+            throw new IllegalArgumentException("Miss rate must be between 0 and 1.");
+        }
+        this.registers = registers;
+        this.salesPerRegister = salesPerRegister;
+        this.catalogSize = catalogSize;
+        this.zipfExponent = zipfExponent;
+        this.meanBasketSize = meanBasketSize;
+        this.missRate = missRate;
+        this.seed = seed;
+    }
+
+    /**
+     * Retrieves the number of registers running concurrently.
+     *
+     * @return The number of registers.
+     */
+    public int getRegisters() {
+        return registers;
+    }
+
+    /**
+     * Retrieves the number of sales handled by each register.
+     *
+     * @return The number of sales per register.
+     */
+    public int getSalesPerRegister() {
+        return salesPerRegister;
+    }
+
+    /**
+     * Retrieves the number of distinct items in the store.
+     *
+     * @return The catalog size.
+     */
+    public int getCatalogSize() {
+        return catalogSize;
+    }
+
+    /**
+     * Retrieves the skew of the item popularity.
+     *
+     * @return The Zipf exponent.
+     */
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    /**
+     * Retrieves the average number of scans per sale.
+     *
+     * @return The mean basket size.
+     */
+    public double getMeanBasketSize() {
+        return meanBasketSize;
+    }
+
+    /**
+     * Retrieves the share of scans that use an unknown item ID.
+     *
+     * @return The miss rate.
+     */
+    public double getMissRate() {
+        return missRate;
+    }
+
+    /**
+     * Retrieves the seed of the random number generators.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+}
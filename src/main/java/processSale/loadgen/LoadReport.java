@@ -0,0 +1,146 @@
+package src.main.java.processSale.loadgen;
+
+/**
+ * The result of a load generator run: how much work was done, how fast, and
+ * the latency percentiles of scans and complete sales.
+ */
+public class LoadReport {
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] PERCENTILE_LABELS = { "p50", "p90", "p99", "p99.9" };
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final LoadProfile profile;    // The profile that was run
+    private final long elapsedNanos;      // Wall-clock duration of the run
+    private final long misses;            // Scans of items not found in the inventory
+    private final long[] scanLatencies;   // Sorted latencies of registerItem calls
+    private final long[] saleLatencies;   // Sorted latencies of complete sales
+
+    /**
+     * Creates a new report.
+     *
+     * @param profile       The profile that was run.
+     * @param elapsedNanos  The wall-clock duration of the run in nanoseconds.
+     * @param misses        The number of scans of items not in the inventory.
+     * @param scanLatencies The latencies of all scans, in ascending order.
+     * @param saleLatencies The latencies of all sales, from {@code startSale} to
+     *                      the end of {@code processSale}, in ascending order.
+     */
+    LoadReport(LoadProfile profile, long elapsedNanos, long misses, long[] scanLatencies, long[] saleLatencies) {
+        this.profile = profile;
+        this.elapsedNanos = elapsedNanos;
+        this.misses = misses;
+        this.scanLatencies = scanLatencies;
+        this.saleLatencies = saleLatencies;
+    }
+
+    /**
+     * Retrieves the number of completed sales.
+     *
+     * @return The number of sales.
+     */
+    public long getSales() {
+        return saleLatencies.length;
+    }
+
+    /**
+     * Retrieves the number of scans, including misses.
+     *
+     * @return The number of scans.
+     */
+    public long getScans() {
+        return scanLatencies.length;
+    }
+
+    /**
+     * Retrieves the number of scans of items not found in the inventory.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Retrieves the wall-clock duration of the run.
+     *
+     * @return The duration in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Retrieves the number of completed sales per second.
+     *
+     * @return The sale throughput.
+     */
+    public double getSalesPerSecond() {
+        return getSales() * NANOS_PER_SECOND / Math.max(elapsedNanos, 1);
+    }
+
+    /**
+     * Retrieves the number of scans per second.
+     *
+     * @return The scan throughput.
+     */
+    public double getScansPerSecond() {
+        return getScans() * NANOS_PER_SECOND / Math.max(elapsedNanos, 1);
+    }
+
+    /**
+     * Retrieves a percentile of the scan latency.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in nanoseconds.
+     */
+    public long getScanLatency(double percentile) {
+        return LatencyRecorder.percentile(scanLatencies, percentile);
+    }
+
+    /**
+     * Retrieves a percentile of the sale latency.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in nanoseconds.
+     */
+    public long getSaleLatency(double percentile) {
+        return LatencyRecorder.percentile(saleLatencies, percentile);
+    }
+
+    /**
+     * Creates a readable summary of the run.
+     *
+     * @return The summary, one line per figure.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Registers: %d, catalog: %d items, Zipf exponent: %.2f, mean basket: %.1f%n",
+                profile.getRegisters(), profile.getCatalogSize(), profile.getZipfExponent(),
+                profile.getMeanBasketSize()));
+        report.append(String.format("Elapsed: %.2f s%n", elapsedNanos / NANOS_PER_SECOND));
+        report.append(String.format("Sales: %d (%.1f/s)%n", getSales(), getSalesPerSecond()));
+        report.append(String.format("Scans: %d (%.1f/s), misses: %d%n", getScans(), getScansPerSecond(), misses));
+        appendLatencies(report, "Scan latency", scanLatencies);
+        appendLatencies(report, "Sale latency", saleLatencies);
+        return report.toString();
+    }
+
+    /**
+     * Appends one line with the latency percentiles of an operation.
+     *
+     * @param report The report being built.
+     * @param label  The name of the operation.
+     * @param sorted The latencies of the operation, in ascending order.
+     */
+    private static void appendLatencies(StringBuilder report, String label, long[] sorted) {
+        report.append(label).append(" (us):");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            report.append(String.format(" %s=%.1f", PERCENTILE_LABELS[i],
+                    LatencyRecorder.percentile(sorted, PERCENTILES[i]) / NANOS_PER_MICRO));
+        }
+        long max = sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+        report.append(String.format(" max=%.1f%n", max / NANOS_PER_MICRO));
+    }
+}
@@ -0,0 +1,80 @@
+package src.main.java.processSale.loadgen;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws ranks from a Zipf distribution, where the item of rank {@code k} is
+ * chosen with a probability proportional to {@code 1 / (k + 1)^exponent}. This
+ * models the popularity of products in a store, where a few products are in
+ * most baskets and most products are rarely bought. Sampling is a binary search
+ * in a precomputed cumulative distribution, so it does not allocate.
+ */
+public class ZipfDistribution {
+    private final double[] cumulative; // Probability of drawing each rank or a lower one
+
+    /**
+     * Creates a new distribution.
+     *
+     * @param size     The number of ranks.
+     * @param exponent The skew of the distribution. 0 gives a uniform
+     *                 distribution, and higher values give a few ranks more of
+     *                 the draws.
+     * @throws IllegalArgumentException if {@code size} is not positive or
+     *                                  {@code exponent} is negative.
+     */
+    public ZipfDistribution(int size, double exponent) {
+        if (size <= 0 || exponent < 0) {
+            throw new IllegalArgumentException("Zipf size must be positive and exponent non-negative.");
+        }
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    /**
+     * Retrieves the number of ranks.
+     *
+     * @return The number of ranks.
+     */
+    public int size() {
+        return cumulative.length;
+    }
+
+    /**
+     * Retrieves the probability of drawing a rank.
+     *
+     * @param rank The rank, starting at 0 for the most popular.
+     * @return The probability of drawing the rank.
+     */
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random The source of randomness.
+     * @return A rank between 0 and {@code size() - 1}, where 0 is the most
+     *         popular.
+     */
+    public int sample(RandomGenerator random) {
+        double point = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < point) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,193 @@
+package src.main.java.processSale.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import src.main.java.processSale.model.dto.BestSellerDTO;
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+
+/**
+ * Tracks the best-selling items across all completed sales using a fixed
+ * amount of memory. Sold quantities are counted in a Count-Min sketch keyed by
+ * item identifier, and a small table of candidate items holds the current
+ * heavy hitters, each as it was last sold. Memory use does not grow with the
+ * number of items or sales, and all updates are lock-free so several
+ * registers can record sales concurrently.
+ */
+public class BestSellerSketch {
+    private static final int DEPTH = 4;                   // Number of hash rows in the sketch
+    private static final int[] SEEDS = { 0x2545F491, 0x6C8E9CF5, 0x1B873593, 0x7FEB352D };
+    private static final int DEFAULT_WIDTH = 1024;        // Counters per row by default
+    private static final int DEFAULT_CAPACITY = 32;       // Candidate slots by default
+
+    private final int widthMask;                            // Mask used to map hashes to counters
+    private final AtomicLongArray counts;                   // DEPTH rows of counters, stored row by row
+    private final AtomicReferenceArray<ItemDTO> candidates; // Each heavy hitter, null if free
+
+    /**
+     * Creates a new sketch with the default number of counters and candidate
+     * slots.
+     */
+    public BestSellerSketch() {
+        this(DEFAULT_WIDTH, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new sketch with the specified size.
+     *
+     * @param width    The number of counters per hash row. Rounded up to the
+     *                 nearest power of two.
+     * @param capacity The maximum number of items tracked as best sellers.
+     * @throws IllegalArgumentException if {@code width} or {@code capacity} is
+     *                                  not positive.
+     */
+    public BestSellerSketch(int width, int capacity) {
+        if (width <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Sketch width and capacity must be positive.");
+        }
+        int roundedWidth = Integer.highestOneBit(width) == width ? width : Integer.highestOneBit(width) << 1;
+        this.widthMask = roundedWidth - 1;
+        this.counts = new AtomicLongArray(DEPTH * roundedWidth);
+        this.candidates = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Records all items of a completed sale.
+     *
+     * @param saleSummary A {@link SaleSummaryDTO} containing the items of the
+     *                    completed sale.
+     */
+    public void recordSale(SaleSummaryDTO saleSummary) {
+        BoughtItemsDTO boughtItems = saleSummary.getBoughtItems();
+        for (int line = 0; line < boughtItems.size(); line++) {
+            record(boughtItems.getItem(line), boughtItems.getQuantity(line));
+        }
+    }
+
+    /**
+     * Records that a quantity of an item has been sold.
+     *
+     * @param item     The sold item.
+     * @param quantity The number of units sold.
+     */
+    public void record(ItemDTO item, long quantity) {
+        if (item == null || quantity <= 0) {
+            return;
+        }
+        offerCandidate(item, increment(item.getID().hashCode(), quantity));
+    }
+
+    /**
+     * Retrieves the estimated number of units sold of an item.
+     *
+     * @param item The item.
+     * @return The estimated quantity sold, never lower than the true quantity.
+     */
+    public long estimate(ItemDTO item) {
+        return estimate(item.getID().hashCode());
+    }
+
+    /**
+     * Retrieves the estimated number of units sold of an item.
+     *
+     * @param idHash The hash code of the item identifier.
+     * @return The estimated quantity sold.
+     */
+    private long estimate(int idHash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counts.get(counterIndex(idHash, row)));
+        }
+        return min;
+    }
+
+    /**
+     * Retrieves the best-selling items, ordered by estimated quantity sold.
+     *
+     * @param n The maximum number of items to return.
+     * @return A list of at most {@code n} {@link BestSellerDTO} objects.
+     */
+    public List<BestSellerDTO> topN(int n) {
+        List<BestSellerDTO> bestSellers = new ArrayList<>();
+        Set<String> seenIDs = new HashSet<>();
+        for (int slot = 0; slot < candidates.length(); slot++) {
+            ItemDTO candidate = candidates.get(slot);
+            if (candidate != null && seenIDs.add(candidate.getID())) {
+                bestSellers.add(new BestSellerDTO(candidate, estimate(candidate)));
+            }
+        }
+        bestSellers.sort((a, b) -> Long.compare(b.getEstimatedQuantity(), a.getEstimatedQuantity()));
+        return bestSellers.subList(0, Math.min(Math.max(n, 0), bestSellers.size()));
+    }
+
+    /**
+     * Adds a quantity to every counter of an item and returns the new estimate.
+     *
+     * @param idHash   The hash code of the item identifier.
+     * @param quantity The quantity to add.
+     * @return The updated estimated quantity of the item.
+     */
+    private long increment(int idHash, long quantity) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counts.addAndGet(counterIndex(idHash, row), quantity));
+        }
+        return min;
+    }
+
+    /**
+     * Offers an item to the candidate table. The item takes a free slot if one
+     * exists, otherwise it replaces the candidate with the lowest estimate if its
+     * own estimate is higher. An item that is already a candidate replaces its
+     * earlier version, so the best sellers show the latest price.
+     *
+     * @param item     The item to offer.
+     * @param estimate The current estimated quantity of the item.
+     */
+    private void offerCandidate(ItemDTO item, long estimate) {
+        int victimSlot = -1;
+        ItemDTO victim = null;
+        long victimEstimate = Long.MAX_VALUE;
+        for (int slot = 0; slot < candidates.length(); slot++) {
+            ItemDTO candidate = candidates.get(slot);
+            if (candidate == null) {
+                if (candidates.compareAndSet(slot, null, item)) {
+                    return;
+                }
+                candidate = candidates.get(slot);
+            }
+            if (candidate.getID().equals(item.getID())) {
+                candidates.compareAndSet(slot, candidate, item);
+                return;
+            }
+            long candidateEstimate = estimate(candidate);
+            if (candidateEstimate < victimEstimate) {
+                victimSlot = slot;
+                victim = candidate;
+                victimEstimate = candidateEstimate;
+            }
+        }
+        if (victimSlot >= 0 && estimate > victimEstimate) {
+            candidates.compareAndSet(victimSlot, victim, item);
+        }
+    }
+
+    /**
+     * Maps an item to a counter in the specified row.
+     *
+     * @param idHash The hash code of the item identifier.
+     * @param row    The sketch row.
+     * @return The index of the counter in {@code counts}.
+     */
+    private int counterIndex(int idHash, int row) {
+        int mixed = (idHash ^ SEEDS[row]) * 0x9E3779B9;
+        mixed ^= mixed >>> 16;
+        return row * (widthMask + 1) + (mixed & widthMask);
+    }
+}
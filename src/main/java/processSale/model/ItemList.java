@@ -1,25 +1,35 @@
 package src.main.java.processSale.model;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.Arrays;
 
 import src.main.java.processSale.model.dto.BoughtItemsDTO;
 import src.main.java.processSale.model.dto.ItemDTO;
 
 /**
- * Represents a list of items in a sale. This class manages the quantities
- * and metadata of items using two separate HashMaps.
+ * Represents a list of items in a sale. Each distinct item is a line holding
+ * the item as it was sold, its quantity and, for loose goods sold by weight,
+ * its weight in grams, stored in parallel arrays in the order the items were
+ * added. A line sold by weight counts each weighing as one unit. Lines are
+ * found through a small open-addressing table keyed by the hash of the item
+ * identifier.
  */
 public class ItemList {
-    private final HashMap<String, Integer> itemsQuantity; // Tracks item quantities by item ID
-    private final HashMap<String, ItemDTO> itemsMeta;     // Stores item metadata by item ID
+    private static final int INITIAL_CAPACITY = 8;
+    private ItemDTO[] lineItems;     // The item on each line, with the price it is sold at
+    private int[] lineQuantities;    // Quantity of each line
+    private int[] lineWeights;       // Weight in grams of each line, 0 unless sold by weight
+    private int lineCount;           // Number of lines in use
+    private int[] lineByItem;        // Open-addressing table of item ID hash to line number + 1
 
     /**
      * Initializes an empty item list.
      */
     public ItemList() {
-        itemsQuantity = new HashMap<>();
-        itemsMeta = new HashMap<>();
+        lineItems = new ItemDTO[INITIAL_CAPACITY];
+        lineQuantities = new int[INITIAL_CAPACITY];
+        lineWeights = new int[INITIAL_CAPACITY];
+        lineByItem = new int[INITIAL_CAPACITY * 2];
     }
 
     /**
@@ -29,33 +39,165 @@ public class ItemList {
      * @return {@code true} if the item exists, otherwise {@code false}.
      */
     public boolean checkItem(String itemID) {
-        return itemsMeta.containsKey(itemID);
+        return findLine(itemID) >= 0;
     }
 
     /**
-     * Increases the quantity of an existing item in the list.
+     * Increases the quantity of an existing item in the list by one.
      *
      * @param itemID The unique identifier of the item.
      * @return A string describing the updated item and its details.
      * @throws IllegalArgumentException if the item does not exist in the list.
      */
     public String increaseQuantity(String itemID) {
-        if (!itemsMeta.containsKey(itemID)) {
+        return increaseQuantity(itemID, 1);
+    }
+
+    /**
+     * Increases the quantity of an existing item in the list.
+     *
+     * @param itemID   The unique identifier of the item.
+     * @param quantity The number of units to add.
+     * @return A string describing the updated item and its details.
+     * @throws IllegalArgumentException if the item does not exist in the list, is
+     *                                  sold by weight, the quantity is not
+     *                                  positive or the line would hold too
+     *                                  many units.
+     */
+    public String increaseQuantity(String itemID, int quantity) {
+        int line = findLine(itemID);
+        if (line < 0) {
             throw new IllegalArgumentException("Item with ID " + itemID + " does not exist in the list.");
         }
-        int quantity = getItemQuantity(itemID);
-        itemsQuantity.put(itemID, ++quantity);
-        return getAddedItemPrintOut(getItem(itemID));
+        checkCounted(line, quantity);
+        lineQuantities[line] = sum(lineQuantities[line], quantity, "Quantity", itemID);
+        return getAddedItemPrintOut(lineItems[line], describeQuantity(quantity));
+    }
+
+    /**
+     * Adds a weighed amount of a loose item to the list, either on the line
+     * already holding the item or on a new line.
+     *
+     * @param item  The {@link ItemDTO} object representing the item, priced per
+     *              kilogram.
+     * @param grams The weight in grams.
+     * @return A string describing the weighed item and its details.
+     * @throws IllegalArgumentException if the item is null, already in the list
+     *                                  as a counted item, the weight is not
+     *                                  positive or the line would get too
+     *                                  heavy.
+     */
+    public String addWeight(ItemDTO item, int grams) {
+        if (item == null) {
+            throw new IllegalArgumentException("Cannot add null item.");
+        }
+        if (grams <= 0) {
+            throw new IllegalArgumentException("Weight of item with ID " + item.getID() + " must be positive.");
+        }
+        int line = findLine(item.getID());
+        if (line < 0) {
+            line = appendLine(item, 1, grams);
+        } else if (lineWeights[line] == 0) {
+            throw new IllegalArgumentException("Item with ID " + item.getID() + " is not sold by weight.");
+        } else {
+            int weight = sum(lineWeights[line], grams, "Weight", item.getID());
+            lineQuantities[line] = sum(lineQuantities[line], 1, "Quantity", item.getID());
+            lineWeights[line] = weight;
+        }
+        return getAddedItemPrintOut(lineItems[line],
+                String.format("%.3f kg of item", BigDecimal.valueOf(grams, 3)));
+    }
+
+    /**
+     * Checks that a quantity can be added to a counted line.
+     *
+     * @param line     The line number.
+     * @param quantity The number of units to add.
+     * @throws IllegalArgumentException if the line is sold by weight or the
+     *                                  quantity is not positive.
+     */
+    private void checkCounted(int line, int quantity) {
+        String itemID = lineItems[line].getID();
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity of item with ID " + itemID + " must be positive.");
+        }
+        if (lineWeights[line] > 0) {
+            throw new IllegalArgumentException("Item with ID " + itemID + " is sold by weight.");
+        }
+    }
+
+    /**
+     * Finds the line holding an item.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The line number, or -1 if the item is not in the list.
+     */
+    private int findLine(String itemID) {
+        if (itemID == null) {
+            return -1;
+        }
+        int mask = lineByItem.length - 1;
+        for (int slot = mix(itemID.hashCode()) & mask; lineByItem[slot] != 0; slot = (slot + 1) & mask) {
+            int line = lineByItem[slot] - 1;
+            if (lineItems[line].getID().equals(itemID)) {
+                return line;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends a new line and records it in the lookup table, growing the arrays
+     * when they are full.
+     *
+     * @param item     The item on the line, with the price it is sold at.
+     * @param quantity The quantity of the line.
+     * @param grams    The weight of the line in grams, or 0 if the line is not
+     *                 sold by weight.
+     * @return The number of the new line.
+     */
+    private int appendLine(ItemDTO item, int quantity, int grams) {
+        if (lineCount == lineItems.length) {
+            lineItems = Arrays.copyOf(lineItems, lineCount * 2);
+            lineQuantities = Arrays.copyOf(lineQuantities, lineCount * 2);
+            lineWeights = Arrays.copyOf(lineWeights, lineCount * 2);
+            lineByItem = new int[lineItems.length * 2];
+            for (int line = 0; line < lineCount; line++) {
+                insertLookup(lineItems[line].getID(), line);
+            }
+        }
+        lineItems[lineCount] = item;
+        lineQuantities[lineCount] = quantity;
+        lineWeights[lineCount] = grams;
+        insertLookup(item.getID(), lineCount);
+        return lineCount++;
     }
 
     /**
-     * Retrieves the quantity of an item based on its item ID.
+     * Records a line in the lookup table.
      *
      * @param itemID The unique identifier of the item.
-     * @return The quantity of the item, or 0 if the item does not exist.
+     * @param line   The line number.
+     */
+    private void insertLookup(String itemID, int line) {
+        int mask = lineByItem.length - 1;
+        int slot = mix(itemID.hashCode()) & mask;
+        while (lineByItem[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        lineByItem[slot] = line + 1;
+    }
+
+    /**
+     * Spreads the bits of an item identifier hash so that similar identifiers,
+     * such as consecutive numbers, do not form clusters in the lookup table.
+     *
+     * @param idHash The hash code of the item identifier.
+     * @return The mixed hash.
      */
-    private int getItemQuantity(String itemID) {
-        return itemsQuantity.getOrDefault(itemID, 0);
+    private static int mix(int idHash) {
+        int hash = idHash * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
     }
 
     /**
@@ -68,29 +210,102 @@ public class ItemList {
      *                                  list.
      */
     public String addNewItem(ItemDTO item) {
+        return addNewItem(item, 1);
+    }
+
+    /**
+     * Adds a new item to the list with the specified initial quantity and
+     * returns a printout of the added item.
+     *
+     * @param item     The {@link ItemDTO} object representing the item to add.
+     * @param quantity The initial quantity of the item.
+     * @return A string describing the added item and its details.
+     * @throws IllegalArgumentException if the item is null or already exists in the
+     *                                  list, or the quantity is not positive.
+     */
+    public String addNewItem(ItemDTO item, int quantity) {
         if (item == null) {
             throw new IllegalArgumentException("Cannot add null item.");
         }
-        if (itemsMeta.containsKey(item.getID())) {
+        if (findLine(item.getID()) >= 0) {
             throw new IllegalArgumentException("Item with ID " + item.getID() + " already exists in the list.");
         }
-        itemsMeta.put(item.getID(), item);
-        itemsQuantity.put(item.getID(), 1);
-        return getAddedItemPrintOut(item);
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity of item with ID " + item.getID() + " must be positive.");
+        }
+        appendLine(item, quantity, 0);
+        return getAddedItemPrintOut(item, describeQuantity(quantity));
+    }
+
+    /**
+     * Adds a quantity of an item to the list, either on the line already
+     * holding the item or on a new line. Nothing is formatted, so a whole
+     * basket can be added before its printout is created.
+     *
+     * @param item     The {@link ItemDTO} object representing the item to add.
+     * @param quantity The number of units to add.
+     * @throws IllegalArgumentException if the item is null or sold by weight, the
+     *                                  quantity is not positive or the line
+     *                                  would hold too many units.
+     */
+    public void addQuantity(ItemDTO item, int quantity) {
+        if (item == null) {
+            throw new IllegalArgumentException("Cannot add null item.");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity of item with ID " + item.getID() + " must be positive.");
+        }
+        int line = findLine(item.getID());
+        if (line < 0) {
+            appendLine(item, quantity, 0);
+        } else {
+            checkCounted(line, quantity);
+            lineQuantities[line] = sum(lineQuantities[line], quantity, "Quantity", item.getID());
+        }
+    }
+
+    /**
+     * Adds an amount to the quantity or weight of a line.
+     *
+     * @param current The current quantity or weight of the line.
+     * @param added   The amount to add.
+     * @param what    "Quantity" or "Weight", for the error message.
+     * @param itemID  The unique identifier of the item on the line.
+     * @return The new quantity or weight.
+     * @throws IllegalArgumentException if the sum does not fit in an int.
+     */
+    private static int sum(int current, int added, String what, String itemID) {
+        try {
+            return Math.addExact(current, added);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(what + " of item with ID " + itemID + " is too large.", e);
+        }
+    }
+
+    /**
+     * Describes a number of added units, for use in a printout.
+     *
+     * @param quantity The number of units.
+     * @return For example "1 item" or "24 items".
+     */
+    private static String describeQuantity(int quantity) {
+        return quantity == 1 ? "1 item" : quantity + " items";
     }
 
     /**
      * Creates a printout of the details of an added or updated item.
      *
-     * @param item The {@link ItemDTO} object representing the item.
+     * @param item  The {@link ItemDTO} object representing the item.
+     * @param added A description of the added amount, such as "1 item".
      * @return A string describing the item's id, name, price, VAT, and description.
      */
-    private String getAddedItemPrintOut(ItemDTO item) {
-        return String.format("Added 1 item with ID %s:%n" +
+    private String getAddedItemPrintOut(ItemDTO item, String added) {
+        return String.format("Added %s with ID %s:%n" +
                 "Item Name: %s%n" +
                 "Price: %.2f SEK%n" +
                 "VAT: %.0f%%%n" +
                 "Description: %s%n%n",
+                added,
                 item.getID(),
                 item.getName(),
                 item.getPrice(),
@@ -106,20 +321,58 @@ public class ItemList {
      *         not found.
      */
     public ItemDTO getItem(String itemID) {
-        return itemsMeta.get(itemID);
+        int line = findLine(itemID);
+        return line < 0 ? null : lineItems[line];
+    }
+
+    /**
+     * Finds the line holding an item.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The line number, or -1 if the item is not in the list.
+     */
+    public int getLine(String itemID) {
+        return findLine(itemID);
+    }
+
+    /**
+     * Retrieves the quantity of a line.
+     *
+     * @param line The line number.
+     * @return The quantity, or the number of weighings of a line sold by
+     *         weight.
+     */
+    public int getQuantity(int line) {
+        return lineQuantities[line];
+    }
+
+    /**
+     * Checks whether a line is sold by weight.
+     *
+     * @param line The line number.
+     * @return {@code true} if the line is sold by weight.
+     */
+    public boolean isWeighed(int line) {
+        return lineWeights[line] > 0;
+    }
+
+    /**
+     * Retrieves the weight of a line sold by weight.
+     *
+     * @param line The line number.
+     * @return The weight in kilograms, or zero for a counted line.
+     */
+    public BigDecimal getWeight(int line) {
+        return BigDecimal.valueOf(lineWeights[line], 3);
     }
 
     /**
-     * Creates a {@link BoughtItemsDTO} object containing all items and their
+     * Creates a {@link BoughtItemsDTO} snapshot containing all items and their
      * quantities.
      *
      * @return A {@link BoughtItemsDTO} object representing the purchased items.
      */
     public BoughtItemsDTO getBoughtItemsDTO() {
-        HashMap<ItemDTO, Integer> boughtItems = new HashMap<>();
-        itemsMeta.forEach((itemID, itemDTO) -> {
-            boughtItems.put(itemDTO, getItemQuantity(itemID));
-        });
-        return new BoughtItemsDTO(boughtItems);
+        return new BoughtItemsDTO(lineItems, lineQuantities, lineWeights, lineCount);
     }
 }
\ No newline at end of file
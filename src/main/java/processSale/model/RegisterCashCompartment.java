@@ -1,28 +1,48 @@
 package src.main.java.processSale.model;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.math.RoundingMode;
+import java.time.Clock;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
+import src.main.java.processSale.model.dto.RevenueWindowsDTO;
 import src.main.java.processSale.view.TotalRevenueFileOutput;
 
 /**
  * Represents the cash compartment of the register.
  * Keeps track of the total cash in the register and notifies observers about
- * revenue updates.
+ * revenue updates. Revenue and payments are also counted in time windows so
+ * the last minute, last hour and current day can be queried without scanning
+ * the payment history. Payments may be added from several threads.
  */
 public class RegisterCashCompartment {
-    private BigDecimal totalCashInRegister;     // Total cash in the register
-    private List<RevenueObserver> observers;    // Obeservers for logging total cash to user and file
+    private final AtomicReference<BigDecimal> totalCashInRegister; // Total cash in the register
+    private List<RevenueObserver> observers;                       // Obeservers for logging total cash to user and file
+    private final SlidingWindowCounter revenueInOre;               // Revenue per time window, in öre
+    private final SlidingWindowCounter payments;                   // Number of payments per time window
 
     /**
      * Constructs a new RegisterCashCompartment with zero initial cash.
      * Declares list of observers.
      */
     public RegisterCashCompartment() {
-        totalCashInRegister = BigDecimal.ZERO;
-        observers = new ArrayList<>();
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a new RegisterCashCompartment with zero initial cash, using the
+     * specified clock to place payments in time windows.
+     *
+     * @param clock The clock used to timestamp payments.
+     */
+    public RegisterCashCompartment(Clock clock) {
+        totalCashInRegister = new AtomicReference<>(BigDecimal.ZERO);
+        observers = new CopyOnWriteArrayList<>();
+        revenueInOre = new SlidingWindowCounter(clock);
+        payments = new SlidingWindowCounter(clock);
     }
 
     /**
@@ -41,25 +61,70 @@ public class RegisterCashCompartment {
      * @return The updated total cash in the register.
      * @throws NullPointerException if no observer has been set before calling this
      *                              method.
+     * @throws ArithmeticException  if the amount is too large to count in öre.
+     *                              Nothing is added then.
      */
     public BigDecimal addToCashCompartment(BigDecimal addedCash) {
-        totalCashInRegister = totalCashInRegister.add(addedCash);
-        notifyObserver();
-        return totalCashInRegister;
+        if (observers.isEmpty()) {
+            throw new NullPointerException("RevenueObserver is not set.");
+        }
+        long addedOre = addedCash.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        revenueInOre.add(addedOre);
+        payments.add(1);
+        BigDecimal updatedTotal = totalCashInRegister.accumulateAndGet(addedCash, BigDecimal::add);
+        notifyObserver(updatedTotal);
+        return updatedTotal;
+    }
+
+    /**
+     * Retrieves the total cash in the register.
+     *
+     * @return The total cash as a {@link BigDecimal}.
+     */
+    public BigDecimal getTotalCash() {
+        return totalCashInRegister.get();
+    }
+
+    /**
+     * Retrieves the number of observers notified of every payment. Observers
+     * are notified on the paying thread, so there is never a backlog of
+     * notifications.
+     *
+     * @return The number of registered observers.
+     */
+    public int getObserverCount() {
+        return observers.size();
+    }
+
+    /**
+     * Retrieves the revenue and number of payments during the last minute, the
+     * last hour and the current day.
+     *
+     * @return A {@link RevenueWindowsDTO} with the revenue of each window.
+     */
+    public RevenueWindowsDTO getRevenueWindows() {
+        return new RevenueWindowsDTO(
+                BigDecimal.valueOf(revenueInOre.sumOfLast(SlidingWindowCounter.SECONDS_PER_MINUTE), 2),
+                BigDecimal.valueOf(revenueInOre.sumOfLast(SlidingWindowCounter.SECONDS_PER_HOUR), 2),
+                BigDecimal.valueOf(revenueInOre.sumOfToday(), 2),
+                payments.sumOfLast(SlidingWindowCounter.SECONDS_PER_MINUTE),
+                payments.sumOfLast(SlidingWindowCounter.SECONDS_PER_HOUR),
+                payments.sumOfToday());
     }
 
     /**
      * Notifies the current observer, then sets a file output observer and notifies
      * it as well.
      *
+     * @param updatedTotal The total cash in the register after the payment.
      * @throws NullPointerException if observer is null.
      */
-    private void notifyObserver() {
+    private void notifyObserver(BigDecimal updatedTotal) {
         for(RevenueObserver observer : observers) {
             if (observer == null) {
                 throw new NullPointerException("RevenueObserver is not set.");
             }
-            observer.logSumOfPayments(totalCashInRegister);
+            observer.logSumOfPayments(updatedTotal);
         }
     }
 }
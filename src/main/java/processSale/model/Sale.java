@@ -1,9 +1,14 @@
 package src.main.java.processSale.model;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
+import src.main.java.processSale.integration.DiscountEngine;
 import src.main.java.processSale.model.dto.*;
 
 /**
@@ -16,6 +21,13 @@ public class Sale {
     private final ItemList items;                       // List of items in the sale
     private BigDecimal runningTotal;                    // Total cost of items in the sale
     private BigDecimal totalVAT;                        // Total VAT for the sale
+    private BigDecimal totalDiscount;                   // Discount on the sale, set when it ends
+    private BigDecimal discountVAT;                     // VAT no longer due because of the discount
+    private DiscountEngine discounts;                   // Rules priced while scanning, or null
+    private String discountCustomerID;                  // Customer the lines are priced for, or null
+    private BigDecimal[] lineDiscounts;                 // Current discount on each line
+    private BigDecimal lineDiscountTotal;               // Sum of the line discounts
+    private BigDecimal lineDiscountVAT;                 // VAT included in the line discounts
     private final RegisterCashCompartment cashRegister; // Cash register for this sale
 
     /**
@@ -24,10 +36,26 @@ public class Sale {
      * @param cashRegister The cash register compartment associated with this sale.
      */
     public Sale(RegisterCashCompartment cashRegister) {
+        this(cashRegister, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Initializes a new sale with the current time of the specified clock and an
+     * empty item list.
+     *
+     * @param cashRegister The cash register compartment associated with this sale.
+     * @param clock        The clock that provides the time of the sale.
+     */
+    public Sale(RegisterCashCompartment cashRegister, Clock clock) {
         this.items = new ItemList();
-        this.timeOfSale = new TimeOfSaleDTO(new SimpleDateFormat("yyyy-MM-dd_HH:mm").format(Calendar.getInstance().getTime()));
+        this.timeOfSale = new TimeOfSaleDTO(clock.millis());
         this.runningTotal = BigDecimal.ZERO;
         this.totalVAT = BigDecimal.ZERO;
+        this.totalDiscount = BigDecimal.ZERO;
+        this.discountVAT = BigDecimal.ZERO;
+        this.lineDiscounts = new BigDecimal[0];
+        this.lineDiscountTotal = BigDecimal.ZERO;
+        this.lineDiscountVAT = BigDecimal.ZERO;
         this.cashRegister = cashRegister;
     }
 
@@ -60,8 +88,24 @@ public class Sale {
      * @return A string describing the updated item and the current totals.
      */
     public String increaseItemQuantity(String itemID) {
-        String addedItem = items.increaseQuantity(itemID);
-        updateSale(items.getItem(itemID));
+        return increaseItemQuantity(itemID, 1);
+    }
+
+    /**
+     * Increases the quantity of an item in the current sale by several units
+     * at once, updating the totals once.
+     *
+     * @param itemID   The unique identifier of the item whose quantity is to be
+     *                 increased.
+     * @param quantity The number of units to add.
+     * @return A string describing the updated item and the current totals.
+     * @throws IllegalArgumentException if the item is not in the sale, is sold
+     *                                  by weight, or the quantity is not
+     *                                  positive.
+     */
+    public String increaseItemQuantity(String itemID, int quantity) {
+        String addedItem = items.increaseQuantity(itemID, quantity);
+        updateSale(items.getItem(itemID), BigDecimal.valueOf(quantity));
         return addedItem + printTotals();
     }
 
@@ -72,19 +116,182 @@ public class Sale {
      * @return A string describing the added item and the updated sale totals.
      */
     public String addItem(ItemDTO item) {
-        String addedItem = items.addNewItem(item);
-        updateSale(item);
+        return addItem(item, 1);
+    }
+
+    /**
+     * Adds a new item with several units to the current sale and updates the
+     * sale totals once.
+     *
+     * @param item     The {@link ItemDTO} object representing the item to be
+     *                 added.
+     * @param quantity The number of units to add.
+     * @return A string describing the added item and the updated sale totals.
+     * @throws IllegalArgumentException if the item is already in the sale or the
+     *                                  quantity is not positive.
+     */
+    public String addItem(ItemDTO item, int quantity) {
+        String addedItem = items.addNewItem(item, quantity);
+        updateSale(items.getItem(item.getID()), BigDecimal.valueOf(quantity));
         return addedItem + printTotals();
     }
 
+    /**
+     * Adds a weighed amount of a loose item, priced per kilogram, to the
+     * current sale. The weight is rounded to whole grams, and weighings of the
+     * same item are added to one line.
+     *
+     * @param item      The {@link ItemDTO} object representing the item.
+     * @param kilograms The weight in kilograms.
+     * @return A string describing the weighed item and the updated sale totals.
+     * @throws IllegalArgumentException if the item is already in the sale as a
+     *                                  counted item, or the weight is not
+     *                                  positive or too large to count in
+     *                                  grams.
+     */
+    public String addWeighedItem(ItemDTO item, BigDecimal kilograms) {
+        int grams;
+        try {
+            grams = kilograms.movePointRight(3).setScale(0, RoundingMode.HALF_UP).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Weight of item with ID " + item.getID() + " is too large.", e);
+        }
+        String addedItem = items.addWeight(item, grams);
+        updateSale(items.getItem(item.getID()), BigDecimal.valueOf(grams, 3));
+        return addedItem + printTotals();
+    }
+
+    /**
+     * Retrieves an item in the current sale.
+     *
+     * @param itemID The unique identifier of the item.
+     * @return The {@link ItemDTO}, or {@code null} if the item is not in the
+     *         sale.
+     */
+    public ItemDTO getItem(String itemID) {
+        return items.getItem(itemID);
+    }
+
+    /**
+     * Adds a whole basket of items to the current sale. The basket is checked
+     * first, so either every item is added or the sale is left unchanged. The
+     * lines are then updated, each priced with the item stored on its line,
+     * and the totals once for the whole basket, and a single printout
+     * describes the basket.
+     *
+     * @param basket     The items of the basket. {@code null} entries, such as
+     *                   items that could not be found, are skipped.
+     * @param quantities The number of units of each item in {@code basket}.
+     * @return A string describing the added items and the updated sale totals.
+     * @throws IllegalArgumentException if a quantity is not positive, an item
+     *                                  is already in the sale sold by weight,
+     *                                  or a line would hold too many units.
+     */
+    public String addItems(ItemDTO[] basket, int[] quantities) {
+        Map<String, Long> basketUnits = new HashMap<>();
+        for (int i = 0; i < basket.length; i++) {
+            if (basket[i] != null) {
+                checkCountable(basket[i], quantities[i]);
+                checkLineSize(basket[i], basketUnits.merge(basket[i].getID(), (long) quantities[i], Long::sum));
+            }
+        }
+        BigDecimal basketTotal = BigDecimal.ZERO;
+        BigDecimal basketVAT = BigDecimal.ZERO;
+        long units = 0;
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < basket.length; i++) {
+            if (basket[i] == null) {
+                continue;
+            }
+            items.addQuantity(basket[i], quantities[i]);
+            ItemDTO item = items.getItem(basket[i].getID());
+            updateLineDiscount(item.getID());
+            BigDecimal linePrice = item.getPrice().multiply(BigDecimal.valueOf(quantities[i]));
+            basketTotal = basketTotal.add(linePrice);
+            basketVAT = basketVAT.add(linePrice.multiply(item.getVATRate()));
+            units += quantities[i];
+            lines.append(quantities[i]).append(" x ").append(item.getName())
+                    .append(" (ID ").append(item.getID()).append(')').append(System.lineSeparator());
+        }
+        runningTotal = runningTotal.add(basketTotal);
+        totalVAT = totalVAT.add(basketVAT);
+        return String.format("Added %d %s:%n", units, units == 1 ? "item" : "items") + lines
+                + System.lineSeparator() + printTotals();
+    }
+
+    /**
+     * Checks that a number of units of an item can be added to the sale.
+     *
+     * @param item     The item.
+     * @param quantity The number of units to add.
+     * @throws IllegalArgumentException if the quantity is not positive, or the
+     *                                  item is already in the sale sold by
+     *                                  weight.
+     */
+    private void checkCountable(ItemDTO item, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity of item with ID " + item.getID() + " must be positive.");
+        }
+        int line = items.getLine(item.getID());
+        if (line >= 0 && items.isWeighed(line)) {
+            throw new IllegalArgumentException("Item with ID " + item.getID() + " is sold by weight.");
+        }
+    }
+
+    /**
+     * Checks that a line can hold the units of an item in a basket, on top of
+     * the units already in the sale.
+     *
+     * @param item  The item.
+     * @param units The units of the item in the basket so far.
+     * @throws IllegalArgumentException if the line would hold too many units.
+     */
+    private void checkLineSize(ItemDTO item, long units) {
+        int line = items.getLine(item.getID());
+        if (units + (line < 0 ? 0 : items.getQuantity(line)) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Quantity of item with ID " + item.getID() + " is too large.");
+        }
+    }
+
     /**
      * Updates the running total and VAT for the sale based on the given item.
      *
-     * @param item The {@link ItemDTO} object used to update the totals.
+     * @param item   The {@link ItemDTO} object used to update the totals.
+     * @param amount The number of units added, or the weight in kilograms for
+     *               an item sold by weight.
      */
-    private void updateSale(ItemDTO item) {
-        runningTotal = runningTotal.add(item.getPrice());
-        totalVAT = totalVAT.add(item.getPrice().multiply(item.getVATRate()));
+    private void updateSale(ItemDTO item, BigDecimal amount) {
+        BigDecimal linePrice = item.getPrice().multiply(amount);
+        runningTotal = runningTotal.add(linePrice);
+        totalVAT = totalVAT.add(linePrice.multiply(item.getVATRate()));
+        updateLineDiscount(item.getID());
+    }
+
+    /**
+     * Prices the line of an item again after it changed, adjusting the sum of
+     * the line discounts by the difference. Only the changed line is looked
+     * up, so scanning an item costs the same however large the sale is.
+     *
+     * @param itemID The unique identifier of the item on the line.
+     */
+    private void updateLineDiscount(String itemID) {
+        if (discounts == null) {
+            return;
+        }
+        int line = items.getLine(itemID);
+        if (line >= lineDiscounts.length) {
+            lineDiscounts = Arrays.copyOf(lineDiscounts, Math.max(8, line * 2));
+        }
+        ItemDTO item = items.getItem(itemID);
+        BigDecimal kilograms = items.isWeighed(line) ? items.getWeight(line) : null;
+        BigDecimal discount = discounts.getLineDiscount(discountCustomerID, item, items.getQuantity(line), kilograms);
+        BigDecimal previous = lineDiscounts[line] == null ? BigDecimal.ZERO : lineDiscounts[line];
+        if (discount.compareTo(previous) != 0) {
+            BigDecimal change = discount.subtract(previous);
+            lineDiscountTotal = lineDiscountTotal.add(change);
+            lineDiscountVAT = lineDiscountVAT.add(change.multiply(item.getVATRate()));
+        }
+        lineDiscounts[line] = discount;
     }
 
     /**
@@ -93,8 +300,12 @@ public class Sale {
      * @return The current sale's total cost and VAT as a string.
      */
     private String printTotals() {
-        return String.format("Total cost (incl. VAT): %.2f SEK%nTotal VAT: %.2f SEK%n%n",
-                runningTotal, totalVAT);
+        if (lineDiscountTotal.signum() == 0) {
+            return String.format("Total cost (incl. VAT): %.2f SEK%nTotal VAT: %.2f SEK%n%n",
+                    runningTotal, totalVAT);
+        }
+        return String.format("Total cost (incl. VAT): %.2f SEK%nSavings: %.2f SEK%nTotal VAT: %.2f SEK%n%n",
+                runningTotal, getSavings(), totalVAT);
     }
 
     /**
@@ -106,6 +317,89 @@ public class Sale {
         return runningTotal;
     }
 
+    /**
+     * Prices the lines of the sale with the discount rules while it is being
+     * scanned. Lines already in the sale are priced at once, and each later
+     * change prices only the changed line, so the savings are known at every
+     * scan and ending the sale only has to apply the basket rules.
+     *
+     * @param discounts  The compiled discount rules.
+     * @param customerID The unique identifier of the customer, or
+     *                   {@code null} until the customer is known.
+     */
+    public void setDiscounts(DiscountEngine discounts, String customerID) {
+        this.discounts = discounts;
+        this.discountCustomerID = customerID;
+        this.lineDiscounts = new BigDecimal[0];
+        this.lineDiscountTotal = BigDecimal.ZERO;
+        this.lineDiscountVAT = BigDecimal.ZERO;
+        items.getBoughtItemsDTO().forEach((item, quantity) -> updateLineDiscount(item.getID()));
+    }
+
+    /**
+     * Retrieves the savings so far: the line discounts and the basket
+     * discount the sale would get if it ended now.
+     *
+     * @return The savings, zero unless the sale is priced while scanning.
+     */
+    public BigDecimal getSavings() {
+        if (discounts == null) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal subtotal = runningTotal.subtract(lineDiscountTotal);
+        return lineDiscountTotal.add(discounts.getBasketDiscount(discountCustomerID, subtotal));
+    }
+
+    /**
+     * Prices the sale with the discount rules, replacing any discount applied
+     * before. The line discounts kept while scanning are reused when they were
+     * priced with the same rules for an equivalent customer, so only the
+     * basket rules are applied. Otherwise each line is priced again. The basket
+     * rules apply to the total after the line discounts, and the VAT is
+     * reduced in proportion to the discount.
+     *
+     * @param discounts  The compiled discount rules.
+     * @param customerID The unique identifier of the customer, or
+     *                   {@code null}.
+     * @return The total discount on the sale.
+     */
+    public BigDecimal applyDiscounts(DiscountEngine discounts, String customerID) {
+        boolean samePricing = discounts == this.discounts && (Objects.equals(customerID, discountCustomerID)
+                || !discounts.hasCustomerRules(customerID) && !discounts.hasCustomerRules(discountCustomerID));
+        if (samePricing) {
+            discountCustomerID = customerID;
+        } else {
+            setDiscounts(discounts, customerID);
+        }
+        BigDecimal subtotal = runningTotal.subtract(lineDiscountTotal);
+        BigDecimal basketDiscount = discounts.getBasketDiscount(customerID, subtotal);
+        BigDecimal basketDiscountVAT = subtotal.signum() == 0 ? BigDecimal.ZERO
+                : totalVAT.subtract(lineDiscountVAT).multiply(basketDiscount)
+                        .divide(subtotal, 10, RoundingMode.HALF_UP);
+        totalDiscount = lineDiscountTotal.add(basketDiscount);
+        discountVAT = lineDiscountVAT.add(basketDiscountVAT);
+        return totalDiscount;
+    }
+
+    /**
+     * Retrieves the discount on the sale.
+     *
+     * @return The total discount, zero until discounts are applied.
+     */
+    public BigDecimal getTotalDiscount() {
+        return totalDiscount;
+    }
+
+    /**
+     * Retrieves the price the customer pays: the running total less the
+     * discount.
+     *
+     * @return The total price as a {@link BigDecimal}.
+     */
+    public BigDecimal getTotalPrice() {
+        return runningTotal.subtract(totalDiscount);
+    }
+
     /**
      * Processes the sale by finalizing payment and generating a summary.
      * Throws an exception if the payment is insufficient.
@@ -117,12 +411,13 @@ public class Sale {
      *                                      price.
      */
     public SaleSummaryDTO processSale(BigDecimal amountPaid) throws InsufficientPaymentException {
-        ProcessPayment processedPayment = new ProcessPayment(amountPaid, runningTotal, cashRegister);
+        BigDecimal totalPrice = getTotalPrice();
+        ProcessPayment processedPayment = new ProcessPayment(amountPaid, totalPrice, cashRegister);
         PaymentInfoDTO paymentInfo = new PaymentInfoDTO(
                 amountPaid,
                 processedPayment.getChange(),
-                runningTotal,
-                totalVAT);
+                totalPrice,
+                totalVAT.subtract(discountVAT));
         return new SaleSummaryDTO(timeOfSale, items.getBoughtItemsDTO(), paymentInfo);
     }
 }
\ No newline at end of file
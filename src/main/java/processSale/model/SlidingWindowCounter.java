@@ -0,0 +1,160 @@
+package src.main.java.processSale.model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts amounts in time windows: the last seconds up to one hour, and the
+ * current day. Amounts are kept in a ring of per-second buckets. Each bucket
+ * packs the amount together with a stamp telling which second it belongs to,
+ * so stale buckets are reset by the same compare-and-set that updates them.
+ * Updates are lock-free, and a query only reads the buckets in its window.
+ */
+public class SlidingWindowCounter {
+    public static final int SECONDS_PER_MINUTE = 60;
+    public static final int SECONDS_PER_HOUR = 3600;
+
+    private static final int RING_SIZE = SECONDS_PER_HOUR; // One bucket per second of the last hour
+    private static final int AMOUNT_BITS = 40;             // Low bits holding the signed amount
+    private static final long AMOUNT_MASK = (1L << AMOUNT_BITS) - 1;
+    private static final long STAMP_MASK = (1L << (Long.SIZE - AMOUNT_BITS)) - 1;
+    private static final long MAX_AMOUNT = (1L << (AMOUNT_BITS - 1)) - 1;
+    private static final long MIN_AMOUNT = -(1L << (AMOUNT_BITS - 1));
+
+    private final Clock clock;             // Source of the current time
+    private final AtomicLongArray buckets; // Per-second buckets of packed stamps and amounts
+    private final AtomicLong today;        // Packed epoch day and amount of the current day
+
+    /**
+     * Creates a new counter that reads the current time from the specified clock.
+     *
+     * @param clock The clock used to assign amounts to buckets.
+     */
+    public SlidingWindowCounter(Clock clock) {
+        this.clock = clock;
+        this.buckets = new AtomicLongArray(RING_SIZE);
+        this.today = new AtomicLong(pack(LocalDate.now(clock).toEpochDay(), 0));
+    }
+
+    /**
+     * Adds an amount to the bucket of the current second and to the current day.
+     * A bucket that would overflow is held at the largest or smallest amount
+     * it can store, so adding never fails half-way.
+     *
+     * @param amount The amount to add.
+     */
+    public void add(long amount) {
+        long second = clock.instant().getEpochSecond();
+        addToSlot(buckets, (int) (second % RING_SIZE), second / RING_SIZE, amount);
+        long day = LocalDate.now(clock).toEpochDay();
+        long current;
+        long updated;
+        do {
+            current = today.get();
+            updated = nextValue(current, day, amount);
+        } while (!today.compareAndSet(current, updated));
+    }
+
+    /**
+     * Retrieves the sum of all amounts added during the last seconds, including
+     * the current second.
+     *
+     * @param seconds The length of the window in seconds, at most one hour.
+     * @return The sum of the amounts in the window.
+     * @throws IllegalArgumentException if {@code seconds} is not between 1 and
+     *                                  {@link #SECONDS_PER_HOUR}.
+     */
+    public long sumOfLast(int seconds) {
+        if (seconds < 1 || seconds > RING_SIZE) {
+            throw new IllegalArgumentException("Window must be between 1 and " + RING_SIZE + " seconds.");
+        }
+        long now = clock.instant().getEpochSecond();
+        long sum = 0;
+        for (long second = now - seconds + 1; second <= now; second++) {
+            long packed = buckets.get((int) (second % RING_SIZE));
+            if (stampOf(packed) == ((second / RING_SIZE) & STAMP_MASK)) {
+                sum += amountOf(packed);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Retrieves the sum of all amounts added during the current day.
+     *
+     * @return The sum of the amounts added today.
+     */
+    public long sumOfToday() {
+        long packed = today.get();
+        return stampOf(packed) == (LocalDate.now(clock).toEpochDay() & STAMP_MASK) ? amountOf(packed) : 0;
+    }
+
+    /**
+     * Adds an amount to a bucket, resetting it first if it belongs to an earlier
+     * lap of the ring.
+     *
+     * @param ring   The bucket ring.
+     * @param slot   The bucket index.
+     * @param stamp  The lap the amount belongs to.
+     * @param amount The amount to add.
+     */
+    private static void addToSlot(AtomicLongArray ring, int slot, long stamp, long amount) {
+        long current;
+        long updated;
+        do {
+            current = ring.get(slot);
+            updated = nextValue(current, stamp, amount);
+        } while (!ring.compareAndSet(slot, current, updated));
+    }
+
+    /**
+     * Computes the packed value after adding an amount to a packed bucket. The
+     * sum saturates at the range of a bucket instead of overflowing.
+     *
+     * @param packed The current packed bucket.
+     * @param stamp  The stamp the amount belongs to.
+     * @param amount The amount to add.
+     * @return The new packed bucket.
+     */
+    private static long nextValue(long packed, long stamp, long amount) {
+        long base = stampOf(packed) == (stamp & STAMP_MASK) ? amountOf(packed) : 0;
+        long sum = base + amount;
+        if (((base ^ sum) & (amount ^ sum)) < 0) {
+            sum = amount < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return pack(stamp, Math.max(MIN_AMOUNT, Math.min(MAX_AMOUNT, sum)));
+    }
+
+    /**
+     * Packs a stamp and a signed amount into one long.
+     *
+     * @param stamp  The stamp to store in the high bits.
+     * @param amount The amount to store in the low bits.
+     * @return The packed value.
+     */
+    private static long pack(long stamp, long amount) {
+        return ((stamp & STAMP_MASK) << AMOUNT_BITS) | (amount & AMOUNT_MASK);
+    }
+
+    /**
+     * Extracts the stamp from a packed bucket.
+     *
+     * @param packed The packed bucket.
+     * @return The stamp.
+     */
+    private static long stampOf(long packed) {
+        return packed >>> AMOUNT_BITS;
+    }
+
+    /**
+     * Extracts the signed amount from a packed bucket.
+     *
+     * @param packed The packed bucket.
+     * @return The amount.
+     */
+    private static long amountOf(long packed) {
+        return (packed << (Long.SIZE - AMOUNT_BITS)) >> (Long.SIZE - AMOUNT_BITS);
+    }
+}
@@ -0,0 +1,40 @@
+package src.main.java.processSale.model.dto;
+
+/**
+ * A Data Transfer Object (DTO) representing one entry in a best-seller ranking.
+ * It contains the item and the estimated number of units sold.
+ */
+public class BestSellerDTO {
+    private final ItemDTO item;              // The best-selling item
+    private final long estimatedQuantity;    // Estimated number of units sold
+
+    /**
+     * Creates a new instance of BestSellerDTO.
+     *
+     * @param item              The best-selling item.
+     * @param estimatedQuantity The estimated number of units sold.
+     */
+    public BestSellerDTO(ItemDTO item, long estimatedQuantity) {
+        this.item = item;
+        this.estimatedQuantity = estimatedQuantity;
+    }
+
+    /**
+     * Retrieves the best-selling item.
+     *
+     * @return The item as an {@link ItemDTO}.
+     */
+    public ItemDTO getItem() {
+        return item;
+    }
+
+    /**
+     * Retrieves the estimated number of units sold. The estimate never
+     * undercounts, but may overcount slightly when many items share counters.
+     *
+     * @return The estimated quantity sold.
+     */
+    public long getEstimatedQuantity() {
+        return estimatedQuantity;
+    }
+}
@@ -1,31 +1,180 @@
 package src.main.java.processSale.model.dto;
 
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
 
 /**
  * A Data Transfer Object (DTO) representing the items purchased in a sale.
- * It encapsulates a mapping of items to their respective quantities.
+ * It is an immutable snapshot of the sale lines, stored as parallel arrays
+ * holding the item as it was sold, its quantity and, for loose goods sold by
+ * weight, the weight in grams. Each line keeps the price it was sold at, even
+ * if the item is repriced later. The arrays are never exposed, so one
+ * instance can be shared by the printer, the inventory and the accounting
+ * system, on any thread, without copying.
  */
 public class BoughtItemsDTO {
-    private final HashMap<ItemDTO, Integer> boughtItems; // Maps items to their quantities
+    private final ItemDTO[] items;   // The item on each line, with the price it was sold at
+    private final int[] quantities;  // Quantity of the item on each line
+    private final int[] weights;     // Weight in grams of each line, 0 unless sold by weight
 
     /**
-     * Creates a new instance of BoughtItemsDTO.
-     * 
-     * @param boughtItemsList A HashMap where the keys are {@link ItemDTO} objects
+     * Creates a new instance of BoughtItemsDTO from the first lines of two
+     * parallel arrays. The arrays are copied, so the caller may keep reusing
+     * them. No line is sold by weight.
+     *
+     * @param items      The item on each line.
+     * @param quantities The quantity of the item on each line.
+     * @param lineCount  The number of lines to copy.
+     */
+    public BoughtItemsDTO(ItemDTO[] items, int[] quantities, int lineCount) {
+        this(items, quantities, new int[lineCount], lineCount);
+    }
+
+    /**
+     * Creates a new instance of BoughtItemsDTO from the first lines of three
+     * parallel arrays. The arrays are copied, so the caller may keep reusing
+     * them.
+     *
+     * @param items      The item on each line.
+     * @param quantities The quantity of the item on each line.
+     * @param weights    The weight in grams of each line sold by weight, and 0
+     *                   for the other lines.
+     * @param lineCount  The number of lines to copy.
+     */
+    public BoughtItemsDTO(ItemDTO[] items, int[] quantities, int[] weights, int lineCount) {
+        this.items = Arrays.copyOf(items, lineCount);
+        this.quantities = Arrays.copyOf(quantities, lineCount);
+        this.weights = Arrays.copyOf(weights, lineCount);
+    }
+
+    /**
+     * Creates a new instance of BoughtItemsDTO from a map of items to their
+     * quantities.
+     *
+     * @param boughtItemsList A map where the keys are {@link ItemDTO} objects
      *                        and the values are their quantities.
      */
-    public BoughtItemsDTO(HashMap<ItemDTO, Integer> boughtItemsList) {
-        this.boughtItems = new HashMap<>(boughtItemsList);
+    public BoughtItemsDTO(Map<ItemDTO, Integer> boughtItemsList) {
+        this.items = new ItemDTO[boughtItemsList.size()];
+        this.quantities = new int[boughtItemsList.size()];
+        this.weights = new int[boughtItemsList.size()];
+        int line = 0;
+        for (Map.Entry<ItemDTO, Integer> entry : boughtItemsList.entrySet()) {
+            items[line] = entry.getKey();
+            quantities[line++] = entry.getValue();
+        }
+    }
+
+    /**
+     * Retrieves the number of lines, that is the number of distinct items.
+     *
+     * @return The number of lines.
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Retrieves the item on a line.
+     *
+     * @param line The line number, starting at 0.
+     * @return The {@link ItemDTO} on the line, with the price it was sold at.
+     */
+    public ItemDTO getItem(int line) {
+        return items[line];
+    }
+
+    /**
+     * Retrieves the quantity on a line.
+     *
+     * @param line The line number, starting at 0.
+     * @return The quantity of the item on the line.
+     */
+    public int getQuantity(int line) {
+        return quantities[line];
+    }
+
+    /**
+     * Checks if a line is sold by weight.
+     *
+     * @param line The line number, starting at 0.
+     * @return {@code true} if the price of the line depends on its weight.
+     */
+    public boolean isWeighed(int line) {
+        return weights[line] > 0;
+    }
+
+    /**
+     * Retrieves the weight of a line sold by weight.
+     *
+     * @param line The line number, starting at 0.
+     * @return The weight in kilograms, or zero if the line is not sold by
+     *         weight.
+     */
+    public BigDecimal getWeight(int line) {
+        return BigDecimal.valueOf(weights[line], 3);
+    }
+
+    /**
+     * Retrieves the price of a line: the unit price times the quantity, or the
+     * price per kilogram times the weight for a line sold by weight.
+     *
+     * @param line The line number, starting at 0.
+     * @return The price of the line.
+     */
+    public BigDecimal getLinePrice(int line) {
+        BigDecimal price = getItem(line).getPrice();
+        return price.multiply(isWeighed(line) ? getWeight(line) : BigDecimal.valueOf(quantities[line]));
+    }
+
+    /**
+     * Retrieves the quantity bought of an item.
+     *
+     * @param item The item to look for. Any item with the same identifier
+     *             matches, whatever its price.
+     * @return The quantity bought, or 0 if the item was not bought.
+     */
+    public int getQuantity(ItemDTO item) {
+        int line = lineOf(item);
+        return line < 0 ? 0 : quantities[line];
+    }
+
+    /**
+     * Checks if an item was bought.
+     *
+     * @param item The item to look for. Any item with the same identifier
+     *             matches, whatever its price.
+     * @return {@code true} if the item was bought, otherwise {@code false}.
+     */
+    public boolean contains(ItemDTO item) {
+        return lineOf(item) >= 0;
+    }
+
+    /**
+     * Finds the line of an item.
+     *
+     * @param item The item to look for.
+     * @return The line number, or -1 if the item was not bought.
+     */
+    private int lineOf(ItemDTO item) {
+        for (int line = 0; line < items.length; line++) {
+            if (items[line].getID().equals(item.getID())) {
+                return line;
+            }
+        }
+        return -1;
     }
 
     /**
-     * Retrieves the items purchased in the sale along with their quantities.
-     * 
-     * @return A HashMap where the keys are {@link ItemDTO} objects and the values
-     *         are their quantities.
+     * Performs an action for each line, in the order the items were registered.
+     *
+     * @param action The action to perform with the item and its quantity.
      */
-    public HashMap<ItemDTO, Integer> getBoughtItems() {
-        return new HashMap<>(boughtItems);
+    public void forEach(ObjIntConsumer<ItemDTO> action) {
+        for (int line = 0; line < items.length; line++) {
+            action.accept(items[line], quantities[line]);
+        }
     }
 }
@@ -0,0 +1,39 @@
+package src.main.java.processSale.model.dto;
+
+/**
+ * A Data Transfer Object (DTO) representing the profile of a member of the
+ * loyalty program, as kept by the customer registry.
+ */
+public class CustomerDTO {
+    private final String customerID; // The unique identifier of the customer
+    private final String name;       // The name of the customer
+
+    /**
+     * Creates a new customer profile.
+     *
+     * @param customerID The unique identifier of the customer.
+     * @param name       The name of the customer.
+     */
+    public CustomerDTO(String customerID, String name) {
+        this.customerID = customerID;
+        this.name = name;
+    }
+
+    /**
+     * Retrieves the unique identifier of the customer.
+     *
+     * @return The customer ID.
+     */
+    public String getCustomerID() {
+        return customerID;
+    }
+
+    /**
+     * Retrieves the name of the customer.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -1,10 +1,13 @@
 package src.main.java.processSale.model.dto;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 
 /**
  * A Data Transfer Object (DTO) representing an item. It contains information 
- * about the item's name, ID, description, price, and VAT rate.
+ * about the item's name, ID, description, price, and VAT rate. Two items are
+ * equal if all of these are, so an item that has been repriced is not equal
+ * to its earlier version.
  */
 public class ItemDTO {
     private final String name;        // The name of the item
@@ -21,8 +24,12 @@ public class ItemDTO {
      * @param description A brief description of the item.
      * @param price       The price of the item.
      * @param VATRate     The VAT rate applicable to the item.
+     * @throws NullPointerException if {@code ID} is {@code null}.
      */
     public ItemDTO(String name, String ID, String description, BigDecimal price, BigDecimal VATRate) {
+        if (ID == null) {
+            throw new NullPointerException("Item ID cannot be null.");
+        }
         this.name = name;
         this.ID = ID;
         this.description = description;
@@ -74,4 +81,49 @@ public class ItemDTO {
     public BigDecimal getVATRate() {
         return VATRate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks if another object is an item with the same identifier, name,
+     * description, price and VAT rate. Amounts are compared by value, so
+     * {@code 10.0} and {@code 10.00} are the same price.
+     * 
+     * @param other The object to compare with.
+     * @return {@code true} if {@code other} is the same item at the same price,
+     *         otherwise {@code false}.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ItemDTO)) {
+            return false;
+        }
+        ItemDTO item = (ItemDTO) other;
+        return ID.equals(item.ID) && Objects.equals(name, item.name)
+                && Objects.equals(description, item.description)
+                && sameAmount(price, item.price) && sameAmount(VATRate, item.VATRate);
+    }
+
+    /**
+     * Checks if two amounts have the same value, regardless of scale.
+     * 
+     * @param first  The first amount, or {@code null}.
+     * @param second The second amount, or {@code null}.
+     * @return {@code true} if both are {@code null} or have the same value.
+     */
+    private static boolean sameAmount(BigDecimal first, BigDecimal second) {
+        return first == null ? second == null : second != null && first.compareTo(second) == 0;
+    }
+
+    /**
+     * Retrieves a hash code based on the item identifier, so it is consistent
+     * with {@link #equals(Object)} whatever the scale of the amounts.
+     * 
+     * @return The hash code of the item.
+     */
+    @Override
+    public int hashCode() {
+        return ID.hashCode();
+    }
+}
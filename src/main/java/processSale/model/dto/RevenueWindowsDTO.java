@@ -0,0 +1,90 @@
+package src.main.java.processSale.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A Data Transfer Object (DTO) representing the revenue and number of payments
+ * of a register during the last minute, the last hour and the current day.
+ */
+public class RevenueWindowsDTO {
+    private final BigDecimal lastMinuteRevenue; // Revenue during the last minute
+    private final BigDecimal lastHourRevenue;   // Revenue during the last hour
+    private final BigDecimal todayRevenue;      // Revenue during the current day
+    private final long lastMinutePayments;      // Payments during the last minute
+    private final long lastHourPayments;        // Payments during the last hour
+    private final long todayPayments;           // Payments during the current day
+
+    /**
+     * Creates a new instance of RevenueWindowsDTO.
+     *
+     * @param lastMinuteRevenue  The revenue during the last minute.
+     * @param lastHourRevenue    The revenue during the last hour.
+     * @param todayRevenue       The revenue during the current day.
+     * @param lastMinutePayments The number of payments during the last minute.
+     * @param lastHourPayments   The number of payments during the last hour.
+     * @param todayPayments      The number of payments during the current day.
+     */
+    public RevenueWindowsDTO(BigDecimal lastMinuteRevenue, BigDecimal lastHourRevenue, BigDecimal todayRevenue,
+            long lastMinutePayments, long lastHourPayments, long todayPayments) {
+        this.lastMinuteRevenue = lastMinuteRevenue;
+        this.lastHourRevenue = lastHourRevenue;
+        this.todayRevenue = todayRevenue;
+        this.lastMinutePayments = lastMinutePayments;
+        this.lastHourPayments = lastHourPayments;
+        this.todayPayments = todayPayments;
+    }
+
+    /**
+     * Retrieves the revenue during the last minute.
+     *
+     * @return The revenue as a BigDecimal.
+     */
+    public BigDecimal getLastMinuteRevenue() {
+        return lastMinuteRevenue;
+    }
+
+    /**
+     * Retrieves the revenue during the last hour.
+     *
+     * @return The revenue as a BigDecimal.
+     */
+    public BigDecimal getLastHourRevenue() {
+        return lastHourRevenue;
+    }
+
+    /**
+     * Retrieves the revenue during the current day.
+     *
+     * @return The revenue as a BigDecimal.
+     */
+    public BigDecimal getTodayRevenue() {
+        return todayRevenue;
+    }
+
+    /**
+     * Retrieves the number of payments during the last minute.
+     *
+     * @return The number of payments.
+     */
+    public long getLastMinutePayments() {
+        return lastMinutePayments;
+    }
+
+    /**
+     * Retrieves the number of payments during the last hour.
+     *
+     * @return The number of payments.
+     */
+    public long getLastHourPayments() {
+        return lastHourPayments;
+    }
+
+    /**
+     * Retrieves the number of payments during the current day.
+     *
+     * @return The number of payments.
+     */
+    public long getTodayPayments() {
+        return todayPayments;
+    }
+}
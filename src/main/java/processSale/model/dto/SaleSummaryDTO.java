@@ -1,7 +1,6 @@
 package src.main.java.processSale.model.dto;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
 
 /**
  * A Data Transfer Object (DTO) that summarizes the details of a completed sale.
@@ -34,49 +33,72 @@ public class SaleSummaryDTO {
         return timeOfSale.getTimeStamp();
     }
 
+    /**
+     * Retrieves the time of the sale.
+     *
+     * @return The {@link TimeOfSaleDTO}, or {@code null} if the summary has no
+     *         time.
+     */
+    public TimeOfSaleDTO getTimeOfSaleDTO() {
+        return timeOfSale;
+    }
+
+    /**
+     * Retrieves the time of the sale in milliseconds since the epoch.
+     * 
+     * @return The time of the sale in milliseconds.
+     */
+    public long getTimeOfSaleMillis() {
+        return timeOfSale.getEpochMillis();
+    }
+
     /**
      * Retrieves the items purchased in the sale along with their quantities.
+     * The returned snapshot is immutable and shared, not copied.
      * 
-     * @return A HashMap where the keys are {@link ItemDTO} objects and the values
-     *         are their quantities.
+     * @return A {@link BoughtItemsDTO} with the item and quantity of each line.
      */
-    public HashMap<ItemDTO, Integer> getBoughtItems() {
-        return boughtItems.getBoughtItems();
+    public BoughtItemsDTO getBoughtItems() {
+        return boughtItems;
     }
 
     /**
      * Retrieves the total amount paid by the customer.
      * 
-     * @return The amount paid as a BigDecimal.
+     * @return The amount paid as a BigDecimal, or {@code null} if there is no
+     *         payment information.
      */
     public BigDecimal getAmountPaid() {
-        return paymentInfo.getAmountPaid();
+        return paymentInfo == null ? null : paymentInfo.getAmountPaid();
     }
 
     /**
      * Retrieves the change to give back to the customer.
      * 
-     * @return The change amount as a BigDecimal.
+     * @return The change amount as a BigDecimal, or {@code null} if there is no
+     *         payment information.
      */
     public BigDecimal getChange() {
-        return paymentInfo.getChangeToGiveBack();
+        return paymentInfo == null ? null : paymentInfo.getChangeToGiveBack();
     }
 
     /**
      * Retrieves the total price of the sale, including VAT.
      * 
-     * @return The total price as a BigDecimal.
+     * @return The total price as a BigDecimal, or {@code null} if there is no
+     *         payment information.
      */
     public BigDecimal getTotalPrice() {
-        return paymentInfo.getTotalPrice();
+        return paymentInfo == null ? null : paymentInfo.getTotalPrice();
     }
 
     /**
      * Retrieves the total VAT for the sale.
      * 
-     * @return The total VAT as a BigDecimal.
+     * @return The total VAT as a BigDecimal, or {@code null} if there is no
+     *         payment information.
      */
     public BigDecimal getTotalVAT() {
-        return paymentInfo.getTotalVAT();
+        return paymentInfo == null ? null : paymentInfo.getTotalVAT();
     }
 }
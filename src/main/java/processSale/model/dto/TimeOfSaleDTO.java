@@ -1,27 +1,44 @@
 package src.main.java.processSale.model.dto;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
 /**
  * A Data Transfer Object (DTO) representing the time of a sale.
- * Encapsulates the timestamp of when the sale occurred.
+ * Encapsulates the time when the sale occurred as milliseconds since the
+ * epoch. The time is only formatted as text when it is displayed.
  */
 public class TimeOfSaleDTO {
-    private final String timeStamp; // The timestamp of the sale
+    private static final DateTimeFormatter TIME_STAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd_HH:mm").withZone(ZoneId.systemDefault());
+    private final long epochMillis; // The time of the sale in milliseconds since the epoch
 
     /**
      * Creates a new instance representing the time of a sale.
      * 
-     * @param timeStamp The date and time of the sale as a string.
+     * @param epochMillis The time of the sale in milliseconds since the epoch.
+     */
+    public TimeOfSaleDTO(long epochMillis) {
+        this.epochMillis = epochMillis;
+    }
+
+    /**
+     * Retrieves the time of the sale in milliseconds since the epoch.
+     * 
+     * @return The time of the sale in milliseconds.
      */
-    public TimeOfSaleDTO(String timeStamp) {
-        this.timeStamp = timeStamp;
+    public long getEpochMillis() {
+        return epochMillis;
     }
 
     /**
-     * Retrieves the timestamp of the sale.
+     * Retrieves the timestamp of the sale, formatted as date, hour and minute in
+     * the system time zone.
      * 
      * @return The timestamp of the sale as a string.
      */
     public String getTimeStamp() {
-        return timeStamp;
+        return TIME_STAMP_FORMAT.format(Instant.ofEpochMilli(epochMillis));
     }
 }
@@ -0,0 +1,137 @@
+package src.main.java.processSale.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies in a fixed set of log-linear buckets, in the style of an
+ * HDR histogram. Every power of two is split into {@value #SUB_BUCKETS} equal
+ * buckets, so any recorded value is reported with a relative error below
+ * about 3%, from nanoseconds up to hours, in a fixed amount of memory.
+ * Recording is lock-free and does not allocate, so it can be called on every
+ * operation from several threads.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;          // Buckets per power of two
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT); // Count of values in each bucket
+    private final LongAdder count = new LongAdder();                          // Number of recorded values
+    private final LongAdder sum = new LongAdder();                            // Sum of recorded values
+    private final AtomicLong max = new AtomicLong();                          // Highest recorded value
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Retrieves the number of recorded latencies.
+     *
+     * @return The number of recorded latencies.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Retrieves the highest recorded latency.
+     *
+     * @return The highest latency in nanoseconds, or 0 if nothing is recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Retrieves the mean of the recorded latencies.
+     *
+     * @return The mean latency in nanoseconds, or 0 if nothing is recorded.
+     */
+    public double getMean() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : (double) sum.sum() / recorded;
+    }
+
+    /**
+     * Retrieves the latency at a percentile. The result is the highest value
+     * that falls in the same bucket as the percentile, never above the highest
+     * recorded latency.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in nanoseconds, or 0 if nothing is recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            counts[bucket] = buckets.get(bucket);
+            total += counts[bucket];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Creates a summary of the recorded latencies.
+     *
+     * @return A {@link LatencySummary} with the count, mean and percentiles.
+     */
+    public LatencySummary summarize() {
+        return new LatencySummary(getCount(), getMean(), getValueAtPercentile(50), getValueAtPercentile(99),
+                getValueAtPercentile(99.9), getMax());
+    }
+
+    /**
+     * Finds the bucket of a value.
+     *
+     * @param value The non-negative value.
+     * @return The index of the bucket.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) | (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Retrieves the highest value that falls in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The highest value of the bucket.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
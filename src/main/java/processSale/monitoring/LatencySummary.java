@@ -0,0 +1,86 @@
+package src.main.java.processSale.monitoring;
+
+/**
+ * An immutable summary of the latencies recorded for one operation.
+ */
+public class LatencySummary {
+    private final long count;  // Number of recorded latencies
+    private final double mean; // Mean latency in nanoseconds
+    private final long p50;    // Median latency in nanoseconds
+    private final long p99;    // 99th percentile in nanoseconds
+    private final long p999;   // 99.9th percentile in nanoseconds
+    private final long max;    // Highest latency in nanoseconds
+
+    /**
+     * Creates a new summary.
+     *
+     * @param count The number of recorded latencies.
+     * @param mean  The mean latency in nanoseconds.
+     * @param p50   The median latency in nanoseconds.
+     * @param p99   The 99th percentile in nanoseconds.
+     * @param p999  The 99.9th percentile in nanoseconds.
+     * @param max   The highest latency in nanoseconds.
+     */
+    public LatencySummary(long count, double mean, long p50, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Retrieves the number of recorded latencies.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieves the mean latency.
+     *
+     * @return The mean in nanoseconds.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Retrieves the median latency.
+     *
+     * @return The 50th percentile in nanoseconds.
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * Retrieves the 99th percentile latency.
+     *
+     * @return The 99th percentile in nanoseconds.
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Retrieves the 99.9th percentile latency.
+     *
+     * @return The 99.9th percentile in nanoseconds.
+     */
+    public long getP999() {
+        return p999;
+    }
+
+    /**
+     * Retrieves the highest latency.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+}
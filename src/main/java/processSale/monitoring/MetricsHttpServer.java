@@ -0,0 +1,96 @@
+package src.main.java.processSale.monitoring;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import src.main.java.processSale.concurrent.ThreadPools;
+
+/**
+ * An embedded HTTP server that lets operations query a running register.
+ * {@code GET /metrics} returns the metrics in the Prometheus text format and
+ * {@code GET /health} returns a short JSON status. Requests are served on
+ * virtual threads when the JVM provides them.
+ */
+public class MetricsHttpServer {
+    private static final String METRICS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String HEALTH_BODY = "{\"status\":\"UP\"}";
+
+    private final HttpServer server;       // The JDK HTTP server
+    private final ExecutorService executor; // Runs the request handlers
+
+    /**
+     * Creates a new server bound to the specified address. The server does not
+     * accept requests until it is started.
+     *
+     * @param address  The address to listen on. Port 0 picks a free port.
+     * @param exporter The exporter that formats the metrics.
+     * @throws IOException if the address cannot be bound.
+     */
+    public MetricsHttpServer(InetSocketAddress address, PrometheusExporter exporter) throws IOException {
+        this.server = HttpServer.create(address, 0);
+        this.executor = ThreadPools.newPerTaskExecutor("metrics-http");
+        server.setExecutor(executor);
+        server.createContext("/metrics", exchange -> respond(exchange, METRICS_CONTENT_TYPE, exporter.export()));
+        server.createContext("/health", exchange -> respond(exchange, "application/json", HEALTH_BODY));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and releases the port.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return The port number.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Sends a response to a request. Only {@code GET} and {@code HEAD} are
+     * allowed.
+     *
+     * @param exchange    The request and response.
+     * @param contentType The content type of the body.
+     * @param body        The response body.
+     * @throws IOException if the response cannot be written.
+     */
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package src.main.java.processSale.monitoring;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the {@link SaleMetrics}, which can be dumped as
+ * readable text or as JSON.
+ */
+public class MetricsSnapshot {
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final double SECONDS_PER_MINUTE = 60.0;
+
+    private final Map<SaleOperation, LatencySummary> latencies; // Latency summary of each operation
+    private final long sales;                                   // Completed sales
+    private final long scans;                                   // Items scanned, including misses
+    private final long misses;                                  // Scans of items not in the inventory
+    private final long connectionErrors;                        // Failed connections to external systems
+    private final long insufficientPayments;                    // Payments lower than the total
+    private final long salesLastMinute;                         // Completed sales during the last minute
+    private final long scansLastMinute;                         // Scans during the last minute
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param latencies            The latency summary of each operation.
+     * @param sales                The number of completed sales.
+     * @param scans                The number of scanned items.
+     * @param misses               The number of scans of missing items.
+     * @param connectionErrors     The number of failed connections.
+     * @param insufficientPayments The number of insufficient payments.
+     * @param salesLastMinute      The number of sales during the last minute.
+     * @param scansLastMinute      The number of scans during the last minute.
+     */
+    MetricsSnapshot(Map<SaleOperation, LatencySummary> latencies, long sales, long scans, long misses,
+            long connectionErrors, long insufficientPayments, long salesLastMinute, long scansLastMinute) {
+        this.latencies = Collections.unmodifiableMap(new EnumMap<>(latencies));
+        this.sales = sales;
+        this.scans = scans;
+        this.misses = misses;
+        this.connectionErrors = connectionErrors;
+        this.insufficientPayments = insufficientPayments;
+        this.salesLastMinute = salesLastMinute;
+        this.scansLastMinute = scansLastMinute;
+    }
+
+    /**
+     * Retrieves the latency summary of an operation.
+     *
+     * @param operation The operation.
+     * @return The {@link LatencySummary} of the operation.
+     */
+    public LatencySummary getLatency(SaleOperation operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * Retrieves the number of completed sales.
+     *
+     * @return The number of sales.
+     */
+    public long getSales() {
+        return sales;
+    }
+
+    /**
+     * Retrieves the average number of completed sales per second during the
+     * last minute.
+     *
+     * @return The recent sale rate.
+     */
+    public double getSalesPerSecond() {
+        return salesLastMinute / SECONDS_PER_MINUTE;
+    }
+
+    /**
+     * Retrieves the average number of scans per second during the last minute.
+     *
+     * @return The recent scan rate.
+     */
+    public double getScansPerSecond() {
+        return scansLastMinute / SECONDS_PER_MINUTE;
+    }
+
+    /**
+     * Retrieves the number of scanned items, including misses.
+     *
+     * @return The number of scans.
+     */
+    public long getScans() {
+        return scans;
+    }
+
+    /**
+     * Retrieves the number of scans of items not found in the inventory.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Retrieves the number of failed connections to external systems.
+     *
+     * @return The number of connection errors.
+     */
+    public long getConnectionErrors() {
+        return connectionErrors;
+    }
+
+    /**
+     * Retrieves the number of payments that were lower than the total price.
+     *
+     * @return The number of insufficient payments.
+     */
+    public long getInsufficientPayments() {
+        return insufficientPayments;
+    }
+
+    /**
+     * Formats the snapshot as readable text, with latencies in microseconds.
+     *
+     * @return One line per operation followed by one line with the counters.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<SaleOperation, LatencySummary> entry : latencies.entrySet()) {
+            LatencySummary latency = entry.getValue();
+            text.append(String.format(Locale.ROOT,
+                    "%-13s count=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus%n",
+                    entry.getKey().getMethodName(), latency.getCount(), latency.getMean() / NANOS_PER_MICRO,
+                    latency.getP50() / NANOS_PER_MICRO, latency.getP99() / NANOS_PER_MICRO,
+                    latency.getP999() / NANOS_PER_MICRO, latency.getMax() / NANOS_PER_MICRO));
+        }
+        text.append(String.format("sales=%d scans=%d misses=%d connectionErrors=%d insufficientPayments=%d%n", sales,
+                scans, misses, connectionErrors, insufficientPayments));
+        return text.toString();
+    }
+
+    /**
+     * Formats the snapshot as a JSON object, with latencies in nanoseconds.
+     *
+     * @return The JSON text.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"latencies\":{");
+        boolean first = true;
+        for (Map.Entry<SaleOperation, LatencySummary> entry : latencies.entrySet()) {
+            LatencySummary latency = entry.getValue();
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append(String.format(Locale.ROOT,
+                    "\"%s\":{\"count\":%d,\"meanNanos\":%.1f,\"p50Nanos\":%d,\"p99Nanos\":%d,"
+                            + "\"p999Nanos\":%d,\"maxNanos\":%d}",
+                    entry.getKey().getMethodName(), latency.getCount(), latency.getMean(), latency.getP50(),
+                    latency.getP99(), latency.getP999(), latency.getMax()));
+        }
+        json.append(String.format("},\"counters\":{\"sales\":%d,\"scans\":%d,\"misses\":%d,\"connectionErrors\":%d,"
+                + "\"insufficientPayments\":%d}}", sales, scans, misses, connectionErrors, insufficientPayments));
+        return json.toString();
+    }
+}
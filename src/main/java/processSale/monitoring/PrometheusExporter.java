@@ -0,0 +1,141 @@
+package src.main.java.processSale.monitoring;
+
+import src.main.java.processSale.integration.Inventory;
+import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.model.dto.RevenueWindowsDTO;
+
+/**
+ * Formats the metrics of a register in the Prometheus text exposition format.
+ * Every value is read from lock-free counters and atomic references, so
+ * scraping never blocks a sale in progress.
+ */
+public class PrometheusExporter {
+    private static final String PREFIX = "processsale_";
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final SaleMetrics metrics;                  // Operation latencies and counters
+    private final RegisterCashCompartment cashRegister; // Cash and revenue of the register
+    private final Inventory inventory;                  // The inventory whose size is reported
+
+    /**
+     * Creates a new exporter.
+     *
+     * @param metrics      The operation latencies and counters to export.
+     * @param cashRegister The cash register whose totals are exported.
+     * @param inventory    The inventory whose size is exported.
+     */
+    public PrometheusExporter(SaleMetrics metrics, RegisterCashCompartment cashRegister, Inventory inventory) {
+        this.metrics = metrics;
+        this.cashRegister = cashRegister;
+        this.inventory = inventory;
+    }
+
+    /**
+     * Formats the current metrics.
+     *
+     * @return The metrics in the Prometheus text format, version 0.0.4.
+     */
+    public String export() {
+        StringBuilder out = new StringBuilder(4096);
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        writeMetric(out, "sales_total", "counter", "Completed sales.", snapshot.getSales());
+        writeMetric(out, "sales_per_second", "gauge", "Completed sales per second over the last minute.",
+                snapshot.getSalesPerSecond());
+        writeMetric(out, "scans_total", "counter", "Scanned items, including misses.", snapshot.getScans());
+        writeMetric(out, "scans_per_second", "gauge", "Scanned items per second over the last minute.",
+                snapshot.getScansPerSecond());
+        writeMetric(out, "scan_misses_total", "counter", "Scans of items not found in the inventory.",
+                snapshot.getMisses());
+        writeMetric(out, "connection_errors_total", "counter", "Failed connections to external systems.",
+                snapshot.getConnectionErrors());
+        writeMetric(out, "insufficient_payments_total", "counter", "Payments lower than the total price.",
+                snapshot.getInsufficientPayments());
+        writeLatencies(out, snapshot);
+
+        writeMetric(out, "catalog_items", "gauge", "Items loaded in the inventory.", inventory.getCatalogSize());
+        writeMetric(out, "revenue_observers", "gauge",
+                "Observers notified synchronously of every payment; they have no queue.",
+                cashRegister.getObserverCount());
+
+        RevenueWindowsDTO revenue = cashRegister.getRevenueWindows();
+        writeMetric(out, "register_cash_sek", "gauge", "Total cash in the register.",
+                cashRegister.getTotalCash().doubleValue());
+        writeHeader(out, "revenue_sek", "gauge", "Revenue of the register per time window.");
+        writeSample(out, "revenue_sek{window=\"minute\"}", revenue.getLastMinuteRevenue().doubleValue());
+        writeSample(out, "revenue_sek{window=\"hour\"}", revenue.getLastHourRevenue().doubleValue());
+        writeSample(out, "revenue_sek{window=\"day\"}", revenue.getTodayRevenue().doubleValue());
+        writeHeader(out, "payments", "gauge", "Payments to the register per time window.");
+        writeSample(out, "payments{window=\"minute\"}", revenue.getLastMinutePayments());
+        writeSample(out, "payments{window=\"hour\"}", revenue.getLastHourPayments());
+        writeSample(out, "payments{window=\"day\"}", revenue.getTodayPayments());
+        return out.toString();
+    }
+
+    /**
+     * Writes the latency of every operation as a summary with quantiles.
+     *
+     * @param out      The text being built.
+     * @param snapshot The snapshot holding the latencies.
+     */
+    private static void writeLatencies(StringBuilder out, MetricsSnapshot snapshot) {
+        writeHeader(out, "operation_latency_seconds", "summary", "Latency of the controller operations.");
+        for (SaleOperation operation : SaleOperation.values()) {
+            LatencySummary latency = snapshot.getLatency(operation);
+            String label = "operation=\"" + operation.getMethodName() + "\"";
+            writeSample(out, "operation_latency_seconds{" + label + ",quantile=\"0.5\"}",
+                    latency.getP50() / NANOS_PER_SECOND);
+            writeSample(out, "operation_latency_seconds{" + label + ",quantile=\"0.99\"}",
+                    latency.getP99() / NANOS_PER_SECOND);
+            writeSample(out, "operation_latency_seconds{" + label + ",quantile=\"0.999\"}",
+                    latency.getP999() / NANOS_PER_SECOND);
+            writeSample(out, "operation_latency_seconds_sum{" + label + "}",
+                    latency.getMean() * latency.getCount() / NANOS_PER_SECOND);
+            writeSample(out, "operation_latency_seconds_count{" + label + "}", latency.getCount());
+        }
+    }
+
+    /**
+     * Writes a metric with a single sample.
+     *
+     * @param out   The text being built.
+     * @param name  The name of the metric, without prefix.
+     * @param type  The Prometheus type of the metric.
+     * @param help  The description of the metric.
+     * @param value The value of the metric.
+     */
+    private static void writeMetric(StringBuilder out, String name, String type, String help, double value) {
+        writeHeader(out, name, type, help);
+        writeSample(out, name, value);
+    }
+
+    /**
+     * Writes the help and type lines of a metric.
+     *
+     * @param out  The text being built.
+     * @param name The name of the metric, without prefix.
+     * @param type The Prometheus type of the metric.
+     * @param help The description of the metric.
+     */
+    private static void writeHeader(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Writes one sample line.
+     *
+     * @param out    The text being built.
+     * @param sample The name of the sample, without prefix, including labels.
+     * @param value  The value of the sample.
+     */
+    private static void writeSample(StringBuilder out, String sample, double value) {
+        out.append(PREFIX).append(sample).append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+}
@@ -0,0 +1,139 @@
+package src.main.java.processSale.monitoring;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import src.main.java.processSale.model.SlidingWindowCounter;
+
+/**
+ * Collects the latency of each controller operation and counts completed
+ * sales, scans, missing items, connection errors and insufficient payments.
+ * Sales and scans are also counted per second, so their recent rates can be
+ * reported. All recording is lock-free, so one instance can be shared by the
+ * controllers of several registers.
+ */
+public class SaleMetrics {
+    private final LatencyHistogram[] latencies;                     // Latency histogram of each operation
+    private final LongAdder sales = new LongAdder();                // Completed sales
+    private final LongAdder scans = new LongAdder();                // Items scanned, including misses
+    private final LongAdder misses = new LongAdder();               // Scans of items not in the inventory
+    private final LongAdder connectionErrors = new LongAdder();     // Failed connections to external systems
+    private final LongAdder insufficientPayments = new LongAdder(); // Payments lower than the total
+    private final SlidingWindowCounter recentSales;                 // Completed sales per second
+    private final SlidingWindowCounter recentScans;                 // Scans per second
+
+    /**
+     * Creates a new instance with empty histograms and counters.
+     */
+    public SaleMetrics() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a new instance with empty histograms and counters, using the
+     * specified clock to count sales and scans per second.
+     *
+     * @param clock The clock used for the per-second counts.
+     */
+    public SaleMetrics(Clock clock) {
+        recentSales = new SlidingWindowCounter(clock);
+        recentScans = new SlidingWindowCounter(clock);
+        latencies = new LatencyHistogram[SaleOperation.values().length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the latency of an operation.
+     *
+     * @param operation The measured operation.
+     * @param nanos     The latency in nanoseconds.
+     */
+    public void recordLatency(SaleOperation operation, long nanos) {
+        latencies[operation.ordinal()].record(nanos);
+    }
+
+    /**
+     * Retrieves the latency histogram of an operation.
+     *
+     * @param operation The operation.
+     * @return The {@link LatencyHistogram} of the operation.
+     */
+    public LatencyHistogram getLatency(SaleOperation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    /**
+     * Counts a completed sale.
+     */
+    public void countSale() {
+        sales.increment();
+        recentSales.add(1);
+    }
+
+    /**
+     * Counts a scanned item.
+     */
+    public void countScan() {
+        scans.increment();
+        recentScans.add(1);
+    }
+
+    /**
+     * Counts several items scanned at once, as in a basket.
+     *
+     * @param count The number of scanned items.
+     */
+    public void countScans(int count) {
+        scans.add(count);
+        recentScans.add(count);
+    }
+
+    /**
+     * Counts a scan of an item that was not found in the inventory.
+     */
+    public void countMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Counts several scans of items that were not found in the inventory.
+     *
+     * @param count The number of missing items.
+     */
+    public void countMisses(int count) {
+        misses.add(count);
+    }
+
+    /**
+     * Counts a failed connection to an external system.
+     */
+    public void countConnectionError() {
+        connectionErrors.increment();
+    }
+
+    /**
+     * Counts a payment that was lower than the total price.
+     */
+    public void countInsufficientPayment() {
+        insufficientPayments.increment();
+    }
+
+    /**
+     * Creates a snapshot of all histograms and counters.
+     *
+     * @return A {@link MetricsSnapshot} of the current values.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<SaleOperation, LatencySummary> summaries = new EnumMap<>(SaleOperation.class);
+        for (SaleOperation operation : SaleOperation.values()) {
+            summaries.put(operation, getLatency(operation).summarize());
+        }
+        return new MetricsSnapshot(summaries, sales.sum(), scans.sum(), misses.sum(), connectionErrors.sum(),
+                insufficientPayments.sum(), recentSales.sumOfLast(SlidingWindowCounter.SECONDS_PER_MINUTE),
+                recentScans.sumOfLast(SlidingWindowCounter.SECONDS_PER_MINUTE));
+    }
+}
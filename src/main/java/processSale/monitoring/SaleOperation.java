@@ -0,0 +1,33 @@
+package src.main.java.processSale.monitoring;
+
+/**
+ * The controller operations whose latency is measured by {@link SaleMetrics}.
+ */
+public enum SaleOperation {
+    START_SALE("startSale"),
+    REGISTER_ITEM("registerItem"),
+    REGISTER_ITEMS("registerItems"),
+    END_SALE("endSale"),
+    PROCESS_SALE("processSale");
+
+    private final String methodName; // Name of the measured controller method
+
+    /**
+     * Creates a new operation.
+     *
+     * @param methodName The name of the measured controller method.
+     */
+    SaleOperation(String methodName) {
+        this.methodName = methodName;
+    }
+
+    /**
+     * Retrieves the name of the measured controller method, used as the name
+     * of the operation in metric dumps.
+     *
+     * @return The method name.
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+}
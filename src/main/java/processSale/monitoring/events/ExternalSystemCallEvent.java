@@ -0,0 +1,44 @@
+package src.main.java.processSale.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted for each call to an external system: the inventory, the accounting
+ * system or the printer. Printing a receipt is recorded as a
+ * {@link ReceiptPrintEvent} instead.
+ */
+@Name("processSale.ExternalSystemCall")
+@Label("External System Call")
+@Description("A register called the inventory, accounting or printer system.")
+public class ExternalSystemCallEvent extends RegisterEvent {
+    @Label("System")
+    private String system;     // Name of the called system
+
+    @Label("Operation")
+    private String operation;  // Name of the called method
+
+    @Label("Succeeded")
+    private boolean succeeded; // Whether the call returned normally
+
+    /**
+     * Sets the called system and method.
+     *
+     * @param system    The name of the called system.
+     * @param operation The name of the called method.
+     */
+    public void setCall(String system, String operation) {
+        this.system = system;
+        this.operation = operation;
+    }
+
+    /**
+     * Sets whether the call returned normally.
+     *
+     * @param succeeded {@code false} if the call threw an exception.
+     */
+    public void setSucceeded(boolean succeeded) {
+        this.succeeded = succeeded;
+    }
+}
@@ -0,0 +1,52 @@
+package src.main.java.processSale.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when an item is scanned, whether it was found or not.
+ */
+@Name("processSale.ItemRegistration")
+@Label("Item Registration")
+@Description("An item was scanned on a register.")
+public class ItemRegistrationEvent extends RegisterEvent {
+    @Label("Item ID")
+    private String itemID;         // The scanned item ID
+
+    @Label("Catalog Hit")
+    @Description("The item was found in the sale or in the inventory.")
+    private boolean catalogHit;    // Whether the item was found
+
+    @Label("Already In Sale")
+    @Description("The item was already in the sale, so only its quantity was increased.")
+    private boolean alreadyInSale; // Whether the inventory lookup was skipped
+
+    /**
+     * Sets the scanned item ID.
+     *
+     * @param itemID The scanned item ID.
+     */
+    public void setItemID(String itemID) {
+        this.itemID = itemID;
+    }
+
+    /**
+     * Sets whether the item was found.
+     *
+     * @param catalogHit {@code true} if the item was found in the sale or in the
+     *                   inventory.
+     */
+    public void setCatalogHit(boolean catalogHit) {
+        this.catalogHit = catalogHit;
+    }
+
+    /**
+     * Sets whether the item was already in the sale.
+     *
+     * @param alreadyInSale {@code true} if only the quantity was increased.
+     */
+    public void setAlreadyInSale(boolean alreadyInSale) {
+        this.alreadyInSale = alreadyInSale;
+    }
+}
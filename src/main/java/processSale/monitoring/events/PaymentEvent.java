@@ -0,0 +1,38 @@
+package src.main.java.processSale.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when a payment is processed, whether it was sufficient or not.
+ */
+@Name("processSale.Payment")
+@Label("Payment")
+@Description("A payment was processed on a register.")
+public class PaymentEvent extends RegisterEvent {
+    @Label("Amount Paid")
+    private double amountPaid;  // Amount paid by the customer in SEK
+
+    @Label("Sufficient")
+    @Description("The amount paid covered the total price.")
+    private boolean sufficient; // Whether the payment was accepted
+
+    /**
+     * Sets the amount paid by the customer.
+     *
+     * @param amountPaid The amount paid in SEK.
+     */
+    public void setAmountPaid(double amountPaid) {
+        this.amountPaid = amountPaid;
+    }
+
+    /**
+     * Sets whether the payment was accepted.
+     *
+     * @param sufficient {@code true} if the amount paid covered the total price.
+     */
+    public void setSufficient(boolean sufficient) {
+        this.sufficient = sufficient;
+    }
+}
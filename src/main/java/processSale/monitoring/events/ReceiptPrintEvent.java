@@ -0,0 +1,25 @@
+package src.main.java.processSale.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when the receipt of a paid sale is printed.
+ */
+@Name("processSale.ReceiptPrint")
+@Label("Receipt Print")
+@Description("The receipt of a sale was printed.")
+public class ReceiptPrintEvent extends RegisterEvent {
+    @Label("Line Count")
+    private int lineCount; // Number of item lines on the receipt
+
+    /**
+     * Sets the number of item lines on the receipt.
+     *
+     * @param lineCount The number of lines.
+     */
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+}
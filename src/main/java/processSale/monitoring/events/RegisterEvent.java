@@ -0,0 +1,31 @@
+package src.main.java.processSale.monitoring.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base class of the Java Flight Recorder events emitted by a register. Every
+ * event records the register it happened on, so recordings from a process
+ * serving several registers can be filtered by register.
+ *
+ * Events are created and timed on every call, but their fields are only set
+ * and the event only written when {@code shouldCommit()} returns
+ * {@code true}. When recording is disabled, the JIT compiler removes the
+ * events entirely.
+ */
+@Category("Process Sale")
+public abstract class RegisterEvent extends Event {
+    // Not private, since the recorder skips private fields of event superclasses.
+    @Label("Register ID")
+    protected String registerID; // The register the event happened on
+
+    /**
+     * Sets the register the event happened on.
+     *
+     * @param registerID The unique identifier of the register.
+     */
+    public void setRegisterID(String registerID) {
+        this.registerID = registerID;
+    }
+}
@@ -0,0 +1,25 @@
+package src.main.java.processSale.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when a sale is ended and its total price is shown, before payment.
+ */
+@Name("processSale.SaleEnd")
+@Label("Sale End")
+@Description("A sale was ended and its total price shown.")
+public class SaleEndEvent extends RegisterEvent {
+    @Label("Total Price")
+    private double totalPrice; // Total price of the sale in SEK
+
+    /**
+     * Sets the total price of the sale.
+     *
+     * @param totalPrice The total price in SEK.
+     */
+    public void setTotalPrice(double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+}
@@ -0,0 +1,15 @@
+package src.main.java.processSale.monitoring.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when a sale is started, with the time taken to set up the sale and
+ * its receipt.
+ */
+@Name("processSale.SaleStart")
+@Label("Sale Start")
+@Description("A new sale was started on a register.")
+public class SaleStartEvent extends RegisterEvent {
+}
@@ -0,0 +1,202 @@
+package src.main.java.processSale.network;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A thin scanner client for the {@link RegisterServer}. Each client serves one
+ * lane and sends one command at a time, waiting for its response. Can also be
+ * run from the command line to drive a lane by hand.
+ */
+public class RegisterClient implements AutoCloseable {
+    private final Socket socket;           // Connection to the server
+    private final DataInputStream input;   // Reads response frames
+    private final DataOutputStream output; // Writes command frames
+
+    /**
+     * Connects to a server and opens the session of a lane.
+     *
+     * @param host   The host of the server.
+     * @param port   The port of the server.
+     * @param laneID The lane served by this client.
+     * @throws IOException if the connection fails or the server refuses the
+     *                     lane.
+     */
+    public RegisterClient(String host, int port, String laneID) throws IOException {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        input = new DataInputStream(socket.getInputStream());
+        output = new DataOutputStream(socket.getOutputStream());
+        Response hello = send(RegisterProtocol.HELLO, laneID);
+        if (!hello.isOk()) {
+            socket.close();
+            throw new IOException("The server refused lane " + laneID + ": " + hello.getMessage());
+        }
+    }
+
+    /**
+     * Starts a sale.
+     *
+     * @return The response of the server.
+     * @throws IOException if the connection fails.
+     */
+    public Response startSale() throws IOException {
+        return send(RegisterProtocol.START, null);
+    }
+
+    /**
+     * Registers an item.
+     *
+     * @param itemID The ID of the scanned item.
+     * @return The response, with the added item, or the status
+     *         {@link RegisterProtocol#NOT_FOUND}.
+     * @throws IOException if the connection fails.
+     */
+    public Response scan(String itemID) throws IOException {
+        return send(RegisterProtocol.SCAN, itemID);
+    }
+
+    /**
+     * Ends the sale.
+     *
+     * @param customerID The ID of the customer, or {@code null}.
+     * @return The response, with the total price.
+     * @throws IOException if the connection fails.
+     */
+    public Response endSale(String customerID) throws IOException {
+        return send(RegisterProtocol.END, customerID);
+    }
+
+    /**
+     * Pays for the sale.
+     *
+     * @param amount The amount paid by the customer.
+     * @return The response, with the change, or the status
+     *         {@link RegisterProtocol#REJECTED} if the amount was too low.
+     * @throws IOException if the connection fails.
+     */
+    public Response pay(BigDecimal amount) throws IOException {
+        return send(RegisterProtocol.PAY, amount.toPlainString());
+    }
+
+    /**
+     * Closes the connection. The sale of the lane is kept by the server.
+     *
+     * @throws IOException if the connection cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Sends a command and waits for its response.
+     *
+     * @param code    The command code.
+     * @param payload The command payload, or {@code null}.
+     * @return The response.
+     * @throws IOException if the connection fails.
+     */
+    private Response send(byte code, String payload) throws IOException {
+        ByteBuffer frame = RegisterProtocol.encode(code, payload);
+        output.write(frame.array(), 0, frame.limit());
+        output.flush();
+        int length = input.readUnsignedShort();
+        byte status = input.readByte();
+        byte[] message = new byte[length - 1];
+        input.readFully(message);
+        return new Response(status, new String(message, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The response of the server to one command.
+     */
+    public static class Response {
+        private final byte status;    // One of the status codes of RegisterProtocol
+        private final String message; // The added item, total, change or error message
+
+        /**
+         * Creates a new response.
+         *
+         * @param status  The status code.
+         * @param message The message.
+         */
+        Response(byte status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+
+        /**
+         * Retrieves the status code.
+         *
+         * @return One of the status codes of {@link RegisterProtocol}.
+         */
+        public byte getStatus() {
+            return status;
+        }
+
+        /**
+         * Checks if the command succeeded.
+         *
+         * @return {@code true} if the status is {@link RegisterProtocol#OK}.
+         */
+        public boolean isOk() {
+            return status == RegisterProtocol.OK;
+        }
+
+        /**
+         * Retrieves the message.
+         *
+         * @return The added item, total price, change or error message.
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Drives a lane from the console. Reads one command per line: {@code START},
+     * {@code SCAN <item ID>}, {@code END}, {@code PAY <amount>} or
+     * {@code EXIT}.
+     *
+     * @param args The host, port and lane ID, by default {@code localhost},
+     *             {@code 7070} and {@code lane-1}.
+     * @throws IOException if the connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7070;
+        String laneID = args.length > 2 ? args[2] : "lane-1";
+        try (RegisterClient client = new RegisterClient(host, port, laneID);
+                BufferedReader console = new BufferedReader(new InputStreamReader(System.in))) {
+            System.out.println("Connected as " + laneID + ". Enter START, SCAN <id>, END, PAY <amount> or EXIT.");
+            String line;
+            while ((line = console.readLine()) != null) {
+                String[] command = line.trim().split("\\s+", 2);
+                String argument = command.length > 1 ? command[1] : "";
+                Response response;
+                switch (command[0].toUpperCase()) {
+                    case "START" -> response = client.startSale();
+                    case "SCAN" -> response = client.scan(argument);
+                    case "END" -> response = client.endSale(argument);
+                    case "PAY" -> response = client.pay(new BigDecimal(argument));
+                    case "EXIT" -> {
+                        return;
+                    }
+                    default -> {
+                        System.out.println("Invalid input.");
+                        continue;
+                    }
+                }
+                System.out.println((response.isOk() ? "" : "Error: ") + response.getMessage());
+            }
+        }
+    }
+}
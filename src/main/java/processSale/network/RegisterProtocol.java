@@ -0,0 +1,113 @@
+package src.main.java.processSale.network;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Defines the compact binary protocol spoken between scanner clients and the
+ * {@link RegisterServer}. Every frame is a two-byte unsigned length followed
+ * by that many bytes: a one-byte code and a UTF-8 payload.
+ *
+ * A client first sends {@link #HELLO} with its lane ID, then any number of
+ * {@link #START}, {@link #SCAN} (item ID), {@link #END} (customer ID) and
+ * {@link #PAY} (amount) commands. The server answers every command with one
+ * frame whose code is a status and whose payload is a message: the added
+ * item, the total price or the change. Responses come in the order of the
+ * commands, and a second {@link #HELLO} on the same connection is refused.
+ */
+public final class RegisterProtocol {
+    public static final byte HELLO = 1; // Opens the session of a lane
+    public static final byte START = 2; // Starts a sale
+    public static final byte SCAN = 3;  // Registers an item
+    public static final byte END = 4;   // Ends the sale and returns the total
+    public static final byte PAY = 5;   // Pays and returns the change
+
+    public static final byte OK = 0;        // The command succeeded
+    public static final byte NOT_FOUND = 1; // The scanned item does not exist
+    public static final byte REJECTED = 2;  // The command failed, for example an insufficient payment
+    public static final byte ERROR = 3;     // The command was invalid
+
+    public static final int LENGTH_BYTES = 2;
+    public static final int MAX_FRAME_LENGTH = 1024; // Longest frame body accepted, in bytes
+    private static final String ELLIPSIS = "...";
+
+    /**
+     * Prevents instantiation, since this class only holds constants and
+     * helpers.
+     */
+    private RegisterProtocol() {
+    }
+
+    /**
+     * Encodes a frame.
+     *
+     * @param code    The command or status code.
+     * @param payload The payload, or {@code null} for none.
+     * @return A buffer holding the encoded frame, ready to be written.
+     * @throws IllegalArgumentException if the payload is too long.
+     */
+    public static ByteBuffer encode(byte code, String payload) {
+        byte[] payloadBytes = payload == null ? new byte[0] : payload.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + payloadBytes.length;
+        if (length > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException("Frame of " + length + " bytes exceeds " + MAX_FRAME_LENGTH + ".");
+        }
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_BYTES + length);
+        frame.putShort((short) length).put(code).put(payloadBytes);
+        return frame.flip();
+    }
+
+    /**
+     * Shortens a message so that it fits in the payload of one frame. Longer
+     * messages, for example ones quoting an oversized item ID, are cut at a
+     * character boundary and end with an ellipsis.
+     *
+     * @param message The message.
+     * @return The message, or its beginning if it is too long.
+     */
+    public static String fit(String message) {
+        int limit = MAX_FRAME_LENGTH - 1;
+        if (message.length() * 3 <= limit || message.getBytes(StandardCharsets.UTF_8).length <= limit) {
+            return message;
+        }
+        int bytes = ELLIPSIS.getBytes(StandardCharsets.UTF_8).length;
+        int end = 0;
+        while (end < message.length()) {
+            int codePoint = message.codePointAt(end);
+            bytes += codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (bytes > limit) {
+                break;
+            }
+            end += Character.charCount(codePoint);
+        }
+        return message.substring(0, end) + ELLIPSIS;
+    }
+
+    /**
+     * Reads the length of the next frame without consuming it.
+     *
+     * @param buffer A buffer in read mode.
+     * @return The length of the frame body, or -1 if the length has not been
+     *         received yet.
+     */
+    static int peekLength(ByteBuffer buffer) {
+        if (buffer.remaining() < LENGTH_BYTES) {
+            return -1;
+        }
+        return Short.toUnsignedInt(buffer.getShort(buffer.position()));
+    }
+
+    /**
+     * Reads the payload of a frame body whose length and code have been
+     * consumed.
+     *
+     * @param buffer The buffer, positioned at the payload.
+     * @param length The length of the payload in bytes.
+     * @return The payload.
+     */
+    static String readPayload(ByteBuffer buffer, int length) {
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
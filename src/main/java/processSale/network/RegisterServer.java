@@ -0,0 +1,478 @@
+package src.main.java.processSale.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+import src.main.java.processSale.concurrent.ThreadPools;
+import src.main.java.processSale.controller.Controller;
+
+/**
+ * A non-blocking TCP front end that lets many thin scanner clients drive
+ * sales. Each lane has its own {@link RegisterSession} and {@link Controller},
+ * created the first time the lane says hello. Connections are spread over a
+ * few I/O threads, each multiplexing its connections with a selector and
+ * executing their commands in order, so hundreds of lanes are served by a
+ * handful of threads. The protocol is described in {@link RegisterProtocol}.
+ *
+ * <p>
+ * By default the I/O threads execute the commands themselves. Given a session
+ * executor, they only decode and encode frames, and each session executes its
+ * commands in order on the executor, so a slow external system stalls only
+ * the lanes waiting for it. With an executor that starts a virtual thread per
+ * task, thousands of open sales cost no platform threads.
+ *
+ * <p>
+ * A connection may have at most {@value #MAX_UNANSWERED} commands that are
+ * executing or whose responses are not yet written. Beyond that, the server
+ * stops reading from the connection until the client has read some responses,
+ * so a client that sends without reading cannot make the server buffer
+ * responses without bound.
+ */
+public class RegisterServer {
+    /**
+     * The most commands of one connection that may be unanswered at a time.
+     */
+    public static final int MAX_UNANSWERED = 64;
+
+    private final ServerSocketChannel serverChannel;                      // Accepts new connections
+    private final IoLoop[] ioLoops;                                       // Serve the accepted connections
+    private final Function<String, Controller> controllerFactory;         // Creates the controller of a new lane
+    private final ExecutorService sessionExecutor;                        // Executes the commands, or null for the I/O threads
+    private final ConcurrentHashMap<String, RegisterSession> sessions;    // Session of each lane
+    private final ThreadFactory threadFactory;                            // Creates the server threads
+    private volatile boolean running;                                     // Cleared when the server stops
+
+    /**
+     * Creates a new server bound to the specified address. The server does not
+     * accept connections until it is started.
+     *
+     * @param address           The address to listen on. Port 0 picks a free
+     *                          port.
+     * @param ioThreads         The number of threads serving connections.
+     * @param controllerFactory Creates the controller of a lane, given its lane
+     *                          ID. Each lane needs its own controller, since a
+     *                          controller handles one sale at a time.
+     * @throws IOException              if the address cannot be bound.
+     * @throws IllegalArgumentException if {@code ioThreads} is not positive.
+     */
+    public RegisterServer(InetSocketAddress address, int ioThreads, Function<String, Controller> controllerFactory)
+            throws IOException {
+        this(address, ioThreads, null, controllerFactory);
+    }
+
+    /**
+     * Creates a new server bound to the specified address, executing the
+     * commands of every lane on an executor. The server does not accept
+     * connections until it is started. The executor is not shut down when the
+     * server stops.
+     *
+     * @param address           The address to listen on. Port 0 picks a free
+     *                          port.
+     * @param ioThreads         The number of threads serving connections.
+     * @param sessionExecutor   Executes the commands, or {@code null} to
+     *                          execute them on the I/O threads.
+     * @param controllerFactory Creates the controller of a lane, given its lane
+     *                          ID.
+     * @throws IOException              if the address cannot be bound.
+     * @throws IllegalArgumentException if {@code ioThreads} is not positive.
+     */
+    public RegisterServer(InetSocketAddress address, int ioThreads, ExecutorService sessionExecutor,
+            Function<String, Controller> controllerFactory) throws IOException {
+        if (ioThreads <= 0) {
+            throw new IllegalArgumentException("The server needs at least one I/O thread.");
+        }
+        this.controllerFactory = controllerFactory;
+        this.sessionExecutor = sessionExecutor;
+        this.sessions = new ConcurrentHashMap<>();
+        this.threadFactory = ThreadPools.daemonThreadFactory("register-server");
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        ioLoops = new IoLoop[ioThreads];
+        for (int i = 0; i < ioThreads; i++) {
+            ioLoops[i] = new IoLoop(Selector.open());
+        }
+    }
+
+    /**
+     * Starts accepting connections.
+     */
+    public void start() {
+        running = true;
+        for (IoLoop ioLoop : ioLoops) {
+            threadFactory.newThread(ioLoop).start();
+        }
+        threadFactory.newThread(this::acceptConnections).start();
+    }
+
+    /**
+     * Stops the server and closes every connection. The sessions are kept, so
+     * the server could be replaced without losing sales in progress.
+     */
+    public void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            // The channel is being discarded
+        }
+        for (IoLoop ioLoop : ioLoops) {
+            ioLoop.selector.wakeup();
+        }
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return The port number.
+     * @throws IOException if the port cannot be read.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Retrieves the number of lanes that have said hello.
+     *
+     * @return The number of sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Accepts connections until the server stops, and hands them to the I/O
+     * threads in turn.
+     */
+    private void acceptConnections() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                ioLoops[next].add(channel);
+                next = (next + 1) % ioLoops.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes one command received on a connection, or hands it to the
+     * session of the connection if commands run on the session executor. A
+     * connection that has not said hello yet is answered at once. Once it has,
+     * every command goes to its session, so the responses keep the order of
+     * the commands.
+     *
+     * @param connection The connection the command was received on.
+     * @param code       The command code.
+     * @param payload    The command payload.
+     */
+    private void execute(Connection connection, byte code, String payload) {
+        connection.unanswered++;
+        if (sessionExecutor == null || connection.session == null) {
+            connection.output.add(dispatch(connection, code, payload));
+        } else {
+            connection.session.submit(code, payload, sessionExecutor, connection::reply);
+        }
+    }
+
+    /**
+     * Executes one command received on a connection. A hello on a connection
+     * that already has a session is refused by the session. A lane that cannot
+     * be opened is answered with an error, so the failure does not reach the
+     * I/O thread and close the other connections it serves.
+     *
+     * @param connection The connection the command was received on.
+     * @param code       The command code.
+     * @param payload    The command payload.
+     * @return The encoded response frame.
+     */
+    private ByteBuffer dispatch(Connection connection, byte code, String payload) {
+        if (connection.session != null) {
+            return connection.session.handle(code, payload);
+        }
+        if (code != RegisterProtocol.HELLO) {
+            return RegisterProtocol.encode(RegisterProtocol.ERROR, "Say hello with a lane ID first.");
+        }
+        if (payload.isEmpty()) {
+            return RegisterProtocol.encode(RegisterProtocol.ERROR, "A lane ID is required.");
+        }
+        try {
+            connection.session = sessions.computeIfAbsent(payload,
+                    laneID -> new RegisterSession(laneID, controllerFactory.apply(laneID)));
+        } catch (RuntimeException e) {
+            return RegisterProtocol.encode(RegisterProtocol.ERROR, "The lane could not be opened.");
+        }
+        return RegisterProtocol.encode(RegisterProtocol.OK, RegisterProtocol.fit("Lane " + payload + " ready."));
+    }
+
+    /**
+     * The state of one client connection.
+     */
+    private static class Connection {
+        private final SocketChannel channel;                                       // The client connection
+        private final IoLoop ioLoop;                                               // The loop serving the connection
+        private final ByteBuffer input;                                            // Received bytes not yet decoded
+        private final Queue<ByteBuffer> output = new ArrayDeque<>();               // Responses not yet fully written
+        private final Queue<ByteBuffer> replies = new ConcurrentLinkedQueue<>();   // Responses from the session executor
+        private RegisterSession session;                                           // The lane, once it has said hello
+        private int unanswered;                                                    // Commands not yet answered
+
+        /**
+         * Creates a new connection.
+         *
+         * @param channel The client connection.
+         * @param ioLoop  The loop serving the connection.
+         */
+        Connection(SocketChannel channel, IoLoop ioLoop) {
+            this.channel = channel;
+            this.ioLoop = ioLoop;
+            this.input = ByteBuffer.allocate(RegisterProtocol.LENGTH_BYTES + RegisterProtocol.MAX_FRAME_LENGTH);
+        }
+
+        /**
+         * Hands a response produced on the session executor to the I/O thread
+         * of this connection.
+         *
+         * @param response The encoded response frame.
+         */
+        void reply(ByteBuffer response) {
+            replies.add(response);
+            ioLoop.requestFlush(this);
+        }
+    }
+
+    /**
+     * One I/O thread, serving its connections with a selector.
+     */
+    private class IoLoop implements Runnable {
+        private final Selector selector;                // Multiplexes the connections
+        private final Queue<SocketChannel> newChannels; // Accepted connections not yet registered
+        private final Queue<Connection> flushRequests;  // Connections with replies from the session executor
+
+        /**
+         * Creates a new I/O loop.
+         *
+         * @param selector The selector of the loop.
+         */
+        IoLoop(Selector selector) {
+            this.selector = selector;
+            this.newChannels = new ConcurrentLinkedQueue<>();
+            this.flushRequests = new ConcurrentLinkedQueue<>();
+        }
+
+        /**
+         * Hands a new connection to this loop.
+         *
+         * @param channel The accepted connection.
+         */
+        void add(SocketChannel channel) {
+            newChannels.add(channel);
+            selector.wakeup();
+        }
+
+        /**
+         * Asks this loop to send the replies of a connection.
+         *
+         * @param connection The connection with new replies.
+         */
+        void requestFlush(Connection connection) {
+            flushRequests.add(connection);
+            selector.wakeup();
+        }
+
+        /**
+         * Serves the connections until the server stops.
+         */
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerNewChannels();
+                    flushReplies();
+                    Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                    while (selected.hasNext()) {
+                        SelectionKey key = selected.next();
+                        selected.remove();
+                        serve(key);
+                    }
+                }
+            } catch (IOException e) {
+                // The selector failed, so the connections of this loop are closed below
+            } finally {
+                closeAll();
+            }
+        }
+
+        /**
+         * Registers the connections handed to this loop since the last select.
+         *
+         * @throws ClosedChannelException if a connection was closed meanwhile.
+         */
+        private void registerNewChannels() throws ClosedChannelException {
+            SocketChannel channel;
+            while ((channel = newChannels.poll()) != null) {
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel, this));
+            }
+        }
+
+        /**
+         * Sends the replies handed over by the session executor since the last
+         * select. Replies to connections closed meanwhile are dropped.
+         */
+        private void flushReplies() {
+            Connection connection;
+            while ((connection = flushRequests.poll()) != null) {
+                SelectionKey key = connection.channel.keyFor(selector);
+                if (key == null || !key.isValid()) {
+                    continue;
+                }
+                ByteBuffer reply;
+                while ((reply = connection.replies.poll()) != null) {
+                    connection.output.add(reply);
+                }
+                try {
+                    process(key, connection);
+                } catch (IOException e) {
+                    close(key);
+                }
+            }
+        }
+
+        /**
+         * Reads and writes a ready connection, closing it if it fails.
+         *
+         * @param key The selection key of the connection.
+         */
+        private void serve(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isValid() && key.isReadable() && connection.channel.read(connection.input) < 0) {
+                    close(key);
+                    return;
+                }
+                if (key.isValid()) {
+                    process(key, connection);
+                }
+            } catch (IOException e) {
+                close(key);
+            }
+        }
+
+        /**
+         * Executes the complete commands received on a connection, as long as
+         * it has room for more unanswered commands, and sends the responses.
+         * Commands beyond that stay in the input buffer until responses have
+         * been written, and are executed as soon as there is room again.
+         *
+         * @param key        The selection key of the connection.
+         * @param connection The connection.
+         * @throws IOException if the connection fails.
+         */
+        private void process(SelectionKey key, Connection connection) throws IOException {
+            ByteBuffer input = connection.input;
+            boolean full;
+            do {
+                input.flip();
+                while (connection.unanswered < MAX_UNANSWERED) {
+                    int length = RegisterProtocol.peekLength(input);
+                    if (length == 0 || length > RegisterProtocol.MAX_FRAME_LENGTH) {
+                        close(key);
+                        return;
+                    }
+                    if (length < 0 || input.remaining() < RegisterProtocol.LENGTH_BYTES + length) {
+                        break;
+                    }
+                    input.getShort();
+                    byte code = input.get();
+                    String payload = RegisterProtocol.readPayload(input, length - 1);
+                    execute(connection, code, payload);
+                }
+                full = connection.unanswered >= MAX_UNANSWERED;
+                input.compact();
+                flush(key, connection);
+            } while (full && connection.unanswered < MAX_UNANSWERED);
+        }
+
+        /**
+         * Writes as many pending responses as the connection accepts, and
+         * waits for the connection to become writable if some remain. Reading
+         * is paused while the connection has too many unanswered commands.
+         *
+         * @param key        The selection key of the connection.
+         * @param connection The connection.
+         * @throws IOException if the connection fails.
+         */
+        private void flush(SelectionKey key, Connection connection) throws IOException {
+            ByteBuffer pending;
+            while ((pending = connection.output.peek()) != null) {
+                connection.channel.write(pending);
+                if (pending.hasRemaining()) {
+                    break;
+                }
+                connection.output.poll();
+                connection.unanswered--;
+            }
+            int interest = connection.unanswered < MAX_UNANSWERED ? SelectionKey.OP_READ : 0;
+            key.interestOps(connection.output.isEmpty() ? interest : interest | SelectionKey.OP_WRITE);
+        }
+
+        /**
+         * Closes a connection. The session of its lane is kept.
+         *
+         * @param key The selection key of the connection.
+         */
+        private void close(SelectionKey key) {
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // The connection is being discarded
+            }
+        }
+
+        /**
+         * Closes every connection of this loop and its selector.
+         */
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            SocketChannel channel;
+            while ((channel = newChannels.poll()) != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // The connection is being discarded
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // The selector is being discarded
+            }
+        }
+    }
+}
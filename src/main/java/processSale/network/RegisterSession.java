@@ -0,0 +1,199 @@
+package src.main.java.processSale.network;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import src.main.java.processSale.controller.Controller;
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.view.SaleDisplay;
+
+/**
+ * The server side of one lane. Translates protocol commands into calls to the
+ * lane's own {@link Controller}, and collects what the controller displays
+ * into the response. A session outlives its connection, so a scanner that
+ * reconnects continues its sale.
+ *
+ * When the server runs commands off its I/O threads, each session works like
+ * an actor: commands are queued in the session's mailbox, and at most one task
+ * at a time drains the mailbox on the executor. An idle session holds no
+ * thread, however long its sale stays open.
+ */
+class RegisterSession implements SaleDisplay {
+    private final String laneID;                                          // The lane served by this session
+    private final Controller controller;                                  // The controller of the lane
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>(); // Commands waiting to run
+    private final AtomicBoolean draining = new AtomicBoolean();           // Set while a task drains the mailbox
+    private String displayed;                                             // What the controller displayed during the current command
+
+    /**
+     * Creates a new session.
+     *
+     * @param laneID     The lane served by the session.
+     * @param controller The controller of the lane. Its view is set to the
+     *                   session.
+     */
+    RegisterSession(String laneID, Controller controller) {
+        this.laneID = laneID;
+        this.controller = controller;
+        controller.setView(this);
+    }
+
+    /**
+     * Retrieves the lane served by this session.
+     *
+     * @return The lane ID.
+     */
+    String getLaneID() {
+        return laneID;
+    }
+
+    /**
+     * Queues a command, to be executed on an executor after the commands
+     * queued before it.
+     *
+     * @param code     The command code.
+     * @param payload  The command payload.
+     * @param executor The executor that drains the mailbox.
+     * @param reply    Receives the encoded response frame, on the executor.
+     */
+    void submit(byte code, String payload, Executor executor, Consumer<ByteBuffer> reply) {
+        mailbox.add(() -> reply.accept(handle(code, payload)));
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(executor));
+        }
+    }
+
+    /**
+     * Executes the queued commands in order until the mailbox is empty.
+     *
+     * @param executor The executor running the drain, used to resume draining
+     *                 if a command was queued just as the mailbox emptied.
+     */
+    private void drain(Executor executor) {
+        try {
+            Runnable command;
+            while ((command = mailbox.poll()) != null) {
+                command.run();
+            }
+        } finally {
+            draining.set(false);
+        }
+        if (!mailbox.isEmpty() && draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(executor));
+        }
+    }
+
+    /**
+     * Executes one command. Commands of a session are executed one at a time,
+     * even if the lane is connected twice. A command that fails unexpectedly
+     * is answered with an error, so the lane can go on with its next command.
+     *
+     * @param code    The command code.
+     * @param payload The command payload.
+     * @return The encoded response frame.
+     */
+    synchronized ByteBuffer handle(byte code, String payload) {
+        displayed = null;
+        try {
+            if (needsSale(code) && !controller.isSaleInProgress()) {
+                return respond(RegisterProtocol.ERROR, "No sale in progress.");
+            }
+            switch (code) {
+                case RegisterProtocol.HELLO:
+                    return respond(RegisterProtocol.ERROR, "Lane " + laneID + " is already open.");
+                case RegisterProtocol.START:
+                    controller.startSale();
+                    return respond(RegisterProtocol.OK, "Sale started.");
+                case RegisterProtocol.SCAN:
+                    controller.registerItem(payload);
+                    return respondWithDisplayed("Item could not be registered.");
+                case RegisterProtocol.END:
+                    controller.endSale(payload.isEmpty() ? null : payload);
+                    return respondWithDisplayed("Sale could not be ended.");
+                case RegisterProtocol.PAY:
+                    controller.processSale(new BigDecimal(payload));
+                    return respondWithDisplayed("Payment was not accepted.");
+                default:
+                    return respond(RegisterProtocol.ERROR, "Unknown command " + code + ".");
+            }
+        } catch (ItemNotFoundException e) {
+            return respond(RegisterProtocol.NOT_FOUND, e.getMessage());
+        } catch (NumberFormatException e) {
+            return respond(RegisterProtocol.ERROR, "Invalid amount: " + payload);
+        } catch (RuntimeException e) {
+            return respond(RegisterProtocol.ERROR, "The command could not be executed.");
+        }
+    }
+
+    /**
+     * Tells whether a command can only be executed during a sale.
+     *
+     * @param code The command code.
+     * @return {@code true} for the commands that register items, end or pay
+     *         for the sale.
+     */
+    private static boolean needsSale(byte code) {
+        return code == RegisterProtocol.SCAN || code == RegisterProtocol.END || code == RegisterProtocol.PAY;
+    }
+
+    /**
+     * Encodes a response, shortening its message if it would not fit in one
+     * frame.
+     *
+     * @param status  The status code.
+     * @param message The message.
+     * @return The encoded response frame.
+     */
+    private static ByteBuffer respond(byte status, String message) {
+        return RegisterProtocol.encode(status, RegisterProtocol.fit(message));
+    }
+
+    /**
+     * Creates the response of a command whose result is shown on the display.
+     *
+     * @param failure The message to send if nothing was displayed, which means
+     *                the controller handled an error.
+     * @return The encoded response frame.
+     */
+    private ByteBuffer respondWithDisplayed(String failure) {
+        if (displayed == null) {
+            return respond(RegisterProtocol.REJECTED, failure);
+        }
+        return respond(RegisterProtocol.OK, displayed);
+    }
+
+    /**
+     * Collects the description of an added item for the response.
+     *
+     * @param addedItem A string describing the item that was added.
+     */
+    @Override
+    public void displayAddedItem(String addedItem) {
+        displayed = addedItem;
+    }
+
+    /**
+     * Collects the total price for the response.
+     *
+     * @param totalPrice The total price of the sale.
+     */
+    @Override
+    public void displayTotalPrice(BigDecimal totalPrice) {
+        displayed = totalPrice.toPlainString();
+    }
+
+    /**
+     * Collects the change for the response.
+     *
+     * @param change The change to give back to the customer.
+     */
+    @Override
+    public void displayChange(BigDecimal change) {
+        displayed = change.toPlainString();
+    }
+}
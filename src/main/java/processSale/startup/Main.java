@@ -1,8 +1,23 @@
 package src.main.java.processSale.startup;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import src.main.java.processSale.concurrent.ThreadPools;
 import src.main.java.processSale.controller.*;
 import src.main.java.processSale.integration.*;
+import src.main.java.processSale.model.BestSellerSketch;
 import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.monitoring.MetricsHttpServer;
+import src.main.java.processSale.monitoring.PrometheusExporter;
+import src.main.java.processSale.monitoring.SaleMetrics;
 import src.main.java.processSale.view.*;
 
 /**
@@ -10,33 +25,291 @@ import src.main.java.processSale.view.*;
  * necessary components such as the printer, inventory system, discount system,
  * and accounting system. These components are passed to the Controller, which
  * manages the application's operations. The View is also initialized to handle
- * user interactions and start the process of awaiting inputs.
+ * user interactions and start the process of awaiting inputs. Independent
+ * components are initialized in parallel by a {@link StartupOrchestrator}, and
+ * the ones the register can work without for a while are loaded after it is
+ * ready to scan.
  */
 public class Main {
+    private static final String METRICS_PORT_PROPERTY = "processSale.metrics.port";
+    private static final int DEFAULT_METRICS_PORT = 9464;
+    private static final String METRICS_HOST_PROPERTY = "processSale.metrics.host";
+    private static final String INVENTORY_URL_PROPERTY = "processSale.inventory.url";
+    private static final Duration INVENTORY_TIMEOUT = Duration.ofSeconds(2);
+    private static final int INVENTORY_CACHE_CAPACITY = 10_000;
+    private static final Duration INVENTORY_CACHE_TTL = Duration.ofMinutes(5);
+    private static final int BREAKER_FAILURE_THRESHOLD = 3;
+    private static final Duration BREAKER_OPEN_DURATION = Duration.ofSeconds(30);
+    private static final Duration BREAKER_CALL_TIMEOUT = Duration.ofSeconds(1);
+    private static final String OFFLINE_DIR_PROPERTY = "processSale.offline.dir";
+    private static final int OFFLINE_BATCH_SIZE = 50;
+    private static final Duration OFFLINE_INITIAL_BACKOFF = Duration.ofMillis(500);
+    private static final Duration OFFLINE_MAX_BACKOFF = Duration.ofMinutes(1);
+    private static final String DEAD_LETTER_SUFFIX = ".dead";
+    private static final String PRINTER_FILE_PROPERTY = "processSale.printer.file";
+    private static final int SPOOLER_CAPACITY = 32;
+    private static final Duration SPOOLER_SUBMIT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration SPOOLER_INITIAL_BACKOFF = Duration.ofMillis(200);
+    private static final Duration SPOOLER_MAX_BACKOFF = Duration.ofSeconds(10);
+    private static final Duration PRINT_TIME = Duration.ofMillis(300);
+    private static final String ARCHIVE_DIR_PROPERTY = "processSale.archive.dir";
+    private static final int ARCHIVE_CAPACITY = 10_000;
+    private static final long ARCHIVE_SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final int CUSTOMER_CACHE_CAPACITY = 10_000;
+    private static final Duration CUSTOMER_CACHE_TTL = Duration.ofMinutes(10);
+    private static final Duration CUSTOMER_NEGATIVE_TTL = Duration.ofMinutes(1);
+
     /**
-     * The main method initializes the application and starts the user interaction.
+     * The main method initializes the application, prints a startup timing
+     * breakdown and starts the user interaction.
      * 
      * @param args Command-line arguments (not used).
      */
     public static void main(String[] args) {
         System.out.println("---------- Application Startup ----------");
+        StartupOrchestrator startup = new StartupOrchestrator(ThreadPools.newPerTaskExecutor("startup"));
 
-        // Initialize external systems
-        Printer printer = new Printer();
-        Inventory inventory = new Inventory();
-        Discount discount = new Discount();
-        Account account = new Account();
+        // Initialize the external systems and the cash register in parallel
+        CompletableFuture<Printer> printer = startup.start("Printer",
+                () -> createPrinter(createSpooler(), "register-1"));
+        CompletableFuture<Inventory> inventory = startup.start("Inventory", Inventory::new);
+        CompletableFuture<Discount> discount = startup.start("Discount", Discount::new);
+        CompletableFuture<Account> account = startup.start("Account", Account::new);
+        CompletableFuture<RegisterCashCompartment> cashRegister = startup.start("Cash register",
+                RegisterCashCompartment::new);
+        CompletableFuture<InventoryClient> inventoryClient = inventory.thenApply(Main::createInventoryClient);
+        CircuitBreaker accountingBreaker = createBreaker("External Accounting System");
+        CircuitBreaker printerBreaker = createPrinterBreaker();
+        CompletableFuture<ReceiptArchive> receiptArchive = startup.start("Receipt archive",
+                Main::createReceiptArchive);
+        CompletableFuture<OfflineSaleQueue> accountingQueue = startup.start("Accounting journal",
+                () -> createOfflineQueue("External Accounting System", "accounting.journal",
+                        sale -> accountingBreaker.call(() -> {
+                            account.join().accountSale(sale);
+                            return null;
+                        })));
+        CompletableFuture<OfflineSaleQueue> inventoryQueue = startup.start("Inventory journal",
+                () -> createOfflineQueue("External Inventory System", "inventory.journal",
+                        sale -> inventoryClient.join().updateInventory(sale)));
 
-        // Initialize observer and cash register
-        RegisterCashCompartment cashRegister = new RegisterCashCompartment();
+        // Initialize the controller and view once the systems they need are up
+        SaleMetrics metrics = new SaleMetrics();
+        Controller controller = startup.run("Controller", () -> {
+            Controller created = new Controller(printer.join(), inventoryClient.join(), discount.join(),
+                    account.join(), cashRegister.join());
+            created.setBestSellerSketch(new BestSellerSketch());
+            created.setAccountingBreaker(accountingBreaker);
+            created.setPrinterBreaker(printerBreaker);
+            created.setReceiptArchive(receiptArchive.join());
+            created.setOfflineQueues(accountingQueue.join(), inventoryQueue.join());
+            created.setMetrics(metrics);
+            return created;
+        });
+        View view = startup.run("View", () -> new View(controller));
 
-        // Initialize the controller and view
-        Controller controller = new Controller(printer, inventory, discount, account, cashRegister);
-        View view = new View(controller);
+        // Load what the register can do without for a while in the background
+        startup.defer("Search index", () -> controller.setSearchIndex(inventory.join().createSearchIndex()));
+        startup.defer("Customer registry", () -> controller.setCustomerRegistry(createCustomerRegistry()));
+        startup.defer("Metrics endpoint",
+                () -> startMetricsServer(new PrometheusExporter(metrics, cashRegister.join(), inventory.join())));
+        startup.ready();
+        System.out.print(startup.report());
+        startup.whenDone().thenRun(() -> System.out.print("Background startup complete.\n" + startup.report()));
 
         System.out.println("---------- Startup Complete ----------\n");
 
         // Start the user interaction
         view.awaitInputs();
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates the client of the inventory system. If the
+     * {@value #INVENTORY_URL_PROPERTY} system property is set, items are
+     * looked up in the remote inventory system at that address, through a
+     * read-through cache and a circuit breaker, and the local inventory answers
+     * while the remote one cannot be reached. Only answers from the remote
+     * inventory are cached, so its prices are used as soon as it can be reached
+     * again. Otherwise the local inventory is used.
+     *
+     * @param localInventory The inventory loaded from the local file.
+     * @return The inventory client the controllers should use.
+     */
+    static InventoryClient createInventoryClient(Inventory localInventory) {
+        String url = System.getProperty(INVENTORY_URL_PROPERTY);
+        if (url == null || url.isBlank()) {
+            return localInventory;
+        }
+        System.out.println("Using the inventory system at " + url);
+        InventoryClient remote = new ResilientInventoryClient(
+                new RemoteInventoryClient(URI.create(url), INVENTORY_TIMEOUT),
+                createBreaker("External Inventory System"), null);
+        return new CachingInventoryClient(remote, localInventory, INVENTORY_CACHE_CAPACITY, INVENTORY_CACHE_TTL);
+    }
+
+    /**
+     * Creates and starts the spooler of the receipt printer, if the
+     * {@value #PRINTER_FILE_PROPERTY} system property names the file of the
+     * stand-in printer. Each receipt takes {@code PRINT_TIME} to print.
+     *
+     * @return The started spooler, or {@code null} if receipts are printed to
+     *         the console or the printer file cannot be opened.
+     */
+    static PrinterSpooler createSpooler() {
+        String file = System.getProperty(PRINTER_FILE_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        try {
+            PrinterSpooler spooler = new PrinterSpooler("Receipt Printer",
+                    new FilePrinterDevice(Path.of(file), PRINT_TIME), SPOOLER_CAPACITY, SPOOLER_SUBMIT_TIMEOUT,
+                    SPOOLER_INITIAL_BACKOFF, SPOOLER_MAX_BACKOFF);
+            spooler.start();
+            System.out.println("Printing receipts to " + file);
+            return spooler;
+        } catch (IOException e) {
+            System.out.println("The printer file could not be opened, printing receipts to the console: "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Opens and starts the receipt archive, if the
+     * {@value #ARCHIVE_DIR_PROPERTY} system property names its directory.
+     *
+     * @return The started archive, or {@code null} if no receipts are kept or
+     *         the archive cannot be opened.
+     */
+    static ReceiptArchive createReceiptArchive() {
+        String directory = System.getProperty(ARCHIVE_DIR_PROPERTY);
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        try {
+            ReceiptArchive archive = new ReceiptArchive(Path.of(directory), ARCHIVE_CAPACITY, ARCHIVE_SEGMENT_BYTES);
+            archive.start();
+            System.out.println("Archiving receipts in " + directory + ", " + archive.getSegmentCount()
+                    + " segments.");
+            return archive;
+        } catch (IOException e) {
+            System.out.println("The receipt archive could not be opened: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Creates the printer of a register.
+     *
+     * @param spooler    The spooler of the receipt printer, or {@code null} to
+     *                   print receipts to the console.
+     * @param registerID The unique identifier of the register.
+     * @return The printer.
+     */
+    static Printer createPrinter(PrinterSpooler spooler, String registerID) {
+        if (spooler == null) {
+            return new Printer();
+        }
+        return new Printer(new ReceiptRenderer(spooler.channelFor(registerID)));
+    }
+
+    /**
+     * Creates the client of the customer registry: the file-based stand-in
+     * behind a cache that remembers members for
+     * {@value #CUSTOMER_CACHE_CAPACITY} customers, and customers who are not
+     * members for a shorter time.
+     *
+     * @return The customer registry the controllers should use.
+     */
+    static CustomerRegistry createCustomerRegistry() {
+        return new CachingCustomerRegistry(new CustomerDatabase(), CUSTOMER_CACHE_CAPACITY, CUSTOMER_CACHE_TTL,
+                CUSTOMER_NEGATIVE_TTL);
+    }
+
+    /**
+     * Creates the circuit breaker guarding an external system. The breaker
+     * opens after {@value #BREAKER_FAILURE_THRESHOLD} failures in a row.
+     *
+     * @param systemName The name of the guarded system.
+     * @return The circuit breaker.
+     */
+    static CircuitBreaker createBreaker(String systemName) {
+        return new CircuitBreaker(systemName, BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_DURATION,
+                BREAKER_CALL_TIMEOUT);
+    }
+
+    /**
+     * Creates the circuit breaker of the receipt printer. Its calls have no
+     * deadline of their own and run on the calling thread, so receipts are
+     * still printed in order. A printer behind a spooler already gives up
+     * after {@code SPOOLER_SUBMIT_TIMEOUT} when its queue stays full.
+     *
+     * @return The circuit breaker.
+     */
+    static CircuitBreaker createPrinterBreaker() {
+        return new CircuitBreaker("Receipt Printer", BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_DURATION, null);
+    }
+
+    /**
+     * Creates and starts the offline queue of an external system, if the
+     * {@value #OFFLINE_DIR_PROPERTY} system property names the directory to
+     * keep the journals in. Sales queued by an earlier run that were not
+     * delivered are delivered first. Sales the system keeps refusing are moved
+     * to a dead-letter journal next to the journal of the system.
+     *
+     * @param systemName  The name of the external system.
+     * @param fileName    The name of the journal file of the system.
+     * @param destination Delivers one sale to the external system.
+     * @return The started queue, or {@code null} if offline mode is not
+     *         enabled or the journal cannot be opened.
+     */
+    static OfflineSaleQueue createOfflineQueue(String systemName, String fileName,
+            Consumer<SaleSummaryDTO> destination) {
+        String directory = System.getProperty(OFFLINE_DIR_PROPERTY);
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        try {
+            SaleJournal journal = new SaleJournal(Path.of(directory, fileName));
+            SaleJournal deadLetters = new SaleJournal(Path.of(directory, fileName + DEAD_LETTER_SUFFIX));
+            OfflineSaleQueue queue = new OfflineSaleQueue(systemName, journal, deadLetters, destination,
+                    OFFLINE_BATCH_SIZE, OFFLINE_INITIAL_BACKOFF, OFFLINE_MAX_BACKOFF);
+            queue.start();
+            System.out.println("Offline mode for " + systemName + ", " + queue.getPendingCount()
+                    + " queued sales.");
+            return queue;
+        } catch (IOException e) {
+            System.out.println("Offline journal for " + systemName + " could not be opened: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Starts the HTTP endpoint serving the metrics on the port given by the
+     * {@value #METRICS_PORT_PROPERTY} system property, or port
+     * {@value #DEFAULT_METRICS_PORT}. A port of 0 or less disables the endpoint.
+     * The endpoint only accepts connections from this machine, unless the
+     * {@value #METRICS_HOST_PROPERTY} system property names another address to
+     * bind, such as {@code 0.0.0.0} for every interface. The application keeps
+     * running without the endpoint if the port is taken or the address is
+     * unknown.
+     *
+     * @param exporter The exporter that formats the metrics.
+     */
+    private static void startMetricsServer(PrometheusExporter exporter) {
+        int port = Integer.getInteger(METRICS_PORT_PROPERTY, DEFAULT_METRICS_PORT);
+        if (port <= 0) {
+            return;
+        }
+        String host = System.getProperty(METRICS_HOST_PROPERTY);
+        try {
+            InetAddress address = host == null || host.isBlank() ? InetAddress.getLoopbackAddress()
+                    : InetAddress.getByName(host);
+            MetricsHttpServer server = new MetricsHttpServer(new InetSocketAddress(address, port), exporter);
+            server.start();
+            System.out.println("Metrics available at http://" + address.getHostAddress() + ":" + server.getPort()
+                    + "/metrics");
+        } catch (IOException e) {
+            System.out.println("Metrics endpoint could not be started on port " + port + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package src.main.java.processSale.startup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+
+import src.main.java.processSale.concurrent.ExecutionMode;
+import src.main.java.processSale.controller.Controller;
+import src.main.java.processSale.integration.*;
+import src.main.java.processSale.model.BestSellerSketch;
+import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.monitoring.SaleMetrics;
+import src.main.java.processSale.network.RegisterServer;
+import src.main.java.processSale.view.TotalRevenueView;
+
+/**
+ * Starts the application as a network server that scanner clients connect to,
+ * instead of the console interface. The inventory, discount and accounting
+ * systems, the best-seller sketch and the metrics are shared by all lanes,
+ * while each lane gets its own controller, printer and cash register. The
+ * execution mode decides where the commands of each lane and the steps after
+ * a payment run, see {@link ExecutionMode}.
+ */
+public class ServerMain {
+    private static final int DEFAULT_PORT = 7070;
+    private static final int DEFAULT_IO_THREADS = 2;
+    private static final ExecutionMode DEFAULT_MODE = ExecutionMode.INLINE;
+    private static final int POOL_THREADS = 16; // Threads of each pool in PLATFORM_POOL mode
+
+    /**
+     * Starts the server and keeps running until the process is stopped.
+     *
+     * @param args The port, the number of I/O threads and the execution mode,
+     *             by default {@value #DEFAULT_PORT}, {@value #DEFAULT_IO_THREADS}
+     *             and {@code inline}. The mode is one of {@code inline},
+     *             {@code platform_pool} and {@code virtual_threads}.
+     * @throws IOException          if the port cannot be bound.
+     * @throws InterruptedException if the main thread is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.out.println("---------- Server Startup ----------");
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int ioThreads = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_IO_THREADS;
+        ExecutionMode mode = args.length > 2 ? ExecutionMode.valueOf(args[2].toUpperCase(Locale.ROOT)) : DEFAULT_MODE;
+        ExecutorService sessionExecutor = mode.newExecutor(POOL_THREADS, "register-session");
+        // A separate executor, so post-payment steps never wait for a pool thread held by their own session
+        ExecutorService postPaymentExecutor = mode.newExecutor(POOL_THREADS, "post-payment");
+
+        InventoryClient inventory = Main.createInventoryClient(new Inventory());
+        Discount discount = new Discount();
+        Account account = new Account();
+        BestSellerSketch bestSellers = new BestSellerSketch();
+        SaleMetrics metrics = new SaleMetrics();
+        CustomerRegistry customerRegistry = Main.createCustomerRegistry();
+        // One spooler per physical printer, shared by all lanes
+        PrinterSpooler spooler = Main.createSpooler();
+        // One archive for the store, so sale IDs are unique across lanes
+        ReceiptArchive receiptArchive = Main.createReceiptArchive();
+        // One breaker per external system, shared by all lanes
+        CircuitBreaker accountingBreaker = Main.createBreaker("External Accounting System");
+        CircuitBreaker printerBreaker = Main.createPrinterBreaker();
+        OfflineSaleQueue accountingQueue = Main.createOfflineQueue("External Accounting System",
+                "accounting.journal", sale -> accountingBreaker.call(() -> {
+                    account.accountSale(sale);
+                    return null;
+                }));
+        OfflineSaleQueue inventoryQueue = Main.createOfflineQueue("External Inventory System", "inventory.journal",
+                inventory::updateInventory);
+
+        RegisterServer server = new RegisterServer(new InetSocketAddress(port), ioThreads, sessionExecutor, laneID -> {
+            RegisterCashCompartment cashRegister = new RegisterCashCompartment();
+            cashRegister.addObserver(new TotalRevenueView());
+            Controller controller = new Controller(Main.createPrinter(spooler, laneID), inventory, discount, account,
+                    cashRegister);
+            controller.setRegisterID(laneID);
+            controller.setBestSellerSketch(bestSellers);
+            controller.setMetrics(metrics);
+            controller.setPostPaymentExecutor(postPaymentExecutor);
+            controller.setAccountingBreaker(accountingBreaker);
+            controller.setPrinterBreaker(printerBreaker);
+            controller.setCustomerRegistry(customerRegistry);
+            controller.setReceiptArchive(receiptArchive);
+            controller.setOfflineQueues(accountingQueue, inventoryQueue);
+            return controller;
+        });
+        server.start();
+        System.out.println("Listening for scanners on port " + server.getPort() + " (" + mode + ").");
+        System.out.println("---------- Startup Complete ----------\n");
+
+        // The server threads are daemons, so keep the main thread alive
+        Thread.currentThread().join();
+    }
+}
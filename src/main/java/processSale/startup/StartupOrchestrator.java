@@ -0,0 +1,230 @@
+package src.main.java.processSale.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Starts the subsystems of a register and times each of them, so a rebooted
+ * till is ready to scan as soon as possible.
+ * <ul>
+ * <li>Subsystems that do not depend on each other are started in parallel
+ * with {@link #start(String, Supplier)}, and the subsystems that need them
+ * are built on the calling thread with {@link #run(String, Supplier)} once
+ * their futures complete.</li>
+ * <li>Subsystems the register can work without for a while, such as the item
+ * search index, are registered with {@link #defer(String, Runnable)} and
+ * only started once {@link #ready()} is called, so they do not delay the
+ * first scan.</li>
+ * </ul>
+ * {@link #report()} gives a breakdown of when each subsystem started and how
+ * long it took. This class is thread-safe.
+ */
+public class StartupOrchestrator {
+    private static final String DEFERRED = "background";
+    private static final long NOT_YET = Long.MIN_VALUE;
+
+    private final ExecutorService executor;                        // Runs the parallel and deferred steps
+    private final long startNanos;                                 // When the orchestrator was created
+    private final List<Step> steps = new CopyOnWriteArrayList<>(); // Every step, in the order it was added
+    private final List<Runnable> waiting = new ArrayList<>();      // Deferred steps not yet started, guarded by this
+    private final List<CompletableFuture<?>> futures;              // Steps started on the executor
+    private long readyNanos = -1;                                  // When the register was ready, guarded by this
+
+    /**
+     * Creates a new orchestrator. Times are measured from its creation.
+     *
+     * @param executor The executor that runs the parallel and deferred steps.
+     *                 It should have a thread for each step that runs at the
+     *                 same time, since steps may wait for each other.
+     */
+    public StartupOrchestrator(ExecutorService executor) {
+        this.executor = executor;
+        this.startNanos = System.nanoTime();
+        this.futures = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Starts a step on the executor at once, in parallel with the other
+     * steps.
+     *
+     * @param <T>  The type of the started subsystem.
+     * @param name The name of the subsystem, shown in the report.
+     * @param task Creates the subsystem.
+     * @return The future subsystem.
+     */
+    public <T> CompletableFuture<T> start(String name, Supplier<T> task) {
+        Step step = new Step(name, null);
+        steps.add(step);
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> step.time(task), executor);
+        futures.add(future);
+        return future;
+    }
+
+    /**
+     * Runs a step on the calling thread.
+     *
+     * @param <T>  The type of the created subsystem.
+     * @param name The name of the subsystem, shown in the report.
+     * @param task Creates the subsystem.
+     * @return The subsystem.
+     */
+    public <T> T run(String name, Supplier<T> task) {
+        Step step = new Step(name, null);
+        steps.add(step);
+        return step.time(task);
+    }
+
+    /**
+     * Registers a step that is started on the executor once the register is
+     * ready, or at once if it already is.
+     *
+     * @param name The name of the subsystem, shown in the report.
+     * @param task Creates and installs the subsystem.
+     */
+    public void defer(String name, Runnable task) {
+        Step step = new Step(name, DEFERRED);
+        steps.add(step);
+        Runnable launch = () -> futures.add(CompletableFuture.runAsync(() -> step.time(() -> {
+            task.run();
+            return null;
+        }), executor));
+        synchronized (this) {
+            if (readyNanos < 0) {
+                waiting.add(launch);
+                return;
+            }
+        }
+        launch.run();
+    }
+
+    /**
+     * Records that the register is ready to scan, and starts the deferred
+     * steps.
+     *
+     * @return The time from the creation of the orchestrator until ready, in
+     *         milliseconds.
+     */
+    public long ready() {
+        List<Runnable> launches;
+        synchronized (this) {
+            if (readyNanos < 0) {
+                readyNanos = System.nanoTime();
+            }
+            launches = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        launches.forEach(Runnable::run);
+        return getReadyMillis();
+    }
+
+    /**
+     * Retrieves the time from the creation of the orchestrator until the
+     * register was ready.
+     *
+     * @return The time in milliseconds, or -1 if the register is not ready.
+     */
+    public synchronized long getReadyMillis() {
+        return readyNanos < 0 ? -1 : (readyNanos - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Retrieves a future that completes when every step started so far has
+     * finished, whether or not it failed.
+     *
+     * @return The future.
+     */
+    public CompletableFuture<Void> whenDone() {
+        CompletableFuture<?>[] started = futures.toArray(new CompletableFuture<?>[0]);
+        return CompletableFuture.allOf(started).handle((result, failure) -> null);
+    }
+
+    /**
+     * Formats a breakdown of the steps: when each started, relative to the
+     * creation of the orchestrator, how long it took, and the thread it ran
+     * on. Steps that are still running or waiting are shown as such.
+     *
+     * @return The report, one line per step.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        long readyMillis = getReadyMillis();
+        report.append("Startup timing, ");
+        report.append(readyMillis < 0 ? "not ready yet" : "ready to scan in " + readyMillis + " ms");
+        report.append(" (JVM up ").append(ManagementFactory.getRuntimeMXBean().getUptime()).append(" ms):\n");
+        for (Step step : steps) {
+            report.append(step.format(startNanos)).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * The timing of one startup step.
+     */
+    private static class Step {
+        private final String name;          // The name of the subsystem
+        private final String note;          // Shown after the timing, or null
+        private volatile long beganNanos = NOT_YET; // When the step began
+        private volatile long endedNanos = NOT_YET; // When the step ended
+        private volatile String threadName; // The thread the step ran on
+        private volatile boolean failed;    // Set if the step threw an exception
+
+        /**
+         * Creates a step that has not begun.
+         *
+         * @param name The name of the subsystem.
+         * @param note Shown after the timing, or {@code null}.
+         */
+        Step(String name, String note) {
+            this.name = name;
+            this.note = note;
+        }
+
+        /**
+         * Runs the task of the step and records when it began and ended.
+         *
+         * @param <T>  The type of the result.
+         * @param task The task.
+         * @return The result of the task.
+         */
+        <T> T time(Supplier<T> task) {
+            threadName = Thread.currentThread().getName();
+            beganNanos = System.nanoTime();
+            try {
+                return task.get();
+            } catch (RuntimeException | Error e) {
+                failed = true;
+                throw e;
+            } finally {
+                endedNanos = System.nanoTime();
+            }
+        }
+
+        /**
+         * Formats the step as a line of the report.
+         *
+         * @param originNanos The time the offsets are measured from.
+         * @return The line.
+         */
+        String format(long originNanos) {
+            long began = beganNanos;
+            long ended = endedNanos;
+            String timing;
+            if (began == NOT_YET) {
+                timing = String.format("%9s %10s", "-", "waiting");
+            } else if (ended == NOT_YET) {
+                timing = String.format("+%5d ms %10s", (began - originNanos) / 1_000_000, "running");
+            } else {
+                timing = String.format("+%5d ms %7d ms", (began - originNanos) / 1_000_000,
+                        (ended - began) / 1_000_000);
+            }
+            String thread = threadName == null || threadName.isEmpty() ? "" : "  " + threadName;
+            String suffix = (failed ? "  failed" : "") + (note == null ? "" : "  (" + note + ")");
+            return String.format("  %-22s %s%s%s", name, timing, thread, suffix);
+        }
+    }
+}
@@ -11,12 +11,17 @@ import src.main.java.processSale.model.ItemNotFoundException;
  * Provides a simple way to interact with the system for testing.
  */
 class InputHandler {
+    private static final int BEST_SELLERS_SHOWN = 5;
+    private static final int SEARCH_RESULTS_SHOWN = 10;
+    private static final String SEARCH_PREFIX = "?";
+    private static final String CARD_PREFIX = "#";
     private final Controller controller;
+    private final View view;
     private final Outputs out = new Outputs();
 
     // Enum for main menu options
     private enum StartInputs {
-        AUTO, START, EXIT
+        AUTO, START, TOP, REVENUE, METRICS, EXIT
     }
 
     // Enum for register menu options
@@ -33,6 +38,9 @@ class InputHandler {
                     Enter:
                     AUTO - to automate real quick
                     START - to start new sale
+                    TOP - to show best-selling items
+                    REVENUE - to show recent revenue
+                    METRICS - to show operation latencies and error counts
                     EXIT - to exit program
                     """);
         }
@@ -41,6 +49,8 @@ class InputHandler {
             System.out.println("""
                     Enter:
                     [item identifier] - to register item
+                    ?[part of identifier or name] - to search for items
+                    #[customer identifier] - to scan a loyalty card
                     END - to end sale
                     EXIT - to exit program
                     """);
@@ -59,9 +69,11 @@ class InputHandler {
      * Creates a new InputHandler.
      * 
      * @param controller The controller instance.
+     * @param view       The view used to display results.
      */
-    public InputHandler(Controller controller) {
+    public InputHandler(Controller controller, View view) {
         this.controller = controller;
+        this.view = view;
     }
 
     /**
@@ -95,6 +107,18 @@ class InputHandler {
                     controller.startSale();
                     yield 2;
                 }
+                case TOP -> {
+                    view.displayBestSellers(controller.getBestSellers(BEST_SELLERS_SHOWN));
+                    yield 1;
+                }
+                case REVENUE -> {
+                    view.displayRevenueWindows(controller.getRevenueWindows());
+                    yield 1;
+                }
+                case METRICS -> {
+                    view.displayMetrics(controller.getMetricsSnapshot());
+                    yield 1;
+                }
                 case EXIT -> 5;
             };
         }
@@ -111,12 +135,21 @@ class InputHandler {
         if (isValidInput(input, RegisterInputs.values())) {
             return switch (RegisterInputs.valueOf(input.toUpperCase())) {
                 case END -> {
-                    controller.endSale("null");
+                    controller.endSale(null);
                     yield 3;
                 }
                 case EXIT -> 5;
             };
         }
+        if (input.startsWith(SEARCH_PREFIX)) {
+            view.displaySearchResults(controller.searchItems(input.substring(SEARCH_PREFIX.length()),
+                    SEARCH_RESULTS_SHOWN));
+            return 2;
+        }
+        if (input.startsWith(CARD_PREFIX)) {
+            controller.identifyCustomer(input.substring(CARD_PREFIX.length()).trim());
+            return 2;
+        }
         try {
             controller.registerItem(input);
         } catch (ItemNotFoundException e) {
@@ -0,0 +1,44 @@
+package src.main.java.processSale.view;
+
+import java.math.BigDecimal;
+
+/**
+ * Receives the information the controller shows while a sale is in progress.
+ * Implemented by the console {@link View}, and by headless drivers that run
+ * the controller without a user interface.
+ */
+public interface SaleDisplay {
+    /**
+     * Displays information about an added item.
+     *
+     * @param addedItem A string describing the item that was added.
+     */
+    void displayAddedItem(String addedItem);
+
+    /**
+     * Displays the discount on a sale that has ended, before its total price.
+     * Only called when the sale has a discount. Does nothing by default, since
+     * the total price already includes the discount.
+     *
+     * @param discount The total discount on the sale.
+     */
+    default void displayDiscount(BigDecimal discount) {
+    }
+
+    /**
+     * Displays the total price after a sale has ended.
+     *
+     * @param totalPrice The total price of the sale.
+     */
+    void displayTotalPrice(BigDecimal totalPrice);
+
+    /**
+     * Displays the change to give back after a sale has been paid. Only called
+     * when the payment covered the total price. Does nothing by default, since
+     * the change is also printed on the receipt.
+     *
+     * @param change The change to give back to the customer.
+     */
+    default void displayChange(BigDecimal change) {
+    }
+}
@@ -1,8 +1,13 @@
 package src.main.java.processSale.view;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import src.main.java.processSale.controller.Controller;
+import src.main.java.processSale.model.dto.BestSellerDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.RevenueWindowsDTO;
+import src.main.java.processSale.monitoring.MetricsSnapshot;
 
 /**
  * The View class represents the user interface layer of the application.
@@ -10,7 +15,7 @@ import src.main.java.processSale.controller.Controller;
  * information to the user. This class is responsible for initiating
  * actions and passing user inputs to the Controller.
  */
-public class View {
+public class View implements SaleDisplay {
     private final Controller controller;     // The controller instance used by this view
     private final InputHandler inputHandler; // A helper class for testing user interactions
 
@@ -26,7 +31,7 @@ public class View {
         this.controller = controller;
         controller.setView(this);
         controller.setObservers(new TotalRevenueView(), new TotalRevenueFileOutput());
-        inputHandler = new InputHandler(controller);
+        inputHandler = new InputHandler(controller, this);
     }
 
     /**
@@ -37,11 +42,22 @@ public class View {
         inputHandler.awaitInputs();
     }
 
+    /**
+     * Displays the discount on a sale that has ended to the user.
+     *
+     * @param discount The total discount on the sale.
+     */
+    @Override
+    public void displayDiscount(BigDecimal discount) {
+        System.out.printf("Discount: %.2f SEK%n", discount);
+    }
+
     /**
      * Displays the total price to the user after a sale has ended.
      *
      * @param totalPrice The total price of the sale to display.
      */
+    @Override
     public void displayTotalPrice(BigDecimal totalPrice) {
         System.out.printf("Sale ended. Total price: %.2f SEK%n", totalPrice);
     }
@@ -51,7 +67,70 @@ public class View {
      *
      * @param addedItem A string describing the item that was added.
      */
+    @Override
     public void displayAddedItem(String addedItem) {
         System.out.println(addedItem);
     }
+
+    /**
+     * Displays the items found by a search to the user.
+     *
+     * @param matches The matching items, best match first.
+     */
+    public void displaySearchResults(List<ItemDTO> matches) {
+        if (matches.isEmpty()) {
+            System.out.println("No matching items.");
+        }
+        for (ItemDTO item : matches) {
+            System.out.printf("%s (ID %s): %.2f SEK%n", item.getName(), item.getID(), item.getPrice());
+        }
+        System.out.println();
+    }
+
+    /**
+     * Displays the current best-selling items to the user.
+     *
+     * @param bestSellers The best sellers to display, ordered by quantity sold.
+     */
+    public void displayBestSellers(List<BestSellerDTO> bestSellers) {
+        System.out.println("Best sellers:");
+        if (bestSellers.isEmpty()) {
+            System.out.println("No sales recorded yet.");
+        }
+        int rank = 1;
+        for (BestSellerDTO bestSeller : bestSellers) {
+            System.out.printf("%d. %s (ID %s): ~%d sold%n", rank++, bestSeller.getItem().getName(),
+                    bestSeller.getItem().getID(), bestSeller.getEstimatedQuantity());
+        }
+        System.out.println();
+    }
+
+    /**
+     * Displays the revenue and number of payments during the last minute, the
+     * last hour and the current day.
+     *
+     * @param revenueWindows The revenue of each time window.
+     */
+    public void displayRevenueWindows(RevenueWindowsDTO revenueWindows) {
+        System.out.printf("Revenue last minute: %.2f SEK (%d payments)%n",
+                revenueWindows.getLastMinuteRevenue(), revenueWindows.getLastMinutePayments());
+        System.out.printf("Revenue last hour: %.2f SEK (%d payments)%n",
+                revenueWindows.getLastHourRevenue(), revenueWindows.getLastHourPayments());
+        System.out.printf("Revenue today: %.2f SEK (%d payments)%n%n",
+                revenueWindows.getTodayRevenue(), revenueWindows.getTodayPayments());
+    }
+
+    /**
+     * Displays the latency of each sale operation and the error counters.
+     *
+     * @param metrics The metrics to display, or {@code null} if no metrics are
+     *                recorded.
+     */
+    public void displayMetrics(MetricsSnapshot metrics) {
+        if (metrics == null) {
+            System.out.println("No metrics are recorded.\n");
+            return;
+        }
+        System.out.println(metrics.toText());
+    }
 }
\ No newline at end of file
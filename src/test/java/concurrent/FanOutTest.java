@@ -0,0 +1,113 @@
+package src.test.java.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.concurrent.ExecutionMode;
+import src.main.java.processSale.concurrent.FanOut;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the {@link FanOut} class.
+ */
+class FanOutTest {
+    private ExecutorService executor;
+
+    /**
+     * Creates a pool of platform threads before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        executor = ExecutionMode.PLATFORM_POOL.newExecutor(4, "fan-out-test");
+    }
+
+    /**
+     * Shuts the pool down after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests that every task has completed when runAll returns.
+     */
+    @Test
+    void testRunsAllTasks() {
+        AtomicInteger completed = new AtomicInteger();
+        FanOut.runAll(executor, completed::incrementAndGet, completed::incrementAndGet, completed::incrementAndGet);
+        assertEquals(3, completed.get(), "Every task should have completed.");
+    }
+
+    /**
+     * Tests that the tasks run concurrently, by letting each wait for the
+     * other.
+     */
+    @Test
+    void testTasksRunConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Runnable task = () -> {
+            bothStarted.countDown();
+            try {
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "The other task should have started.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        assertDoesNotThrow(() -> FanOut.runAll(executor, task, task), "Concurrent tasks should both complete.");
+    }
+
+    /**
+     * Tests that a failing task does not stop the others, and that its
+     * exception is rethrown once they have completed.
+     */
+    @Test
+    void testFailureWaitsForOthers() {
+        CountDownLatch failed = new CountDownLatch(1);
+        AtomicBoolean slowTaskCompleted = new AtomicBoolean();
+        Runnable slowTask = () -> {
+            try {
+                assertTrue(failed.await(5, TimeUnit.SECONDS), "The other task should have failed.");
+                Thread.sleep(100);
+                slowTaskCompleted.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Runnable failingTask = () -> {
+            failed.countDown();
+            throw new IllegalArgumentException("Printer jammed.");
+        };
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+                () -> FanOut.runAll(executor, slowTask, failingTask), "The failure should be rethrown.");
+        assertEquals("Printer jammed.", failure.getMessage(), "The original exception should be rethrown.");
+        assertTrue(slowTaskCompleted.get(), "The slow task should have completed before runAll returned.");
+    }
+
+    /**
+     * Tests that the failures of several tasks are all reported.
+     */
+    @Test
+    void testFailuresAreCollected() {
+        AtomicInteger completed = new AtomicInteger();
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> FanOut.runAll(executor,
+                        () -> {
+                            throw new IllegalStateException("Printer jammed.");
+                        },
+                        completed::incrementAndGet,
+                        () -> {
+                            throw new IllegalStateException("Inventory unreachable.");
+                        }),
+                "A failure should be rethrown.");
+        assertEquals(1, failure.getSuppressed().length, "The other failure should be suppressed in it.");
+        assertEquals(1, completed.get(), "The task that did not fail should have completed.");
+    }
+}
@@ -2,15 +2,32 @@ package src.test.java.controller;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import src.main.java.processSale.controller.Controller;
 import src.main.java.processSale.integration.*;
+import src.main.java.processSale.model.BestSellerSketch;
 import src.main.java.processSale.model.ItemNotFoundException;
 import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.model.dto.CustomerDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.monitoring.MetricsSnapshot;
+import src.main.java.processSale.monitoring.SaleMetrics;
+import src.main.java.processSale.monitoring.SaleOperation;
+import src.main.java.processSale.view.SaleDisplay;
 import src.main.java.processSale.view.View;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Unit tests for the {@link Controller} class.
@@ -156,4 +173,368 @@ class ControllerTest {
         assertDoesNotThrow(() -> controller.processSale(null),
                 "Processing a sale with null payment should not throw an exception.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the operations of a sale are timed and that scans, misses,
+     * connection errors and insufficient payments are counted.
+     */
+    @Test
+    void testMetrics() {
+        assertNull(controller.getMetricsSnapshot(), "There should be no snapshot before metrics are set.");
+        controller.setMetrics(new SaleMetrics());
+        controller.startSale();
+        assertDoesNotThrow(() -> controller.registerItem("1"),
+                "Registering a valid item should not throw an exception.");
+        assertDoesNotThrow(() -> controller.registerItem("error"),
+                "Registering an item that triggers a connection error should not throw an exception.");
+        assertThrows(ItemNotFoundException.class, () -> controller.registerItem("999"),
+                "Registering a non-existent item should throw an exception.");
+        controller.endSale("customer123");
+        controller.processSale(new BigDecimal(5.0));
+        controller.processSale(new BigDecimal(50.0));
+
+        MetricsSnapshot snapshot = controller.getMetricsSnapshot();
+        assertEquals(1, snapshot.getLatency(SaleOperation.START_SALE).getCount(), "startSale should be timed once.");
+        assertEquals(3, snapshot.getLatency(SaleOperation.REGISTER_ITEM).getCount(),
+                "Every registerItem call should be timed, including failed ones.");
+        assertEquals(1, snapshot.getLatency(SaleOperation.END_SALE).getCount(), "endSale should be timed once.");
+        assertEquals(2, snapshot.getLatency(SaleOperation.PROCESS_SALE).getCount(),
+                "processSale should be timed twice.");
+        assertEquals(3, snapshot.getScans(), "Every scan should be counted.");
+        assertEquals(1, snapshot.getMisses(), "The missing item should be counted.");
+        assertEquals(1, snapshot.getConnectionErrors(), "The connection error should be counted.");
+        assertEquals(1, snapshot.getInsufficientPayments(), "The insufficient payment should be counted.");
+    }
+
+    /**
+     * Tests that the steps after a payment complete before processSale returns
+     * when they run on a post-payment executor.
+     *
+     * @throws Exception if the item cannot be looked up.
+     */
+    @Test
+    void testPostPaymentExecutor() throws Exception {
+        BestSellerSketch bestSellers = new BestSellerSketch();
+        controller.setBestSellerSketch(bestSellers);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            controller.setPostPaymentExecutor(executor);
+            controller.startSale();
+            controller.registerItem("1");
+            controller.registerItem("1");
+            controller.endSale(null);
+            controller.processSale(new BigDecimal(100));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(bestSellers.estimate(inventory.getItem("1")) >= 2,
+                "The sale should be recorded before processSale returns.");
+    }
+
+    /**
+     * Tests registering a basket of items in one call, including a repeated
+     * and a missing item.
+     */
+    @Test
+    void testRegisterItems() {
+        controller.setMetrics(new SaleMetrics());
+        controller.startSale();
+        List<String> missing = controller.registerItems(new String[] { "1", "999", "2", "1" },
+                new int[] { 2, 1, 1, 1 });
+        assertEquals(List.of("999"), missing, "Only the missing item should be returned.");
+        MetricsSnapshot snapshot = controller.getMetricsSnapshot();
+        assertEquals(4, snapshot.getScans(), "Every item of the basket should be counted as scanned.");
+        assertEquals(1, snapshot.getMisses(), "The missing item should be counted.");
+        assertEquals(1, snapshot.getLatency(SaleOperation.REGISTER_ITEMS).getCount(),
+                "The basket should be timed once.");
+        assertThrows(IllegalArgumentException.class, () -> controller.registerItems(new String[] { "1" }, new int[0]),
+                "Every item ID should need a quantity.");
+    }
+
+    /**
+     * Tests that a basket holding an item already weighed in the sale is
+     * logged and not registered.
+     *
+     * @throws ItemNotFoundException if an item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testRegisterItemsWithWeighedItem() throws ItemNotFoundException {
+        BigDecimal[] totalPrice = new BigDecimal[1];
+        controller.setView(new SaleDisplay() {
+            @Override
+            public void displayAddedItem(String addedItem) {
+            }
+
+            @Override
+            public void displayTotalPrice(BigDecimal total) {
+                totalPrice[0] = total;
+            }
+        });
+        controller.startSale();
+        controller.registerWeighedItem("2", new BigDecimal("0.500"));
+        assertDoesNotThrow(() -> controller.registerItems(new String[] { "1", "2" }, new int[] { 1, 1 }),
+                "A rejected basket should be logged, not thrown.");
+        controller.endSale(null);
+        BigDecimal expected = inventory.getItem("2").getPrice().multiply(new BigDecimal("0.500"));
+        assertEquals(0, expected.compareTo(totalPrice[0]), "No item of the rejected basket should be charged.");
+    }
+
+    /**
+     * Tests registering several units of an item and a weighed item.
+     *
+     * @throws ItemNotFoundException if an item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testRegisterItemWithQuantityAndWeight() throws ItemNotFoundException {
+        BigDecimal[] totalPrice = new BigDecimal[1];
+        controller.setView(new SaleDisplay() {
+            @Override
+            public void displayAddedItem(String addedItem) {
+            }
+
+            @Override
+            public void displayTotalPrice(BigDecimal total) {
+                totalPrice[0] = total;
+            }
+        });
+        controller.startSale();
+        controller.registerItem("1", 24);
+        controller.registerItem("1", 1);
+        controller.registerWeighedItem("2", new BigDecimal("0.750"));
+        assertThrows(IllegalArgumentException.class, () -> controller.registerItem("1", 0),
+                "A quantity that is not positive should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> controller.registerWeighedItem("2", BigDecimal.ZERO),
+                "A weight that is not positive should be rejected.");
+        controller.endSale(null);
+        BigDecimal expected = inventory.getItem("1").getPrice().multiply(BigDecimal.valueOf(25))
+                .add(inventory.getItem("2").getPrice().multiply(new BigDecimal("0.750")));
+        assertEquals(0, expected.compareTo(totalPrice[0]),
+                "The total should include 25 units and the weighed amount.");
+    }
+
+
+    /**
+     * Tests that a sale is completed while the accounting system is
+     * unreachable, and that its circuit breaker then stops calling it.
+     */
+    @Test
+    void testProcessSaleWhileAccountingUnreachable() {
+        int[] accountingCalls = new int[1];
+        Account unreachable = new Account() {
+            @Override
+            public void accountSale(SaleSummaryDTO saleSummary) {
+                accountingCalls[0]++;
+                throw new ConnectionEstablishmentException("Unreachable.", "External Accounting System");
+            }
+        };
+        Controller guarded = new Controller(printer, inventory, discount, unreachable, new RegisterCashCompartment());
+        new View(guarded);
+        SaleMetrics metrics = new SaleMetrics();
+        guarded.setMetrics(metrics);
+        CircuitBreaker breaker = new CircuitBreaker("External Accounting System", 2, Duration.ofMinutes(1), null);
+        guarded.setAccountingBreaker(breaker);
+
+        for (int i = 0; i < 3; i++) {
+            guarded.startSale();
+            assertDoesNotThrow(() -> guarded.registerItem("1"), "Registering a valid item should not throw.");
+            guarded.endSale(null);
+            assertDoesNotThrow(() -> guarded.processSale(new BigDecimal(100)),
+                    "The sale should be completed without the accounting system.");
+        }
+        assertEquals(2, accountingCalls[0], "The accounting system should not be called once the breaker opens.");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "The breaker should be open.");
+        assertEquals(3, guarded.getMetricsSnapshot().getConnectionErrors(), "Each failed call should be counted.");
+    }
+
+
+    /**
+     * Tests that sales are completed while the receipt printer is
+     * unreachable, and that its circuit breaker then stops calling it.
+     */
+    @Test
+    void testProcessSaleWhilePrinterUnreachable() {
+        int[] printerCalls = new int[1];
+        Printer unreachable = new Printer() {
+            @Override
+            public void printReceipt(SaleSummaryDTO saleSummaryDTO) {
+                printerCalls[0]++;
+                throw new ConnectionEstablishmentException("Out of paper.", "Receipt Printer");
+            }
+        };
+        Controller guarded = new Controller(unreachable, inventory, discount, account, new RegisterCashCompartment());
+        new View(guarded);
+        guarded.setMetrics(new SaleMetrics());
+        CircuitBreaker breaker = new CircuitBreaker("Receipt Printer", 2, Duration.ofMinutes(1), null);
+        guarded.setPrinterBreaker(breaker);
+
+        for (int i = 0; i < 3; i++) {
+            guarded.startSale();
+            assertDoesNotThrow(() -> guarded.registerItem("1"), "Registering a valid item should not throw.");
+            guarded.endSale(null);
+            assertDoesNotThrow(() -> guarded.processSale(new BigDecimal(100)),
+                    "The sale should be completed without the printer.");
+        }
+        assertEquals(2, printerCalls[0], "The printer should not be called once the breaker opens.");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "The breaker should be open.");
+        assertEquals(3, guarded.getMetricsSnapshot().getConnectionErrors(), "Each failed print should be counted.");
+    }
+
+
+    /**
+     * Tests that in offline mode a sale is completed without waiting for the
+     * accounting system, and delivered to it once it can be reached.
+     *
+     * @param directory A temporary directory for the journal.
+     * @throws Exception if the journal cannot be opened or the queue stopped.
+     */
+    @Test
+    void testOfflineModeQueuesAccounting(@TempDir Path directory) throws Exception {
+        List<SaleSummaryDTO> accounted = new CopyOnWriteArrayList<>();
+        AtomicBoolean reachable = new AtomicBoolean();
+        OfflineSaleQueue accountingQueue = new OfflineSaleQueue("External Accounting System",
+                new SaleJournal(directory.resolve("accounting.journal")), sale -> {
+                    if (!reachable.get()) {
+                        throw new ConnectionEstablishmentException("Unreachable.", "External Accounting System");
+                    }
+                    accounted.add(sale);
+                }, 10, Duration.ofMillis(5), Duration.ofMillis(20));
+        accountingQueue.start();
+        try {
+            controller.setOfflineQueues(accountingQueue, null);
+            controller.startSale();
+            assertDoesNotThrow(() -> controller.registerItem("1"), "Registering a valid item should not throw.");
+            controller.endSale(null);
+            assertDoesNotThrow(() -> controller.processSale(new BigDecimal(100)),
+                    "The sale should be completed while the accounting system is unreachable.");
+            assertEquals(1, accountingQueue.getPendingCount(), "The sale should wait in the queue.");
+
+            reachable.set(true);
+            assertTrue(accountingQueue.awaitDrained(Duration.ofSeconds(5)), "The sale should be delivered.");
+            assertEquals(1, accounted.size(), "The accounting system should receive the sale once.");
+        } finally {
+            accountingQueue.stop();
+        }
+    }
+
+
+    /**
+     * Tests searching for items through the controller, with and without a
+     * search index.
+     */
+    @Test
+    void testSearchItems() {
+        assertTrue(controller.searchItems("pizza", 5).isEmpty(), "Without an index no item should be found.");
+        controller.setSearchIndex(inventory.createSearchIndex());
+        List<ItemDTO> matches = controller.searchItems("pizza", 5);
+        assertFalse(matches.isEmpty(), "The pizza should be found by name.");
+        assertEquals("1", matches.get(0).getID(), "The pizza should be the best match.");
+    }
+
+
+    /**
+     * Tests that ending a sale applies the discounts of the customer to the
+     * displayed total.
+     */
+    @Test
+    void testEndSaleAppliesCustomerDiscount() {
+        BigDecimal[] shown = new BigDecimal[2];
+        Controller discounted = new Controller(printer, inventory, new Discount(new DiscountEngine(
+                List.of(DiscountRule.basketThreshold(BigDecimal.ZERO, new BigDecimal("10")).forCustomer("staff")),
+                Map.of())), account, register);
+        discounted.setView(new SaleDisplay() {
+            @Override
+            public void displayAddedItem(String addedItem) {
+            }
+
+            @Override
+            public void displayDiscount(BigDecimal discount) {
+                shown[0] = discount;
+            }
+
+            @Override
+            public void displayTotalPrice(BigDecimal totalPrice) {
+                shown[1] = totalPrice;
+            }
+        });
+        discounted.startSale();
+        assertDoesNotThrow(() -> discounted.registerItem("4", 2), "Registering a valid item should not throw.");
+        discounted.endSale("staff");
+        assertEquals(0, new BigDecimal("2.50").compareTo(shown[0]), "10 % of 25 SEK should be shown as discount.");
+        assertEquals(0, new BigDecimal("22.50").compareTo(shown[1]), "The discounted total should be shown.");
+
+        discounted.startSale();
+        assertDoesNotThrow(() -> discounted.registerItem("4", 2), "Registering a valid item should not throw.");
+        shown[0] = null;
+        discounted.endSale("someone");
+        assertNull(shown[0], "No discount should be shown for another customer.");
+        assertEquals(0, new BigDecimal("25.0").compareTo(shown[1]), "Another customer should pay the full price.");
+    }
+
+
+    /**
+     * Tests that a loyalty card scanned during the sale gives member prices,
+     * and that a customer the registry does not know as a member gets none.
+     */
+    @Test
+    void testMemberPricingFromLoyaltyCard() {
+        BigDecimal[] shown = new BigDecimal[1];
+        Controller member = new Controller(printer, inventory, new Discount(new DiscountEngine(List.of(
+                DiscountRule.basketThreshold(BigDecimal.ZERO, new BigDecimal("10")).forCustomer("member1"),
+                DiscountRule.basketThreshold(BigDecimal.ZERO, new BigDecimal("10")).forCustomer("former")),
+                Map.of())), account, register);
+        member.setCustomerRegistry(customerID -> "member1".equals(customerID)
+                ? new CustomerDTO(customerID, "Alice") : null);
+        member.setView(new SaleDisplay() {
+            @Override
+            public void displayAddedItem(String addedItem) {
+            }
+
+            @Override
+            public void displayTotalPrice(BigDecimal totalPrice) {
+                shown[0] = totalPrice;
+            }
+        });
+        member.startSale();
+        member.identifyCustomer("member1");
+        assertDoesNotThrow(() -> member.registerItem("4", 2), "Registering a valid item should not throw.");
+        member.endSale(null);
+        assertEquals(0, new BigDecimal("22.50").compareTo(shown[0]), "The member should get 10 % off.");
+
+        member.startSale();
+        member.identifyCustomer("former");
+        assertDoesNotThrow(() -> member.registerItem("4", 2), "Registering a valid item should not throw.");
+        member.endSale(null);
+        assertEquals(0, new BigDecimal("25.0").compareTo(shown[0]),
+                "A customer who is no longer a member should pay the full price.");
+    }
+
+
+    /**
+     * Tests that the receipt of a paid sale is archived and can be printed
+     * again.
+     *
+     * @param directory A temporary directory for the archive.
+     * @throws Exception if the archive fails or the test is interrupted.
+     */
+    @Test
+    void testReprintArchivedReceipt(@TempDir Path directory) throws Exception {
+        ReceiptArchive archive = new ReceiptArchive(directory, 10, 1024 * 1024);
+        archive.start();
+        try {
+            controller.setReceiptArchive(archive);
+            controller.startSale();
+            assertDoesNotThrow(() -> controller.registerItem("1"), "Registering a valid item should not throw.");
+            controller.endSale(null);
+            controller.processSale(new BigDecimal("100"));
+            assertTrue(archive.awaitArchived(Duration.ofSeconds(5)), "The receipt should be archived.");
+
+            assertEquals(1, archive.getArchivedCount(), "The paid sale should be archived.");
+            assertTrue(controller.reprintReceipt(1), "The archived receipt should be printed again.");
+            assertFalse(controller.reprintReceipt(2), "A sale that was not archived should not be printed.");
+        } finally {
+            archive.stop();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import src.main.java.processSale.integration.Account;
 import src.main.java.processSale.model.dto.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.HashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,7 +52,7 @@ class AccountTest {
      */
     @Test
     void testAccountSaleWithValidSummary() {
-        TimeOfSaleDTO time = new TimeOfSaleDTO("2023-05-01_14:30");
+        TimeOfSaleDTO time = new TimeOfSaleDTO(Instant.parse("2023-05-01T14:30:00Z").toEpochMilli());
         BoughtItemsDTO boughtItems = new BoughtItemsDTO(new HashMap<>());
         PaymentInfoDTO paymentInfo = new PaymentInfoDTO(
                 new BigDecimal(100.0), new BigDecimal(20.0), new BigDecimal(80.0), new BigDecimal(10.0));
@@ -0,0 +1,185 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.integration.CachingCustomerRegistry;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
+import src.main.java.processSale.integration.CustomerRegistry;
+import src.main.java.processSale.model.dto.CustomerDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the {@link CachingCustomerRegistry} class.
+ */
+class CachingCustomerRegistryTest {
+    private CountingRegistry delegate;
+    private MutableClock clock;
+    private ExecutorService prefetcher;
+    private CachingCustomerRegistry cache;
+
+    /**
+     * Creates a cache of two profiles that expire after ten minutes, and
+     * remembers non-members for one minute, before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        delegate = new CountingRegistry();
+        clock = new MutableClock();
+        prefetcher = Executors.newSingleThreadExecutor();
+        cache = new CachingCustomerRegistry(delegate, 2, Duration.ofMinutes(10), Duration.ofMinutes(1), clock,
+                prefetcher);
+    }
+
+    /**
+     * Stops the prefetch thread after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        prefetcher.shutdownNow();
+    }
+
+    /**
+     * Tests that a cached profile is served without asking the registry.
+     */
+    @Test
+    void testHitIsServedFromCache() {
+        CustomerDTO first = cache.findCustomer("member-1");
+        CustomerDTO second = cache.findCustomer("member-1");
+        assertSame(first, second, "The cached profile should be returned.");
+        assertEquals(1, delegate.lookups.get(), "Only the first lookup should reach the registry.");
+        assertEquals(1, cache.getHitCount(), "The second lookup should be counted as a hit.");
+    }
+
+    /**
+     * Tests that a customer who is not a member is remembered as such, for a
+     * shorter time than a member.
+     */
+    @Test
+    void testNonMemberIsCachedBriefly() {
+        assertNull(cache.findCustomer("stranger"), "A stranger should not be a member.");
+        assertNull(cache.findCustomer("stranger"), "A stranger should still not be a member.");
+        assertEquals(1, delegate.lookups.get(), "The stranger should be remembered.");
+
+        cache.findCustomer("member-1");
+        clock.advance(Duration.ofMinutes(2));
+        cache.findCustomer("stranger");
+        cache.findCustomer("member-1");
+        assertEquals(3, delegate.lookups.get(), "Only the stranger should be looked up again.");
+    }
+
+    /**
+     * Tests that the least recently used profile is evicted when the cache is
+     * full.
+     */
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        cache.findCustomer("member-1");
+        cache.findCustomer("member-2");
+        cache.findCustomer("member-1");
+        cache.findCustomer("member-3");
+        assertEquals(2, cache.size(), "The cache should not grow beyond its capacity.");
+        cache.findCustomer("member-1");
+        assertEquals(3, delegate.lookups.get(), "The recently used profile should still be cached.");
+        cache.findCustomer("member-2");
+        assertEquals(4, delegate.lookups.get(), "The least recently used profile should have been evicted.");
+    }
+
+    /**
+     * Tests that a failed lookup is reported and not cached.
+     */
+    @Test
+    void testFailuresAreNotCached() {
+        assertThrows(ConnectionEstablishmentException.class, () -> cache.findCustomer("error"),
+                "A failed lookup should be reported.");
+        assertThrows(ConnectionEstablishmentException.class, () -> cache.findCustomer("error"),
+                "A failed lookup should be reported again.");
+        assertEquals(2, delegate.lookups.get(), "A failure should not be cached.");
+    }
+
+    /**
+     * Tests that a lookup during a prefetch waits for the prefetch instead of
+     * asking the registry again, and that later lookups are served from the
+     * cache.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    void testLookupSharesPrefetch() throws InterruptedException {
+        delegate.gate = new CountDownLatch(1);
+        cache.prefetch("member-1");
+        assertTrue(delegate.entered.await(5, TimeUnit.SECONDS), "The prefetch should ask the registry.");
+        cache.prefetch("member-1");
+        delegate.gate.countDown();
+        assertEquals("member-1", cache.findCustomer("member-1").getCustomerID(),
+                "The prefetched profile should be returned.");
+        assertEquals("member-1", cache.findCustomer("member-1").getCustomerID(),
+                "The prefetched profile should be cached.");
+        assertEquals(1, delegate.lookups.get(), "The prefetch and the lookups should share one lookup.");
+    }
+
+    /**
+     * A registry in which every ID starting with "member" is a member, and
+     * which counts lookups. The ID "error" fails.
+     */
+    private static class CountingRegistry implements CustomerRegistry {
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+
+        @Override
+        public CustomerDTO findCustomer(String customerID) {
+            lookups.incrementAndGet();
+            entered.countDown();
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if ("error".equals(customerID)) {
+                throw new ConnectionEstablishmentException("Unreachable.", "Test");
+            }
+            return customerID.startsWith("member") ? new CustomerDTO(customerID, "Member") : null;
+        }
+    }
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
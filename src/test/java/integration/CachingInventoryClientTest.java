@@ -0,0 +1,259 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.integration.CachingInventoryClient;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
+import src.main.java.processSale.integration.InventoryClient;
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the {@link CachingInventoryClient} class.
+ */
+class CachingInventoryClientTest {
+    private CountingInventory delegate;
+    private MutableClock clock;
+    private CachingInventoryClient cache;
+
+    /**
+     * Creates a cache of two items that expire after one minute before each
+     * test.
+     */
+    @BeforeEach
+    void setUp() {
+        delegate = new CountingInventory();
+        clock = new MutableClock();
+        cache = new CachingInventoryClient(delegate, 2, Duration.ofMinutes(1), clock);
+    }
+
+    /**
+     * Tests that a cached item is served without asking the inventory system.
+     *
+     * @throws ItemNotFoundException if the item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testHitIsServedFromCache() throws ItemNotFoundException {
+        ItemDTO first = cache.getItem("cache-1");
+        ItemDTO second = cache.getItem("CACHE-1");
+        assertSame(first, second, "The cached item should be returned.");
+        assertEquals(1, delegate.lookups.get(), "Only the first lookup should reach the inventory system.");
+        assertEquals(1, cache.getHitCount(), "The second lookup should be counted as a hit.");
+    }
+
+    /**
+     * Tests that an expired item is looked up again.
+     *
+     * @throws ItemNotFoundException if the item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testExpiredItemIsReloaded() throws ItemNotFoundException {
+        cache.getItem("cache-1");
+        clock.advance(Duration.ofMinutes(2));
+        cache.getItem("cache-1");
+        assertEquals(2, delegate.lookups.get(), "An expired item should be looked up again.");
+    }
+
+    /**
+     * Tests that the least recently used item is evicted when the cache is
+     * full.
+     *
+     * @throws ItemNotFoundException if an item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testLeastRecentlyUsedItemIsEvicted() throws ItemNotFoundException {
+        cache.getItem("cache-1");
+        cache.getItem("cache-2");
+        cache.getItem("cache-1");
+        cache.getItem("cache-3");
+        assertEquals(2, cache.size(), "The cache should not grow beyond its capacity.");
+        cache.getItem("cache-1");
+        assertEquals(3, delegate.lookups.get(), "The recently used item should still be cached.");
+        cache.getItem("cache-2");
+        assertEquals(4, delegate.lookups.get(), "The least recently used item should have been evicted.");
+    }
+
+    /**
+     * Tests that missing items and failures are not cached.
+     */
+    @Test
+    void testMissesAndFailuresAreNotCached() {
+        assertThrows(ItemNotFoundException.class, () -> cache.getItem("missing"), "A missing item should be reported.");
+        assertThrows(ItemNotFoundException.class, () -> cache.getItem("missing"), "A missing item should be reported.");
+        assertThrows(ConnectionEstablishmentException.class, () -> cache.getItem("error"),
+                "A failure should be reported.");
+        assertEquals(3, delegate.lookups.get(), "Every lookup of a missing item should reach the inventory system.");
+        assertEquals(0, cache.size(), "Nothing should be cached.");
+    }
+
+    /**
+     * Tests that answers from the offline catalog are not cached, so the
+     * inventory system is asked again once it can be reached.
+     *
+     * @throws ItemNotFoundException if the item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testFallbackAnswersAreNotCached() throws ItemNotFoundException {
+        CountingInventory offline = new CountingInventory();
+        cache = new CachingInventoryClient(delegate, offline, 2, Duration.ofMinutes(1), clock);
+        delegate.unreachable = true;
+        assertEquals("cache-1", cache.getItem("cache-1").getID(), "The offline catalog should answer.");
+        assertEquals("cache-2", cache.getItems(new String[] { "cache-2" })[0].getID(),
+                "The offline catalog should answer a batch.");
+        assertEquals(0, cache.size(), "Answers from the offline catalog should not be cached.");
+
+        delegate.unreachable = false;
+        cache.getItem("cache-1");
+        cache.getItem("cache-1");
+        assertEquals(1, offline.lookups.get(), "The offline catalog should only answer while needed.");
+        assertEquals(2, delegate.lookups.get(), "The inventory system should be asked again once reachable.");
+        assertEquals(1, cache.getHitCount(), "The answer of the inventory system should be cached.");
+    }
+
+    /**
+     * Tests that a batch lookup only asks for the items that are not cached.
+     *
+     * @throws ItemNotFoundException if an item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testBatchLookupOnlyLoadsMisses() throws ItemNotFoundException {
+        cache.getItem("cache-1");
+        ItemDTO[] items = cache.getItems(new String[] { "cache-1", "cache-2", "missing" });
+        assertEquals("cache-1", items[0].getID(), "The cached item should be returned.");
+        assertEquals("cache-2", items[1].getID(), "The loaded item should be returned.");
+        assertNull(items[2], "A missing item should be returned as null.");
+        assertEquals(List.of("cache-2", "missing"), delegate.batches.get(0),
+                "Only the items that were not cached should be loaded.");
+    }
+
+    /**
+     * Tests that concurrent misses of the same item are answered by one lookup.
+     *
+     * @throws Exception if a lookup fails.
+     */
+    @Test
+    void testConcurrentMissesAreCoalesced() throws Exception {
+        int threads = 8;
+        delegate.gate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ItemDTO>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> cache.getItem("cache-1")));
+            }
+            assertTrue(delegate.entered.await(5, TimeUnit.SECONDS), "One lookup should reach the inventory system.");
+            Thread.sleep(100);
+            delegate.gate.countDown();
+            for (Future<ItemDTO> result : results) {
+                assertEquals("cache-1", result.get(5, TimeUnit.SECONDS).getID(), "Every thread should get the item.");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, delegate.lookups.get(), "The concurrent misses should share one lookup.");
+    }
+
+    /**
+     * An inventory system that creates items on demand and counts lookups.
+     * Items with the ID "missing" do not exist, and the ID "error" fails, as does
+     * every lookup while the system is set to be unreachable.
+     */
+    private static class CountingInventory implements InventoryClient {
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final List<List<String>> batches = new ArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+        private volatile boolean unreachable;
+
+        @Override
+        public ItemDTO getItem(String itemID) throws ItemNotFoundException {
+            lookups.incrementAndGet();
+            if (unreachable) {
+                throw new ConnectionEstablishmentException("Unreachable.", "Test");
+            }
+            entered.countDown();
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if ("missing".equals(itemID)) {
+                throw new ItemNotFoundException("Missing.", itemID);
+            }
+            if ("error".equals(itemID)) {
+                throw new ConnectionEstablishmentException("Unreachable.", "Test");
+            }
+            return new ItemDTO("Item", itemID, "Cached_item", BigDecimal.TEN, new BigDecimal("0.25"));
+        }
+
+        @Override
+        public ItemDTO[] getItems(String[] itemIDs) {
+            if (unreachable) {
+                throw new ConnectionEstablishmentException("Unreachable.", "Test");
+            }
+            batches.add(List.of(itemIDs));
+            ItemDTO[] items = new ItemDTO[itemIDs.length];
+            for (int i = 0; i < itemIDs.length; i++) {
+                if (!"missing".equals(itemIDs[i])) {
+                    items[i] = new ItemDTO("Item", itemIDs[i], "Cached_item", BigDecimal.TEN, new BigDecimal("0.25"));
+                }
+            }
+            return items;
+        }
+
+        @Override
+        public void updateInventory(SaleSummaryDTO saleSummaryDTO) {
+        }
+    }
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
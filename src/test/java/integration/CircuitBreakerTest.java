@@ -0,0 +1,223 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.integration.CircuitBreaker;
+import src.main.java.processSale.integration.CircuitOpenException;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
+import src.main.java.processSale.model.ItemNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the {@link CircuitBreaker} class.
+ */
+class CircuitBreakerTest {
+    private MutableClock clock;
+    private CircuitBreaker breaker;
+    private AtomicInteger calls;
+
+    /**
+     * Creates a breaker that opens after two failures for thirty seconds, and
+     * has no call deadline, before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        breaker = new CircuitBreaker("Test System", 2, Duration.ofSeconds(30), null, clock);
+        calls = new AtomicInteger();
+    }
+
+    /**
+     * Tests that successful calls return their result and keep the breaker
+     * closed.
+     */
+    @Test
+    void testSuccessfulCallsKeepBreakerClosed() {
+        assertEquals("ok", breaker.call(() -> "ok"), "The result of the call should be returned.");
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "The breaker should stay closed.");
+    }
+
+    /**
+     * Tests that the breaker opens after the threshold of failures in a row,
+     * and then fails fast without calling the system.
+     */
+    @Test
+    void testOpensAfterThresholdAndFailsFast() {
+        failOnce();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "One failure should not open the breaker.");
+        failOnce();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "Two failures should open the breaker.");
+
+        CircuitOpenException exception = assertThrows(CircuitOpenException.class,
+                () -> breaker.call(calls::incrementAndGet), "An open breaker should fail fast.");
+        assertEquals("Test System", exception.getSource(), "The exception should name the system.");
+        assertEquals(2, calls.get(), "The system should not be called while the breaker is open.");
+    }
+
+    /**
+     * Tests that a success between failures resets the count of failures.
+     */
+    @Test
+    void testSuccessResetsFailureCount() {
+        failOnce();
+        breaker.call(() -> "ok");
+        failOnce();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(),
+                "Failures that are not in a row should not open the breaker.");
+    }
+
+    /**
+     * Tests that a successful trial call after the open duration closes the
+     * breaker.
+     */
+    @Test
+    void testSuccessfulTrialClosesBreaker() {
+        failOnce();
+        failOnce();
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(),
+                "The breaker should be half-open after the open duration.");
+
+        assertEquals("ok", breaker.call(() -> "ok"), "The trial call should go through.");
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "A successful trial should close the breaker.");
+    }
+
+    /**
+     * Tests that a failed trial call opens the breaker again for a full open
+     * duration.
+     */
+    @Test
+    void testFailedTrialReopensBreaker() {
+        failOnce();
+        failOnce();
+        clock.advance(Duration.ofSeconds(30));
+        failOnce();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "A failed trial should open the breaker again.");
+        clock.advance(Duration.ofSeconds(29));
+        assertThrows(CircuitOpenException.class, () -> breaker.call(() -> "ok"),
+                "The breaker should stay open for a full open duration after the failed trial.");
+    }
+
+    /**
+     * Tests that only one trial call goes through while the breaker is
+     * half-open.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    void testOnlyOneTrialCallWhileHalfOpen() throws InterruptedException {
+        failOnce();
+        failOnce();
+        clock.advance(Duration.ofSeconds(30));
+        CountDownLatch trialStarted = new CountDownLatch(1);
+        CountDownLatch finishTrial = new CountDownLatch(1);
+        Thread trial = new Thread(() -> {
+            try {
+                breaker.call(() -> {
+                    trialStarted.countDown();
+                    return finishTrial.await(5, TimeUnit.SECONDS);
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        trial.start();
+        assertTrue(trialStarted.await(5, TimeUnit.SECONDS), "The trial call should start.");
+
+        assertThrows(CircuitOpenException.class, () -> breaker.call(() -> "ok"),
+                "Other calls should fail fast while the trial runs.");
+        finishTrial.countDown();
+        trial.join(5000);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "The successful trial should close the breaker.");
+    }
+
+    /**
+     * Tests that checked exceptions are passed on without counting as
+     * failures.
+     */
+    @Test
+    void testCheckedExceptionsAreNotFailures() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ItemNotFoundException.class, () -> breaker.call(() -> {
+                throw new ItemNotFoundException("Missing.", "missing");
+            }), "The checked exception should be passed on.");
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(),
+                "Answers from a working system should not open the breaker.");
+    }
+
+    /**
+     * Tests that a call exceeding its deadline fails, and counts as a failure.
+     */
+    @Test
+    void testCallExceedingDeadlineFails() {
+        CircuitBreaker timed = new CircuitBreaker("Slow System", 1, Duration.ofSeconds(30), Duration.ofMillis(50),
+                clock);
+        CountDownLatch never = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        ConnectionEstablishmentException exception = assertThrows(ConnectionEstablishmentException.class,
+                () -> timed.call(() -> never.await(5, TimeUnit.SECONDS)), "A slow call should fail at its deadline.");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("Slow System", exception.getSource(), "The exception should name the system.");
+        assertTrue(elapsedMillis < 2000, "The caller should not wait for the slow call to finish.");
+        assertEquals(CircuitBreaker.State.OPEN, timed.getState(), "The timeout should count as a failure.");
+    }
+
+    /**
+     * Tests that a threshold that is not positive is rejected.
+     */
+    @Test
+    void testNonPositiveThresholdIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CircuitBreaker("Test System", 0, Duration.ofSeconds(1), null),
+                "A threshold of zero should be rejected.");
+    }
+
+    /**
+     * Makes one call through the breaker that fails.
+     */
+    private void failOnce() {
+        assertThrows(ConnectionEstablishmentException.class, () -> breaker.call(() -> {
+            calls.incrementAndGet();
+            throw new ConnectionEstablishmentException("Unreachable.", "Test System");
+        }), "The failure should be passed on.");
+    }
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
+import src.main.java.processSale.integration.CustomerDatabase;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Unit tests for the {@link CustomerDatabase} class.
+ */
+class CustomerDatabaseTest {
+    /**
+     * Tests that the members of the default file are found, and that other
+     * customers are not members.
+     */
+    @Test
+    void testFindCustomer() {
+        CustomerDatabase customers = new CustomerDatabase();
+        assertEquals("Alice", customers.findCustomer("member1").getName(), "The member should be found.");
+        assertNull(customers.findCustomer("stranger"), "A stranger should not be a member.");
+        assertNull(customers.findCustomer(null), "No customer should not be a member.");
+        assertThrows(ConnectionEstablishmentException.class, () -> customers.findCustomer("error"),
+                "The magic identifier should make the registry unreachable.");
+    }
+
+    /**
+     * Tests that each lookup takes the configured latency.
+     *
+     * @param directory A temporary directory for the customer file.
+     * @throws IOException if the customer file cannot be written.
+     */
+    @Test
+    void testLatency(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("customers.txt");
+        Files.writeString(file, "member9 Dana Doe\n");
+        CustomerDatabase customers = new CustomerDatabase(file.toFile(), Duration.ofMillis(50));
+        long start = System.nanoTime();
+        assertEquals("Dana Doe", customers.findCustomer("member9").getName(), "Names may contain spaces.");
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos(), "The lookup should be delayed.");
+        assertEquals(1, customers.size(), "One member should be loaded.");
+    }
+}
@@ -0,0 +1,148 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.integration.DiscountEngine;
+import src.main.java.processSale.integration.DiscountRule;
+import src.main.java.processSale.model.dto.ItemDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the {@link DiscountEngine} class.
+ */
+class DiscountEngineTest {
+    private ItemDTO milk;
+    private ItemDTO cheese;
+    private ItemDTO soda;
+    private DiscountEngine engine;
+
+    /**
+     * Compiles a rule set with item, category, multi-buy and basket rules,
+     * some of them restricted to a member, before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        milk = item("milk", "20.00");
+        cheese = item("cheese", "80.00");
+        soda = item("soda", "15.00");
+        engine = new DiscountEngine(List.of(
+                DiscountRule.forItem("milk", new BigDecimal("10")),
+                DiscountRule.forCategory("dairy", new BigDecimal("5")),
+                DiscountRule.forCategory("dairy", new BigDecimal("20")).forCustomer("member"),
+                DiscountRule.multiBuy("soda", 3, 2),
+                DiscountRule.basketThreshold(new BigDecimal("200"), new BigDecimal("5")),
+                DiscountRule.basketThreshold(new BigDecimal("500"), new BigDecimal("10")),
+                DiscountRule.basketThreshold(BigDecimal.ZERO, new BigDecimal("2")).forCustomer("staff")),
+                Map.of("dairy", List.of("MILK", "cheese")));
+    }
+
+    /**
+     * Tests that a line gets the best of its item and category rules.
+     */
+    @Test
+    void testBestPercentageRuleApplies() {
+        assertEquals(new BigDecimal("4.00"), engine.getLineDiscount(null, milk, 2, null),
+                "The item rule of 10 % should beat the category rule of 5 %.");
+        assertEquals(new BigDecimal("4.00"), engine.getLineDiscount(null, cheese, 1, null),
+                "The category rule should apply to a member of the category.");
+    }
+
+    /**
+     * Tests that rules restricted to a customer apply only to that customer.
+     */
+    @Test
+    void testCustomerRules() {
+        assertEquals(new BigDecimal("16.00"), engine.getLineDiscount("member", cheese, 1, null),
+                "The member's category rule of 20 % should apply.");
+        assertEquals(new BigDecimal("4.00"), engine.getLineDiscount("someone", cheese, 1, null),
+                "Another customer should get the general rule.");
+        assertEquals(0, new BigDecimal("0.98").compareTo(engine.getCustomerFactor("staff")),
+                "Staff should pay 98 % of every sale.");
+        assertEquals(0, BigDecimal.ONE.compareTo(engine.getCustomerFactor(null)),
+                "An unknown customer should pay the full price.");
+    }
+
+    /**
+     * Tests that a multi-buy deal gives one free unit per full deal.
+     */
+    @Test
+    void testMultiBuy() {
+        assertEquals(new BigDecimal("0.00"), engine.getLineDiscount(null, soda, 2, null),
+                "Two units should not complete a deal.");
+        assertEquals(new BigDecimal("15.00"), engine.getLineDiscount(null, soda, 5, null),
+                "Five units should complete one deal.");
+        assertEquals(new BigDecimal("30.00"), engine.getLineDiscount(null, soda, 6, null),
+                "Six units should complete two deals.");
+    }
+
+    /**
+     * Tests that a line sold by weight gets percentage rules on its weighed
+     * price.
+     */
+    @Test
+    void testWeighedLine() {
+        assertEquals(new BigDecimal("1.50"), engine.getLineDiscount(null, milk, 1, new BigDecimal("0.750")),
+                "10 % of 0.75 kg at 20 SEK should be taken off.");
+    }
+
+    /**
+     * Tests that the best basket rule whose threshold is reached applies.
+     */
+    @Test
+    void testBasketThresholds() {
+        assertEquals(new BigDecimal("0.00"), engine.getBasketDiscount(null, new BigDecimal("199.99")),
+                "No threshold should be reached below 200.");
+        assertEquals(new BigDecimal("15.00"), engine.getBasketDiscount(null, new BigDecimal("300")),
+                "5 % should be taken off from 200.");
+        assertEquals(new BigDecimal("60.00"), engine.getBasketDiscount(null, new BigDecimal("600")),
+                "10 % should be taken off from 500.");
+        assertEquals(new BigDecimal("2.00"), engine.getBasketDiscount("staff", new BigDecimal("100")),
+                "Staff should get 2 % below the general thresholds.");
+    }
+
+    /**
+     * Tests that an item without rules gets no discount, even among thousands
+     * of rules for other items.
+     */
+    @Test
+    void testManyRules() {
+        List<DiscountRule> rules = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rules.add(DiscountRule.forItem("campaign-" + i, BigDecimal.ONE));
+        }
+        DiscountEngine campaign = new DiscountEngine(rules, Map.of());
+        assertEquals(5000, campaign.getRuleCount(), "All rules should be compiled.");
+        assertEquals(BigDecimal.ZERO, campaign.getLineDiscount(null, milk, 1, null),
+                "An item without rules should get no discount.");
+        assertEquals(new BigDecimal("0.20"), campaign.getLineDiscount(null, item("campaign-42", "20.00"), 1, null),
+                "The rule of a campaign item should apply.");
+    }
+
+    /**
+     * Tests that malformed rules are rejected.
+     */
+    @Test
+    void testInvalidRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DiscountRule.forItem("milk", new BigDecimal("101")),
+                "A discount above 100 % should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> DiscountRule.multiBuy("soda", 2, 2),
+                "A deal that pays for every unit should be rejected.");
+    }
+
+    /**
+     * Creates an item with the specified identifier and price.
+     *
+     * @param id    The identifier.
+     * @param price The price.
+     * @return The item.
+     */
+    private static ItemDTO item(String id, String price) {
+        return new ItemDTO(id, id, "Discount_item", new BigDecimal(price), new BigDecimal("0.12"));
+    }
+}
@@ -2,10 +2,17 @@ package src.test.java.integration;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import src.main.java.processSale.integration.Discount;
+import src.main.java.processSale.model.dto.ItemDTO;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 /**
  * Unit tests for the {@link Discount} class.
  */
@@ -49,4 +56,37 @@ class DiscountTest {
         assertEquals(1.0, discount.getDiscount(null).doubleValue(),
                 "Discount factor should be 1.0 for a null customer ID.");
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Tests loading rules from a file, ignoring comments and empty lines.
+     *
+     * @param directory A temporary directory for the rules file.
+     * @throws IOException if the rules file cannot be written.
+     */
+    @Test
+    void testLoadRulesFromFile(@TempDir Path directory) throws IOException {
+        Path rulesFile = directory.resolve("rules.txt");
+        Files.writeString(rulesFile, "# Test rules\n\nmembers fruit 1 2\ncategory fruit 10\nbasket 0 5 staff\n");
+        Discount fromFile = new Discount(rulesFile.toFile());
+        assertEquals(2, fromFile.getEngine().getRuleCount(), "Both rules should be loaded.");
+        assertEquals(0.95, fromFile.getDiscount("staff").doubleValue(), "Staff should get 5 % off every sale.");
+        ItemDTO fruit = new ItemDTO("Fruit", "2", "Fruit", new BigDecimal("10.00"), new BigDecimal("0.12"));
+        assertEquals(0, BigDecimal.ONE.compareTo(fromFile.getEngine().getLineDiscount(null, fruit, 1, null)),
+                "The category rule should apply to its members.");
+    }
+
+    /**
+     * Tests that a malformed rule is rejected.
+     *
+     * @param directory A temporary directory for the rules file.
+     * @throws IOException if the rules file cannot be written.
+     */
+    @Test
+    void testMalformedRuleIsRejected(@TempDir Path directory) throws IOException {
+        Path rulesFile = directory.resolve("rules.txt");
+        Files.writeString(rulesFile, "item 1\n");
+        assertThrows(IllegalArgumentException.class, () -> new Discount(rulesFile.toFile()),
+                "A rule without a percentage should be rejected.");
+    }
+}
@@ -0,0 +1,166 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
+import src.main.java.processSale.integration.Inventory;
+import src.main.java.processSale.integration.InventoryServer;
+import src.main.java.processSale.integration.RemoteInventoryClient;
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.PaymentInfoDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.model.dto.TimeOfSaleDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Unit tests for the {@link InventoryServer} and {@link RemoteInventoryClient}
+ * classes.
+ */
+class InventoryServerTest {
+    private Inventory inventory;
+    private InventoryServer server;
+    private RemoteInventoryClient client;
+
+    /**
+     * Starts a stand-in inventory system on a free port and connects a client
+     * to it before each test.
+     *
+     * @throws IOException if the server cannot be started.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        inventory = new Inventory();
+        server = new InventoryServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), inventory);
+        server.start();
+        client = new RemoteInventoryClient(URI.create("http://127.0.0.1:" + server.getPort()), Duration.ofSeconds(5));
+    }
+
+    /**
+     * Stops the server after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    /**
+     * Tests that a remote item is the same as the local one.
+     *
+     * @throws ItemNotFoundException if the item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testGetItem() throws ItemNotFoundException {
+        ItemDTO local = inventory.getItem("1");
+        ItemDTO remote = client.getItem("1");
+        assertEquals(local, remote, "The remote item should equal the local item.");
+        assertEquals(0, local.getPrice().compareTo(remote.getPrice()), "The price should survive the round trip.");
+    }
+
+    /**
+     * Tests that an item repriced by the inventory system is returned with the
+     * new price, even after the old price has been fetched.
+     *
+     * @param directory A temporary directory for the repriced inventory file.
+     * @throws IOException           if the repriced server cannot be started.
+     * @throws ItemNotFoundException if the item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testGetRepricedItem(@TempDir Path directory) throws IOException, ItemNotFoundException {
+        assertEquals(0, new BigDecimal("29.90").compareTo(client.getItem("1").getPrice()),
+                "The item should first have the old price.");
+        Path repriced = Files.writeString(directory.resolve("repriced.txt"), "Pizza 1 Frozen_pizza. 34.90 0.25\n");
+        InventoryServer repricedServer = new InventoryServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), new Inventory(repriced.toFile()));
+        repricedServer.start();
+        try {
+            RemoteInventoryClient repricedClient = new RemoteInventoryClient(
+                    URI.create("http://127.0.0.1:" + repricedServer.getPort()), Duration.ofSeconds(5));
+            assertEquals(0, new BigDecimal("34.90").compareTo(repricedClient.getItem("1").getPrice()),
+                    "A single lookup should return the new price.");
+            assertEquals(0, new BigDecimal("34.90").compareTo(repricedClient.getItems(new String[] { "1" })[0]
+                    .getPrice()), "A batch lookup should return the new price.");
+        } finally {
+            repricedServer.stop();
+        }
+    }
+
+    /**
+     * Tests that a missing item is reported as not found.
+     */
+    @Test
+    void testGetMissingItem() {
+        ItemNotFoundException e = assertThrows(ItemNotFoundException.class, () -> client.getItem("999"),
+                "A missing item should be reported as not found.");
+        assertEquals("999", e.getItemNotFoundID(), "The exception should name the missing item.");
+    }
+
+    /**
+     * Tests that a failing inventory system is reported as a connection error.
+     */
+    @Test
+    void testGetItemWithConnectionError() {
+        assertThrows(ConnectionEstablishmentException.class, () -> client.getItem("error"),
+                "A failure of the inventory system should be reported as a connection error.");
+    }
+
+    /**
+     * Tests that several items are retrieved in one request.
+     */
+    @Test
+    void testGetItems() {
+        ItemDTO[] items = client.getItems(new String[] { "2", "999", "1" });
+        assertEquals("2", items[0].getID(), "The first item should match the first requested ID.");
+        assertNull(items[1], "A missing item should be returned as null.");
+        assertEquals("1", items[2].getID(), "The third item should match the third requested ID.");
+        assertEquals(1, server.getItemRequestCount(), "The batch should be sent as one request.");
+    }
+
+    /**
+     * Tests that inventory updates reach the server.
+     */
+    @Test
+    void testUpdateInventory() {
+        SaleSummaryDTO saleSummary = new SaleSummaryDTO(new TimeOfSaleDTO(0),
+                new BoughtItemsDTO(Map.of(inventory.getItems(new String[] { "1" })[0], 2)),
+                new PaymentInfoDTO(BigDecimal.valueOf(100), BigDecimal.ZERO, BigDecimal.valueOf(100),
+                        BigDecimal.ZERO));
+        client.updateInventory(saleSummary);
+        assertEquals(1, server.getUpdateCount(), "The update should reach the server.");
+    }
+
+    /**
+     * Tests that an unreachable inventory system is reported as a connection
+     * error.
+     *
+     * @throws IOException if no free port can be found.
+     */
+    @Test
+    void testUnreachableServer() throws IOException {
+        int freePort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            freePort = socket.getLocalPort();
+        }
+        RemoteInventoryClient unreachable = new RemoteInventoryClient(URI.create("http://127.0.0.1:" + freePort),
+                Duration.ofSeconds(1));
+        assertThrows(ConnectionEstablishmentException.class, () -> unreachable.getItem("1"),
+                "An unreachable inventory system should be reported as a connection error.");
+    }
+}
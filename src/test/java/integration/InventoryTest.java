@@ -2,11 +2,16 @@ package src.test.java.integration;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
 import src.main.java.processSale.integration.Inventory;
 import src.main.java.processSale.model.ItemNotFoundException;
 import src.main.java.processSale.model.dto.*;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.HashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +43,24 @@ class InventoryTest {
         assertEquals("1", item.getID(), "Item ID should match the requested ID.");
     }
 
+    /**
+     * Tests that items are looked up without regard to the case of their
+     * identifier.
+     *
+     * @param directory A temporary directory for the inventory file.
+     * @throws Exception if the inventory file cannot be written or the item is
+     *                   missing.
+     */
+    @Test
+    void testGetItemIgnoresCase(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("MixedCaseInventory.txt");
+        Files.writeString(file, "Kiwi Kiwi-1 Green_kiwi 4.90 0.12\n");
+        Inventory mixed = new Inventory(file.toFile());
+        assertEquals("Kiwi", mixed.getItem("KIWI-1").getName(), "An upper case ID should find the item.");
+        assertEquals("Kiwi", mixed.getItems(new String[] { "kiwi-1" })[0].getName(),
+                "A lower case ID should find the item in a batch.");
+    }
+
     /**
      * Tests retrieving an item with an invalid ID throws ItemNotFoundException.
      */
@@ -68,7 +91,7 @@ class InventoryTest {
         boughtItems.put(new ItemDTO("Banana", "2", "Yellow banana", new BigDecimal(15.0), new BigDecimal(0.06)), 1);
 
         BoughtItemsDTO boughtItemsDTO = new BoughtItemsDTO(boughtItems);
-        TimeOfSaleDTO timeOfSale = new TimeOfSaleDTO("2023-05-01_14:30");
+        TimeOfSaleDTO timeOfSale = new TimeOfSaleDTO(Instant.parse("2023-05-01T14:30:00Z").toEpochMilli());
         SaleSummaryDTO saleSummary = new SaleSummaryDTO(timeOfSale, boughtItemsDTO, null);
 
         assertDoesNotThrow(() -> inventory.updateInventory(saleSummary),
@@ -84,4 +107,51 @@ class InventoryTest {
         assertDoesNotThrow(() -> inventory.updateInventory(null),
                 "Updating inventory with null should not throw an exception.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests retrieving several items in one call, including a missing one.
+     */
+    @Test
+    void testGetItems() {
+        ItemDTO[] items = inventory.getItems(new String[] { "1", "999", "2" });
+        assertEquals(3, items.length, "There should be one result per requested ID.");
+        assertEquals("1", items[0].getID(), "The first item should match the first requested ID.");
+        assertNull(items[1], "A missing item should be returned as null.");
+        assertEquals("2", items[2].getID(), "The third item should match the third requested ID.");
+    }
+
+    /**
+     * Tests that a batch lookup fails when the inventory system cannot be
+     * reached.
+     */
+    @Test
+    void testGetItemsWithConnectionError() {
+        assertThrows(ConnectionEstablishmentException.class, () -> inventory.getItems(new String[] { "1", "error" }),
+                "A connection error should fail the whole batch.");
+    }
+
+
+    /**
+     * Tests that a catalog large enough to be parsed in parallel is loaded
+     * completely, with the first row winning for a duplicated identifier.
+     *
+     * @param directory A temporary directory for the inventory file.
+     * @throws Exception if the inventory file cannot be written or an item is
+     *                   missing.
+     */
+    @Test
+    void testLargeCatalogIsLoadedInOrder(@TempDir Path directory) throws Exception {
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            rows.append("Large_").append(i).append(" large-").append(i).append(" Large_item 1.00 0.12\n");
+        }
+        rows.append("Duplicate large-7 Large_item 2.00 0.12\n");
+        Path file = directory.resolve("LargeInventory.txt");
+        Files.writeString(file, rows);
+
+        Inventory large = new Inventory(file.toFile());
+        assertEquals(20_001, large.getCatalogSize(), "Every row should be loaded.");
+        assertEquals("Large_19999", large.getItem("large-19999").getName(), "The last item should be found.");
+        assertEquals("Large_7", large.getItem("large-7").getName(), "The first row should win for a duplicate.");
+    }
+}
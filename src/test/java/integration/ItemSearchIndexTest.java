@@ -0,0 +1,123 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.integration.ItemSearchIndex;
+import src.main.java.processSale.model.dto.ItemDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Unit tests for the {@link ItemSearchIndex} class.
+ */
+class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    /**
+     * Builds an index over a small produce catalog before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(new ItemDTO[] {
+                item("Apple", "1001", "Red_apple."),
+                item("Pineapple", "1002", "Sweet_tropical_fruit."),
+                item("Banana", "1010", "Yellow_banana."),
+                item("Apricot", "2001", "Dried_apricot."),
+                item("Bread", "10", "Fresh_bread_with_apple_slices.")
+        });
+    }
+
+    /**
+     * Tests that an identifier prefix finds the items in identifier order,
+     * with an exact match first.
+     */
+    @Test
+    void testSearchByIDPrefix() {
+        assertEquals(List.of("10", "1001", "1002", "1010"), ids(index.searchByID("10", 10)),
+                "Identifiers starting with the prefix should be found in order.");
+        assertEquals(List.of("1001", "1002"), ids(index.searchByID("100", 10)),
+                "A longer prefix should narrow the matches.");
+        assertTrue(index.searchByID("3", 10).isEmpty(), "An unknown prefix should find nothing.");
+    }
+
+    /**
+     * Tests that the number of matches is limited.
+     */
+    @Test
+    void testLimit() {
+        assertEquals(List.of("10", "1001"), ids(index.searchByID("1", 2)), "At most the limit should be returned.");
+        assertTrue(index.searchByName("apple", 0).isEmpty(), "A limit of zero should find nothing.");
+    }
+
+    /**
+     * Tests that a name search ranks names starting with the query first, then
+     * other names containing it, then descriptions containing it.
+     */
+    @Test
+    void testSearchByNameRanking() {
+        assertEquals(List.of("1001", "1002", "10"), ids(index.searchByName("APPLE", 10)),
+                "Name prefix, then name substring, then description matches should be ranked in order.");
+    }
+
+    /**
+     * Tests that a name search matches the middle of a word, and ignores
+     * punctuation.
+     */
+    @Test
+    void testSearchByNameSubstring() {
+        assertEquals(List.of("1002"), ids(index.searchByName("tropical-fruit", 10)),
+                "Punctuation in the query should match the underscores of the description.");
+        assertEquals(List.of("2001"), ids(index.searchByName("rico", 10)),
+                "The middle of a name should be found.");
+        assertTrue(index.searchByName("grape", 10).isEmpty(), "A query matching nothing should find nothing.");
+    }
+
+    /**
+     * Tests that a query shorter than a trigram matches the start of words.
+     */
+    @Test
+    void testShortQueryMatchesWordStart() {
+        assertEquals(List.of("1001", "10", "2001"), ids(index.searchByName("ap", 10)),
+                "A short query should match names and descriptions with a word starting with it, in word order.");
+    }
+
+    /**
+     * Tests that the combined search lists identifier matches before name
+     * matches, without duplicates.
+     */
+    @Test
+    void testSearchCombinesIDAndName() {
+        ItemSearchIndex mixed = new ItemSearchIndex(new ItemDTO[] {
+                item("Cola", "col1", "Soft_drink."),
+                item("Chocolate", "555", "Milk_chocolate.")
+        });
+        assertEquals(List.of("col1", "555"), ids(mixed.search("col", 10)),
+                "The identifier match should come before the name match.");
+        assertEquals(2, mixed.size(), "Both items should be indexed.");
+    }
+
+    /**
+     * Creates an item with the specified name, identifier and description.
+     *
+     * @param name        The name.
+     * @param id          The identifier.
+     * @param description The description.
+     * @return The item.
+     */
+    private static ItemDTO item(String name, String id, String description) {
+        return new ItemDTO(name, id, description, BigDecimal.TEN, new BigDecimal("0.12"));
+    }
+
+    /**
+     * Extracts the identifiers of items.
+     *
+     * @param items The items.
+     * @return The identifiers.
+     */
+    private static List<String> ids(List<ItemDTO> items) {
+        return items.stream().map(ItemDTO::getID).toList();
+    }
+}
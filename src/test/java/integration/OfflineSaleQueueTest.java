@@ -0,0 +1,205 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
+import src.main.java.processSale.integration.OfflineSaleQueue;
+import src.main.java.processSale.integration.SaleJournal;
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.PaymentInfoDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.model.dto.TimeOfSaleDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the {@link OfflineSaleQueue} class.
+ */
+class OfflineSaleQueueTest {
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private Path deadFile;
+    private StubSystem system;
+    private OfflineSaleQueue queue;
+
+    /**
+     * Creates and starts a queue that delivers batches of two sales to a stub
+     * system before each test.
+     *
+     * @throws IOException if the journal cannot be opened.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        file = directory.resolve("accounting.journal");
+        deadFile = directory.resolve("accounting.journal.dead");
+        system = new StubSystem();
+        queue = newQueue();
+        queue.start();
+    }
+
+    /**
+     * Stops the queue after each test.
+     *
+     * @throws Exception if the queue cannot be stopped.
+     */
+    @AfterEach
+    void tearDown() throws Exception {
+        queue.stop();
+    }
+
+    /**
+     * Tests that submitted sales are delivered in the order they were
+     * submitted.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    void testDeliversInOrder() throws InterruptedException {
+        for (int i = 1; i <= 5; i++) {
+            queue.submit(sale(i));
+        }
+        assertTrue(queue.awaitDrained(Duration.ofSeconds(5)), "All sales should be delivered.");
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), system.received, "Sales should be delivered in order.");
+        assertEquals(5, queue.getDeliveredCount(), "Each delivered sale should be counted.");
+    }
+
+    /**
+     * Tests that submitting does not wait for an unreachable system, and that
+     * the queued sales are delivered in order once it can be reached again.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    void testQueuesWhileUnreachableAndRetries() throws InterruptedException {
+        system.reachable = false;
+        long start = System.nanoTime();
+        for (int i = 1; i <= 3; i++) {
+            queue.submit(sale(i));
+        }
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos(),
+                "Submitting should not wait for the unreachable system.");
+        assertFalse(queue.awaitDrained(Duration.ofMillis(100)), "No sale should be delivered while unreachable.");
+        assertTrue(queue.getFailureCount() > 0, "The failed deliveries should be counted.");
+
+        system.reachable = true;
+        assertTrue(queue.awaitDrained(Duration.ofSeconds(5)), "The sales should be delivered after the outage.");
+        assertEquals(List.of(1L, 2L, 3L), system.received, "Sales should be delivered in order after retrying.");
+    }
+
+    /**
+     * Tests that sales that were not delivered before the queue stopped are
+     * delivered by a new queue over the same journal.
+     *
+     * @throws Exception if the queue cannot be stopped or the journal opened.
+     */
+    @Test
+    void testUndeliveredSalesAreDeliveredAfterRestart() throws Exception {
+        system.reachable = false;
+        queue.submit(sale(1));
+        queue.submit(sale(2));
+        queue.stop();
+
+        system.reachable = true;
+        queue = newQueue();
+        assertEquals(2, queue.getPendingCount(), "The undelivered sales should be queued again.");
+        queue.start();
+        assertTrue(queue.awaitDrained(Duration.ofSeconds(5)), "The queued sales should be delivered.");
+        assertEquals(List.of(1L, 2L), system.received, "The queued sales should be delivered in order.");
+    }
+
+    /**
+     * Tests that a sale the system keeps refusing is moved to the dead-letter
+     * journal after the last attempt, and does not hold up the sales behind
+     * it.
+     *
+     * @throws Exception if the queue cannot be stopped or the journal opened.
+     */
+    @Test
+    void testRefusedSaleIsMovedToDeadLetters() throws Exception {
+        system.refused.add(2L);
+        for (int i = 1; i <= 3; i++) {
+            queue.submit(sale(i));
+        }
+        assertTrue(queue.awaitDrained(Duration.ofSeconds(5)), "The refused sale should not block the queue.");
+        assertEquals(List.of(1L, 3L), system.received, "The other sales should be delivered in order.");
+        assertEquals(1, queue.getRefusedCount(), "The refused sale should be counted.");
+        assertEquals(OfflineSaleQueue.MAX_ATTEMPTS, system.attempts.get(),
+                "The refused sale should be tried the maximum number of times.");
+        queue.stop();
+
+        try (SaleJournal deadLetters = new SaleJournal(deadFile)) {
+            List<SaleSummaryDTO> dead = deadLetters.peek(10);
+            assertEquals(1, dead.size(), "The refused sale should be in the dead letters.");
+            assertEquals(2L, dead.get(0).getTimeOfSaleMillis(), "The dead letter should be the refused sale.");
+        }
+        queue = newQueue();
+    }
+
+    /**
+     * Tests that a batch size that is not positive is rejected.
+     */
+    @Test
+    void testNonPositiveBatchSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new OfflineSaleQueue("Test", null, sale -> {
+        }, 0, Duration.ofMillis(1), Duration.ofMillis(1)), "A batch size of zero should be rejected.");
+    }
+
+    /**
+     * Creates a queue over the journal file with short backoffs.
+     *
+     * @return The queue, not yet started.
+     * @throws IOException if the journal cannot be opened.
+     */
+    private OfflineSaleQueue newQueue() throws IOException {
+        return new OfflineSaleQueue("Test System", new SaleJournal(file), new SaleJournal(deadFile), system::deliver,
+                2, Duration.ofMillis(5), Duration.ofMillis(20));
+    }
+
+    /**
+     * Creates a paid sale without lines, identified by its time.
+     *
+     * @param epochMillis The time of the sale.
+     * @return The sale.
+     */
+    private static SaleSummaryDTO sale(long epochMillis) {
+        return new SaleSummaryDTO(new TimeOfSaleDTO(epochMillis), new BoughtItemsDTO(new ItemDTO[0], new int[0], 0),
+                new PaymentInfoDTO(BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.TEN, BigDecimal.ONE));
+    }
+
+    /**
+     * A stand-in external system that records the time of each delivered sale,
+     * can be made unreachable, and refuses the sales with the specified times.
+     */
+    private static class StubSystem {
+        private final List<Long> received = new CopyOnWriteArrayList<>();
+        private final Set<Long> refused = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private volatile boolean reachable = true;
+
+        void deliver(SaleSummaryDTO sale) {
+            if (!reachable) {
+                throw new ConnectionEstablishmentException("Unreachable.", "Test System");
+            }
+            if (refused.contains(sale.getTimeOfSaleMillis())) {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("Malformed sale.");
+            }
+            received.add(sale.getTimeOfSaleMillis());
+        }
+    }
+}
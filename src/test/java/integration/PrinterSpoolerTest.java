@@ -0,0 +1,269 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
+import src.main.java.processSale.integration.FilePrinterDevice;
+import src.main.java.processSale.integration.PrinterSpooler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the {@link PrinterSpooler} class.
+ */
+class PrinterSpoolerTest {
+    private StubDevice device;
+    private PrinterSpooler spooler;
+
+    /**
+     * Creates and starts a spooler with room for two receipts in front of a
+     * stub printer before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        device = new StubDevice();
+        spooler = new PrinterSpooler("Test Printer", device, 2, Duration.ofMillis(50), Duration.ofMillis(5),
+                Duration.ofMillis(20));
+        spooler.start();
+    }
+
+    /**
+     * Opens the printer and stops the spooler after each test.
+     *
+     * @throws InterruptedException if interrupted while stopping.
+     */
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        device.gate.countDown();
+        spooler.stop();
+    }
+
+    /**
+     * Tests that receipts written by several registers are printed in the
+     * order they were submitted, without the registers waiting for the
+     * printer.
+     *
+     * @throws Exception if a write fails or the test is interrupted.
+     */
+    @Test
+    void testPrintsInOrderInTheBackground() throws Exception {
+        WritableByteChannel first = spooler.channelFor("register-1");
+        WritableByteChannel second = spooler.channelFor("register-2");
+        first.write(receipt("A"));
+        second.write(receipt("B"));
+        assertEquals(2, spooler.getPendingCount(), "Both receipts should wait for the closed printer.");
+        device.gate.countDown();
+        assertTrue(spooler.awaitIdle(Duration.ofSeconds(5)), "Both receipts should be printed.");
+        assertEquals(List.of("A", "B"), device.printed, "Receipts should be printed in order.");
+        assertEquals(2, spooler.getPrintedCount(), "Each printed receipt should be counted.");
+    }
+
+    /**
+     * Tests that a register waits for a limited time when the queue is full,
+     * and then gets an error.
+     *
+     * @throws Exception if the test is interrupted.
+     */
+    @Test
+    void testFullQueueIsReported() throws Exception {
+        spooler.submit("register-1", bytes("A"));
+        assertTrue(device.entered.await(5, TimeUnit.SECONDS), "The first receipt should be printing.");
+        spooler.submit("register-1", bytes("B"));
+        spooler.submit("register-1", bytes("C"));
+        long start = System.nanoTime();
+        ConnectionEstablishmentException exception = assertThrows(ConnectionEstablishmentException.class,
+                () -> spooler.submit("register-1", bytes("D")), "A full queue should be reported.");
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(40).toNanos(),
+                "The register should wait for a free place first.");
+        assertEquals("Test Printer", exception.getSource(), "The printer should be the source of the error.");
+        assertEquals(3, spooler.getPendingCount(), "The rejected receipt should not be pending.");
+    }
+
+    /**
+     * Tests that a receipt that fails to print is printed again in full.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    void testFailedReceiptIsReprinted() throws InterruptedException {
+        device.gate.countDown();
+        device.failures.set(2);
+        spooler.submit("register-1", bytes("A"));
+        assertTrue(spooler.awaitIdle(Duration.ofSeconds(5)), "The receipt should be printed after the failures.");
+        assertEquals(List.of("A"), device.printed, "The receipt should be printed once in full.");
+        assertEquals(2, spooler.getReprintCount(), "Each failed print should be counted.");
+    }
+
+    /**
+     * Tests that stopping the spooler drops the receipts still queued, so
+     * waiting for the spooler to be idle finishes, and refuses new receipts.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    void testStopDropsQueuedReceipts() throws InterruptedException {
+        device.gate.countDown();
+        device.failures.set(Integer.MAX_VALUE);
+        spooler.submit("register-1", bytes("A"));
+        spooler.submit("register-1", bytes("B"));
+        spooler.stop();
+        assertEquals(0, spooler.getPendingCount(), "No receipt should be pending after a stop.");
+        assertTrue(spooler.awaitIdle(Duration.ofMillis(100)), "Waiting for the stopped spooler should finish.");
+        assertEquals(0, spooler.getPrintedCount(), "The dropped receipts should not count as printed.");
+        assertThrows(ConnectionEstablishmentException.class, () -> spooler.submit("register-1", bytes("C")),
+                "A stopped spooler should refuse receipts.");
+    }
+
+    /**
+     * Tests that a spooler whose worker is interrupted stops visibly: its
+     * receipts are dropped and new receipts are refused.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    void testInterruptedWorkerStops() throws InterruptedException {
+        device.gate.countDown();
+        device.interrupt.set(true);
+        spooler.submit("register-1", bytes("A"));
+        assertTrue(spooler.awaitIdle(Duration.ofSeconds(5)), "The interrupted receipt should no longer be pending.");
+        assertThrows(ConnectionEstablishmentException.class, () -> spooler.submit("register-1", bytes("B")),
+                "A spooler whose worker was interrupted should refuse receipts.");
+        assertEquals(0, spooler.getPrintedCount(), "The interrupted receipt should not count as printed.");
+    }
+
+    /**
+     * Tests that the file printer appends receipts to its file.
+     *
+     * @param directory A temporary directory for the printer file.
+     * @throws IOException if the printer file cannot be written.
+     */
+    @Test
+    void testFilePrinterDevice(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("printer.txt");
+        try (FilePrinterDevice printer = new FilePrinterDevice(file, Duration.ZERO)) {
+            printer.write(receipt("A\n"));
+            printer.write(receipt("B\n"));
+        }
+        assertEquals("A\nB\n", Files.readString(file), "Receipts should be appended to the file.");
+    }
+
+    /**
+     * Tests that the file printer can print again after a write was
+     * interrupted, which closes the underlying file channel.
+     *
+     * @param directory A temporary directory for the printer file.
+     * @throws IOException if the printer file cannot be written.
+     */
+    @Test
+    void testFilePrinterDeviceReopensAfterInterrupt(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("printer.txt");
+        try (FilePrinterDevice printer = new FilePrinterDevice(file, Duration.ZERO)) {
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(IOException.class, () -> printer.write(receipt("A\n")),
+                        "An interrupted write should fail.");
+            } finally {
+                Thread.interrupted();
+            }
+            assertTrue(printer.isOpen(), "The printer should stay open after an interrupted write.");
+            printer.write(receipt("B\n"));
+        }
+        assertTrue(Files.readString(file).endsWith("B\n"), "The next receipt should be printed.");
+    }
+
+    /**
+     * Encodes a receipt.
+     *
+     * @param text The text of the receipt.
+     * @return The encoded receipt.
+     */
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes a receipt in a buffer.
+     *
+     * @param text The text of the receipt.
+     * @return The buffer.
+     */
+    private static ByteBuffer receipt(String text) {
+        return ByteBuffer.wrap(bytes(text));
+    }
+
+    /**
+     * A stand-in printer that waits until it is opened, can be made to fail
+     * a number of prints, and records what it prints.
+     */
+    private static class StubDevice implements WritableByteChannel {
+        private final List<String> printed = new CopyOnWriteArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicBoolean interrupt = new AtomicBoolean();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        /**
+         * Waits until the printer is opened, then prints a receipt or fails.
+         * If asked to, interrupts the printing thread and fails.
+         *
+         * @param source The receipt.
+         * @return The number of bytes printed.
+         * @throws IOException if the print is made to fail.
+         */
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            entered.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (interrupt.get()) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while printing.");
+            }
+            if (failures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                source.position(source.position() + 1);
+                throw new IOException("Paper jam.");
+            }
+            int count = source.remaining();
+            byte[] bytes = new byte[count];
+            source.get(bytes);
+            printed.add(new String(bytes, StandardCharsets.UTF_8));
+            return count;
+        }
+
+        /**
+         * Tells whether the printer is open, which it always is.
+         *
+         * @return {@code true}.
+         */
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        /**
+         * Does nothing, the stand-in printer holds no resources.
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
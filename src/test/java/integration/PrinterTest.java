@@ -3,9 +3,14 @@ package src.test.java.integration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import src.main.java.processSale.integration.Printer;
+import src.main.java.processSale.integration.ReceiptRenderer;
 import src.main.java.processSale.model.dto.*;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.HashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,7 +29,7 @@ class PrinterTest {
     @BeforeEach
     void setUp() {
         printer = new Printer();
-        timeOfSale = new TimeOfSaleDTO("2023-05-01_14:30");
+        timeOfSale = new TimeOfSaleDTO(Instant.parse("2023-05-01T14:30:00Z").toEpochMilli());
 
         // Mocking a SaleSummaryDTO with dummy data
         HashMap<ItemDTO, Integer> boughtItems = new HashMap<>();
@@ -98,4 +103,22 @@ class PrinterTest {
         assertDoesNotThrow(() -> printer.printReceipt(summaryWithNulls),
                 "Printing with a SaleSummaryDTO with null fields should not throw an exception.");
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Tests that a receipt printed after the next sale has created its receipt
+     * still shows the time of the completed sale.
+     */
+    @Test
+    void testPrintReceiptAfterNextSaleStarted() {
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        Printer background = new Printer(new ReceiptRenderer(Channels.newChannel(printed)));
+        background.createReceipt(timeOfSale);
+        TimeOfSaleDTO nextSale = new TimeOfSaleDTO(Instant.parse("2023-05-02T09:00:00Z").toEpochMilli());
+        background.createReceipt(nextSale);
+        background.printReceipt(saleSummary);
+        String receipt = printed.toString(StandardCharsets.UTF_8);
+        assertTrue(receipt.contains("Time of Sale: " + timeOfSale.getTimeStamp()),
+                "The receipt should show the time of the completed sale.");
+    }
+}
@@ -0,0 +1,246 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import src.main.java.processSale.integration.ReceiptArchive;
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.PaymentInfoDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.model.dto.TimeOfSaleDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for the {@link ReceiptArchive} class.
+ */
+class ReceiptArchiveTest {
+    private static final long SEGMENT_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private ReceiptArchive archive;
+
+    /**
+     * Opens and starts an empty archive before each test.
+     *
+     * @throws IOException if the archive cannot be opened.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        archive = new ReceiptArchive(directory, 100, SEGMENT_BYTES);
+        archive.start();
+    }
+
+    /**
+     * Stops the archive after each test.
+     *
+     * @throws InterruptedException if interrupted while stopping.
+     */
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        archive.stop();
+    }
+
+    /**
+     * Tests that an archived sale is found by its sale ID, with its lines and
+     * payment, both before and after it is written.
+     *
+     * @throws Exception if the archive fails or the test is interrupted.
+     */
+    @Test
+    void testArchivedSaleIsFound() throws Exception {
+        long saleID = archive.submit(sale(1000, 3));
+        assertEquals(1, saleID, "Sale IDs should start at 1.");
+        assertNotNull(archive.find(saleID), "A sale should be found before it is written.");
+        assertTrue(archive.awaitArchived(Duration.ofSeconds(5)), "The sale should be written.");
+
+        SaleSummaryDTO found = archive.find(saleID);
+        assertEquals(1000, found.getTimeOfSaleMillis(), "The time of the sale should be kept.");
+        assertEquals(3, found.getBoughtItems().getQuantity(0), "The quantity should be kept.");
+        assertEquals("Archived counted", found.getBoughtItems().getItem(0).getName(), "The item should be kept.");
+        assertEquals(new BigDecimal("0.250"), found.getBoughtItems().getWeight(1), "The weight should be kept.");
+        assertEquals(new BigDecimal("70.00"), found.getChange(), "The change should be kept.");
+        assertEquals(new BigDecimal("2.00"), found.getTotalVAT(), "The VAT should be kept.");
+        assertNull(archive.find(2), "A sale ID that was not given out should not be found.");
+        assertEquals(1, archive.getArchivedCount(), "The written sale should be counted.");
+    }
+
+    /**
+     * Tests that archived sales are found after the archive is reopened, and
+     * that sale IDs go on counting.
+     *
+     * @throws Exception if the archive fails or the test is interrupted.
+     */
+    @Test
+    void testSalesAreKeptAcrossRestarts() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            archive.submit(sale(1000 * i, i));
+        }
+        archive.stop();
+
+        archive = new ReceiptArchive(directory, 100, SEGMENT_BYTES);
+        archive.start();
+        assertEquals(2, archive.find(2).getBoughtItems().getQuantity(0), "A sale should be read from disk.");
+        assertEquals(4, archive.submit(sale(4000, 4)), "Sale IDs should go on after a restart.");
+        assertTrue(archive.awaitArchived(Duration.ofSeconds(5)), "The new sale should be written.");
+        assertEquals(2, archive.getSegmentCount(), "The new sale should start a new segment.");
+        assertEquals(4, archive.find(4).getBoughtItems().getQuantity(0), "The new sale should be found.");
+    }
+
+    /**
+     * Tests that a reprinted receipt shows the price each line was sold at,
+     * even after the item has been repriced and the archive reopened.
+     *
+     * @throws Exception if the archive fails or the test is interrupted.
+     */
+    @Test
+    void testArchivedPriceSurvivesRepricing() throws Exception {
+        archive.submit(sale(1000, 2));
+        ItemDTO repriced = new ItemDTO("Archived counted", "archive-1", "Counted_item", new BigDecimal("12.50"),
+                new BigDecimal("0.25"));
+        archive.submit(new SaleSummaryDTO(new TimeOfSaleDTO(2000),
+                new BoughtItemsDTO(new ItemDTO[] {repriced}, new int[] {2}, 1),
+                new PaymentInfoDTO(new BigDecimal("25.00"), BigDecimal.ZERO, new BigDecimal("25.00"),
+                        new BigDecimal("5.00"))));
+        archive.stop();
+
+        archive = new ReceiptArchive(directory, 100, SEGMENT_BYTES);
+        archive.start();
+        assertEquals(0, new BigDecimal("20").compareTo(archive.find(1).getBoughtItems().getLinePrice(0)),
+                "The earlier sale should keep the old price.");
+        assertEquals(0, new BigDecimal("25").compareTo(archive.find(2).getBoughtItems().getLinePrice(0)),
+                "The later sale should have the new price.");
+    }
+
+    /**
+     * Tests that sales are found by time across segments.
+     *
+     * @throws Exception if the archive fails or the test is interrupted.
+     */
+    @Test
+    void testFindByTimeAcrossSegments() throws Exception {
+        archive.stop();
+        archive = new ReceiptArchive(directory, 100, 1);
+        archive.start();
+        for (int i = 1; i <= 10; i++) {
+            archive.submit(sale(1000 * i, i));
+        }
+        assertTrue(archive.awaitArchived(Duration.ofSeconds(5)), "The sales should be written.");
+
+        assertEquals(10, archive.getSegmentCount(), "Each sale should fill a segment of one byte.");
+        assertEquals(List.of(3L, 4L, 5L, 6L), archive.findSaleIDs(3000, 6000, 10),
+                "The sales in the range should be found.");
+        assertEquals(List.of(3L, 4L), archive.findSaleIDs(2500, 6000, 2), "At most the limit should be found.");
+        assertEquals(List.of(), archive.findSaleIDs(20_000, 30_000, 10), "No sale should be found after the last.");
+        assertEquals(7, archive.find(7).getBoughtItems().getQuantity(0), "A sale should be found in its segment.");
+    }
+
+    /**
+     * Tests that a sale that started before the sale archived ahead of it is
+     * indexed at the later time.
+     *
+     * @throws Exception if the archive fails or the test is interrupted.
+     */
+    @Test
+    void testOutOfOrderSaleIsIndexedAtLaterTime() throws Exception {
+        archive.submit(sale(5000, 1));
+        archive.submit(sale(4000, 2));
+        assertTrue(archive.awaitArchived(Duration.ofSeconds(5)), "The sales should be written.");
+
+        assertEquals(List.of(1L, 2L), archive.findSaleIDs(5000, 5000, 10),
+                "The earlier sale should be indexed at the time of the sale before it.");
+        assertEquals(4000, archive.find(2).getTimeOfSaleMillis(), "The sale should keep its own time.");
+    }
+
+    /**
+     * Tests that an index entry torn by a crash is dropped when the archive
+     * is reopened.
+     *
+     * @throws Exception if the archive fails or the test is interrupted.
+     */
+    @Test
+    void testTornIndexEntryIsDropped() throws Exception {
+        archive.submit(sale(1000, 1));
+        archive.submit(sale(2000, 2));
+        archive.stop();
+        Path index;
+        try (Stream<Path> files = Files.list(directory)) {
+            index = files.filter(file -> file.toString().endsWith(".idx")).findFirst().orElseThrow();
+        }
+        Files.write(index, new byte[40], StandardOpenOption.APPEND);
+
+        archive = new ReceiptArchive(directory, 100, SEGMENT_BYTES);
+        archive.start();
+        assertEquals(2, archive.find(2).getBoughtItems().getQuantity(0), "The written sales should be kept.");
+        assertEquals(3, archive.submit(sale(3000, 3)), "The torn entry should not take a sale ID.");
+    }
+
+    /**
+     * Tests that thousands of similar receipts spanning several compressed
+     * blocks take far less room than their records, and that any of them can
+     * be read.
+     *
+     * @throws Exception if the archive fails or the test is interrupted.
+     */
+    @Test
+    void testManyReceiptsAreCompressed() throws Exception {
+        int count = 5000;
+        for (int i = 1; i <= count; i++) {
+            archive.submit(sale(i, i % 7 + 1));
+        }
+        assertTrue(archive.awaitArchived(Duration.ofSeconds(30)), "The sales should be written.");
+
+        long size;
+        try (Stream<Path> files = Files.list(directory)) {
+            size = files.filter(file -> file.toString().endsWith(".dat")).mapToLong(file -> file.toFile().length())
+                    .sum();
+        }
+        assertTrue(size < count * 40L, "The receipts should be compressed, but took " + size + " bytes.");
+        for (long saleID : new long[] {1, 777, 2500, 4321, count}) {
+            assertEquals(saleID % 7 + 1, archive.find(saleID).getBoughtItems().getQuantity(0),
+                    "Sale " + saleID + " should be read from its block.");
+        }
+    }
+
+    /**
+     * Tests that an archive without room for waiting sales is rejected.
+     */
+    @Test
+    void testInvalidCapacityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ReceiptArchive(directory, 0, SEGMENT_BYTES),
+                "A capacity of zero should be rejected.");
+    }
+
+    /**
+     * Creates a sale with one counted and one weighed line.
+     *
+     * @param epochMillis The time of the sale.
+     * @param quantity    The quantity of the counted line.
+     * @return The sale.
+     */
+    private static SaleSummaryDTO sale(long epochMillis, int quantity) {
+        ItemDTO counted =
+                new ItemDTO("Archived counted", "archive-1", "Counted_item", BigDecimal.TEN, new BigDecimal("0.25"));
+        ItemDTO weighed =
+                new ItemDTO("Archived weighed", "archive-2", "Weighed_item", BigDecimal.TEN, new BigDecimal("0.12"));
+        BoughtItemsDTO lines = new BoughtItemsDTO(new ItemDTO[] {counted, weighed},
+                new int[] {quantity, 1}, new int[] {0, 250}, 2);
+        BigDecimal total = BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity));
+        return new SaleSummaryDTO(new TimeOfSaleDTO(epochMillis), lines,
+                new PaymentInfoDTO(new BigDecimal("100"), new BigDecimal("100.00").subtract(total), total,
+                        new BigDecimal("2.00")));
+    }
+}
@@ -0,0 +1,162 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
+import src.main.java.processSale.integration.ReceiptRenderer;
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.PaymentInfoDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.model.dto.TimeOfSaleDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Unit tests for the {@link ReceiptRenderer} class.
+ */
+class ReceiptRendererTest {
+    private TimeOfSaleDTO timeOfSale;
+    private SaleSummaryDTO saleSummary;
+    private RecordingChannel channel;
+    private ReceiptRenderer renderer;
+
+    /**
+     * Creates a paid sale with a counted line, a line sold by weight and an
+     * item with a name outside ASCII before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        timeOfSale = new TimeOfSaleDTO(Instant.parse("2023-05-01T14:30:00Z").toEpochMilli());
+        ItemDTO apple = new ItemDTO("Apple", "render-1", "Fresh_apple", new BigDecimal("10.005"),
+                new BigDecimal("0.12"));
+        ItemDTO cheese = new ItemDTO("Ost", "render-2", "Mild_cheese", new BigDecimal("129.90"),
+                new BigDecimal("0.12"));
+        ItemDTO cafe = new ItemDTO("Café_au_lait", "render-3", "Hot", new BigDecimal("1234.5"),
+                new BigDecimal("0.12"));
+        BoughtItemsDTO boughtItems = new BoughtItemsDTO(
+                new ItemDTO[] {apple, cheese, cafe}, new int[] {3, 2, 1},
+                new int[] {0, 1255, 0}, 3);
+        saleSummary = new SaleSummaryDTO(timeOfSale, boughtItems, new PaymentInfoDTO(new BigDecimal("2000"),
+                new BigDecimal("572.49"), new BigDecimal("1427.51"), new BigDecimal("152.95")));
+        channel = new RecordingChannel();
+        renderer = new ReceiptRenderer(channel);
+    }
+
+    /**
+     * Tests that the receipt is the same as when formatted with
+     * {@code String.format}, and is written in a single write.
+     */
+    @Test
+    void testMatchesFormattedReceipt() {
+        renderer.print(timeOfSale, saleSummary);
+        assertEquals(expectedReceipt(), channel.text(), "The receipt should match the formatted receipt.");
+        assertEquals(1, channel.writes, "The receipt should be written in one write.");
+    }
+
+    /**
+     * Tests that rendering again reuses the buffer without leaving parts of an
+     * earlier, longer receipt.
+     */
+    @Test
+    void testBufferIsReused() {
+        renderer.render(timeOfSale, saleSummary);
+        SaleSummaryDTO empty = new SaleSummaryDTO(timeOfSale, null, null);
+        String rendered = new String(renderer.render(timeOfSale, empty), StandardCharsets.UTF_8);
+        assertFalse(rendered.contains("Apple"), "Lines of the earlier receipt should not be left.");
+        assertTrue(rendered.contains("Total: null SEK"), "A missing amount should be rendered as null.");
+    }
+
+    /**
+     * Tests a custom template, and that malformed templates are rejected.
+     */
+    @Test
+    void testCustomTemplate() {
+        ReceiptRenderer compact = new ReceiptRenderer("{total};{change}\n", channel);
+        assertEquals(String.format("%.2f;%.2f%n", new BigDecimal("1427.51"), new BigDecimal("572.49")),
+                new String(compact.render(timeOfSale, saleSummary), StandardCharsets.UTF_8),
+                "The fields of the custom template should be filled in.");
+        assertThrows(IllegalArgumentException.class, () -> new ReceiptRenderer("{tip}", channel),
+                "An unknown field should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> new ReceiptRenderer("{total", channel),
+                "An unterminated field should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> new ReceiptRenderer("{name}", channel),
+                "A field of a sold line should be rejected in the receipt.");
+    }
+
+    /**
+     * Tests that a failed write is reported as a printer failure.
+     */
+    @Test
+    void testFailedWrite() {
+        channel.failing = true;
+        ConnectionEstablishmentException exception = assertThrows(ConnectionEstablishmentException.class,
+                () -> renderer.print(timeOfSale, saleSummary), "A failed write should be reported.");
+        assertEquals("Printer", exception.getSource(), "The printer should be the source of the failure.");
+    }
+
+    /**
+     * Formats the expected receipt the way the receipt was formatted before
+     * the renderer.
+     *
+     * @return The expected receipt.
+     */
+    private String expectedReceipt() {
+        return String.format("------------------ Begin receipt -------------------%n")
+                + String.format("Time of Sale: %s%n%n", timeOfSale.getTimeStamp())
+                + String.format("%s %d x %.2f = %.2f SEK%n", "Apple", 3, new BigDecimal("10.005"),
+                        new BigDecimal("30.015"))
+                + String.format("%s %.3f kg x %.2f = %.2f SEK%n", "Ost", new BigDecimal("1.255"),
+                        new BigDecimal("129.90"), new BigDecimal("163.02450"))
+                + String.format("%s %d x %.2f = %.2f SEK%n", "Café_au_lait", 1, new BigDecimal("1234.5"),
+                        new BigDecimal("1234.5"))
+                + String.format("Total: %.2f SEK%nVAT: %.2f SEK%n%n", new BigDecimal("1427.51"),
+                        new BigDecimal("152.95"))
+                + String.format("Cash: %.2f SEK%nChange: %.2f SEK%n", new BigDecimal("2000"),
+                        new BigDecimal("572.49"))
+                + String.format("------------------ End receipt ---------------------%n");
+    }
+
+    /**
+     * A channel that records what is written to it and counts the writes.
+     */
+    private static class RecordingChannel implements WritableByteChannel {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private int writes;
+        private boolean failing;
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            if (failing) {
+                throw new IOException("Out of paper.");
+            }
+            writes++;
+            int count = source.remaining();
+            byte[] bytes = new byte[count];
+            source.get(bytes);
+            written.write(bytes);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
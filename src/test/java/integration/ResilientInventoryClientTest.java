@@ -0,0 +1,152 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.integration.CircuitBreaker;
+import src.main.java.processSale.integration.CircuitOpenException;
+import src.main.java.processSale.integration.ConnectionEstablishmentException;
+import src.main.java.processSale.integration.InventoryClient;
+import src.main.java.processSale.integration.ResilientInventoryClient;
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the {@link ResilientInventoryClient} class.
+ */
+class ResilientInventoryClientTest {
+    private StubInventory remote;
+    private StubInventory offline;
+    private CircuitBreaker breaker;
+    private ResilientInventoryClient client;
+
+    /**
+     * Creates a client whose breaker opens after two failures, with an offline
+     * catalog, before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        remote = new StubInventory("Remote");
+        offline = new StubInventory("Offline");
+        breaker = new CircuitBreaker("External Inventory System", 2, Duration.ofMinutes(1), null);
+        client = new ResilientInventoryClient(remote, breaker, offline);
+    }
+
+    /**
+     * Tests that items are looked up in the inventory system while it works.
+     *
+     * @throws ItemNotFoundException if the item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testLooksUpRemoteWhileReachable() throws ItemNotFoundException {
+        assertEquals("Remote", client.getItem("abc").getName(), "The inventory system should answer.");
+        assertEquals(0, offline.lookups.get(), "The offline catalog should not be asked.");
+    }
+
+    /**
+     * Tests that the offline catalog answers when the inventory system fails,
+     * and that the inventory system is no longer called once the breaker opens.
+     *
+     * @throws ItemNotFoundException if the item is not found (should not happen
+     *                               in this test).
+     */
+    @Test
+    void testFallsBackWhileUnreachable() throws ItemNotFoundException {
+        remote.reachable = false;
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Offline", client.getItem("abc").getName(), "The offline catalog should answer.");
+        }
+        assertEquals(2, remote.lookups.get(), "The inventory system should not be called once the breaker opens.");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "The breaker should be open.");
+    }
+
+    /**
+     * Tests that batch lookups fall back to the offline catalog.
+     */
+    @Test
+    void testBatchFallsBackWhileUnreachable() {
+        remote.reachable = false;
+        ItemDTO[] items = client.getItems(new String[] {"a", "b"});
+        assertEquals("Offline", items[1].getName(), "The offline catalog should answer the batch.");
+    }
+
+    /**
+     * Tests that a missing item is reported without falling back and without
+     * counting as a failure.
+     */
+    @Test
+    void testMissingItemIsNotFailure() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ItemNotFoundException.class, () -> client.getItem("missing"),
+                    "A missing item should be reported.");
+        }
+        assertEquals(0, offline.lookups.get(), "The offline catalog should not be asked for a missing item.");
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "The breaker should stay closed.");
+    }
+
+    /**
+     * Tests that without an offline catalog the failure is reported, and fails
+     * fast once the breaker opens.
+     */
+    @Test
+    void testReportsFailureWithoutFallback() {
+        ResilientInventoryClient unguarded = new ResilientInventoryClient(remote, breaker, null);
+        remote.reachable = false;
+        assertThrows(ConnectionEstablishmentException.class, () -> unguarded.getItem("abc"),
+                "The failure should be reported.");
+        assertThrows(ConnectionEstablishmentException.class, () -> unguarded.getItem("abc"),
+                "The failure should be reported.");
+        assertThrows(CircuitOpenException.class, () -> unguarded.getItem("abc"),
+                "The open breaker should fail fast.");
+    }
+
+    /**
+     * A stand-in inventory that names its items after itself, and can be made
+     * unreachable.
+     */
+    private static class StubInventory implements InventoryClient {
+        private final String name;
+        private final AtomicInteger lookups = new AtomicInteger();
+        private volatile boolean reachable = true;
+
+        StubInventory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public ItemDTO getItem(String itemID) throws ItemNotFoundException {
+            lookups.incrementAndGet();
+            if (!reachable) {
+                throw new ConnectionEstablishmentException("Unreachable.", "External Inventory System");
+            }
+            if ("missing".equals(itemID)) {
+                throw new ItemNotFoundException("Missing.", itemID);
+            }
+            return new ItemDTO(name, itemID, "Stub_item", BigDecimal.TEN, new BigDecimal("0.25"));
+        }
+
+        @Override
+        public ItemDTO[] getItems(String[] itemIDs) {
+            ItemDTO[] items = new ItemDTO[itemIDs.length];
+            for (int i = 0; i < itemIDs.length; i++) {
+                try {
+                    items[i] = getItem(itemIDs[i]);
+                } catch (ItemNotFoundException e) {
+                    items[i] = null;
+                }
+            }
+            return items;
+        }
+
+        @Override
+        public void updateInventory(SaleSummaryDTO saleSummaryDTO) {
+        }
+    }
+}
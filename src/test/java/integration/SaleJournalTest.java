@@ -0,0 +1,189 @@
+package src.test.java.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import src.main.java.processSale.integration.Inventory;
+import src.main.java.processSale.integration.SaleJournal;
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+import src.main.java.processSale.model.dto.PaymentInfoDTO;
+import src.main.java.processSale.model.dto.SaleSummaryDTO;
+import src.main.java.processSale.model.dto.TimeOfSaleDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Unit tests for the {@link SaleJournal} class.
+ */
+class SaleJournalTest {
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private SaleJournal journal;
+
+    /**
+     * Opens an empty journal before each test.
+     *
+     * @throws IOException if the journal cannot be opened.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        file = directory.resolve("sales.journal");
+        journal = new SaleJournal(file);
+    }
+
+    /**
+     * Closes the journal after each test.
+     *
+     * @throws IOException if the journal cannot be closed.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * Tests that appended sales are retrieved oldest first, and removed once
+     * acknowledged.
+     *
+     * @throws IOException if the journal cannot be written.
+     */
+    @Test
+    void testSalesAreQueuedInOrder() throws IOException {
+        journal.append(sale(1000, 1));
+        journal.append(sale(2000, 2));
+        journal.append(sale(3000, 3));
+
+        List<SaleSummaryDTO> batch = journal.peek(2);
+        assertEquals(2, batch.size(), "At most the requested number of sales should be retrieved.");
+        assertEquals(1000, batch.get(0).getTimeOfSaleMillis(), "The oldest sale should come first.");
+        assertEquals(3, journal.size(), "Peeking should not remove sales.");
+
+        journal.acknowledge(2);
+        assertEquals(1, journal.size(), "Acknowledged sales should be removed.");
+        assertEquals(3000, journal.peek(5).get(0).getTimeOfSaleMillis(), "The remaining sale should be next.");
+    }
+
+    /**
+     * Tests that undelivered sales are queued again, with their lines and
+     * payment, when the journal is reopened.
+     *
+     * @throws IOException if the journal cannot be written or read.
+     */
+    @Test
+    void testUndeliveredSalesSurviveReopening() throws IOException {
+        journal.append(sale(1000, 1));
+        journal.append(sale(2000, 4));
+        journal.acknowledge(1);
+        journal.close();
+
+        journal = new SaleJournal(file);
+        assertEquals(1, journal.size(), "Only the undelivered sale should be queued again.");
+        SaleSummaryDTO restored = journal.peek(1).get(0);
+        assertEquals(2000, restored.getTimeOfSaleMillis(), "The time of the sale should be restored.");
+        assertEquals(0, new BigDecimal("40").compareTo(restored.getTotalPrice()),
+                "The payment of the sale should be restored.");
+        BoughtItemsDTO lines = restored.getBoughtItems();
+        assertEquals(2, lines.size(), "Both lines of the sale should be restored.");
+        assertEquals("journal-1", lines.getItem(0).getID(), "The item of the first line should be restored.");
+        assertEquals(4, lines.getQuantity(0), "The quantity of the first line should be restored.");
+        assertTrue(lines.isWeighed(1), "The weighed line should be restored as weighed.");
+        assertEquals(0, new BigDecimal("0.250").compareTo(lines.getWeight(1)),
+                "The weight of the weighed line should be restored.");
+    }
+
+    /**
+     * Tests that a restored sale keeps the price it was sold at, even if an
+     * inventory with a new price for the item is loaded before the journal is
+     * reopened, as when a register starts its subsystems in parallel.
+     *
+     * @throws IOException           if the journal or inventory file cannot be
+     *                               written or read.
+     * @throws ItemNotFoundException if the item is not in the inventory
+     *                               (should not happen in this test).
+     */
+    @Test
+    void testRestoredSaleKeepsItsPrice() throws IOException, ItemNotFoundException {
+        journal.append(sale(1000, 2));
+        journal.close();
+        Path repriced = Files.writeString(directory.resolve("inventory.txt"),
+                "Counted journal-1 Counted_item 99.00 0.25\n");
+        assertEquals(0, new BigDecimal("99").compareTo(new Inventory(repriced.toFile()).getItem("journal-1")
+                .getPrice()), "The inventory should have the new price.");
+
+        journal = new SaleJournal(file);
+        BoughtItemsDTO lines = journal.peek(1).get(0).getBoughtItems();
+        assertEquals(0, new BigDecimal("20").compareTo(lines.getLinePrice(0)),
+                "The restored line should keep the price it was sold at.");
+    }
+
+    /**
+     * Tests that the journal is truncated once every sale is delivered, and
+     * that later sales are still queued after reopening.
+     *
+     * @throws IOException if the journal cannot be written or read.
+     */
+    @Test
+    void testJournalIsTruncatedWhenDrained() throws IOException {
+        journal.append(sale(1000, 1));
+        journal.acknowledge(1);
+        assertEquals(0, Files.size(file), "A drained journal should be truncated.");
+
+        journal.append(sale(2000, 1));
+        journal.close();
+        journal = new SaleJournal(file);
+        assertEquals(1, journal.size(), "A sale appended after truncation should be queued again.");
+    }
+
+    /**
+     * Tests that a line torn by a crash is dropped, and that the next sale is
+     * still readable.
+     *
+     * @throws IOException if the journal cannot be written or read.
+     */
+    @Test
+    void testTornLineIsDropped() throws IOException {
+        journal.append(sale(1000, 1));
+        journal.close();
+        Files.writeString(file, "2\t2000\t10", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        journal = new SaleJournal(file);
+        assertEquals(1, journal.size(), "The torn line should be dropped.");
+        journal.append(sale(3000, 1));
+        journal.close();
+
+        journal = new SaleJournal(file);
+        assertEquals(2, journal.size(), "The sale appended after the torn line should be readable.");
+        assertEquals(3000, journal.peek(2).get(1).getTimeOfSaleMillis(), "The later sale should be restored.");
+    }
+
+    /**
+     * Creates a paid sale with one counted line and one weighed line.
+     *
+     * @param epochMillis The time of the sale.
+     * @param quantity    The quantity of the counted line.
+     * @return The sale.
+     */
+    private static SaleSummaryDTO sale(long epochMillis, int quantity) {
+        ItemDTO counted = new ItemDTO("Counted", "journal-1", "Counted_item", BigDecimal.TEN, new BigDecimal("0.25"));
+        ItemDTO weighed = new ItemDTO("Weighed", "journal-2", "Weighed_item", BigDecimal.TEN, new BigDecimal("0.12"));
+        BoughtItemsDTO lines = new BoughtItemsDTO(new ItemDTO[] {counted, weighed},
+                new int[] {quantity, 1}, new int[] {0, 250}, 2);
+        BigDecimal total = BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity));
+        return new SaleSummaryDTO(new TimeOfSaleDTO(epochMillis), lines,
+                new PaymentInfoDTO(new BigDecimal("100"), new BigDecimal("100").subtract(total), total,
+                        new BigDecimal("2.00")));
+    }
+}
@@ -0,0 +1,70 @@
+package src.test.java.loadgen;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.loadgen.LoadGenerator;
+import src.main.java.processSale.loadgen.LoadProfile;
+import src.main.java.processSale.loadgen.LoadReport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.PrintStream;
+
+/**
+ * Unit tests for the {@link LoadGenerator} class.
+ */
+class LoadGeneratorTest {
+    private LoadProfile profile;
+
+    /**
+     * Sets up a small load profile before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        profile = new LoadProfile(4, 50, 200, 1.0, 5, 0.1, 1);
+    }
+
+    /**
+     * Tests that a run completes every sale and reports consistent figures.
+     *
+     * @throws Exception if the run fails.
+     */
+    @Test
+    void testRun() throws Exception {
+        LoadReport report = new LoadGenerator(profile).run();
+        assertEquals(200, report.getSales(), "Every register should complete all its sales.");
+        assertTrue(report.getScans() >= report.getSales(), "Every sale should have at least one scan.");
+        assertTrue(report.getMisses() > 0 && report.getMisses() < report.getScans(),
+                "Some, but not all, scans should miss.");
+        assertTrue(report.getSalesPerSecond() > 0, "The throughput should be positive.");
+        assertTrue(report.getScanLatency(50) <= report.getScanLatency(99),
+                "The p50 latency should not exceed the p99 latency.");
+        assertTrue(report.getSaleLatency(99.9) > 0, "The sale latency should be recorded.");
+        assertTrue(report.toString().contains("p99="), "The report should list the percentiles.");
+    }
+
+    /**
+     * Tests that the console is restored after a run.
+     *
+     * @throws Exception if the run fails.
+     */
+    @Test
+    void testRunRestoresConsole() throws Exception {
+        PrintStream console = System.out;
+        new LoadGenerator(profile).run();
+        assertSame(console, System.out, "System.out should be restored after the run.");
+    }
+
+    /**
+     * Tests that invalid profiles are rejected.
+     */
+    @Test
+    void testInvalidProfile() {
+        assertThrows(IllegalArgumentException.class, () -> new LoadProfile(0, 1, 1, 1.0, 1, 0, 1),
+                "A profile without registers should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> new LoadProfile(1, 1, 1, 1.0, 0.5, 0, 1),
+                "A mean basket size below 1 should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> new LoadProfile(1, 1, 1, 1.0, 1, 2, 1),
+                "A miss rate above 1 should be rejected.");
+    }
+}
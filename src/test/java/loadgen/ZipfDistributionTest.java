@@ -0,0 +1,82 @@
+package src.test.java.loadgen;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.loadgen.ZipfDistribution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+/**
+ * Unit tests for the {@link ZipfDistribution} class.
+ */
+class ZipfDistributionTest {
+    private ZipfDistribution distribution;
+
+    /**
+     * Sets up a distribution over 100 ranks before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        distribution = new ZipfDistribution(100, 1.0);
+    }
+
+    /**
+     * Tests that the probabilities decrease with rank and sum to 1.
+     */
+    @Test
+    void testProbabilities() {
+        double sum = 0;
+        for (int rank = 0; rank < distribution.size(); rank++) {
+            sum += distribution.probability(rank);
+            if (rank > 0) {
+                assertTrue(distribution.probability(rank) < distribution.probability(rank - 1),
+                        "Less popular ranks should have lower probabilities.");
+            }
+        }
+        assertEquals(1.0, sum, 1e-9, "The probabilities should sum to 1.");
+        assertEquals(2.0, distribution.probability(0) / distribution.probability(1), 1e-9,
+                "With exponent 1, rank 0 should be twice as likely as rank 1.");
+    }
+
+    /**
+     * Tests that sampled ranks are in range and follow the distribution.
+     */
+    @Test
+    void testSample() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] counts = new int[distribution.size()];
+        int draws = 200_000;
+        for (int i = 0; i < draws; i++) {
+            int rank = distribution.sample(random);
+            assertTrue(rank >= 0 && rank < distribution.size(), "Sampled ranks should be in range.");
+            counts[rank]++;
+        }
+        assertEquals(distribution.probability(0), (double) counts[0] / draws, 0.01,
+                "The most popular rank should be drawn as often as its probability.");
+        assertTrue(counts[0] > counts[9], "Rank 0 should be drawn more often than rank 9.");
+    }
+
+    /**
+     * Tests that an exponent of 0 gives a uniform distribution.
+     */
+    @Test
+    void testUniform() {
+        ZipfDistribution uniform = new ZipfDistribution(4, 0);
+        for (int rank = 0; rank < uniform.size(); rank++) {
+            assertEquals(0.25, uniform.probability(rank), 1e-9, "Every rank should be equally likely.");
+        }
+    }
+
+    /**
+     * Tests that invalid parameters are rejected.
+     */
+    @Test
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1.0),
+                "A distribution without ranks should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(10, -1.0),
+                "A negative exponent should be rejected.");
+    }
+}
@@ -0,0 +1,113 @@
+package src.test.java.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.model.BestSellerSketch;
+import src.main.java.processSale.model.dto.BestSellerDTO;
+import src.main.java.processSale.model.dto.ItemDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the {@link BestSellerSketch} class.
+ */
+class BestSellerSketchTest {
+    private BestSellerSketch sketch;
+    private ItemDTO testItem1;
+    private ItemDTO testItem2;
+
+    /**
+     * Sets up a new BestSellerSketch instance and test items before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        sketch = new BestSellerSketch(256, 4);
+        testItem1 = new ItemDTO("Apple", "001", "Fresh red apple", new BigDecimal(10.0), new BigDecimal(0.12));
+        testItem2 = new ItemDTO("Banana", "002", "Yellow banana", new BigDecimal(15.0), new BigDecimal(0.06));
+    }
+
+    /**
+     * Tests that the best sellers are ordered by quantity sold.
+     */
+    @Test
+    void testTopNIsOrderedByQuantity() {
+        sketch.record(testItem1, 2);
+        sketch.record(testItem2, 5);
+        List<BestSellerDTO> top = sketch.topN(2);
+        assertEquals(2, top.size(), "Both recorded items should be returned.");
+        assertEquals("002", top.get(0).getItem().getID(), "The item sold most should be ranked first.");
+        assertEquals(5, top.get(0).getEstimatedQuantity(), "Estimate should match the recorded quantity.");
+    }
+
+    /**
+     * Tests that the estimate never undercounts the recorded quantity.
+     */
+    @Test
+    void testEstimateNeverUndercounts() {
+        sketch.record(testItem1, 3);
+        sketch.record(testItem1, 4);
+        assertTrue(sketch.estimate(testItem1) >= 7, "Estimate should be at least the recorded quantity.");
+        assertEquals(0, sketch.estimate(testItem2), "An unseen item should have no sales.");
+    }
+
+    /**
+     * Tests that a frequently sold item replaces rarely sold candidates when the
+     * candidate table is full.
+     */
+    @Test
+    void testHeavyHitterReplacesRareCandidate() {
+        List<ItemDTO> rareItems = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rareItems.add(new ItemDTO("Rare" + i, "R" + i, "Rare item", BigDecimal.ONE, BigDecimal.ZERO));
+        }
+        rareItems.forEach(item -> sketch.record(item, 1));
+        sketch.record(testItem1, 100);
+        assertEquals("001", sketch.topN(1).get(0).getItem().getID(),
+                "The heavy hitter should be tracked even after the table has filled up.");
+    }
+
+    /**
+     * Tests that invalid records are ignored.
+     */
+    @Test
+    void testInvalidRecordsAreIgnored() {
+        sketch.record(null, 1);
+        sketch.record(testItem1, 0);
+        assertTrue(sketch.topN(5).isEmpty(), "No items should be tracked after invalid records.");
+    }
+
+    /**
+     * Tests that concurrent recording does not lose any updates.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting.
+     */
+    @Test
+    void testConcurrentRecording() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    sketch.record(testItem1, 1);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000, sketch.estimate(testItem1), "No concurrent update should be lost.");
+    }
+
+    /**
+     * Tests that creating a sketch with an invalid size throws an exception.
+     */
+    @Test
+    void testInvalidSizeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new BestSellerSketch(0, 4),
+                "Creating a sketch with zero width should throw IllegalArgumentException.");
+    }
+}
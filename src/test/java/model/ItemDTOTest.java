@@ -0,0 +1,38 @@
+package src.test.java.model;
+
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.model.dto.ItemDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Unit tests for the equality of {@link ItemDTO} objects.
+ */
+class ItemDTOTest {
+
+    /**
+     * Tests that items are equal only if they have the same price as well as
+     * the same identifier.
+     */
+    @Test
+    void testItemsWithDifferentPricesAreNotEqual() {
+        ItemDTO item = new ItemDTO("Pear", "item-1", "Pear", new BigDecimal("7.0"), new BigDecimal("0.12"));
+        ItemDTO sameValue = new ItemDTO("Pear", "item-1", "Pear", new BigDecimal("7.00"), new BigDecimal("0.12"));
+        ItemDTO repriced = new ItemDTO("Pear", "item-1", "Pear", new BigDecimal("8.00"), new BigDecimal("0.12"));
+        assertEquals(item, sameValue, "Items with the same price at another scale should be equal.");
+        assertEquals(item.hashCode(), sameValue.hashCode(), "Equal items should have the same hash code.");
+        assertNotEquals(item, repriced, "Items with different prices should not be equal.");
+    }
+
+    /**
+     * Tests that creating an item with a null identifier throws an exception.
+     */
+    @Test
+    void testNullIDThrowsException() {
+        assertThrows(NullPointerException.class,
+                () -> new ItemDTO("Nothing", null, "No ID", BigDecimal.ONE, BigDecimal.ZERO),
+                "Creating an item without an ID should throw NullPointerException.");
+    }
+}
@@ -3,6 +3,7 @@ package src.test.java.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import src.main.java.processSale.model.ItemList;
+import src.main.java.processSale.model.dto.BoughtItemsDTO;
 import src.main.java.processSale.model.dto.ItemDTO;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,7 +35,7 @@ class ItemListTest {
     void testAddNewItem() {
         itemList.addNewItem(testItem1);
         assertTrue(itemList.checkItem("001"), "Item should exist after being added.");
-        assertEquals(1, itemList.getBoughtItemsDTO().getBoughtItems().get(testItem1), "Item quantity should be 1.");
+        assertEquals(1, itemList.getBoughtItemsDTO().getQuantity(testItem1), "Item quantity should be 1.");
     }
 
     /**
@@ -63,7 +64,7 @@ class ItemListTest {
     void testIncreaseQuantity() {
         itemList.addNewItem(testItem1);
         itemList.increaseQuantity("001");
-        assertEquals(2, itemList.getBoughtItemsDTO().getBoughtItems().get(testItem1), "Item quantity should be 2.");
+        assertEquals(2, itemList.getBoughtItemsDTO().getQuantity(testItem1), "Item quantity should be 2.");
     }
 
     /**
@@ -105,11 +106,11 @@ class ItemListTest {
     void testGetBoughtItemsDTO() {
         itemList.addNewItem(testItem1);
         itemList.addNewItem(testItem2);
-        assertEquals(2, itemList.getBoughtItemsDTO().getBoughtItems().size(),
+        assertEquals(2, itemList.getBoughtItemsDTO().size(),
                 "BoughtItemsDTO should contain all items.");
-        assertTrue(itemList.getBoughtItemsDTO().getBoughtItems().containsKey(testItem1),
+        assertTrue(itemList.getBoughtItemsDTO().contains(testItem1),
                 "BoughtItemsDTO should contain testItem1.");
-        assertTrue(itemList.getBoughtItemsDTO().getBoughtItems().containsKey(testItem2),
+        assertTrue(itemList.getBoughtItemsDTO().contains(testItem2),
                 "BoughtItemsDTO should contain testItem2.");
     }
 
@@ -118,7 +119,114 @@ class ItemListTest {
      */
     @Test
     void testGetBoughtItemsDTOWhenEmpty() {
-        assertEquals(0, itemList.getBoughtItemsDTO().getBoughtItems().size(),
+        assertEquals(0, itemList.getBoughtItemsDTO().size(),
                 "BoughtItemsDTO should be empty initially.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the list keeps all items and quantities when it grows beyond its
+     * initial capacity.
+     */
+    @Test
+    void testManyItemsAreKept() {
+        for (int i = 0; i < 100; i++) {
+            itemList.addNewItem(new ItemDTO("Item" + i, "many-" + i, "Test item", BigDecimal.ONE, BigDecimal.ZERO));
+        }
+        itemList.increaseQuantity("many-42");
+        assertEquals(100, itemList.getBoughtItemsDTO().size(), "All items should be kept.");
+        assertTrue(itemList.checkItem("many-99"), "The last added item should be found.");
+        assertEquals(2, itemList.getBoughtItemsDTO().getQuantity(itemList.getItem("many-42")),
+                "The increased quantity should be kept.");
+    }
+
+    /**
+     * Tests that a BoughtItemsDTO snapshot is not affected by later changes to
+     * the list.
+     */
+    @Test
+    void testBoughtItemsDTOIsSnapshot() {
+        itemList.addNewItem(testItem1);
+        BoughtItemsDTO snapshot = itemList.getBoughtItemsDTO();
+        itemList.increaseQuantity("001");
+        itemList.addNewItem(testItem2);
+
+        assertEquals(1, snapshot.size(), "The snapshot should keep its original lines.");
+        assertEquals(1, snapshot.getQuantity(0), "The snapshot should keep its original quantity.");
+        assertEquals("001", snapshot.getItem(0).getID(), "The snapshot should resolve the item by index.");
+    }
+
+    /**
+     * Tests adding quantities of items, both on new lines and on an existing
+     * line.
+     */
+    @Test
+    void testAddQuantity() {
+        itemList.addQuantity(testItem1, 3);
+        itemList.addQuantity(testItem2, 1);
+        itemList.addQuantity(testItem1, 2);
+        BoughtItemsDTO boughtItems = itemList.getBoughtItemsDTO();
+        assertEquals(2, boughtItems.size(), "Each distinct item should have one line.");
+        assertEquals(5, boughtItems.getQuantity(testItem1), "The quantities of an item should be summed.");
+        assertThrows(IllegalArgumentException.class, () -> itemList.addQuantity(testItem2, 0),
+                "A quantity that is not positive should be rejected.");
+    }
+
+    /**
+     * Tests increasing the quantity of an item by several units at once.
+     */
+    @Test
+    void testIncreaseQuantityBySeveralUnits() {
+        itemList.addNewItem(testItem1, 6);
+        String printout = itemList.increaseQuantity("001", 18);
+        assertEquals(24, itemList.getBoughtItemsDTO().getQuantity(testItem1), "Item quantity should be 24.");
+        assertTrue(printout.startsWith("Added 18 items with ID 001"), "The printout should show the added quantity.");
+    }
+
+    /**
+     * Tests that weighings of a loose item are added to one line.
+     */
+    @Test
+    void testAddWeight() {
+        itemList.addWeight(testItem2, 1250);
+        itemList.addWeight(testItem2, 500);
+        BoughtItemsDTO boughtItems = itemList.getBoughtItemsDTO();
+        assertEquals(1, boughtItems.size(), "Both weighings should be on one line.");
+        assertTrue(boughtItems.isWeighed(0), "The line should be sold by weight.");
+        assertEquals(0, new BigDecimal("1.750").compareTo(boughtItems.getWeight(0)), "The weights should be summed.");
+        assertEquals(0, new BigDecimal("26.25").compareTo(boughtItems.getLinePrice(0)),
+                "The line price should be the price per kilogram times the weight.");
+    }
+
+    /**
+     * Tests that an item cannot be both counted and weighed.
+     */
+    @Test
+    void testMixingCountedAndWeighedThrowsException() {
+        itemList.addNewItem(testItem1);
+        itemList.addWeight(testItem2, 300);
+        assertThrows(IllegalArgumentException.class, () -> itemList.addWeight(testItem1, 300),
+                "A counted item should not be weighed.");
+        assertThrows(IllegalArgumentException.class, () -> itemList.increaseQuantity("002", 2),
+                "A weighed item should not be counted.");
+    }
+
+
+    /**
+     * Tests that quantities and weights that would overflow a line are
+     * rejected with IllegalArgumentException and leave the line unchanged.
+     */
+    @Test
+    void testOverflowingLineThrowsException() {
+        itemList.addNewItem(testItem1, Integer.MAX_VALUE);
+        itemList.addWeight(testItem2, Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> itemList.increaseQuantity("001", 1),
+                "A quantity beyond the range of int should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> itemList.addQuantity(testItem1, 1),
+                "A quantity beyond the range of int should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> itemList.addWeight(testItem2, 1),
+                "A weight beyond the range of int should be rejected.");
+        BoughtItemsDTO boughtItems = itemList.getBoughtItemsDTO();
+        assertEquals(Integer.MAX_VALUE, boughtItems.getQuantity(testItem1), "The quantity should be unchanged.");
+        assertEquals(1, boughtItems.getQuantity(testItem2), "The number of weighings should be unchanged.");
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import src.main.java.processSale.model.RegisterCashCompartment;
 import src.main.java.processSale.model.RevenueObserver;
+import src.main.java.processSale.model.dto.RevenueWindowsDTO;
 
 import java.math.BigDecimal;
 
@@ -82,4 +83,39 @@ class RegisterCashCompartmentTest {
         assertThrows(NullPointerException.class, () -> register.addToCashCompartment(new BigDecimal("5.00")),
                 "Adding cash with a null observer should throw NullPointerException.");
     }
+
+    /**
+     * Tests that payments are counted in the revenue windows.
+     */
+    @Test
+    void testRevenueWindowsCountPayments() {
+        register.addObserver(observer);
+        register.addToCashCompartment(new BigDecimal("50.00"));
+        register.addToCashCompartment(new BigDecimal("25.50"));
+        RevenueWindowsDTO windows = register.getRevenueWindows();
+
+        assertEquals(0, new BigDecimal("75.50").compareTo(windows.getLastMinuteRevenue()),
+                "Revenue of the last minute should include both payments.");
+        assertEquals(0, new BigDecimal("75.50").compareTo(windows.getTodayRevenue()),
+                "Revenue of today should include both payments.");
+        assertEquals(2, windows.getLastHourPayments(), "Both payments should be counted in the last hour.");
+    }
+
+
+    /**
+     * Tests that a payment too large to count in öre throws and leaves the
+     * total and the revenue windows unchanged.
+     */
+    @Test
+    void testTooLargePaymentChangesNothing() {
+        register.addObserver(observer);
+        register.addToCashCompartment(new BigDecimal("10.00"));
+        assertThrows(ArithmeticException.class, () -> register.addToCashCompartment(new BigDecimal("1E30")),
+                "A payment too large to count in öre should throw ArithmeticException.");
+
+        assertEquals(0, new BigDecimal("10.00").compareTo(register.getTotalCash()),
+                "The total should not include the failed payment.");
+        assertEquals(1, register.getRevenueWindows().getLastHourPayments(),
+                "The failed payment should not be counted.");
+    }
 }
@@ -3,6 +3,8 @@ package src.test.java.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import src.main.java.processSale.integration.DiscountEngine;
+import src.main.java.processSale.integration.DiscountRule;
 import src.main.java.processSale.model.InsufficientPaymentException;
 import src.main.java.processSale.model.RegisterCashCompartment;
 import src.main.java.processSale.model.Sale;
@@ -13,6 +15,11 @@ import src.main.java.processSale.view.TotalRevenueView;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Unit tests for the {@link Sale} class.
@@ -146,4 +153,192 @@ class SaleTest {
         assertEquals(0, sale.processSale(new BigDecimal(1000.0)).getTotalVAT().compareTo(new BigDecimal(250.0)),
                 "Total VAT should be correctly calculated.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the time of sale is taken from the injected clock.
+     */
+    @Test
+    void testTimeOfSaleComesFromClock() {
+        Instant start = Instant.parse("2024-05-01T10:15:30.250Z");
+        Sale clockedSale = new Sale(cashRegister, Clock.fixed(start, ZoneOffset.UTC));
+        assertEquals(start.toEpochMilli(), clockedSale.getTimeOfSale().getEpochMillis(),
+                "Time of sale should have millisecond precision from the clock.");
+    }
+
+    /**
+     * Tests adding a basket of items, including an item added twice and a
+     * missing item.
+     */
+    @Test
+    void testAddItems() {
+        String printout = sale.addItems(new ItemDTO[] { testItem1, null, testItem2, testItem1 },
+                new int[] { 2, 1, 1, 3 });
+        assertEquals(0, new BigDecimal(65).compareTo(sale.getRunningTotal()),
+                "Running total should include every unit of the basket.");
+        assertTrue(sale.itemExists("001") && sale.itemExists("002"), "Both items should be in the sale.");
+        assertTrue(printout.startsWith("Added 6 items:"), "The printout should describe the whole basket.");
+    }
+
+    /**
+     * Tests that a basket holding an item already weighed in the sale is
+     * rejected without changing the sale.
+     */
+    @Test
+    void testAddItemsWithWeighedItemLeavesSaleUnchanged() {
+        sale.addWeighedItem(testItem2, new BigDecimal("0.500"));
+        assertThrows(IllegalArgumentException.class,
+                () -> sale.addItems(new ItemDTO[] { testItem1, testItem2 }, new int[] { 1, 1 }),
+                "A basket with a weighed item should be rejected.");
+        assertFalse(sale.itemExists("001"), "No item of the rejected basket should be added.");
+        assertEquals(0, new BigDecimal("7.5").compareTo(sale.getRunningTotal()),
+                "The running total should only include the weighed item.");
+    }
+
+    /**
+     * Tests that basket units added to an existing line are priced with the
+     * item on the line.
+     */
+    @Test
+    void testAddItemsUsesPriceOnLine() {
+        sale.addItem(testItem1);
+        ItemDTO repriced = new ItemDTO("Apple", "001", "Fresh red apple", new BigDecimal("12.50"),
+                new BigDecimal("0.12"));
+        sale.addItems(new ItemDTO[] { repriced }, new int[] { 1 });
+        assertEquals(0, new BigDecimal("20").compareTo(sale.getRunningTotal()),
+                "The added unit should be priced like the rest of its line.");
+    }
+
+    /**
+     * Tests adding and increasing an item by several units at once.
+     */
+    @Test
+    void testAddItemWithQuantity() {
+        sale.addItem(testItem1, 12);
+        sale.increaseItemQuantity("001", 12);
+        assertEquals(0, new BigDecimal(240).compareTo(sale.getRunningTotal()),
+                "Running total should include all 24 units.");
+    }
+
+    /**
+     * Tests adding a loose item by weight, rounded to whole grams.
+     */
+    @Test
+    void testAddWeighedItem() {
+        sale.addWeighedItem(testItem2, new BigDecimal("0.4996"));
+        assertEquals(0, new BigDecimal("7.50").compareTo(sale.getRunningTotal()),
+                "Running total should be the price per kilogram times 0.500 kg.");
+    }
+
+
+    /**
+     * Tests that discounts are applied once per line and to the basket, that
+     * the payment covers the discounted total, and that applying them again
+     * replaces the earlier discount.
+     *
+     * @throws InsufficientPaymentException if the payment is less than the total
+     *                                      price (should not happen in this test).
+     */
+    @Test
+    void testApplyDiscounts() throws InsufficientPaymentException {
+        cashRegister.addObserver(sumOfPayments -> {
+        });
+        DiscountEngine discounts = new DiscountEngine(List.of(
+                DiscountRule.forItem("001", new BigDecimal("50")),
+                DiscountRule.basketThreshold(new BigDecimal("20"), new BigDecimal("10"))), Map.of());
+        sale.addItem(testItem1, 2);
+        sale.addItem(testItem2);
+
+        assertEquals(0, new BigDecimal("12.50").compareTo(sale.applyDiscounts(discounts, null)),
+                "Half of 20 SEK of apples and 10 % of the remaining 25 SEK should be taken off.");
+        assertEquals(0, new BigDecimal("12.50").compareTo(sale.applyDiscounts(discounts, null)),
+                "Applying the discounts again should not add to the discount.");
+        assertEquals(0, new BigDecimal(35).compareTo(sale.getRunningTotal()),
+                "The running total should stay the undiscounted total.");
+
+        SaleSummaryDTO summary = sale.processSale(new BigDecimal("22.50"));
+        assertEquals(0, new BigDecimal("22.50").compareTo(summary.getTotalPrice()),
+                "The customer should pay the discounted total.");
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getChange()), "No change should be given back.");
+    }
+
+
+    /**
+     * Tests that the savings are kept up to date while the sale is scanned,
+     * and that ending the sale gives the same discount as pricing it at once.
+     */
+    @Test
+    void testSavingsWhileScanning() {
+        DiscountEngine discounts = new DiscountEngine(List.of(
+                DiscountRule.multiBuy("001", 3, 2),
+                DiscountRule.forItem("002", new BigDecimal("20")),
+                DiscountRule.forItem("002", new BigDecimal("50")).forCustomer("member")), Map.of());
+        sale.setDiscounts(discounts, null);
+        sale.addItem(testItem1, 2);
+        assertEquals(0, BigDecimal.ZERO.compareTo(sale.getSavings()), "Two apples should not complete the deal.");
+        String printout = sale.increaseItemQuantity("001");
+        assertEquals(0, BigDecimal.TEN.compareTo(sale.getSavings()), "The third apple should be free.");
+        assertTrue(printout.contains("Savings:"), "The printout should show the savings.");
+        sale.addItem(testItem2);
+        assertEquals(0, new BigDecimal("13.00").compareTo(sale.getSavings()),
+                "20 % of the banana should be added to the savings.");
+
+        assertEquals(0, new BigDecimal("13.00").compareTo(sale.applyDiscounts(discounts, "someone")),
+                "A customer without rules of their own should get the savings shown while scanning.");
+        assertEquals(0, new BigDecimal("17.50").compareTo(sale.applyDiscounts(discounts, "member")),
+                "A customer with rules of their own should have the lines priced again.");
+    }
+
+
+    /**
+     * Tests that a repriced item is charged at its new price in a later sale,
+     * while the earlier sale keeps the price its line was sold at.
+     *
+     * @throws InsufficientPaymentException if the payment is insufficient
+     *                                      (should not happen in this test).
+     */
+    @Test
+    void testRepricedItemInLaterSale() throws InsufficientPaymentException {
+        ItemDTO repriced = new ItemDTO("Apple", "001", "Fresh red apple", new BigDecimal("12.50"),
+                new BigDecimal("0.12"));
+        cashRegister.addObserver(new TotalRevenueView());
+        sale.addItem(testItem1);
+        Sale laterSale = new Sale(cashRegister);
+        laterSale.addItem(repriced);
+        assertEquals(0, new BigDecimal("12.50").compareTo(laterSale.getRunningTotal()),
+                "The later sale should be charged the new price.");
+        SaleSummaryDTO earlier = sale.processSale(BigDecimal.valueOf(100));
+        SaleSummaryDTO later = laterSale.processSale(BigDecimal.valueOf(100));
+        assertEquals(0, BigDecimal.TEN.compareTo(earlier.getBoughtItems().getLinePrice(0)),
+                "The earlier sale should keep the old price on its line.");
+        assertEquals(0, new BigDecimal("12.50").compareTo(later.getBoughtItems().getLinePrice(0)),
+                "The later sale should have the new price on its line.");
+    }
+
+
+    /**
+     * Tests that a weight too large to count in grams is rejected with
+     * IllegalArgumentException and leaves the sale unchanged.
+     */
+    @Test
+    void testTooHeavyWeighedItemIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> sale.addWeighedItem(testItem2, new BigDecimal("3000000")),
+                "A weight beyond the range of grams should throw IllegalArgumentException.");
+        assertFalse(sale.itemExists("002"), "The rejected weighing should not be added.");
+    }
+
+    /**
+     * Tests that a basket that would overflow the quantity of a line is
+     * rejected before any of its items is added.
+     */
+    @Test
+    void testAddItemsWithTooManyUnitsLeavesSaleUnchanged() {
+        sale.addItem(testItem1, Integer.MAX_VALUE - 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> sale.addItems(new ItemDTO[] { testItem2, testItem1, testItem1 }, new int[] { 1, 1, 1 }),
+                "A basket overflowing a line should be rejected.");
+        assertFalse(sale.itemExists("002"), "No item of the rejected basket should be added.");
+        assertDoesNotThrow(() -> sale.increaseItemQuantity("001", 1), "The line should still take its last unit.");
+        assertThrows(IllegalArgumentException.class, () -> sale.increaseItemQuantity("001", 1),
+                "Increasing a full line should throw IllegalArgumentException.");
+    }
+}
@@ -0,0 +1,152 @@
+package src.test.java.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.model.SlidingWindowCounter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SlidingWindowCounter} class.
+ */
+class SlidingWindowCounterTest {
+    private TestClock clock;
+    private SlidingWindowCounter counter;
+
+    /**
+     * Simple test clock whose time is advanced manually.
+     */
+    static class TestClock extends Clock {
+        Instant now = Instant.parse("2024-05-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    /**
+     * Sets up a new counter with a test clock before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        clock = new TestClock();
+        counter = new SlidingWindowCounter(clock);
+    }
+
+    /**
+     * Tests that amounts within the window are summed.
+     */
+    @Test
+    void testSumWithinWindow() {
+        counter.add(100);
+        clock.advance(Duration.ofSeconds(10));
+        counter.add(50);
+        assertEquals(150, counter.sumOfLast(60), "Both amounts should be within the last minute.");
+        assertEquals(50, counter.sumOfLast(5), "Only the latest amount should be within the last five seconds.");
+    }
+
+    /**
+     * Tests that amounts older than the window are not counted.
+     */
+    @Test
+    void testOldAmountsLeaveWindow() {
+        counter.add(100);
+        clock.advance(Duration.ofSeconds(61));
+        assertEquals(0, counter.sumOfLast(60), "The amount should have left the last minute.");
+        assertEquals(100, counter.sumOfLast(3600), "The amount should still be within the last hour.");
+    }
+
+    /**
+     * Tests that a bucket reused after a full lap of the ring starts from zero.
+     */
+    @Test
+    void testBucketIsResetAfterOneHour() {
+        counter.add(100);
+        clock.advance(Duration.ofHours(1));
+        counter.add(7);
+        assertEquals(7, counter.sumOfLast(3600), "The old amount in the reused bucket should be discarded.");
+    }
+
+    /**
+     * Tests that the daily sum restarts on a new day.
+     */
+    @Test
+    void testTodayRestartsOnNewDay() {
+        counter.add(100);
+        clock.advance(Duration.ofHours(5));
+        counter.add(20);
+        assertEquals(120, counter.sumOfToday(), "Both amounts should be counted today.");
+        clock.advance(Duration.ofHours(10));
+        assertEquals(0, counter.sumOfToday(), "Nothing should be counted on a new day.");
+        counter.add(5);
+        assertEquals(5, counter.sumOfToday(), "Only the new day's amount should be counted.");
+    }
+
+    /**
+     * Tests that concurrent additions are not lost.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting.
+     */
+    @Test
+    void testConcurrentAdditions() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    counter.add(1);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000, counter.sumOfLast(60), "No concurrent addition should be lost.");
+        assertEquals(4000, counter.sumOfToday(), "No concurrent addition should be lost today.");
+    }
+
+    /**
+     * Tests that a window longer than the ring throws an exception.
+     */
+    @Test
+    void testInvalidWindowThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> counter.sumOfLast(3601),
+                "A window longer than one hour should throw IllegalArgumentException.");
+    }
+
+
+    /**
+     * Tests that an amount too large for a bucket saturates the window and
+     * the day instead of throwing.
+     */
+    @Test
+    void testOverflowSaturates() {
+        counter.add(1L << 38);
+        assertDoesNotThrow(() -> counter.add(1L << 38), "An overflowing bucket should not throw.");
+        assertEquals((1L << 39) - 1, counter.sumOfLast(60), "The window should hold the largest amount.");
+        assertEquals((1L << 39) - 1, counter.sumOfToday(), "The day should hold the largest amount.");
+        counter.add(-1);
+        assertEquals((1L << 39) - 2, counter.sumOfLast(60), "A saturated bucket should still count down.");
+    }
+}
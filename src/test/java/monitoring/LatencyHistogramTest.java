@@ -0,0 +1,116 @@
+package src.test.java.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.monitoring.LatencyHistogram;
+import src.main.java.processSale.monitoring.LatencySummary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the {@link LatencyHistogram} class.
+ */
+class LatencyHistogramTest {
+    private LatencyHistogram histogram;
+
+    /**
+     * Sets up an empty histogram before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    /**
+     * Tests that an empty histogram reports zeros.
+     */
+    @Test
+    void testEmpty() {
+        assertEquals(0, histogram.getCount(), "An empty histogram should have no values.");
+        assertEquals(0, histogram.getValueAtPercentile(99), "An empty histogram should report 0.");
+        assertEquals(0.0, histogram.getMean(), "An empty histogram should have a mean of 0.");
+    }
+
+    /**
+     * Tests that small values are recorded exactly.
+     */
+    @Test
+    void testSmallValuesAreExact() {
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10, histogram.getCount(), "Every value should be counted.");
+        assertEquals(5, histogram.getValueAtPercentile(50), "The median should be exact for small values.");
+        assertEquals(10, histogram.getValueAtPercentile(100), "The maximum should be exact.");
+        assertEquals(5.5, histogram.getMean(), 1e-9, "The mean should be exact.");
+    }
+
+    /**
+     * Tests that percentiles of large values are within the relative error of
+     * the histogram.
+     */
+    @Test
+    void testPercentileAccuracy() {
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 * 0.035,
+                "The median should be within the relative error.");
+        assertEquals(99_000_000, histogram.getValueAtPercentile(99), 99_000_000 * 0.035,
+                "The p99 should be within the relative error.");
+        assertEquals(99_900_000, histogram.getValueAtPercentile(99.9), 99_900_000 * 0.035,
+                "The p999 should be within the relative error.");
+        assertEquals(100_000_000, histogram.getMax(), "The maximum should be exact.");
+    }
+
+    /**
+     * Tests that percentiles never exceed the highest recorded value.
+     */
+    @Test
+    void testPercentileNotAboveMax() {
+        histogram.record(1_000_001);
+        assertEquals(1_000_001, histogram.getValueAtPercentile(99.9), "The percentile should not exceed the max.");
+    }
+
+    /**
+     * Tests that the summary matches the histogram.
+     */
+    @Test
+    void testSummarize() {
+        histogram.record(100);
+        histogram.record(200);
+        LatencySummary summary = histogram.summarize();
+        assertEquals(2, summary.getCount(), "The summary should have the count.");
+        assertEquals(150.0, summary.getMean(), 1e-9, "The summary should have the mean.");
+        assertEquals(200, summary.getMax(), "The summary should have the max.");
+        assertTrue(summary.getP50() <= summary.getP99() && summary.getP99() <= summary.getP999(),
+                "The percentiles should be ordered.");
+    }
+
+    /**
+     * Tests that concurrent recording loses no values.
+     *
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     */
+    @Test
+    void testConcurrentRecording() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, histogram.getCount(), "No values should be lost.");
+        assertEquals(9_999, histogram.getMax(), "The maximum should be recorded.");
+    }
+}
@@ -0,0 +1,100 @@
+package src.test.java.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.integration.Inventory;
+import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.monitoring.MetricsHttpServer;
+import src.main.java.processSale.monitoring.PrometheusExporter;
+import src.main.java.processSale.monitoring.SaleMetrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Unit tests for the {@link MetricsHttpServer} class.
+ */
+class MetricsHttpServerTest {
+    private MetricsHttpServer server;
+    private HttpClient client;
+
+    /**
+     * Starts a server on a free port before each test.
+     *
+     * @throws Exception if the server cannot be started.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        PrometheusExporter exporter = new PrometheusExporter(new SaleMetrics(), new RegisterCashCompartment(),
+                new Inventory());
+        server = new MetricsHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), exporter);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    /**
+     * Stops the server after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    /**
+     * Tests that the metrics are served in the Prometheus format.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testMetrics() throws Exception {
+        HttpResponse<String> response = get("/metrics", "GET");
+        assertEquals(200, response.statusCode(), "The metrics should be served.");
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"),
+                "The metrics should use the Prometheus content type.");
+        assertTrue(response.body().contains("processsale_sales_total 0"), "The body should contain the metrics.");
+    }
+
+    /**
+     * Tests the health check.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testHealth() throws Exception {
+        HttpResponse<String> response = get("/health", "GET");
+        assertEquals(200, response.statusCode(), "The health check should succeed.");
+        assertEquals("{\"status\":\"UP\"}", response.body(), "The health check should report the status.");
+    }
+
+    /**
+     * Tests that other methods than GET and HEAD are rejected.
+     *
+     * @throws Exception if the request fails.
+     */
+    @Test
+    void testMethodNotAllowed() throws Exception {
+        assertEquals(405, get("/metrics", "DELETE").statusCode(), "Only GET and HEAD should be allowed.");
+    }
+
+    /**
+     * Sends a request to the server.
+     *
+     * @param path   The requested path.
+     * @param method The request method.
+     * @return The response.
+     * @throws Exception if the request fails.
+     */
+    private HttpResponse<String> get(String path, String method) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
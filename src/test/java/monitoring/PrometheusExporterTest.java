@@ -0,0 +1,86 @@
+package src.test.java.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.integration.Inventory;
+import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.monitoring.PrometheusExporter;
+import src.main.java.processSale.monitoring.SaleMetrics;
+import src.main.java.processSale.monitoring.SaleOperation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Unit tests for the {@link PrometheusExporter} class.
+ */
+class PrometheusExporterTest {
+    private SaleMetrics metrics;
+    private RegisterCashCompartment cashRegister;
+    private PrometheusExporter exporter;
+
+    /**
+     * Sets up an exporter for a register with one payment before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        metrics = new SaleMetrics();
+        cashRegister = new RegisterCashCompartment();
+        cashRegister.addObserver(sumOfPayments -> {
+        });
+        cashRegister.addToCashCompartment(new BigDecimal("123.45"));
+        exporter = new PrometheusExporter(metrics, cashRegister, new Inventory());
+    }
+
+    /**
+     * Tests that the counters and register totals are exported.
+     */
+    @Test
+    void testExportCountersAndTotals() {
+        metrics.countSale();
+        metrics.countScan();
+        metrics.countMiss();
+        String text = exporter.export();
+        assertTrue(text.contains("# TYPE processsale_sales_total counter\nprocesssale_sales_total 1\n"),
+                "The sales counter should be exported with its type.");
+        assertTrue(text.contains("processsale_scans_total 1\n"), "The scans counter should be exported.");
+        assertTrue(text.contains("processsale_scan_misses_total 1\n"), "The misses counter should be exported.");
+        assertTrue(text.contains("processsale_catalog_items 5\n"), "The catalog size should be exported.");
+        assertTrue(text.contains("processsale_revenue_observers 1\n"), "The observer count should be exported.");
+        assertTrue(text.contains("processsale_register_cash_sek 123.45\n"),
+                "The cash in the register should be exported.");
+        assertTrue(text.contains("processsale_payments{window=\"day\"} 1\n"),
+                "The payments of the day should be exported.");
+    }
+
+    /**
+     * Tests that the operation latencies are exported as a summary.
+     */
+    @Test
+    void testExportLatencies() {
+        metrics.recordLatency(SaleOperation.REGISTER_ITEM, 2_000_000);
+        String text = exporter.export();
+        assertTrue(text.contains("# TYPE processsale_operation_latency_seconds summary\n"),
+                "The latencies should be exported as a summary.");
+        assertTrue(text.contains("processsale_operation_latency_seconds_count{operation=\"registerItem\"} 1\n"),
+                "The latency count should be exported.");
+        assertTrue(text.contains("processsale_operation_latency_seconds{operation=\"registerItem\",quantile=\"0.99\"}"),
+                "The p99 latency should be exported.");
+    }
+
+    /**
+     * Tests that every sample line has a name and a numeric value.
+     */
+    @Test
+    void testExportIsWellFormed() {
+        for (String line : exporter.export().split("\n")) {
+            if (line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(" ");
+            assertEquals(2, parts.length, "Every sample should have a name and a value: " + line);
+            assertDoesNotThrow(() -> Double.parseDouble(parts[1]), "Every value should be numeric: " + line);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package src.test.java.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import src.main.java.processSale.controller.Controller;
+import src.main.java.processSale.integration.*;
+import src.main.java.processSale.model.ItemNotFoundException;
+import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.monitoring.events.RegisterEvent;
+import src.main.java.processSale.view.View;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the {@link RegisterEvent} types emitted by the controller.
+ */
+class RegisterEventTest {
+    private Controller controller;
+    private Recording recording;
+    private Path recordingFile;
+
+    /**
+     * Sets up a controller and starts a recording of all sale events before
+     * each test.
+     *
+     * @throws IOException if the recording file cannot be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        controller = new Controller(new Printer(), new Inventory(), new Discount(), new Account(),
+                new RegisterCashCompartment());
+        new View(controller);
+        controller.setRegisterID("lane-7");
+        recordingFile = Files.createTempFile("sale-events", ".jfr");
+        recording = new Recording();
+        for (String event : List.of("SaleStart", "SaleEnd", "ItemRegistration", "Payment", "ReceiptPrint",
+                "ExternalSystemCall")) {
+            recording.enable("processSale." + event).withoutThreshold();
+        }
+        recording.start();
+    }
+
+    /**
+     * Closes the recording and deletes its file after each test.
+     *
+     * @throws IOException if the file cannot be deleted.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        recording.close();
+        Files.deleteIfExists(recordingFile);
+    }
+
+    /**
+     * Tests that a complete sale emits every event type with the register ID.
+     *
+     * @throws Exception if the recording cannot be read.
+     */
+    @Test
+    void testSaleEmitsEvents() throws Exception {
+        controller.startSale();
+        controller.registerItem("1");
+        controller.registerItem("1");
+        assertThrows(ItemNotFoundException.class, () -> controller.registerItem("999"),
+                "Registering a non-existent item should throw an exception.");
+        controller.endSale("customer123");
+        controller.processSale(new BigDecimal(100));
+
+        List<RecordedEvent> events = stopAndRead();
+        assertTrue(events.stream().allMatch(event -> "lane-7".equals(event.getString("registerID"))),
+                "Every event should have the register ID.");
+        assertEquals(1, count(events, "processSale.SaleStart"), "One sale start should be recorded.");
+        assertEquals(1, count(events, "processSale.SaleEnd"), "One sale end should be recorded.");
+        assertEquals(1, count(events, "processSale.Payment"), "One payment should be recorded.");
+        assertEquals(1, count(events, "processSale.ReceiptPrint"), "One receipt print should be recorded.");
+
+        List<RecordedEvent> scans = events.stream()
+                .filter(event -> event.getEventType().getName().equals("processSale.ItemRegistration"))
+                .collect(Collectors.toList());
+        assertEquals(3, scans.size(), "Every scan should be recorded.");
+        assertFalse(scans.get(0).getBoolean("alreadyInSale"), "The first scan should look up the item.");
+        assertTrue(scans.get(1).getBoolean("alreadyInSale"), "The second scan should find the item in the sale.");
+        assertFalse(scans.get(2).getBoolean("catalogHit"), "The missing item should be recorded as a miss.");
+
+        List<String> calls = events.stream()
+                .filter(event -> event.getEventType().getName().equals("processSale.ExternalSystemCall"))
+                .map(event -> event.getString("system") + "." + event.getString("operation"))
+                .collect(Collectors.toList());
+        assertEquals(List.of("Printer.createReceipt", "Inventory.getItem", "Inventory.getItem",
+                "Inventory.updateInventory", "Account.accountSale"), calls,
+                "Every external system call should be recorded in order.");
+    }
+
+    /**
+     * Tests that no events are recorded when recording is disabled.
+     *
+     * @throws Exception if the recording cannot be read.
+     */
+    @Test
+    void testNoEventsWhenDisabled() throws Exception {
+        recording.stop();
+        controller.startSale();
+        controller.registerItem("1");
+        Recording disabled = new Recording();
+        disabled.start();
+        disabled.stop();
+        disabled.dump(recordingFile);
+        disabled.close();
+        assertTrue(RecordingFile.readAllEvents(recordingFile).stream()
+                .noneMatch(event -> event.getEventType().getName().startsWith("processSale.")),
+                "No sale events should be recorded when the events are not enabled.");
+    }
+
+    /**
+     * Stops the recording and reads its events in chronological order.
+     *
+     * @return The recorded sale events.
+     * @throws IOException if the recording cannot be read.
+     */
+    private List<RecordedEvent> stopAndRead() throws IOException {
+        recording.stop();
+        recording.dump(recordingFile);
+        return RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().startsWith("processSale."))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Counts the events of a type.
+     *
+     * @param events The events.
+     * @param name   The name of the event type.
+     * @return The number of events of the type.
+     */
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).count();
+    }
+}
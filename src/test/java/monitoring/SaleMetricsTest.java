@@ -0,0 +1,90 @@
+package src.test.java.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.monitoring.MetricsSnapshot;
+import src.main.java.processSale.monitoring.SaleMetrics;
+import src.main.java.processSale.monitoring.SaleOperation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SaleMetrics} and {@link MetricsSnapshot} classes.
+ */
+class SaleMetricsTest {
+    private SaleMetrics metrics;
+
+    /**
+     * Sets up metrics with a few recorded values before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        metrics = new SaleMetrics();
+        metrics.recordLatency(SaleOperation.REGISTER_ITEM, 2_000);
+        metrics.recordLatency(SaleOperation.REGISTER_ITEM, 4_000);
+        metrics.countSale();
+        metrics.countScan();
+        metrics.countScan();
+        metrics.countMiss();
+        metrics.countConnectionError();
+        metrics.countInsufficientPayment();
+    }
+
+    /**
+     * Tests that the snapshot has the recorded values.
+     */
+    @Test
+    void testSnapshot() {
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getLatency(SaleOperation.REGISTER_ITEM).getCount(),
+                "The snapshot should have both registerItem latencies.");
+        assertEquals(0, snapshot.getLatency(SaleOperation.START_SALE).getCount(),
+                "Operations that were not recorded should be empty.");
+        assertEquals(1, snapshot.getSales(), "The snapshot should have the sales.");
+        assertEquals(2, snapshot.getScans(), "The snapshot should have the scans.");
+        assertEquals(2 / 60.0, snapshot.getScansPerSecond(), 1e-9,
+                "The scan rate should be averaged over the last minute.");
+        assertEquals(1, snapshot.getMisses(), "The snapshot should have the misses.");
+        assertEquals(1, snapshot.getConnectionErrors(), "The snapshot should have the connection errors.");
+        assertEquals(1, snapshot.getInsufficientPayments(), "The snapshot should have the insufficient payments.");
+    }
+
+    /**
+     * Tests that a snapshot does not change when more values are recorded.
+     */
+    @Test
+    void testSnapshotIsImmutable() {
+        MetricsSnapshot snapshot = metrics.snapshot();
+        metrics.countScan();
+        metrics.recordLatency(SaleOperation.REGISTER_ITEM, 1_000);
+        assertEquals(2, snapshot.getScans(), "The snapshot should keep its scan count.");
+        assertEquals(2, snapshot.getLatency(SaleOperation.REGISTER_ITEM).getCount(),
+                "The snapshot should keep its latency count.");
+    }
+
+    /**
+     * Tests the text dump.
+     */
+    @Test
+    void testToText() {
+        String text = metrics.snapshot().toText();
+        assertTrue(text.contains("registerItem  count=2 mean=3.0us"), "The text should list registerItem.");
+        assertTrue(text.contains("sales=1 scans=2 misses=1 connectionErrors=1 insufficientPayments=1"),
+                "The text should list the counters.");
+    }
+
+    /**
+     * Tests the JSON dump.
+     */
+    @Test
+    void testToJson() {
+        String json = metrics.snapshot().toJson();
+        assertTrue(json.startsWith("{\"latencies\":{\"startSale\":{\"count\":0"),
+                "The JSON should start with the startSale latencies.");
+        assertTrue(json.contains("\"registerItem\":{\"count\":2,\"meanNanos\":3000.0,"),
+                "The JSON should have the registerItem latencies.");
+        assertTrue(json.contains("\"maxNanos\":4000}"), "The JSON should have the registerItem maximum.");
+        assertTrue(json.endsWith("\"counters\":{\"sales\":1,\"scans\":2,\"misses\":1,\"connectionErrors\":1,"
+                + "\"insufficientPayments\":1}}"), "The JSON should end with the counters.");
+    }
+}
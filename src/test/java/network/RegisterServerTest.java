@@ -0,0 +1,424 @@
+package src.test.java.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.concurrent.ExecutionMode;
+import src.main.java.processSale.concurrent.ThreadPools;
+import src.main.java.processSale.controller.Controller;
+import src.main.java.processSale.integration.*;
+import src.main.java.processSale.model.RegisterCashCompartment;
+import src.main.java.processSale.network.RegisterClient;
+import src.main.java.processSale.network.RegisterClient.Response;
+import src.main.java.processSale.network.RegisterProtocol;
+import src.main.java.processSale.network.RegisterServer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tests for the {@link RegisterServer} and {@link RegisterClient} classes.
+ */
+class RegisterServerTest {
+    private RegisterServer server;
+    private Inventory inventory;
+    private ExecutorService sessionExecutor;
+
+    /**
+     * Starts a server with two I/O threads on a free port before each test.
+     *
+     * @throws IOException if the server cannot be started.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        inventory = new Inventory();
+        startServer(null);
+    }
+
+    /**
+     * Stops the server and its session executor after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        if (sessionExecutor != null) {
+            sessionExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests a complete sale, including a missing item.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testSale() throws IOException {
+        try (RegisterClient client = connect("lane-1")) {
+            assertTrue(client.startSale().isOk(), "Starting a sale should succeed.");
+            Response scan = client.scan("1");
+            assertTrue(scan.isOk(), "Scanning an existing item should succeed.");
+            assertTrue(scan.getMessage().contains("Total cost"), "The response should describe the added item.");
+            assertEquals(RegisterProtocol.NOT_FOUND, client.scan("999").getStatus(),
+                    "Scanning a missing item should report it as not found.");
+            Response end = client.endSale(null);
+            assertTrue(end.isOk(), "Ending the sale should succeed.");
+            BigDecimal total = new BigDecimal(end.getMessage());
+            Response pay = client.pay(new BigDecimal(100));
+            assertTrue(pay.isOk(), "A sufficient payment should be accepted.");
+            assertEquals(0, new BigDecimal(100).subtract(total).compareTo(new BigDecimal(pay.getMessage())),
+                    "The response should contain the change.");
+        }
+    }
+
+    /**
+     * Tests that an insufficient payment is rejected.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testInsufficientPayment() throws IOException {
+        try (RegisterClient client = connect("lane-1")) {
+            client.startSale();
+            client.scan("5");
+            client.endSale(null);
+            assertEquals(RegisterProtocol.REJECTED, client.pay(BigDecimal.ONE).getStatus(),
+                    "An insufficient payment should be rejected.");
+        }
+    }
+
+    /**
+     * Tests that commands are refused before a sale is started.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testScanWithoutSale() throws IOException {
+        try (RegisterClient client = connect("lane-1")) {
+            Response scan = client.scan("1");
+            assertEquals(RegisterProtocol.ERROR, scan.getStatus(), "Scanning without a sale should fail.");
+            assertEquals("No sale in progress.", scan.getMessage(), "The error should explain why.");
+        }
+    }
+
+    /**
+     * Tests that commands are refused before the client says hello.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testCommandBeforeHello() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            output.writeShort(1);
+            output.writeByte(RegisterProtocol.START);
+            output.flush();
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+            int length = input.readUnsignedShort();
+            assertEquals(RegisterProtocol.ERROR, input.readByte(), "A command before hello should fail.");
+            input.readFully(new byte[length - 1]);
+        }
+    }
+
+    /**
+     * Tests that a second hello on the same connection is refused when the
+     * commands run on a session executor.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testSecondHello() throws IOException {
+        restartServer(ExecutionMode.PLATFORM_POOL);
+        assertSecondHelloRefused();
+    }
+
+    /**
+     * Tests that a second hello on the same connection is refused when the
+     * commands run on the I/O threads.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testSecondHelloOnIoThreads() throws IOException {
+        assertSecondHelloRefused();
+    }
+
+    /**
+     * Tests that a client sending many more commands than may be unanswered,
+     * before reading any response, gets every response in order.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testPipelinedCommands() throws IOException {
+        assertPipelinedCommandsAnswered();
+    }
+
+    /**
+     * Tests that a client sending many more commands than may be unanswered,
+     * before reading any response, gets every response in order when the
+     * commands run on a session executor.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testPipelinedCommandsOnPlatformPool() throws IOException {
+        restartServer(ExecutionMode.PLATFORM_POOL);
+        assertPipelinedCommandsAnswered();
+    }
+
+    /**
+     * Sends hello twice on one connection, and checks that only the first is
+     * accepted.
+     *
+     * @throws IOException if the connection fails.
+     */
+    private void assertSecondHelloRefused() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+            for (String laneID : new String[] { "lane-1", "lane-2" }) {
+                output.writeShort(1 + laneID.length());
+                output.writeByte(RegisterProtocol.HELLO);
+                output.writeBytes(laneID);
+            }
+            output.flush();
+            int length = input.readUnsignedShort();
+            assertEquals(RegisterProtocol.OK, input.readByte(), "The first hello should be accepted.");
+            input.readFully(new byte[length - 1]);
+            length = input.readUnsignedShort();
+            assertEquals(RegisterProtocol.ERROR, input.readByte(), "A second hello should be refused.");
+            input.readFully(new byte[length - 1]);
+        }
+    }
+
+    /**
+     * Tests that scanning an unknown item ID that fills a whole frame is
+     * answered with a shortened message, and that the lane can go on.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testOversizedUnknownID() throws IOException {
+        assertOversizedUnknownIDAnswered();
+    }
+
+    /**
+     * Tests that scanning an unknown item ID that fills a whole frame is
+     * answered with a shortened message when the commands run on a session
+     * executor, and that the lane can go on.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testOversizedUnknownIDOnPlatformPool() throws IOException {
+        restartServer(ExecutionMode.PLATFORM_POOL);
+        assertOversizedUnknownIDAnswered();
+    }
+
+    /**
+     * Scans an unknown item ID of the longest length a frame allows, and
+     * checks the response and that a later scan still succeeds.
+     *
+     * @throws IOException if the connection fails.
+     */
+    private void assertOversizedUnknownIDAnswered() throws IOException {
+        String itemID = "x".repeat(RegisterProtocol.MAX_FRAME_LENGTH - 1);
+        try (RegisterClient client = connect("lane-1")) {
+            client.startSale();
+            Response scan = client.scan(itemID);
+            assertEquals(RegisterProtocol.NOT_FOUND, scan.getStatus(), "The unknown item should not be found.");
+            assertTrue(scan.getMessage().endsWith("..."), "The message quoting the ID should be shortened.");
+            assertTrue(client.scan("1").isOk(), "The lane should go on after the oversized ID.");
+        }
+        try (RegisterClient client = connect("lane-2")) {
+            assertTrue(client.startSale().isOk(), "Other lanes should be unaffected.");
+        }
+    }
+
+    /**
+     * Tests that a lane keeps its sale when its scanner reconnects.
+     *
+     * @throws IOException if the connection fails.
+     */
+    @Test
+    void testReconnectKeepsSale() throws IOException {
+        try (RegisterClient client = connect("lane-1")) {
+            client.startSale();
+            client.scan("2");
+        }
+        try (RegisterClient client = connect("lane-1")) {
+            Response end = client.endSale(null);
+            assertTrue(end.isOk(), "The sale should still be in progress after reconnecting.");
+            assertTrue(new BigDecimal(end.getMessage()).signum() > 0, "The scanned item should be in the sale.");
+        }
+        assertEquals(1, server.getSessionCount(), "The reconnected lane should reuse its session.");
+    }
+
+    /**
+     * Tests that many lanes can run sales at the same time.
+     *
+     * @throws Exception if a lane fails.
+     */
+    @Test
+    void testManyLanes() throws Exception {
+        runLanes(50);
+    }
+
+    /**
+     * Tests that many lanes can run sales at the same time when their commands
+     * run on a pool of platform threads.
+     *
+     * @throws Exception if a lane fails.
+     */
+    @Test
+    void testManyLanesOnPlatformPool() throws Exception {
+        restartServer(ExecutionMode.PLATFORM_POOL);
+        runLanes(50);
+    }
+
+    /**
+     * Tests that many lanes can run sales at the same time when their commands
+     * run on virtual threads. Skipped on JVMs without virtual threads.
+     *
+     * @throws Exception if a lane fails.
+     */
+    @Test
+    void testManyLanesOnVirtualThreads() throws Exception {
+        assumeTrue(ThreadPools.hasVirtualThreads(), "Virtual threads are not available.");
+        restartServer(ExecutionMode.VIRTUAL_THREADS);
+        runLanes(50);
+    }
+
+    /**
+     * Says hello, starts a sale and scans many items without reading the
+     * responses, then checks that every response arrives in order.
+     *
+     * @throws IOException if the connection fails.
+     */
+    private void assertPipelinedCommandsAnswered() throws IOException {
+        int scans = RegisterServer.MAX_UNANSWERED * 20;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+            writeFrame(output, RegisterProtocol.HELLO, "lane-1");
+            writeFrame(output, RegisterProtocol.START, "");
+            for (int i = 0; i < scans; i++) {
+                writeFrame(output, RegisterProtocol.SCAN, Integer.toString(1 + i % 5));
+            }
+            writeFrame(output, RegisterProtocol.SCAN, "999");
+            output.flush();
+            for (int i = 0; i < scans + 2; i++) {
+                int length = input.readUnsignedShort();
+                assertEquals(RegisterProtocol.OK, input.readByte(), "Response " + i + " should be OK.");
+                input.readFully(new byte[length - 1]);
+            }
+            int length = input.readUnsignedShort();
+            assertEquals(RegisterProtocol.NOT_FOUND, input.readByte(), "The last response should come last.");
+            input.readFully(new byte[length - 1]);
+        }
+    }
+
+    /**
+     * Writes one command frame.
+     *
+     * @param output  The stream to write to.
+     * @param code    The command code.
+     * @param payload The command payload, in ASCII.
+     * @throws IOException if the connection fails.
+     */
+    private static void writeFrame(DataOutputStream output, byte code, String payload) throws IOException {
+        output.writeShort(1 + payload.length());
+        output.writeByte(code);
+        output.writeBytes(payload);
+    }
+
+    /**
+     * Runs one sale on each of several lanes concurrently, and checks that
+     * every sale completes.
+     *
+     * @param lanes The number of lanes.
+     * @throws Exception if a lane fails.
+     */
+    private void runLanes(int lanes) throws Exception {
+        ExecutorService scanners = Executors.newFixedThreadPool(lanes);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int lane = 0; lane < lanes; lane++) {
+                String laneID = "lane-" + lane;
+                results.add(scanners.submit(() -> {
+                    try (RegisterClient client = connect(laneID)) {
+                        boolean ok = client.startSale().isOk();
+                        for (int i = 0; i < 10; i++) {
+                            ok &= client.scan(Integer.toString(1 + i % 5)).isOk();
+                        }
+                        ok &= client.endSale(null).isOk();
+                        return ok & client.pay(new BigDecimal(10_000)).isOk();
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "Every lane should complete its sale.");
+            }
+        } finally {
+            scanners.shutdownNow();
+        }
+        assertEquals(lanes, server.getSessionCount(), "Every lane should have its own session.");
+    }
+
+    /**
+     * Replaces the server with one that runs the commands in the specified
+     * execution mode.
+     *
+     * @param mode The execution mode.
+     * @throws IOException if the server cannot be started.
+     */
+    private void restartServer(ExecutionMode mode) throws IOException {
+        server.stop();
+        startServer(mode.newExecutor(4, "test-session"));
+    }
+
+    /**
+     * Starts a server with two I/O threads on a free port.
+     *
+     * @param executor The session executor, or {@code null} to run the
+     *                 commands on the I/O threads.
+     * @throws IOException if the server cannot be started.
+     */
+    private void startServer(ExecutorService executor) throws IOException {
+        Discount discount = new Discount();
+        Account account = new Account();
+        sessionExecutor = executor;
+        server = new RegisterServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, executor,
+                laneID -> {
+                    RegisterCashCompartment cashRegister = new RegisterCashCompartment();
+                    cashRegister.addObserver(sumOfPayments -> {
+                    });
+                    return new Controller(new Printer(), inventory, discount, account, cashRegister);
+                });
+        server.start();
+    }
+
+    /**
+     * Connects a client to the server.
+     *
+     * @param laneID The lane of the client.
+     * @return The connected client.
+     * @throws IOException if the connection fails.
+     */
+    private RegisterClient connect(String laneID) throws IOException {
+        return new RegisterClient(InetAddress.getLoopbackAddress().getHostAddress(), server.getPort(), laneID);
+    }
+}
@@ -0,0 +1,117 @@
+package src.test.java.startup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.main.java.processSale.startup.StartupOrchestrator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for the {@link StartupOrchestrator} class.
+ */
+class StartupOrchestratorTest {
+    private ExecutorService executor;
+    private StartupOrchestrator startup;
+
+    /**
+     * Creates an orchestrator with a thread for each step before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        startup = new StartupOrchestrator(executor);
+    }
+
+    /**
+     * Stops the threads of the orchestrator after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests that started steps run at the same time, by letting each wait
+     * until both have begun.
+     *
+     * @throws Exception if a step fails or the test is interrupted.
+     */
+    @Test
+    void testStepsRunInParallel() throws Exception {
+        CountDownLatch bothBegun = new CountDownLatch(2);
+        CompletableFuture<String> first = startup.start("First", () -> awaitOther(bothBegun, "first"));
+        CompletableFuture<String> second = startup.start("Second", () -> awaitOther(bothBegun, "second"));
+        assertEquals("first", first.get(5, TimeUnit.SECONDS), "The first step should complete.");
+        assertEquals("second", second.get(5, TimeUnit.SECONDS), "The second step should complete.");
+        assertEquals("both", startup.run("Both", () -> "both"), "A step on the calling thread should run.");
+    }
+
+    /**
+     * Tests that deferred steps wait until the register is ready.
+     *
+     * @throws Exception if a step fails or the test is interrupted.
+     */
+    @Test
+    void testDeferredStepsStartWhenReady() throws Exception {
+        AtomicBoolean loaded = new AtomicBoolean();
+        startup.defer("Search index", () -> loaded.set(true));
+        assertEquals(-1, startup.getReadyMillis(), "The register should not be ready yet.");
+        startup.whenDone().get(5, TimeUnit.SECONDS);
+        assertFalse(loaded.get(), "A deferred step should not start before the register is ready.");
+        assertTrue(startup.report().contains("waiting"), "The deferred step should be reported as waiting.");
+
+        assertTrue(startup.ready() >= 0, "The time until ready should be recorded.");
+        startup.whenDone().get(5, TimeUnit.SECONDS);
+        assertTrue(loaded.get(), "A deferred step should start once the register is ready.");
+    }
+
+    /**
+     * Tests that the report shows each step, its timing and whether it
+     * failed.
+     *
+     * @throws Exception if the test is interrupted.
+     */
+    @Test
+    void testReport() throws Exception {
+        startup.start("Inventory", () -> "catalog").get(5, TimeUnit.SECONDS);
+        CompletableFuture<Object> broken = startup.start("Printer", () -> {
+            throw new IllegalStateException("No paper.");
+        });
+        startup.whenDone().get(5, TimeUnit.SECONDS);
+        assertTrue(broken.isCompletedExceptionally(), "A failed step should fail its future.");
+        startup.ready();
+
+        String report = startup.report();
+        assertTrue(report.contains("ready to scan in"), "The time until ready should be reported.");
+        assertTrue(report.matches("(?s).*Inventory\\s+\\+\\s*\\d+ ms\\s+\\d+ ms.*"),
+                "The start and duration of each step should be reported, but got:\n" + report);
+        assertTrue(report.matches("(?s).*Printer.*failed.*"), "A failed step should be reported.");
+    }
+
+    /**
+     * Waits until another step has begun too.
+     *
+     * @param bothBegun Counted down by each step.
+     * @param result    The result of the step.
+     * @return The result.
+     */
+    private static String awaitOther(CountDownLatch bothBegun, String result) {
+        bothBegun.countDown();
+        try {
+            if (!bothBegun.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("The other step did not begin.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}